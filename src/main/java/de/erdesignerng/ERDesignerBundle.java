@@ -915,4 +915,25 @@ public interface ERDesignerBundle {
 	/** \u0045\u0064\u0069\u0074\u0020\u0043\u006f\u006d\u006d\u0065\u006e\u0074. */
 	String EDITCOMMENT = "EDITCOMMENT";
 
+	/** \u0050\u0061\u0072\u0061\u006c\u006c\u0065\u006c\u0020\u0063\u006f\u006e\u006e\u0065\u0063\u0074\u0069\u006f\u006e\u0073\u0020\u0066\u006f\u0072\u0020\u0072\u0065\u0076\u0065\u0072\u0073\u0065\u0020\u0065\u006e\u0067\u0069\u006e\u0065\u0065\u0072\u0069\u006e\u0067. */
+	String REVERSEENGINEERINGWORKERCOUNT = "REVERSEENGINEERINGWORKERCOUNT";
+
+	/** \u0052\u0065\u0061\u0064\u0069\u006e\u0067\u0020\u006d\u0065\u0074\u0061\u0020\u0064\u0061\u0074\u0061\u0020\u006f\u0066\u0020\u0073\u0063\u0068\u0065\u006d\u0061\u0020\u007b\u0030\u007d. */
+	String ENGINEERINGSCHEMA = "ENGINEERINGSCHEMA";
+
+	/** \u0053\u0074\u0061\u0074\u0065\u006d\u0065\u006e\u0074\u0073\u0020\u0070\u0065\u0072\u0020\u0062\u0061\u0074\u0063\u0068\u0020\u0077\u0068\u0065\u006e\u0020\u0065\u0078\u0065\u0063\u0075\u0074\u0069\u006e\u0067\u0020\u0073\u0063\u0072\u0069\u0070\u0074\u0073. */
+	String SCRIPTBATCHSIZE = "SCRIPTBATCHSIZE";
+
+	/** \u0054\u0072\u0061\u006e\u0073\u0061\u0063\u0074\u0069\u006f\u006e\u0020\u006d\u006f\u0064\u0065\u0020\u0066\u006f\u0072\u0020\u0073\u0063\u0072\u0069\u0070\u0074\u0073\u0020\u0077\u0069\u0074\u0068\u0020\u0074\u0072\u0061\u006e\u0073\u0061\u0063\u0074\u0069\u006f\u006e\u0061\u006c\u0020\u0044\u0044\u004c. */
+	String SCRIPTTRANSACTIONMODE = "SCRIPTTRANSACTIONMODE";
+
+	/** \u007b\u0030\u007d\u0020\u006f\u0066\u0020\u007b\u0031\u007d\u0020\u0073\u0074\u0061\u0074\u0065\u006d\u0065\u006e\u0074\u0073\u0020\u0065\u0078\u0065\u0063\u0075\u0074\u0065\u0064\u0020\u0069\u006e\u0020\u007b\u0032\u007d\u0020\u006d\u0073. */
+	String STATEMENTSEXECUTED = "STATEMENTSEXECUTED";
+
+	/** \u0045\u0078\u0065\u0063\u0075\u0074\u0065\u0064\u0020\u0069\u006e\u0020\u007b\u0030\u007d\u0020\u006d\u0073. */
+	String STATEMENTEXECUTIONTIME = "STATEMENTEXECUTIONTIME";
+
+	/** \u0051\u0075\u0065\u0072\u0079\u0020\u0074\u0069\u006d\u0065\u006f\u0075\u0074\u0020\u006f\u0066\u0020\u0074\u0068\u0065\u0020\u0064\u0061\u0074\u0061\u0020\u0062\u0072\u006f\u0077\u0073\u0065\u0072\u0020\u0069\u006e\u0020\u0073\u0065\u0063\u006f\u006e\u0064\u0073. */
+	String DATABROWSERQUERYTIMEOUT = "DATABROWSERQUERYTIMEOUT";
+
 }
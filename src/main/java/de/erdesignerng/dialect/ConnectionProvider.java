@@ -42,6 +42,16 @@ public interface ConnectionProvider {
 	 */
 	boolean generatesManagedConnection();
 
+	/**
+	 * Test if DDL statements executed on the created connection can be rolled
+	 * back.
+	 * 
+	 * @return true if DDL is transactional, false by default
+	 */
+	default boolean supportsTransactionalDDL() {
+		return false;
+	}
+
 	/**
 	 * Get the script statement separator.
 	 * 
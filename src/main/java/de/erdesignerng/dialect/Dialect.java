@@ -62,6 +62,8 @@ public abstract class Dialect {
 
 	private boolean supportsSchemaInformation = true;
 
+	private boolean supportsTransactionalDDL = false;
+
 	private NameCastType castType;
 
 	private final DataTypeList dataTypes = new DataTypeList();
@@ -373,6 +375,20 @@ public abstract class Dialect {
 		this.supportsSchemaInformation = supportsSchemaInformation;
 	}
 
+	/**
+	 * Test if DDL statements can be rolled back, so a script can be executed
+	 * in a transaction.
+	 *
+	 * @return true if DDL is transactional
+	 */
+	public boolean isSupportsTransactionalDDL() {
+		return supportsTransactionalDDL;
+	}
+
+	public void setSupportsTransactionalDDL(boolean supportsTransactionalDDL) {
+		this.supportsTransactionalDDL = supportsTransactionalDDL;
+	}
+
 	public List<String> getSystemSchemas() {
 		if (supportsSchemaInformation) {
 			return systemSchemas;
@@ -31,10 +31,18 @@ public class GenericConnectionProvider implements ConnectionProvider {
 
 	private final String statementSeparator;
 
+	private final boolean transactionalDDL;
+
 	public GenericConnectionProvider(Connection aConnection,
 			String aStatementSeparator) {
+		this(aConnection, aStatementSeparator, false);
+	}
+
+	public GenericConnectionProvider(Connection aConnection,
+			String aStatementSeparator, boolean aTransactionalDDL) {
 		connection = aConnection;
 		statementSeparator = aStatementSeparator;
+		transactionalDDL = aTransactionalDDL;
 	}
 
 	public Connection createConnection() throws Exception {
@@ -48,4 +56,8 @@ public class GenericConnectionProvider implements ConnectionProvider {
 	public boolean generatesManagedConnection() {
 		return true;
 	}
+
+	public boolean supportsTransactionalDDL() {
+		return transactionalDDL;
+	}
 }
\ No newline at end of file
@@ -54,6 +54,11 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 /**
  * @param <T> the dialect
@@ -63,6 +68,12 @@ import java.util.Set;
 public abstract class JDBCReverseEngineeringStrategy<T extends Dialect> {
 
 	private static final Logger LOGGER = Logger.getLogger(JDBCReverseEngineeringStrategy.class);
+
+	/**
+	 * The minimum share of selected tables of a schema to read the meta data of the whole schema at once.
+	 */
+	protected static final double SCHEMA_METADATA_MIN_SELECTED_SHARE = 0.1;
+
 	protected final T dialect;
 
 	protected JDBCReverseEngineeringStrategy(T aDialect) {
@@ -203,7 +214,36 @@ public abstract class JDBCReverseEngineeringStrategy<T extends Dialect> {
 	 * @throws ReverseEngineeringException is thrown in case of an error
 	 */
 	protected final  Map<String, ModelProperties> reverseEngineerTable(Model aModel, ReverseEngineeringOptions aOptions, ReverseEngineeringNotifier aNotifier, TableEntry aTableEntry, Connection aConnection) throws SQLException, ReverseEngineeringException {
+		return reverseEngineerTable(aModel, aModel.getAvailableDataTypes(), aOptions, aNotifier, aTableEntry, aConnection, null);
+	}
+
+	private Map<String, ModelProperties> reverseEngineerTable(Model aModel, DataTypeList aDataTypes, ReverseEngineeringOptions aOptions, ReverseEngineeringNotifier aNotifier, TableEntry aTableEntry, Connection aConnection, SchemaMetaData aSchemaMetaData) throws SQLException, ReverseEngineeringException {
 		Map<String, ModelProperties> theExistingModelItemProperties = null;
+		for (Table theNewTable : readTables(aModel, aDataTypes, aOptions, aNotifier, aTableEntry, aConnection, aSchemaMetaData)) {
+			theExistingModelItemProperties = addTableToModel(aModel, theNewTable, theExistingModelItemProperties);
+		}
+		return theExistingModelItemProperties;
+	}
+
+	/**
+	 * Read the structure of a table from the database without modifying the model.
+	 * <p/>
+	 * This method is invoked by the parallel reverse engineering workers, so it
+	 * must only read from the model.
+	 *
+	 * @param aModel	  the model
+	 * @param aDataTypes  the available data types of the model
+	 * @param aOptions	  the options
+	 * @param aNotifier   the notifier
+	 * @param aTableEntry the table
+	 * @param aConnection the connection
+	 * @param aSchemaMetaData the meta data of the schema of the table, may be null
+	 * @return the tables found for the entry
+	 * @throws SQLException	is thrown in case of an error
+	 * @throws ReverseEngineeringException is thrown in case of an error
+	 */
+	private List<Table> readTables(Model aModel, DataTypeList aDataTypes, ReverseEngineeringOptions aOptions, ReverseEngineeringNotifier aNotifier, TableEntry aTableEntry, Connection aConnection, SchemaMetaData aSchemaMetaData) throws SQLException, ReverseEngineeringException {
+		List<Table> theResult = new ArrayList<>();
 		aNotifier.notifyMessage(ERDesignerBundle.ENGINEERINGTABLE, aTableEntry.getTableName());
 
 		DatabaseMetaData theMetaData = aConnection.getMetaData();
@@ -211,11 +251,17 @@ public abstract class JDBCReverseEngineeringStrategy<T extends Dialect> {
 		String theTablePattern = getEscapedPattern(theMetaData, aTableEntry.getTableName());
 		String theSchemaPattern = getEscapedPattern(theMetaData, aTableEntry.getSchemaName());
 
-		ResultSet theTablesResultSet = theMetaData.getTables(aTableEntry.getCatalogName(), theSchemaPattern, theTablePattern, new String[]{aTableEntry.getTableType().toString()});
+		List<MetaDataRow> theTableRows = null;
+		if (aSchemaMetaData != null) {
+			theTableRows = aSchemaMetaData.getTables(aTableEntry.getTableName());
+		}
+		if (theTableRows == null) {
+			theTableRows = MetaDataRow.readAll(theMetaData.getTables(aTableEntry.getCatalogName(), theSchemaPattern, theTablePattern, new String[]{aTableEntry.getTableType().toString()}));
+		}
 
-		while (theTablesResultSet.next()) {
+		for (MetaDataRow theTableRow : theTableRows) {
 
-			String theTableRemarks = theTablesResultSet.getString("REMARKS");
+			String theTableRemarks = theTableRow.getString("REMARKS");
 
 			Table theNewTable = new Table();
 
@@ -233,8 +279,14 @@ public abstract class JDBCReverseEngineeringStrategy<T extends Dialect> {
 			}
 
 			// Reverse engineer attributes
-			ResultSet theColumnsResultSet = theMetaData.getColumns(aTableEntry.getCatalogName(), theSchemaPattern, theTablePattern, null);
-			while (theColumnsResultSet.next()) {
+			List<MetaDataRow> theColumnRows = null;
+			if (aSchemaMetaData != null) {
+				theColumnRows = aSchemaMetaData.getColumns(aTableEntry.getTableName());
+			}
+			if (theColumnRows == null) {
+				theColumnRows = MetaDataRow.readAll(theMetaData.getColumns(aTableEntry.getCatalogName(), theSchemaPattern, theTablePattern, null));
+			}
+			for (MetaDataRow theColumnRow : theColumnRows) {
 
 				String theColumnName = null;
 				String theTypeName = null;
@@ -246,37 +298,37 @@ public abstract class JDBCReverseEngineeringStrategy<T extends Dialect> {
 				String theColumnRemarks = null;
 
 				try {
-					theColumnName = theColumnsResultSet.getString("COLUMN_NAME");
+					theColumnName = theColumnRow.getString("COLUMN_NAME");
 				} catch (SQLException e) {
 				}
 
 				try {
-					theTypeName = theColumnsResultSet.getString("TYPE_NAME");
+					theTypeName = theColumnRow.getString("TYPE_NAME");
 				} catch (SQLException e) {
 				}
 
 				try {
-					theSize = theColumnsResultSet.getInt("COLUMN_SIZE");
+					theSize = theColumnRow.getInt("COLUMN_SIZE");
 				} catch (SQLException e) {
 				}
 
 				try {
-					theFraction = theColumnsResultSet.getInt("DECIMAL_DIGITS");
+					theFraction = theColumnRow.getInt("DECIMAL_DIGITS");
 				} catch (SQLException e) {
 				}
 
 				try {
-					theRadix = theColumnsResultSet.getInt("NUM_PREC_RADIX");
+					theRadix = theColumnRow.getInt("NUM_PREC_RADIX");
 				} catch (SQLException e) {
 				}
 
 				try {
-					theNullable = theColumnsResultSet.getInt("NULLABLE");
+					theNullable = theColumnRow.getInt("NULLABLE");
 				} catch (SQLException e) {
 				}
 
 				try {
-					theDefaultValue = theColumnsResultSet.getString("COLUMN_DEF");
+					theDefaultValue = theColumnRow.getString("COLUMN_DEF");
 					if (!StringUtils.isEmpty(theDefaultValue)) {
 						theDefaultValue = theDefaultValue.trim();
 					}
@@ -284,7 +336,7 @@ public abstract class JDBCReverseEngineeringStrategy<T extends Dialect> {
 				}
 
 				try {
-					theColumnRemarks = theColumnsResultSet.getString("REMARKS");
+					theColumnRemarks = theColumnRow.getString("REMARKS");
 				} catch (SQLException e) {
 				}
 
@@ -296,7 +348,7 @@ public abstract class JDBCReverseEngineeringStrategy<T extends Dialect> {
 				}
 
 				// Search for the datatype in the domains, the dialect specific and the user defined datatypes
-				DataType theDataType = aModel.getAvailableDataTypes().findByName(dialect.convertTypeNameToRealTypeName(theTypeName));
+				DataType theDataType = aDataTypes.findByName(dialect.convertTypeNameToRealTypeName(theTypeName));
 
 				if (theDataType == null) {
 					throw new ReverseEngineeringException("Unknown data type " + theTypeName + " for " + aTableEntry.getTableName() + "." + theColumnName);
@@ -330,66 +382,97 @@ public abstract class JDBCReverseEngineeringStrategy<T extends Dialect> {
 					throw new ReverseEngineeringException(e.getMessage(), e);
 				}
 			}
-			theColumnsResultSet.close();
 
 			// Reverse engineer primary keys
-			reverseEngineerPrimaryKey(aModel, aTableEntry, theMetaData, theNewTable);
+			List<MetaDataRow> thePrimaryKeyRows = null;
+			if (aSchemaMetaData != null) {
+				thePrimaryKeyRows = aSchemaMetaData.getPrimaryKeys(aTableEntry.getTableName());
+			}
+			if (thePrimaryKeyRows != null) {
+				reverseEngineerPrimaryKey(aModel, aTableEntry, thePrimaryKeyRows, theNewTable);
+			} else {
+				reverseEngineerPrimaryKey(aModel, aTableEntry, theMetaData, theNewTable);
+			}
 
 			// Reverse engineer indexes
 			try {
-				reverseEngineerIndexes(aModel, aTableEntry, theMetaData, theNewTable, aNotifier);
+				List<MetaDataRow> theIndexRows = null;
+				if (aSchemaMetaData != null) {
+					theIndexRows = aSchemaMetaData.getIndexes(aTableEntry.getTableName());
+				}
+				if (theIndexRows != null) {
+					reverseEngineerIndexes(aModel, aTableEntry, theMetaData, theIndexRows, theNewTable, aNotifier);
+				} else {
+					reverseEngineerIndexes(aModel, aTableEntry, theMetaData, theNewTable, aNotifier);
+				}
 			} catch (SQLException e) {
 				// if there is an sql exception, just ignore it
 			}
 
-			// We are done here
-			try {
-				aModel.addTable(theNewTable);
-			} catch (ElementAlreadyExistsException e1) {
-				//this manages the reverse engineering into an existing model and cares only about the table names of the model that conflict with the new table names from the connection
-				//TODO: also care about tables that are no longer part of the connection, but still exist in the local model. E.g. show a dialog and ask the user what to do (delete/keep)
-				try {
-					//buffer the properties (e.g. position in model) of the existing table and its relations (e.g. the offset of the title) that are going to be replaced
-					Table theExistingTable = aModel.getTables().findByName(theNewTable.getName());
-					RelationList theExistingRelations = aModel.getRelations().getAllRelataionsOf(theExistingTable);
+			theResult.add(theNewTable);
+		}
 
-					if (theExistingModelItemProperties == null) {
-						theExistingModelItemProperties = new HashMap<>();
-					}
+		return theResult;
+	}
 
-					//store former layouting data for the table and its relations in the old graph
-					theExistingModelItemProperties.put(theExistingTable.getName(), theExistingTable.getProperties());
-					for (Relation anExistingRelation : theExistingRelations) {
-						theExistingModelItemProperties.put(anExistingRelation.getName(), anExistingRelation.getProperties());
-					}
+	/**
+	 * Add a reverse engineered table to the model, replacing an existing table with the same name.
+	 *
+	 * @param aModel the model
+	 * @param aNewTable the new table
+	 * @param aExistingModelItemProperties the properties of already replaced model items, may be null
+	 * @return the properties of replaced model items
+	 * @throws ReverseEngineeringException is thrown in case of an error
+	 */
+	private Map<String, ModelProperties> addTableToModel(Model aModel, Table aNewTable, Map<String, ModelProperties> aExistingModelItemProperties) throws ReverseEngineeringException {
+		Map<String, ModelProperties> theExistingModelItemProperties = aExistingModelItemProperties;
+		try {
+			aModel.addTable(aNewTable);
+		} catch (ElementAlreadyExistsException e1) {
+			//this manages the reverse engineering into an existing model and cares only about the table names of the model that conflict with the new table names from the connection
+			//TODO: also care about tables that are no longer part of the connection, but still exist in the local model. E.g. show a dialog and ask the user what to do (delete/keep)
+			try {
+				//buffer the properties (e.g. position in model) of the existing table and its relations (e.g. the offset of the title) that are going to be replaced
+				Table theExistingTable = aModel.getTables().findByName(aNewTable.getName());
+				RelationList theExistingRelations = aModel.getRelations().getAllRelataionsOf(theExistingTable);
 
-					//remove old table and its relations
-					aModel.removeTable(theExistingTable);
+				if (theExistingModelItemProperties == null) {
+					theExistingModelItemProperties = new HashMap<>();
+				}
 
-					//add the new table without relations
-					aModel.addTable(theNewTable);
-				} catch (ElementAlreadyExistsException | ElementInvalidNameException | VetoException e2) {
-					throw new ReverseEngineeringException(e2.getMessage());
+				//store former layouting data for the table and its relations in the old graph
+				theExistingModelItemProperties.put(theExistingTable.getName(), theExistingTable.getProperties());
+				for (Relation anExistingRelation : theExistingRelations) {
+					theExistingModelItemProperties.put(anExistingRelation.getName(), anExistingRelation.getProperties());
 				}
-			} catch (ElementInvalidNameException | VetoException e3) {
-				 throw new ReverseEngineeringException(e3.getMessage());
+
+				//remove old table and its relations
+				aModel.removeTable(theExistingTable);
+
+				//add the new table without relations
+				aModel.addTable(aNewTable);
+			} catch (ElementAlreadyExistsException | ElementInvalidNameException | VetoException e2) {
+				throw new ReverseEngineeringException(e2.getMessage());
 			}
+		} catch (ElementInvalidNameException | VetoException e3) {
+			 throw new ReverseEngineeringException(e3.getMessage());
 		}
 
-		theTablesResultSet.close();
-
 		return theExistingModelItemProperties;
 	}
 
 	protected void reverseEngineerPrimaryKey(Model aModel, TableEntry aTableEntry, DatabaseMetaData aMetaData, Table aTable) throws SQLException, ReverseEngineeringException {
+		reverseEngineerPrimaryKey(aModel, aTableEntry, MetaDataRow.readAll(aMetaData.getPrimaryKeys(aTableEntry.getCatalogName(), aTableEntry.getSchemaName(), aTableEntry.getTableName())), aTable);
+	}
+
+	private void reverseEngineerPrimaryKey(Model aModel, TableEntry aTableEntry, List<MetaDataRow> aPrimaryKeyRows, Table aTable) throws SQLException, ReverseEngineeringException {
 
-		ResultSet thePrimaryKeyResultSet = aMetaData.getPrimaryKeys(aTableEntry.getCatalogName(), aTableEntry.getSchemaName(), aTableEntry.getTableName());
 		Index thePrimaryKeyIndex = null;
 
-		while (thePrimaryKeyResultSet.next()) {
+		for (MetaDataRow thePrimaryKeyRow : aPrimaryKeyRows) {
 
-			String thePKName = thePrimaryKeyResultSet.getString("PK_NAME");
-			String theColumnName = thePrimaryKeyResultSet.getString("COLUMN_NAME");
+			String thePKName = thePrimaryKeyRow.getString("PK_NAME");
+			String theColumnName = thePrimaryKeyRow.getString("COLUMN_NAME");
 
 			if (thePrimaryKeyIndex == null) {
 				thePrimaryKeyIndex = new Index();
@@ -420,8 +503,6 @@ public abstract class JDBCReverseEngineeringStrategy<T extends Dialect> {
 			}
 
 		}
-
-		thePrimaryKeyResultSet.close();
 	}
 
 	protected String convertIndexNameFor(Table aTable, String aIndexName) {
@@ -429,13 +510,16 @@ public abstract class JDBCReverseEngineeringStrategy<T extends Dialect> {
 	}
 
 	protected void reverseEngineerIndexes(Model aModel, TableEntry aTableEntry, DatabaseMetaData aMetaData, Table aTable, ReverseEngineeringNotifier aNotifier) throws SQLException, ReverseEngineeringException {
+		reverseEngineerIndexes(aModel, aTableEntry, aMetaData, MetaDataRow.readAll(aMetaData.getIndexInfo(aTableEntry.getCatalogName(), aTableEntry.getSchemaName(), aTableEntry.getTableName(), false, true)), aTable, aNotifier);
+	}
+
+	private void reverseEngineerIndexes(Model aModel, TableEntry aTableEntry, DatabaseMetaData aMetaData, List<MetaDataRow> aIndexRows, Table aTable, ReverseEngineeringNotifier aNotifier) throws SQLException, ReverseEngineeringException {
 
-		ResultSet theIndexResults = aMetaData.getIndexInfo(aTableEntry.getCatalogName(), aTableEntry.getSchemaName(), aTableEntry.getTableName(), false, true);
 		Index theIndex = null;
 
-		while (theIndexResults.next()) {
+		for (MetaDataRow theIndexRow : aIndexRows) {
 
-			String theIndexName = convertIndexNameFor(aTable, theIndexResults.getString("INDEX_NAME"));
+			String theIndexName = convertIndexNameFor(aTable, theIndexRow.getString("INDEX_NAME"));
 
 			if ((theIndexName != null) && ((theIndex == null) || (!theIndex.getOriginalName().equals(theIndexName)))) {
 
@@ -447,7 +531,7 @@ public abstract class JDBCReverseEngineeringStrategy<T extends Dialect> {
 					theIndex.setName(theNewIndexName);
 					theIndex.setOriginalName(theIndexName);
 
-					boolean isNonUnique = theIndexResults.getBoolean("NON_UNIQUE");
+					boolean isNonUnique = theIndexRow.getBoolean("NON_UNIQUE");
 					if (isNonUnique) {
 						theIndex.setIndexType(IndexType.NONUNIQUE);
 					} else {
@@ -467,17 +551,15 @@ public abstract class JDBCReverseEngineeringStrategy<T extends Dialect> {
 			}
 
 			if (theIndex != null) {
-				short aPosition = theIndexResults.getShort("ORDINAL_POSITION");
+				short aPosition = theIndexRow.getShort("ORDINAL_POSITION");
 
-				String theColumnName = theIndexResults.getString("COLUMN_NAME");
-				String theASCorDESC = theIndexResults.getString("ASC_OR_DESC");
+				String theColumnName = theIndexRow.getString("COLUMN_NAME");
+				String theASCorDESC = theIndexRow.getString("ASC_OR_DESC");
 
 				reverseEngineerIndexAttribute(aMetaData, aTableEntry, aTable, aNotifier, theIndex, theColumnName, aPosition, theASCorDESC);
 			}
 		}
 
-		theIndexResults.close();
-
 		// Remove duplicate unique indexes
 		Index thePrimaryKey = aTable.getPrimarykey();
 		if (thePrimaryKey != null) {
@@ -548,6 +630,16 @@ public abstract class JDBCReverseEngineeringStrategy<T extends Dialect> {
 			theCatalogName = aTableEntry.getCatalogName();
 		}
 
+		reverseEngineerRelations(aModel, aOptions, aNotifier, aTableEntry, MetaDataRow.readAll(theMetaData.getImportedKeys(theCatalogName, theSchemaName, aTableEntry.getTableName())));
+	}
+
+	private void reverseEngineerRelations(Model aModel, ReverseEngineeringOptions aOptions, ReverseEngineeringNotifier aNotifier, TableEntry aTableEntry, List<MetaDataRow> aImportedKeyRows) throws SQLException, ReverseEngineeringException {
+
+		String theSchemaName = null;
+		if (aTableEntry != null) {
+			theSchemaName = aTableEntry.getSchemaName();
+		}
+
 		int theSysCounter = 0;
 
 		List<Relation> theNewRelations = new ArrayList<>();
@@ -577,20 +669,19 @@ public abstract class JDBCReverseEngineeringStrategy<T extends Dialect> {
 
 		// Foreign keys
 		Relation theNewRelation = null;
-		ResultSet theForeignKeys = theMetaData.getImportedKeys(theCatalogName, theSchemaName, aTableEntry.getTableName());
 
-		while (theForeignKeys.next()) {
-			String theFKName = theForeignKeys.getString("FK_NAME");
+		for (MetaDataRow theForeignKeyRow : aImportedKeyRows) {
+			String theFKName = theForeignKeyRow.getString("FK_NAME");
 
 			if ((theNewRelation == null) || (!theFKName.equals(theOldFKName))) {
 
 				theOldFKName = theFKName;
 
-				String thePKTableName = theForeignKeys.getString("PKTABLE_NAME");
-				String thePKTableSchema = theForeignKeys.getString("PKTABLE_SCHEM");
+				String thePKTableName = theForeignKeyRow.getString("PKTABLE_NAME");
+				String thePKTableSchema = theForeignKeyRow.getString("PKTABLE_SCHEM");
 
-				String theUpdateRule = theForeignKeys.getString("UPDATE_RULE");
-				String theDeleteRule = theForeignKeys.getString("DELETE_RULE");
+				String theUpdateRule = theForeignKeyRow.getString("UPDATE_RULE");
+				String theDeleteRule = theForeignKeyRow.getString("DELETE_RULE");
 
 				Table theExportingTable;
 				switch (aOptions.getTableNaming()) {
@@ -655,8 +746,8 @@ public abstract class JDBCReverseEngineeringStrategy<T extends Dialect> {
 			}
 
 			if ((theNewRelation != null) && (theNewRelation.getImportingTable() != null) && (theNewRelation.getExportingTable() != null)) {
-				String thePKColumnName = dialect.getCastType().cast(theForeignKeys.getString("PKCOLUMN_NAME"));
-				String theFKColumnName = dialect.getCastType().cast(theForeignKeys.getString("FKCOLUMN_NAME"));
+				String thePKColumnName = dialect.getCastType().cast(theForeignKeyRow.getString("PKCOLUMN_NAME"));
+				String theFKColumnName = dialect.getCastType().cast(theForeignKeyRow.getString("FKCOLUMN_NAME"));
 
 				Attribute<Table> theExportingAttribute = theNewRelation.getExportingTable().getAttributes().findByName(dialect.getCastType().cast(thePKColumnName));
 				if (theExportingAttribute == null) {
@@ -682,8 +773,6 @@ public abstract class JDBCReverseEngineeringStrategy<T extends Dialect> {
 			}
 		}
 
-		theForeignKeys.close();
-
 		try {
 			for (Relation theRelation : theNewRelations) {
 				try {
@@ -728,6 +817,26 @@ public abstract class JDBCReverseEngineeringStrategy<T extends Dialect> {
 	}
 
 	public void updateModelFromConnection(Model aModel, ERDesignerWorldConnector aConnector, Connection aConnection, ReverseEngineeringOptions aOptions, ReverseEngineeringNotifier aNotifier) throws SQLException, ReverseEngineeringException {
+		updateModelFromConnection(aModel, aConnector, aConnection, null, aOptions, aNotifier);
+	}
+
+	/**
+	 * Update the model from a database connection.
+	 * <p/>
+	 * If the options define more than one worker and a provider for worker connections is given,
+	 * the tables are read in parallel, each worker using its own connection. The model is only
+	 * modified by the calling thread, and relations are resolved after all tables were added.
+	 *
+	 * @param aModel the model
+	 * @param aConnector the world connector
+	 * @param aConnection the connection
+	 * @param aWorkerConnectionProvider the provider for worker connections, may be null
+	 * @param aOptions the options
+	 * @param aNotifier the notifier
+	 * @throws SQLException is thrown in case of an error
+	 * @throws ReverseEngineeringException is thrown in case of an error
+	 */
+	public void updateModelFromConnection(Model aModel, ERDesignerWorldConnector aConnector, Connection aConnection, ConnectionProvider aWorkerConnectionProvider, ReverseEngineeringOptions aOptions, ReverseEngineeringNotifier aNotifier) throws SQLException, ReverseEngineeringException {
 		Map<String, ModelProperties> theGlobalPreviousModelItemProperties =  new HashMap<>();
 		Exception theUDTError = null;
 
@@ -743,13 +852,37 @@ public abstract class JDBCReverseEngineeringStrategy<T extends Dialect> {
 			reverseEngineerDomains(aModel, aOptions, aNotifier, aConnection);
 		}
 
-		for (TableEntry theTable : aOptions.getTableEntries()) {
-			if (TableType.VIEW.equals(theTable.getTableType())) {
-				reverseEngineerView(aModel, aOptions, aNotifier, theTable, aConnection);
-			} else {
-				Map<String, ModelProperties> theLocalPreviousModelItemProperties = reverseEngineerTable(aModel, aOptions, aNotifier, theTable, aConnection);
-				if (theLocalPreviousModelItemProperties != null) {
-					theGlobalPreviousModelItemProperties.putAll(theLocalPreviousModelItemProperties);
+		Map<String, SchemaMetaData> theSchemaMetaData = new HashMap<>();
+		if (isSupportsSchemaMetaData()) {
+			Map<String, Integer> theSelectedTableCount = new HashMap<>();
+			for (TableEntry theTable : aOptions.getTableEntries()) {
+				if (!TableType.VIEW.equals(theTable.getTableType())) {
+					theSelectedTableCount.merge(schemaKeyFor(theTable), 1, Integer::sum);
+				}
+			}
+			for (TableEntry theTable : aOptions.getTableEntries()) {
+				String theKey = schemaKeyFor(theTable);
+				if (!TableType.VIEW.equals(theTable.getTableType()) && !theSchemaMetaData.containsKey(theKey)) {
+					aNotifier.notifyMessage(ERDesignerBundle.ENGINEERINGSCHEMA, theTable.getSchemaName());
+					// A null value means the tables of this schema are read per table
+					theSchemaMetaData.put(theKey, readSchemaMetaData(aConnection, theTable.getCatalogName(), theTable.getSchemaName(), theSelectedTableCount.get(theKey)));
+				}
+			}
+		}
+
+		if (aOptions.getWorkerCount() > 1 && aWorkerConnectionProvider != null && !aWorkerConnectionProvider.generatesManagedConnection()) {
+			reverseEngineerTablesInParallel(aModel, aConnection, aWorkerConnectionProvider, aOptions, aNotifier, theSchemaMetaData, theGlobalPreviousModelItemProperties);
+		} else {
+			DataTypeList theDataTypes = aModel.getAvailableDataTypes();
+			for (TableEntry theTable : aOptions.getTableEntries()) {
+				if (TableType.VIEW.equals(theTable.getTableType())) {
+					reverseEngineerView(aModel, aOptions, aNotifier, theTable, aConnection);
+				} else {
+					SchemaMetaData theTableSchemaMetaData = theSchemaMetaData.get(schemaKeyFor(theTable));
+					Map<String, ModelProperties> theLocalPreviousModelItemProperties = reverseEngineerTable(aModel, theDataTypes, aOptions, aNotifier, theTable, aConnection, theTableSchemaMetaData);
+					if (theLocalPreviousModelItemProperties != null) {
+						theGlobalPreviousModelItemProperties.putAll(theLocalPreviousModelItemProperties);
+					}
 				}
 			}
 		}
@@ -757,7 +890,16 @@ public abstract class JDBCReverseEngineeringStrategy<T extends Dialect> {
 		for (TableEntry theTableEntry : aOptions.getTableEntries()) {
 			// Reverse engineer only relations for tables, not for views!
 			if (TableType.TABLE.equals(theTableEntry.getTableType())) {
-				reverseEngineerRelations(aModel, aOptions, aNotifier, theTableEntry, aConnection);
+				SchemaMetaData theTableSchemaMetaData = theSchemaMetaData.get(schemaKeyFor(theTableEntry));
+				List<MetaDataRow> theImportedKeyRows = null;
+				if (theTableSchemaMetaData != null) {
+					theImportedKeyRows = theTableSchemaMetaData.getImportedKeys(theTableEntry.getTableName());
+				}
+				if (theImportedKeyRows != null) {
+					reverseEngineerRelations(aModel, aOptions, aNotifier, theTableEntry, theImportedKeyRows);
+				} else {
+					reverseEngineerRelations(aModel, aOptions, aNotifier, theTableEntry, aConnection);
+				}
 			}
 		}
 
@@ -784,6 +926,207 @@ public abstract class JDBCReverseEngineeringStrategy<T extends Dialect> {
 		}
 	}
 
+	/**
+	 * Reverse engineer the tables using a pool of worker connections.
+	 * <p/>
+	 * The workers only read the table structures. The tables are added to the model
+	 * by the calling thread in the order of the table entries, views are reverse engineered
+	 * on the given connection meanwhile.
+	 *
+	 * @param aModel the model
+	 * @param aConnection the connection
+	 * @param aWorkerConnectionProvider the provider for worker connections
+	 * @param aOptions the options
+	 * @param aNotifier the notifier
+	 * @param aSchemaMetaData the already read schema meta data
+	 * @param aPreviousModelItemProperties the properties of replaced model items
+	 * @throws SQLException is thrown in case of an error
+	 * @throws ReverseEngineeringException is thrown in case of an error
+	 */
+	private void reverseEngineerTablesInParallel(final Model aModel, Connection aConnection, ConnectionProvider aWorkerConnectionProvider, final ReverseEngineeringOptions aOptions, ReverseEngineeringNotifier aNotifier, final Map<String, SchemaMetaData> aSchemaMetaData, Map<String, ModelProperties> aPreviousModelItemProperties) throws SQLException, ReverseEngineeringException {
+
+		// The notifier might not be thread safe
+		final ReverseEngineeringNotifier theNotifier = (aResourceKey, aValues) -> {
+			synchronized (aNotifier) {
+				aNotifier.notifyMessage(aResourceKey, aValues);
+			}
+		};
+
+		// The data types do not change while reading the tables
+		final DataTypeList theDataTypes = aModel.getAvailableDataTypes();
+
+		final ReverseEngineeringConnectionPool thePool = new ReverseEngineeringConnectionPool(aWorkerConnectionProvider, aOptions.getWorkerCount());
+		ExecutorService theExecutor = Executors.newFixedThreadPool(aOptions.getWorkerCount());
+		try {
+			Map<TableEntry, Future<List<Table>>> theResults = new HashMap<>();
+			for (final TableEntry theTable : aOptions.getTableEntries()) {
+				if (!TableType.VIEW.equals(theTable.getTableType())) {
+					theResults.put(theTable, theExecutor.submit(() -> {
+						Connection theConnection = thePool.acquire();
+						try {
+							return readTables(aModel, theDataTypes, aOptions, theNotifier, theTable, theConnection, aSchemaMetaData.get(schemaKeyFor(theTable)));
+						} finally {
+							thePool.release(theConnection);
+						}
+					}));
+				}
+			}
+
+			for (TableEntry theTable : aOptions.getTableEntries()) {
+				if (TableType.VIEW.equals(theTable.getTableType())) {
+					reverseEngineerView(aModel, aOptions, theNotifier, theTable, aConnection);
+				} else {
+					Map<String, ModelProperties> theLocalPreviousModelItemProperties = null;
+					for (Table theNewTable : waitFor(theResults.get(theTable))) {
+						theLocalPreviousModelItemProperties = addTableToModel(aModel, theNewTable, theLocalPreviousModelItemProperties);
+					}
+					if (theLocalPreviousModelItemProperties != null) {
+						aPreviousModelItemProperties.putAll(theLocalPreviousModelItemProperties);
+					}
+				}
+			}
+		} finally {
+			theExecutor.shutdownNow();
+			try {
+				theExecutor.awaitTermination(1, TimeUnit.MINUTES);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			thePool.close();
+		}
+	}
+
+	private List<Table> waitFor(Future<List<Table>> aFuture) throws SQLException, ReverseEngineeringException {
+		try {
+			return aFuture.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new ReverseEngineeringException("Reverse engineering was interrupted", e);
+		} catch (ExecutionException e) {
+			Throwable theCause = e.getCause();
+			if (theCause instanceof SQLException) {
+				throw (SQLException) theCause;
+			}
+			if (theCause instanceof ReverseEngineeringException) {
+				throw (ReverseEngineeringException) theCause;
+			}
+			if (theCause instanceof Error) {
+				throw (Error) theCause;
+			}
+			throw new ReverseEngineeringException(theCause.getMessage(), (Exception) theCause);
+		}
+	}
+
+	private static String schemaKeyFor(TableEntry aTableEntry) {
+		return aTableEntry.getCatalogName() + "|" + aTableEntry.getSchemaName();
+	}
+
+	/**
+	 * Test if the meta data of a whole schema can be read at once.
+	 * <p/>
+	 * Strategies supporting this read the table and column meta data with one
+	 * query per schema instead of one query per table. Primary keys, indexes and
+	 * imported keys are read per schema if the corresponding readSchema methods
+	 * are overridden, else per table.
+	 *
+	 * @return true if supported, else false
+	 */
+	protected boolean isSupportsSchemaMetaData() {
+		return false;
+	}
+
+	/**
+	 * Read the meta data of all tables of a schema.
+	 * <p/>
+	 * Reading a whole schema only pays off if a large enough part of its tables
+	 * is selected. If less than SCHEMA_METADATA_MIN_SELECTED_SHARE of the tables
+	 * are selected, null is returned and the tables are read one by one.
+	 *
+	 * @param aConnection the connection
+	 * @param aCatalogName the catalog name
+	 * @param aSchemaName the schema name
+	 * @param aSelectedTableCount the number of selected tables of the schema
+	 * @return the meta data, or null if the tables should be read per table
+	 * @throws SQLException is thrown in case of an error
+	 */
+	protected SchemaMetaData readSchemaMetaData(Connection aConnection, String aCatalogName, String aSchemaName, int aSelectedTableCount) throws SQLException {
+		DatabaseMetaData theMetaData = aConnection.getMetaData();
+		String theSchemaPattern = getEscapedPattern(theMetaData, aSchemaName);
+
+		SchemaMetaData theResult = new SchemaMetaData(aCatalogName, aSchemaName);
+		theResult.readTables(theMetaData.getTables(aCatalogName, theSchemaPattern, null, new String[]{TableType.TABLE.toString()}));
+		if (aSelectedTableCount < theResult.getTableCount() * SCHEMA_METADATA_MIN_SELECTED_SHARE) {
+			LOGGER.debug("Only " + aSelectedTableCount + " of " + theResult.getTableCount() + " tables of schema " + aSchemaName + " selected, reading them per table");
+			return null;
+		}
+		theResult.readColumns(theMetaData.getColumns(aCatalogName, theSchemaPattern, null, null));
+
+		// Object kinds that cannot be read for the whole schema are read per table
+		try {
+			readSchemaPrimaryKeys(aConnection, aCatalogName, aSchemaName, theResult);
+		} catch (SQLException e) {
+			LOGGER.warn("Cannot read primary keys of schema " + aSchemaName + ", reading them per table : " + e.getMessage());
+		}
+		try {
+			readSchemaIndexes(aConnection, aCatalogName, aSchemaName, theResult);
+		} catch (SQLException e) {
+			LOGGER.warn("Cannot read indexes of schema " + aSchemaName + ", reading them per table : " + e.getMessage());
+		}
+		try {
+			readSchemaImportedKeys(aConnection, aCatalogName, aSchemaName, theResult);
+		} catch (SQLException e) {
+			LOGGER.warn("Cannot read imported keys of schema " + aSchemaName + ", reading them per table : " + e.getMessage());
+		}
+
+		return theResult;
+	}
+
+	/**
+	 * Read the primary keys of all tables of a schema. The result must have the columns of
+	 * DatabaseMetaData.getPrimaryKeys, ordered by table name and column name.
+	 * <p/>
+	 * The default implementation does nothing, so the primary keys are read per table.
+	 *
+	 * @param aConnection the connection
+	 * @param aCatalogName the catalog name
+	 * @param aSchemaName the schema name
+	 * @param aMetaData the meta data to fill
+	 * @throws SQLException is thrown in case of an error
+	 */
+	protected void readSchemaPrimaryKeys(Connection aConnection, String aCatalogName, String aSchemaName, SchemaMetaData aMetaData) throws SQLException {
+	}
+
+	/**
+	 * Read the indexes of all tables of a schema. The result must have the columns of
+	 * DatabaseMetaData.getIndexInfo, ordered like getIndexInfo for every table.
+	 * <p/>
+	 * The default implementation does nothing, so the indexes are read per table.
+	 *
+	 * @param aConnection the connection
+	 * @param aCatalogName the catalog name
+	 * @param aSchemaName the schema name
+	 * @param aMetaData the meta data to fill
+	 * @throws SQLException is thrown in case of an error
+	 */
+	protected void readSchemaIndexes(Connection aConnection, String aCatalogName, String aSchemaName, SchemaMetaData aMetaData) throws SQLException {
+	}
+
+	/**
+	 * Read the imported keys of all tables of a schema. The result must have the columns of
+	 * DatabaseMetaData.getImportedKeys, ordered like getImportedKeys for every table. The rows
+	 * of a foreign key have to be adjacent, as they are grouped by their name.
+	 * <p/>
+	 * The default implementation does nothing, so the imported keys are read per table.
+	 *
+	 * @param aConnection the connection
+	 * @param aCatalogName the catalog name
+	 * @param aSchemaName the schema name
+	 * @param aMetaData the meta data to fill
+	 * @throws SQLException is thrown in case of an error
+	 */
+	protected void readSchemaImportedKeys(Connection aConnection, String aCatalogName, String aSchemaName, SchemaMetaData aMetaData) throws SQLException {
+	}
+
 	protected void reverseEngineerCustomTypes(Model aModel, ReverseEngineeringOptions aOptions, ReverseEngineeringNotifier aNotifier, Connection aConnection) throws SQLException, ReverseEngineeringException {
 		throw new UnsupportedOperationException("Userdefined datatypes (UDTs) not supported for " + aModel.getDialect().getUniqueName() + " databases.");
 	}
@@ -0,0 +1,133 @@
+/**
+ * Mogwai ERDesigner. Copyright (C) 2002 The Mogwai Project.
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program; if not, write to the Free Software Foundation, Inc., 59 Temple
+ * Place - Suite 330, Boston, MA 02111-1307, USA.
+ */
+package de.erdesignerng.dialect;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A detached row of a database meta data result set.
+ * <p/>
+ * The getters behave like the ones of java.sql.ResultSet, so the same code can
+ * process rows read per table and rows read for a whole schema.
+ */
+public class MetaDataRow {
+
+	private final Map<String, Object> values = new HashMap<>();
+
+	/**
+	 * Create a row from the current row of a result set.
+	 *
+	 * @param aResultSet the result set
+	 * @param aMetaData the result set meta data
+	 * @throws SQLException is thrown in case of an error
+	 */
+	public MetaDataRow(ResultSet aResultSet, ResultSetMetaData aMetaData) throws SQLException {
+		for (int i = 1; i <= aMetaData.getColumnCount(); i++) {
+			values.put(aMetaData.getColumnLabel(i).toUpperCase(), aResultSet.getObject(i));
+		}
+	}
+
+	/**
+	 * Read all rows of a result set and close it.
+	 *
+	 * @param aResultSet the result set
+	 * @return the rows
+	 * @throws SQLException is thrown in case of an error
+	 */
+	public static List<MetaDataRow> readAll(ResultSet aResultSet) throws SQLException {
+		List<MetaDataRow> theResult = new ArrayList<>();
+		try {
+			ResultSetMetaData theMetaData = aResultSet.getMetaData();
+			while (aResultSet.next()) {
+				theResult.add(new MetaDataRow(aResultSet, theMetaData));
+			}
+		} finally {
+			aResultSet.close();
+		}
+		return theResult;
+	}
+
+	/**
+	 * Test if the row has a column.
+	 *
+	 * @param aColumnName the column name
+	 * @return true if the column exists, else false
+	 */
+	public boolean hasColumn(String aColumnName) {
+		return values.containsKey(aColumnName.toUpperCase());
+	}
+
+	private Object getValue(String aColumnName) throws SQLException {
+		String theKey = aColumnName.toUpperCase();
+		if (!values.containsKey(theKey)) {
+			throw new SQLException("Unknown column " + aColumnName);
+		}
+		return values.get(theKey);
+	}
+
+	public String getString(String aColumnName) throws SQLException {
+		Object theValue = getValue(aColumnName);
+		if (theValue == null) {
+			return null;
+		}
+		return theValue.toString();
+	}
+
+	public int getInt(String aColumnName) throws SQLException {
+		Object theValue = getValue(aColumnName);
+		if (theValue == null) {
+			return 0;
+		}
+		if (theValue instanceof Number) {
+			return ((Number) theValue).intValue();
+		}
+		if (theValue instanceof Boolean) {
+			return ((Boolean) theValue) ? 1 : 0;
+		}
+		try {
+			return Integer.parseInt(theValue.toString().trim());
+		} catch (NumberFormatException e) {
+			throw new SQLException("Column " + aColumnName + " is not numeric : " + theValue);
+		}
+	}
+
+	public short getShort(String aColumnName) throws SQLException {
+		return (short) getInt(aColumnName);
+	}
+
+	public boolean getBoolean(String aColumnName) throws SQLException {
+		Object theValue = getValue(aColumnName);
+		if (theValue == null) {
+			return false;
+		}
+		if (theValue instanceof Boolean) {
+			return (Boolean) theValue;
+		}
+		if (theValue instanceof Number) {
+			return ((Number) theValue).intValue() != 0;
+		}
+		String theString = theValue.toString().trim();
+		return "true".equalsIgnoreCase(theString) || "1".equals(theString) || "Y".equalsIgnoreCase(theString);
+	}
+}
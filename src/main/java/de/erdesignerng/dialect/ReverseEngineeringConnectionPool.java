@@ -0,0 +1,109 @@
+/**
+ * Mogwai ERDesigner. Copyright (C) 2002 The Mogwai Project.
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program; if not, write to the Free Software Foundation, Inc., 59 Temple
+ * Place - Suite 330, Boston, MA 02111-1307, USA.
+ */
+package de.erdesignerng.dialect;
+
+import org.apache.log4j.Logger;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * A small, bounded pool of connections used by the reverse engineering
+ * workers.
+ * <p/>
+ * Connections are created lazily by the given ConnectionProvider up to the
+ * maximum size and are closed by close(). A connection is only used by one
+ * worker at a time.
+ */
+public class ReverseEngineeringConnectionPool {
+
+	private static final Logger LOGGER = Logger.getLogger(ReverseEngineeringConnectionPool.class);
+
+	private final ConnectionProvider connectionProvider;
+
+	private final int maxSize;
+
+	private final BlockingQueue<Connection> idleConnections = new LinkedBlockingQueue<>();
+
+	private final List<Connection> createdConnections = new ArrayList<>();
+
+	public ReverseEngineeringConnectionPool(ConnectionProvider aConnectionProvider, int aMaxSize) {
+		connectionProvider = aConnectionProvider;
+		maxSize = Math.max(1, aMaxSize);
+	}
+
+	/**
+	 * Borrow a connection from the pool. A new connection is created if the
+	 * pool is not exhausted, else the caller waits until another worker
+	 * releases its connection.
+	 *
+	 * @return the connection
+	 * @throws Exception will be thrown in case of an error
+	 */
+	public Connection acquire() throws Exception {
+		Connection theConnection = idleConnections.poll();
+		if (theConnection != null) {
+			return theConnection;
+		}
+
+		synchronized (createdConnections) {
+			if (createdConnections.size() < maxSize) {
+				theConnection = connectionProvider.createConnection();
+				if (theConnection == null) {
+					throw new SQLException("Cannot create connection for reverse engineering");
+				}
+				createdConnections.add(theConnection);
+				return theConnection;
+			}
+		}
+
+		return idleConnections.take();
+	}
+
+	/**
+	 * Return a borrowed connection to the pool.
+	 *
+	 * @param aConnection the connection
+	 */
+	public void release(Connection aConnection) {
+		idleConnections.offer(aConnection);
+	}
+
+	/**
+	 * Close all connections created by this pool.
+	 */
+	public void close() {
+		synchronized (createdConnections) {
+			if (!connectionProvider.generatesManagedConnection()) {
+				for (Connection theConnection : createdConnections) {
+					try {
+						theConnection.close();
+					} catch (SQLException e) {
+						LOGGER.warn("Cannot close reverse engineering connection", e);
+					}
+				}
+			}
+			createdConnections.clear();
+			idleConnections.clear();
+		}
+	}
+}
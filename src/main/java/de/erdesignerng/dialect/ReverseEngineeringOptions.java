@@ -33,6 +33,8 @@ public class ReverseEngineeringOptions {
 
     private List<TableEntry> tableEntries = new ArrayList<>();
 
+    private int workerCount = 1;
+
     public TableNamingEnum getTableNaming() {
         return tableNaming;
     }
@@ -62,6 +64,22 @@ public class ReverseEngineeringOptions {
         tableEntries = tableNames;
     }
 
+    /**
+     * Get the number of parallel workers used to reverse engineer tables.
+     * <p/>
+     * A value of 1 reverse engineers all tables sequentially on the given
+     * connection.
+     *
+     * @return the number of workers
+     */
+    public int getWorkerCount() {
+        return workerCount;
+    }
+
+    public void setWorkerCount(int aWorkerCount) {
+        workerCount = Math.max(1, aWorkerCount);
+    }
+
     public List<TableType> getAvailableTableTypes() {
         List<TableType> theResult = new ArrayList<>();
         tableEntries.stream().filter(theEntry -> !theResult.contains(theEntry.getTableType())).forEach(theEntry -> {
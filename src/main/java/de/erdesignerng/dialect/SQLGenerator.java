@@ -173,5 +173,18 @@ public abstract class SQLGenerator<T extends Dialect> {
 
 	public abstract String createSelectAllScriptFor(Table aTable, Map<Attribute<Table>, Object> aWhereValues);
 
+	/**
+	 * Create a query for the rows of a table matching one of several value
+	 * combinations. The values are bound as parameters, one per attribute
+	 * and combination in the order of the combinations.
+	 *
+	 * @param aTable        the table
+	 * @param aAttributes   the attributes to compare
+	 * @param aCombinations the number of value combinations
+	 * @return the query for a prepared statement
+	 */
+	public abstract String createSelectAllScriptFor(Table aTable, List<Attribute<Table>> aAttributes,
+			int aCombinations);
+
 	public abstract String createSelectAllScriptFor(View aView);
 }
\ No newline at end of file
@@ -0,0 +1,188 @@
+/**
+ * Mogwai ERDesigner. Copyright (C) 2002 The Mogwai Project.
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program; if not, write to the Free Software Foundation, Inc., 59 Temple
+ * Place - Suite 330, Boston, MA 02111-1307, USA.
+ */
+package de.erdesignerng.dialect;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The meta data of all tables of a schema, read with one query per object kind
+ * and demultiplexed by table name.
+ * <p/>
+ * Rows carrying a catalog or schema column not matching the schema are
+ * dropped, as schema patterns and drivers ignoring them can return rows of
+ * other schemas having tables with the same name.
+ * <p/>
+ * An object kind that was not loaded returns null, the reverse engineering
+ * falls back to the per table queries then.
+ */
+public class SchemaMetaData {
+
+	public static final String TABLE_NAME = "TABLE_NAME";
+
+	public static final String FKTABLE_NAME = "FKTABLE_NAME";
+
+	public static final String TABLE_CAT = "TABLE_CAT";
+
+	public static final String TABLE_SCHEM = "TABLE_SCHEM";
+
+	public static final String FKTABLE_CAT = "FKTABLE_CAT";
+
+	public static final String FKTABLE_SCHEM = "FKTABLE_SCHEM";
+
+	private final String catalogName;
+
+	private final String schemaName;
+
+	private Map<String, List<MetaDataRow>> tables;
+
+	private Map<String, List<MetaDataRow>> columns;
+
+	private Map<String, List<MetaDataRow>> primaryKeys;
+
+	private Map<String, List<MetaDataRow>> indexes;
+
+	private Map<String, List<MetaDataRow>> importedKeys;
+
+	/**
+	 * Create the meta data of a schema.
+	 *
+	 * @param aCatalogName the catalog name, may be null
+	 * @param aSchemaName the schema name, may be null
+	 */
+	public SchemaMetaData(String aCatalogName, String aSchemaName) {
+		catalogName = aCatalogName;
+		schemaName = aSchemaName;
+	}
+
+	private static boolean matches(MetaDataRow aRow, String aColumnName, String aExpectedValue) throws SQLException {
+		if (aExpectedValue == null || !aRow.hasColumn(aColumnName)) {
+			return true;
+		}
+		String theValue = aRow.getString(aColumnName);
+		return theValue == null || aExpectedValue.equals(theValue);
+	}
+
+	/**
+	 * Read a result set and group its rows by the value of a table name column.
+	 * The order of the rows of a table is kept, rows of other catalogs or
+	 * schemas are dropped.
+	 *
+	 * @param aResultSet the result set, will be closed
+	 * @param aCatalogColumn the column containing the catalog name
+	 * @param aSchemaColumn the column containing the schema name
+	 * @param aTableNameColumn the column containing the table name
+	 * @return the rows by table name
+	 * @throws SQLException is thrown in case of an error
+	 */
+	private Map<String, List<MetaDataRow>> demultiplex(ResultSet aResultSet, String aCatalogColumn, String aSchemaColumn, String aTableNameColumn) throws SQLException {
+		Map<String, List<MetaDataRow>> theResult = new HashMap<>();
+		for (MetaDataRow theRow : MetaDataRow.readAll(aResultSet)) {
+			if (matches(theRow, aCatalogColumn, catalogName) && matches(theRow, aSchemaColumn, schemaName)) {
+				theResult.computeIfAbsent(theRow.getString(aTableNameColumn), k -> new ArrayList<>()).add(theRow);
+			}
+		}
+		return theResult;
+	}
+
+	private static List<MetaDataRow> rowsFor(Map<String, List<MetaDataRow>> aRows, String aTableName) {
+		if (aRows == null) {
+			return null;
+		}
+		List<MetaDataRow> theResult = aRows.get(aTableName);
+		if (theResult == null) {
+			return Collections.emptyList();
+		}
+		return theResult;
+	}
+
+	public void readTables(ResultSet aResultSet) throws SQLException {
+		tables = demultiplex(aResultSet, TABLE_CAT, TABLE_SCHEM, TABLE_NAME);
+	}
+
+	public void readColumns(ResultSet aResultSet) throws SQLException {
+		columns = demultiplex(aResultSet, TABLE_CAT, TABLE_SCHEM, TABLE_NAME);
+	}
+
+	public void readPrimaryKeys(ResultSet aResultSet) throws SQLException {
+		primaryKeys = demultiplex(aResultSet, TABLE_CAT, TABLE_SCHEM, TABLE_NAME);
+	}
+
+	public void readIndexes(ResultSet aResultSet) throws SQLException {
+		indexes = demultiplex(aResultSet, TABLE_CAT, TABLE_SCHEM, TABLE_NAME);
+	}
+
+	public void readImportedKeys(ResultSet aResultSet) throws SQLException {
+		importedKeys = demultiplex(aResultSet, FKTABLE_CAT, FKTABLE_SCHEM, FKTABLE_NAME);
+	}
+
+	/**
+	 * @return the number of tables of the schema, or 0 if not loaded
+	 */
+	public int getTableCount() {
+		if (tables == null) {
+			return 0;
+		}
+		return tables.size();
+	}
+
+	/**
+	 * @param aTableName the table name
+	 * @return the rows as returned by DatabaseMetaData.getTables, or null if not loaded
+	 */
+	public List<MetaDataRow> getTables(String aTableName) {
+		return rowsFor(tables, aTableName);
+	}
+
+	/**
+	 * @param aTableName the table name
+	 * @return the rows as returned by DatabaseMetaData.getColumns, or null if not loaded
+	 */
+	public List<MetaDataRow> getColumns(String aTableName) {
+		return rowsFor(columns, aTableName);
+	}
+
+	/**
+	 * @param aTableName the table name
+	 * @return the rows as returned by DatabaseMetaData.getPrimaryKeys, or null if not loaded
+	 */
+	public List<MetaDataRow> getPrimaryKeys(String aTableName) {
+		return rowsFor(primaryKeys, aTableName);
+	}
+
+	/**
+	 * @param aTableName the table name
+	 * @return the rows as returned by DatabaseMetaData.getIndexInfo, or null if not loaded
+	 */
+	public List<MetaDataRow> getIndexes(String aTableName) {
+		return rowsFor(indexes, aTableName);
+	}
+
+	/**
+	 * @param aTableName the table name
+	 * @return the rows as returned by DatabaseMetaData.getImportedKeys, or null if not loaded
+	 */
+	public List<MetaDataRow> getImportedKeys(String aTableName) {
+		return rowsFor(importedKeys, aTableName);
+	}
+}
@@ -25,6 +25,8 @@ public class Statement {
 
 	private boolean saved;
 
+	private long executionTime = -1;
+
 	public Statement(String aSQL) {
 		sql = aSQL;
 	}
@@ -64,6 +66,20 @@ public class Statement {
 		this.saved = saved;
 	}
 
+	/**
+	 * @return the execution time in nanoseconds, or -1 if not executed
+	 */
+	public long getExecutionTime() {
+		return executionTime;
+	}
+
+	/**
+	 * @param aExecutionTime the execution time in nanoseconds
+	 */
+	public void setExecutionTime(long aExecutionTime) {
+		executionTime = aExecutionTime;
+	}
+
 	@Override
 	public String toString() {
 		return sql;
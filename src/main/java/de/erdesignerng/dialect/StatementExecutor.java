@@ -0,0 +1,250 @@
+/**
+ * Mogwai ERDesigner. Copyright (C) 2002 The Mogwai Project.
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program; if not, write to the Free Software Foundation, Inc., 59 Temple
+ * Place - Suite 330, Boston, MA 02111-1307, USA.
+ */
+package de.erdesignerng.dialect;
+
+import de.erdesignerng.util.JDBCUtils;
+
+import java.sql.BatchUpdateException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Executes the statements of a script on a connection.
+ * <p/>
+ * All statements are executed by one JDBC statement, in batches of a
+ * configurable size if the driver supports batch updates. Statements already
+ * executed are skipped, so a script can be continued after a failure.
+ * <p/>
+ * The execution time of every statement is stored in the statement. The
+ * driver executes a batch as a whole, so the time of a batch is distributed
+ * evenly over its statements. With a batch size of one the times are exact.
+ * <p/>
+ * The transaction modes other than {@link TransactionMode#AUTOCOMMIT} should
+ * only be used if the database supports transactional DDL. The statements
+ * are marked as executed when they are committed.
+ */
+public class StatementExecutor {
+
+	public static final int DEFAULT_BATCH_SIZE = 100;
+
+	/**
+	 * Notified by the executing thread after every batch.
+	 */
+	public interface Listener {
+
+		/**
+		 * A batch was executed.
+		 *
+		 * @param aBatch the statements of the batch
+		 * @param aTime  the execution time of the batch in nanoseconds
+		 */
+		void batchExecuted(List<Statement> aBatch, long aTime);
+	}
+
+	private final Connection connection;
+
+	private int batchSize = DEFAULT_BATCH_SIZE;
+
+	private TransactionMode transactionMode = TransactionMode.AUTOCOMMIT;
+
+	public StatementExecutor(Connection aConnection) {
+		connection = aConnection;
+	}
+
+	public int getBatchSize() {
+		return batchSize;
+	}
+
+	public void setBatchSize(int aBatchSize) {
+		batchSize = Math.max(1, aBatchSize);
+	}
+
+	public TransactionMode getTransactionMode() {
+		return transactionMode;
+	}
+
+	public void setTransactionMode(TransactionMode aTransactionMode) {
+		transactionMode = aTransactionMode;
+	}
+
+	/**
+	 * Execute the statements not executed yet.
+	 *
+	 * @param aStatements the statements
+	 * @param aListener   the listener
+	 * @throws SQLException if a statement fails. The statements executed
+	 *                      and committed before are marked as executed.
+	 */
+	public void execute(List<Statement> aStatements, Listener aListener) throws SQLException {
+
+		List<Statement> thePending = new ArrayList<>();
+		for (Statement theStatement : aStatements) {
+			if (!theStatement.isExecuted()) {
+				thePending.add(theStatement);
+			}
+		}
+		if (thePending.isEmpty()) {
+			return;
+		}
+
+		boolean theTransactional = transactionMode != TransactionMode.AUTOCOMMIT;
+		boolean theBatchUpdates = batchSize > 1 && connection.getMetaData().supportsBatchUpdates();
+		boolean theAutoCommit = connection.getAutoCommit();
+		boolean theCommitted = false;
+
+		java.sql.Statement theJDBCStatement = null;
+		try {
+			if (theTransactional) {
+				connection.setAutoCommit(false);
+			}
+			theJDBCStatement = connection.createStatement();
+
+			List<Statement> theUncommitted = new ArrayList<>();
+			for (int theStart = 0; theStart < thePending.size(); theStart += batchSize) {
+				List<Statement> theBatch = thePending.subList(theStart,
+						Math.min(theStart + batchSize, thePending.size()));
+
+				Savepoint theSavepoint = null;
+				if (transactionMode == TransactionMode.SAVEPOINT_PER_BATCH) {
+					theSavepoint = connection.setSavepoint();
+				}
+
+				long theStartTime = System.nanoTime();
+				try {
+					if (theBatchUpdates) {
+						executeBatch(theJDBCStatement, theBatch);
+					} else {
+						executeOneByOne(theJDBCStatement, theBatch, !theTransactional);
+					}
+				} catch (SQLException e) {
+					try {
+						switch (transactionMode) {
+							case SAVEPOINT_PER_BATCH:
+								connection.rollback(theSavepoint);
+								connection.commit();
+								theCommitted = true;
+								markExecuted(theUncommitted);
+								break;
+							case SINGLE_TRANSACTION:
+								connection.rollback();
+								break;
+							default:
+								markExecuted(theBatch, e);
+						}
+					} catch (SQLException e1) {
+						// Report the failed statement, not the failed rollback
+						e.setNextException(e1);
+					}
+					throw e;
+				}
+				long theTime = System.nanoTime() - theStartTime;
+
+				if (theSavepoint != null) {
+					connection.releaseSavepoint(theSavepoint);
+				}
+
+				if (theTransactional) {
+					theUncommitted.addAll(theBatch);
+				} else {
+					markExecuted(theBatch);
+				}
+
+				aListener.batchExecuted(theBatch, theTime);
+			}
+
+			if (theTransactional) {
+				connection.commit();
+				theCommitted = true;
+				markExecuted(theUncommitted);
+			}
+		} finally {
+			JDBCUtils.closeQuietly(theJDBCStatement);
+			if (theTransactional) {
+				// Restoring auto commit would commit the pending work of a
+				// failed savepoint, listener or commit
+				if (!theCommitted) {
+					rollbackQuietly();
+				}
+				connection.setAutoCommit(theAutoCommit);
+			}
+		}
+	}
+
+	private void rollbackQuietly() {
+		try {
+			connection.rollback();
+		} catch (SQLException e) {
+			// Ignore this
+		}
+	}
+
+	private static void executeBatch(java.sql.Statement aJDBCStatement, List<Statement> aBatch) throws SQLException {
+		long theStartTime = System.nanoTime();
+		try {
+			for (Statement theStatement : aBatch) {
+				aJDBCStatement.addBatch(theStatement.getSql());
+			}
+			aJDBCStatement.executeBatch();
+		} finally {
+			aJDBCStatement.clearBatch();
+		}
+		long theTime = (System.nanoTime() - theStartTime) / aBatch.size();
+		for (Statement theStatement : aBatch) {
+			theStatement.setExecutionTime(theTime);
+		}
+	}
+
+	private static void executeOneByOne(java.sql.Statement aJDBCStatement, List<Statement> aBatch,
+			boolean aAutoCommit) throws SQLException {
+		for (Statement theStatement : aBatch) {
+			long theStartTime = System.nanoTime();
+			aJDBCStatement.execute(theStatement.getSql());
+			theStatement.setExecutionTime(System.nanoTime() - theStartTime);
+			if (aAutoCommit) {
+				theStatement.setExecuted(true);
+			}
+		}
+	}
+
+	private static void markExecuted(List<Statement> aStatements) {
+		for (Statement theStatement : aStatements) {
+			theStatement.setExecuted(true);
+		}
+	}
+
+	/**
+	 * Mark the statements of a failed batch executed in auto commit mode.
+	 * Depending on the driver, the statements after the failed one are
+	 * executed or not.
+	 */
+	private static void markExecuted(List<Statement> aBatch, SQLException aException) {
+		if (aException instanceof BatchUpdateException) {
+			int[] theUpdateCounts = ((BatchUpdateException) aException).getUpdateCounts();
+			if (theUpdateCounts != null) {
+				for (int i = 0; i < theUpdateCounts.length && i < aBatch.size(); i++) {
+					if (theUpdateCounts[i] != java.sql.Statement.EXECUTE_FAILED) {
+						aBatch.get(i).setExecuted(true);
+					}
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,46 @@
+/**
+ * Mogwai ERDesigner. Copyright (C) 2002 The Mogwai Project.
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program; if not, write to the Free Software Foundation, Inc., 59 Temple
+ * Place - Suite 330, Boston, MA 02111-1307, USA.
+ */
+package de.erdesignerng.dialect;
+
+/**
+ * How a script is executed with respect to transactions.
+ */
+public enum TransactionMode {
+
+	/**
+	 * Every statement is committed on its own.
+	 */
+	AUTOCOMMIT,
+
+	/**
+	 * The whole script is executed in one transaction, which is rolled back
+	 * if a statement fails.
+	 */
+	SINGLE_TRANSACTION,
+
+	/**
+	 * The script is executed in one transaction with a savepoint before every
+	 * batch. If a statement fails, its batch is rolled back and the previous
+	 * batches are committed.
+	 */
+	SAVEPOINT_PER_BATCH;
+
+	public static TransactionMode fromString(String aConstantName) {
+		return TransactionMode.valueOf(aConstantName.toUpperCase().trim());
+	}
+}
@@ -36,6 +36,7 @@ public final class DB2Dialect extends Dialect {
 		setMaxObjectNameLength(128);
 		setNullablePrimaryKeyAllowed(false);
 		setCastType(NameCastType.UPPERCASE);
+		setSupportsTransactionalDDL(true);
 
 		registerType(createDataType("VARCHAR() FOR BIT DATA", "$size", Types.VARBINARY));
 		registerType(createDataType("CHAR() FOR BIT DATA", "$size", Types.BINARY, Types.BIT));
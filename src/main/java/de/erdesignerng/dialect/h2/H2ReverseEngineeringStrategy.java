@@ -19,6 +19,7 @@ package de.erdesignerng.dialect.h2;
 
 import de.erdesignerng.dialect.JDBCReverseEngineeringStrategy;
 import de.erdesignerng.dialect.SchemaEntry;
+import de.erdesignerng.dialect.SchemaMetaData;
 import de.erdesignerng.dialect.TableEntry;
 import de.erdesignerng.model.View;
 
@@ -57,6 +58,35 @@ public class H2ReverseEngineeringStrategy extends JDBCReverseEngineeringStrategy
 		return theList;
 	}
 
+	@Override
+	protected boolean isSupportsSchemaMetaData() {
+		return true;
+	}
+
+	@Override
+	protected void readSchemaPrimaryKeys(Connection aConnection, String aCatalogName, String aSchemaName, SchemaMetaData aMetaData) throws SQLException {
+		try (PreparedStatement theStatement = aConnection.prepareStatement("SELECT TABLE_NAME, COLUMN_NAME, ORDINAL_POSITION KEY_SEQ, IFNULL(CONSTRAINT_NAME, INDEX_NAME) PK_NAME FROM INFORMATION_SCHEMA.INDEXES WHERE TABLE_SCHEMA = ? AND PRIMARY_KEY = TRUE ORDER BY TABLE_NAME, COLUMN_NAME")) {
+			theStatement.setString(1, aSchemaName);
+			aMetaData.readPrimaryKeys(theStatement.executeQuery());
+		}
+	}
+
+	@Override
+	protected void readSchemaIndexes(Connection aConnection, String aCatalogName, String aSchemaName, SchemaMetaData aMetaData) throws SQLException {
+		try (PreparedStatement theStatement = aConnection.prepareStatement("SELECT TABLE_NAME, NON_UNIQUE, INDEX_NAME, INDEX_TYPE TYPE, ORDINAL_POSITION, COLUMN_NAME, ASC_OR_DESC FROM INFORMATION_SCHEMA.INDEXES WHERE TABLE_SCHEMA = ? ORDER BY TABLE_NAME, NON_UNIQUE, TYPE, INDEX_NAME, ORDINAL_POSITION")) {
+			theStatement.setString(1, aSchemaName);
+			aMetaData.readIndexes(theStatement.executeQuery());
+		}
+	}
+
+	@Override
+	protected void readSchemaImportedKeys(Connection aConnection, String aCatalogName, String aSchemaName, SchemaMetaData aMetaData) throws SQLException {
+		try (PreparedStatement theStatement = aConnection.prepareStatement("SELECT PKTABLE_SCHEMA PKTABLE_SCHEM, PKTABLE_NAME, PKCOLUMN_NAME, FKTABLE_NAME, FKCOLUMN_NAME, ORDINAL_POSITION KEY_SEQ, UPDATE_RULE, DELETE_RULE, FK_NAME FROM INFORMATION_SCHEMA.CROSS_REFERENCES WHERE FKTABLE_SCHEMA = ? ORDER BY FKTABLE_NAME, PKTABLE_SCHEM, PKTABLE_NAME, FK_NAME, KEY_SEQ")) {
+			theStatement.setString(1, aSchemaName);
+			aMetaData.readImportedKeys(theStatement.executeQuery());
+		}
+	}
+
 	@Override
 	protected String reverseEngineerViewSQL(TableEntry aViewEntry, Connection aConnection, View aView) throws SQLException {
 		PreparedStatement theStatement = null;
@@ -19,6 +19,7 @@ package de.erdesignerng.dialect.hsqldb;
 
 import de.erdesignerng.dialect.JDBCReverseEngineeringStrategy;
 import de.erdesignerng.dialect.SchemaEntry;
+import de.erdesignerng.dialect.SchemaMetaData;
 import de.erdesignerng.dialect.TableEntry;
 import de.erdesignerng.model.View;
 
@@ -58,6 +59,35 @@ public class HSQLDBReverseEngineeringStrategy extends JDBCReverseEngineeringStra
         return theList;
     }
 
+    @Override
+    protected boolean isSupportsSchemaMetaData() {
+        return true;
+    }
+
+    @Override
+    protected void readSchemaPrimaryKeys(Connection aConnection, String aCatalogName, String aSchemaName, SchemaMetaData aMetaData) throws SQLException {
+        try (PreparedStatement theStatement = aConnection.prepareStatement("SELECT * FROM INFORMATION_SCHEMA.SYSTEM_PRIMARYKEYS WHERE TABLE_SCHEM = ? ORDER BY TABLE_NAME, COLUMN_NAME")) {
+            theStatement.setString(1, aSchemaName);
+            aMetaData.readPrimaryKeys(theStatement.executeQuery());
+        }
+    }
+
+    @Override
+    protected void readSchemaIndexes(Connection aConnection, String aCatalogName, String aSchemaName, SchemaMetaData aMetaData) throws SQLException {
+        try (PreparedStatement theStatement = aConnection.prepareStatement("SELECT * FROM INFORMATION_SCHEMA.SYSTEM_INDEXINFO WHERE TABLE_SCHEM = ? ORDER BY TABLE_NAME, NON_UNIQUE, TYPE, INDEX_NAME, ORDINAL_POSITION")) {
+            theStatement.setString(1, aSchemaName);
+            aMetaData.readIndexes(theStatement.executeQuery());
+        }
+    }
+
+    @Override
+    protected void readSchemaImportedKeys(Connection aConnection, String aCatalogName, String aSchemaName, SchemaMetaData aMetaData) throws SQLException {
+        try (PreparedStatement theStatement = aConnection.prepareStatement("SELECT * FROM INFORMATION_SCHEMA.SYSTEM_CROSSREFERENCE WHERE FKTABLE_SCHEM = ? ORDER BY FKTABLE_NAME, PKTABLE_CAT, PKTABLE_SCHEM, PKTABLE_NAME, FK_NAME, KEY_SEQ")) {
+            theStatement.setString(1, aSchemaName);
+            aMetaData.readImportedKeys(theStatement.executeQuery());
+        }
+    }
+
     @Override
     protected String reverseEngineerViewSQL(TableEntry aViewEntry, Connection aConnection, View aView)
             throws SQLException {
@@ -42,6 +42,7 @@ public final class MSSQLDialect extends Dialect {
 		setNullablePrimaryKeyAllowed(false);
 		setCastType(NameCastType.NOTHING);
 		setSupportsCustomTypes(true);
+		setSupportsTransactionalDDL(true);
 
 		registerType(createDataType("bit", "", Types.BIT, Types.BOOLEAN));
 		registerType(createDataType("tinyint", "", Types.TINYINT));
@@ -41,6 +41,7 @@ public final class PostgresDialect extends Dialect {
 		setSupportsDomains(true);
 		setSupportsCustomTypes(true);
 		setSupportsSchemaInformation(true);
+		setSupportsTransactionalDDL(true);
 		setDefaultSchemaName("public");
 
 		addSystemSchema("information_schema");
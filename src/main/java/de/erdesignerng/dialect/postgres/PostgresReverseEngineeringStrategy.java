@@ -23,6 +23,7 @@ import de.erdesignerng.dialect.JDBCReverseEngineeringStrategy;
 import de.erdesignerng.dialect.ReverseEngineeringNotifier;
 import de.erdesignerng.dialect.ReverseEngineeringOptions;
 import de.erdesignerng.dialect.SchemaEntry;
+import de.erdesignerng.dialect.SchemaMetaData;
 import de.erdesignerng.dialect.TableEntry;
 import de.erdesignerng.exception.ReverseEngineeringException;
 import de.erdesignerng.model.Attribute;
@@ -74,6 +75,23 @@ public class PostgresReverseEngineeringStrategy extends JDBCReverseEngineeringSt
 		return theList;
 	}
 
+	@Override
+	protected boolean isSupportsSchemaMetaData() {
+		return true;
+	}
+
+	// The PostgreSQL driver accepts null table names for primary and imported keys,
+	// the indexes are still read per table
+	@Override
+	protected void readSchemaPrimaryKeys(Connection aConnection, String aCatalogName, String aSchemaName, SchemaMetaData aMetaData) throws SQLException {
+		aMetaData.readPrimaryKeys(aConnection.getMetaData().getPrimaryKeys(aCatalogName, aSchemaName, null));
+	}
+
+	@Override
+	protected void readSchemaImportedKeys(Connection aConnection, String aCatalogName, String aSchemaName, SchemaMetaData aMetaData) throws SQLException {
+		aMetaData.readImportedKeys(aConnection.getMetaData().getImportedKeys(aCatalogName, aSchemaName, null));
+	}
+
 	// Bug Fixing 2876916 [ERDesignerNG] Reverse-Eng. PgSQL VARCHAR max-length
 	// wrong
 	@Override
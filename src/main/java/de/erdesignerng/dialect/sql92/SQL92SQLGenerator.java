@@ -22,6 +22,7 @@ import de.erdesignerng.dialect.SQLGenerator;
 import de.erdesignerng.dialect.Statement;
 import de.erdesignerng.dialect.StatementList;
 import de.erdesignerng.model.*;
+import java.util.List;
 import java.util.Map;
 import org.apache.commons.lang.StringUtils;
 import org.apache.commons.lang.SystemUtils;
@@ -563,6 +564,44 @@ public class SQL92SQLGenerator<T extends Dialect> extends SQLGenerator<T> {
 		return theBuilder.toString();
 	}
 
+	@Override
+	public String createSelectAllScriptFor(Table aTable, List<Attribute<Table>> aAttributes, int aCombinations) {
+		StringBuilder theBuilder = new StringBuilder("SELECT * FROM ");
+		theBuilder.append(createUniqueTableName(aTable));
+		theBuilder.append(" WHERE ");
+
+		if (aAttributes.size() == 1) {
+			Attribute<Table> theAttribute = aAttributes.get(0);
+			theBuilder.append(theAttribute.getName());
+			theBuilder.append(" IN (");
+			for (int i = 0; i < aCombinations; i++) {
+				if (i > 0) {
+					theBuilder.append(", ");
+				}
+				theBuilder.append("?");
+			}
+			theBuilder.append(")");
+		} else {
+			// Row value constructors are not supported by every database
+			for (int i = 0; i < aCombinations; i++) {
+				if (i > 0) {
+					theBuilder.append(" OR ");
+				}
+				theBuilder.append("(");
+				for (int j = 0; j < aAttributes.size(); j++) {
+					if (j > 0) {
+						theBuilder.append(" AND ");
+					}
+					theBuilder.append(aAttributes.get(j).getName());
+					theBuilder.append(" = ?");
+				}
+				theBuilder.append(")");
+			}
+		}
+
+		return theBuilder.toString();
+	}
+
 	@Override
 	public String createSelectAllScriptFor(View aView) {
 		return "SELECT * FROM " + createUniqueViewName(aView);
@@ -27,6 +27,15 @@ import java.util.Vector;
  */
 public class DomainList extends Vector<Domain> implements ModelList<Domain> {
 
+	/**
+	 * Get the number of structural modifications of this list.
+	 *
+	 * @return the modification count
+	 */
+	synchronized int getModificationCount() {
+		return modCount;
+	}
+
 	/**
 	 * Find a domain by system id.
 	 * 
@@ -38,7 +38,9 @@ import java.sql.Connection;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * @author $Author: mirkosertic $
@@ -76,6 +78,21 @@ public class Model extends ModelItem {
 
     private transient ModelModificationTracker modificationTracker = new EmptyModelModificationTracker();
 
+    private transient Object changeTrackingBase;
+
+    private final transient Set<String> dirtySystemIds = new HashSet<>();
+
+    private transient ModelItemRegistry registry;
+
+    private transient volatile long revision;
+
+    private synchronized ModelItemRegistry getRegistry() {
+        if (registry == null) {
+            registry = new ModelItemRegistry(this);
+        }
+        return registry;
+    }
+
     /**
      * Add a table to the database model.
      *
@@ -100,6 +117,8 @@ public class Model extends ModelItem {
 
         aTable.setOwner(this);
         tables.add(aTable);
+        getRegistry().register(aTable);
+        revision++;
     }
 
     /**
@@ -120,6 +139,8 @@ public class Model extends ModelItem {
         modificationTracker.addRelation(aRelation);
 
         relations.add(aRelation);
+        getRegistry().register(aRelation);
+        revision++;
     }
 
     public Dialect getDialect() {
@@ -184,6 +205,8 @@ public class Model extends ModelItem {
         modificationTracker.removeTable(aTable);
 
         tables.remove(aTable);
+        getRegistry().unregister(aTable);
+        revision++;
         relations.removeByTable(aTable);
 
         subjectAreas.removeTable(aTable);
@@ -200,6 +223,8 @@ public class Model extends ModelItem {
 
         modificationTracker.removeRelation(aRelation);
         relations.remove(aRelation);
+        getRegistry().unregister(aRelation);
+        revision++;
     }
 
     public void removeAttributeFromTable(final Table aTable, final Attribute<Table> aAttribute)
@@ -223,7 +248,9 @@ public class Model extends ModelItem {
         }
 
         modificationTracker.removeAttributeFromTable(aTable, aAttribute);
+        markDirty(aTable);
         aTable.getAttributes().removeById(aAttribute.getSystemId());
+        getRegistry().unregister(aAttribute);
     }
 
     public void removeIndex(final Table aTable, final Index aIndex) throws VetoException {
@@ -233,7 +260,10 @@ public class Model extends ModelItem {
         } else {
             modificationTracker.removeIndexFromTable(aTable, aIndex);
         }
+        markDirty(aTable);
         aTable.getIndexes().removeById(aIndex.getSystemId());
+        getRegistry().unregister(aIndex);
+        aIndex.getExpressions().forEach(getRegistry()::unregister);
     }
 
     public void addAttributeToTable(final Table aTable, final Attribute<Table> aAttribute)
@@ -241,11 +271,14 @@ public class Model extends ModelItem {
             ElementInvalidNameException {
 
         modificationTracker.addAttributeToTable(aTable, aAttribute);
+        markDirty(aTable);
         aTable.addAttribute(this, aAttribute);
+        getRegistry().register(aTable, aAttribute);
     }
 
     public void changeAttribute(final Attribute<Table> anExistingAttribute, final Attribute<Table> aNewAttribute) throws Exception {
         modificationTracker.changeAttribute(anExistingAttribute, aNewAttribute);
+        markDirty(anExistingAttribute.getOwner());
 
         anExistingAttribute.restoreFrom(aNewAttribute);
     }
@@ -259,14 +292,17 @@ public class Model extends ModelItem {
         } else {
             modificationTracker.addIndexToTable(aTable, aIndex);
         }
+        markDirty(aTable);
 
         aTable.addIndex(this, aIndex);
+        getRegistry().register(aTable, aIndex);
     }
 
     public void changeIndex(final Index anExistingIndex, final Index aNewIndex)
             throws Exception {
 
         modificationTracker.changeIndex(anExistingIndex, aNewIndex);
+        markDirty(anExistingIndex.getOwner());
 
         anExistingIndex.restoreFrom(aNewIndex);
     }
@@ -274,6 +310,7 @@ public class Model extends ModelItem {
     public void renameTable(final Table aTable, final String aNewName) throws VetoException {
 
         modificationTracker.renameTable(aTable, aNewName);
+        markDirty(aTable);
 
         aTable.setName(aNewName);
     }
@@ -282,6 +319,7 @@ public class Model extends ModelItem {
             throws VetoException {
 
         modificationTracker.changeTableComment(aTable, aNewComment);
+        markDirty(aTable);
 
         aTable.setComment(aNewComment);
     }
@@ -289,6 +327,7 @@ public class Model extends ModelItem {
     public void renameAttribute(final Attribute anExistingAttribute, final String aNewName)
             throws VetoException {
         modificationTracker.renameAttribute(anExistingAttribute, aNewName);
+        markDirty(anExistingAttribute.getOwner());
 
         anExistingAttribute.setName(aNewName);
     }
@@ -297,6 +336,7 @@ public class Model extends ModelItem {
             throws Exception {
 
         modificationTracker.changeRelation(aRelation, aTempRelation);
+        markDirty(aRelation);
         aRelation.restoreFrom(aTempRelation);
 
         relations.clearCache();
@@ -311,6 +351,141 @@ public class Model extends ModelItem {
         this.modificationTracker = modificationTracker;
     }
 
+    /**
+     * Start tracking of modified model items.
+     * <p/>
+     * Is called after the model was loaded from or saved to a persistent
+     * store. Items modified afterwards are marked as dirty, so the store can
+     * save only the modified items the next time.
+     *
+     * @param aBase the identity of the store entry in sync with this model
+     */
+    public void startChangeTracking(final Object aBase) {
+        changeTrackingBase = aBase;
+        dirtySystemIds.clear();
+    }
+
+    /**
+     * Stop tracking of modified model items. The next save must save the
+     * whole model.
+     */
+    public void stopChangeTracking() {
+        changeTrackingBase = null;
+        dirtySystemIds.clear();
+    }
+
+    /**
+     * Test if the dirty items are tracked relative to a store entry.
+     *
+     * @param aBase the identity of the store entry
+     * @return true if only the dirty items need to be saved to this entry
+     */
+    public boolean isChangeTrackingBase(final Object aBase) {
+        return changeTrackingBase != null && changeTrackingBase.equals(aBase);
+    }
+
+    /**
+     * Mark a model item as modified since the last load or save.
+     * <p/>
+     * The model mutators do this for tables and relations, editors changing
+     * items directly must call this method.
+     *
+     * @param aItem the modified item
+     */
+    public void markDirty(final ModelItem aItem) {
+        if (aItem != null) {
+            dirtySystemIds.add(aItem.getSystemId());
+        }
+        revision++;
+    }
+
+    /**
+     * Mark all tables having an attribute of a data type as modified.
+     * <p/>
+     * Editors changing a data type in place must call this method, as the
+     * attributes store the name of their data type.
+     *
+     * @param aDataType the data type
+     */
+    public void markTablesDirty(final DataType aDataType) {
+        for (final Table theTable : tables) {
+            for (final Attribute<Table> theAttribute : theTable.getAttributes()) {
+                if (theAttribute.getDatatype() == aDataType) {
+                    markDirty(theTable);
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Get the revision of the model.
+     * <p/>
+     * The revision is incremented every time an item is marked as dirty, a
+     * table, relation, domain or custom type is added or removed, or the
+     * model is converted. Caches of data derived from the items can use it to
+     * detect that they are stale.
+     *
+     * @return the revision
+     */
+    public long getRevision() {
+        return revision;
+    }
+
+    /**
+     * Test if a model item was modified since the last load or save.
+     *
+     * @param aItem the item
+     * @return true if it was modified
+     */
+    public boolean isDirty(final ModelItem aItem) {
+        return dirtySystemIds.contains(aItem.getSystemId());
+    }
+
+    /**
+     * Find a table, attribute, index, index expression, relation, view,
+     * domain, custom type or comment of this model by its system id.
+     * <p/>
+     * Items added or removed without the model methods are found as well,
+     * but the first lookup after such a change is slower.
+     *
+     * @param aSystemId the system id
+     * @return the item or null if not found
+     */
+    public ModelItem findBySystemId(final String aSystemId) {
+        return getRegistry().findBySystemId(aSystemId);
+    }
+
+    /**
+     * Find an item of a given type by its system id.
+     *
+     * @param aSystemId the system id
+     * @param aType     the expected type
+     * @param <T>       the expected type
+     * @return the item or null if there is no item of this type
+     */
+    public <T extends ModelItem> T findBySystemId(final String aSystemId, final Class<T> aType) {
+        final ModelItem theItem = findBySystemId(aSystemId);
+        if (aType.isInstance(theItem)) {
+            return aType.cast(theItem);
+        }
+        return null;
+    }
+
+    /**
+     * Find a table attribute by its system id.
+     *
+     * @param aSystemId the system id
+     * @return the attribute or null if not found
+     */
+    public Attribute<Table> findAttributeBySystemId(final String aSystemId) {
+        final ModelItem theItem = findBySystemId(aSystemId);
+        if (theItem instanceof Attribute && ((Attribute<?>) theItem).getOwner() instanceof Table) {
+            return ((Table) ((Attribute<?>) theItem).getOwner()).getAttributes().findBySystemId(aSystemId);
+        }
+        return null;
+    }
+
     /**
      * Add a new subject area.
      *
@@ -386,6 +561,7 @@ public class Model extends ModelItem {
      */
     public void removeComment(final Comment aComment) {
         comments.remove(aComment);
+        getRegistry().unregister(aComment);
         subjectAreas.removeComment(aComment);
     }
 
@@ -397,6 +573,7 @@ public class Model extends ModelItem {
     public void addComment(final Comment aComment) {
         aComment.setOwner(this);
         comments.add(aComment);
+        getRegistry().register(aComment);
     }
 
     /**
@@ -450,6 +627,8 @@ public class Model extends ModelItem {
 
         aDomain.setOwner(this);
         domains.add(aDomain);
+        getRegistry().register(aDomain);
+        revision++;
     }
 
     /**
@@ -463,6 +642,8 @@ public class Model extends ModelItem {
         modificationTracker.removeDomain(aDomain);
 
         domains.remove(aDomain);
+        getRegistry().unregister(aDomain);
+        revision++;
     }
 
     /**
@@ -477,6 +658,8 @@ public class Model extends ModelItem {
 
         aCustomType.setOwner(this);
         customTypes.add(aCustomType);
+        getRegistry().register(aCustomType);
+        revision++;
     }
 
     /**
@@ -490,6 +673,8 @@ public class Model extends ModelItem {
         modificationTracker.removeCustomType(aCustomType);
 
         customTypes.remove(aCustomType);
+        getRegistry().unregister(aCustomType);
+        revision++;
     }
 
     /**
@@ -512,6 +697,7 @@ public class Model extends ModelItem {
 
         aView.setOwner(this);
         views.add(aView);
+        getRegistry().register(aView);
     }
 
     /**
@@ -525,6 +711,7 @@ public class Model extends ModelItem {
         modificationTracker.removeView(aView);
 
         views.remove(aView);
+        getRegistry().unregister(aView);
         subjectAreas.removeView(aView);
     }
 
@@ -589,6 +776,8 @@ public class Model extends ModelItem {
     public void convert(final ConversionInfos aConversionInfo) {
         final Dialect theNewDialect = aConversionInfo.getTargetDialect();
 
+        revision++;
+
         // Update the dialect
         setDialect(theNewDialect);
 
@@ -605,10 +794,13 @@ public class Model extends ModelItem {
         for (final Domain theDomain : getDomains()) {
             theDomain.setConcreteType(aConversionInfo.getTypeMapping().get(
                     theDomain));
+            markDirty(theDomain);
         }
 
-        // Convert the attributes
+        // Convert the attributes, the tables must be marked as dirty as
+        // their attributes are only saved to the repository if so
         for (final Table theTable : tables) {
+            boolean theTableConverted = false;
             for (final Attribute<Table> theAttribute : theTable.getAttributes()) {
                 final DataType theType = theAttribute.getDatatype();
 
@@ -616,8 +808,12 @@ public class Model extends ModelItem {
                 if (!theType.isDomain()) {
                     theAttribute.setDatatype(aConversionInfo.getTypeMapping()
                             .get(theType));
+                    theTableConverted = true;
                 }
             }
+            if (theTableConverted) {
+                markDirty(theTable);
+            }
         }
     }
 
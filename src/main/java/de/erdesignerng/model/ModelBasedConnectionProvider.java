@@ -50,4 +50,9 @@ public class ModelBasedConnectionProvider implements ConnectionProvider {
 	public boolean generatesManagedConnection() {
 		return model.getDialect().generatesManagedConnection();
 	}
+
+	@Override
+	public boolean supportsTransactionalDDL() {
+		return model.getDialect().isSupportsTransactionalDDL();
+	}
 }
\ No newline at end of file
@@ -19,6 +19,7 @@ package de.erdesignerng.model;
 
 import de.erdesignerng.dialect.Dialect;
 import de.erdesignerng.model.serializer.AbstractXMLModelSerializer;
+import de.erdesignerng.model.serializer.CommonXMLElementsAndAttributes;
 import de.erdesignerng.model.serializer.repository.DictionaryModelSerializer;
 import de.erdesignerng.model.serializer.repository.RepositoryEntryDescriptor;
 import de.erdesignerng.model.serializer.xml10.XMLModel10Serializer;
@@ -31,7 +32,13 @@ import org.w3c.dom.Document;
 import org.xml.sax.SAXException;
 
 import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 import javax.xml.transform.TransformerException;
+import javax.xml.transform.stream.StreamSource;
+import java.io.BufferedInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.Writer;
@@ -47,17 +54,36 @@ public final class ModelIOUtilities {
 
 	private static ModelIOUtilities me;
 
+	/**
+	 * The number of bytes that may be read to find the model element before
+	 * the stream is reset.
+	 */
+	private static final int MAX_HEADER_SIZE = 256 * 1024;
+
 	private XMLUtils xmlUtils;
 
 	private final List<AbstractXMLModelSerializer> knownSerializers = new ArrayList<>();
 
+	private final XMLModel50Serializer streamingSerializer;
+
+	private final XMLInputFactory inputFactory;
+
+	private boolean validating;
+
 	private ModelIOUtilities() throws ParserConfigurationException {
 		xmlUtils = XMLUtils.getInstance();
+		streamingSerializer = new XMLModel50Serializer(xmlUtils);
 		knownSerializers.add(new XMLModel10Serializer(xmlUtils));
 		knownSerializers.add(new XMLModel20Serializer(xmlUtils));
 		knownSerializers.add(new XMLModel30Serializer(xmlUtils));
 		knownSerializers.add(new XMLModel40Serializer(xmlUtils));
-		knownSerializers.add(new XMLModel50Serializer(xmlUtils));
+		knownSerializers.add(streamingSerializer);
+
+		inputFactory = XMLInputFactory.newInstance();
+		inputFactory.setProperty(XMLInputFactory.IS_COALESCING, Boolean.TRUE);
+		// Model files never have a DTD, do not resolve external entities
+		inputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, Boolean.FALSE);
+		inputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE);
 	}
 
 	public static ModelIOUtilities getInstance() throws ParserConfigurationException {
@@ -68,9 +94,87 @@ public final class ModelIOUtilities {
 		return me;
 	}
 
+	/**
+	 * Test if models are validated against the schema while loading. If not,
+	 * models of the current version are read in one pass and can be validated
+	 * later by validateModelXML.
+	 *
+	 * @return true if validating
+	 */
+	public boolean isValidating() {
+		return validating;
+	}
+
+	public void setValidating(boolean aValidating) {
+		validating = aValidating;
+	}
+
+	/**
+	 * Create a reader positioned at the model element.
+	 *
+	 * @param aInputStream the stream
+	 * @return the reader
+	 * @throws IOException will be thrown in case of an error
+	 */
+	private XMLStreamReader openModel(InputStream aInputStream) throws IOException {
+		try {
+			XMLStreamReader theReader = inputFactory.createXMLStreamReader(aInputStream);
+			while (theReader.getEventType() != XMLStreamConstants.START_ELEMENT) {
+				theReader.next();
+			}
+			return theReader;
+		} catch (XMLStreamException e) {
+			throw new IOException("Cannot read model", e);
+		}
+	}
+
+	private String readVersion(XMLStreamReader aReader) {
+		return aReader.getAttributeValue(null, CommonXMLElementsAndAttributes.VERSION);
+	}
+
+	private AbstractXMLModelSerializer findSerializer(String aVersion) throws IOException {
+		for (AbstractXMLModelSerializer theSerializer : knownSerializers) {
+			if (theSerializer.supportsVersion(aVersion)) {
+				return theSerializer;
+			}
+		}
+		throw new IOException("Invalid document version");
+	}
+
+	/**
+	 * Read a model from XML.
+	 * <p/>
+	 * Models of the current version are read in one pass unless validating
+	 * is enabled. Older versions are read into a DOM and validated.
+	 *
+	 * @param aInputStream the stream, will be closed
+	 * @return the model
+	 * @throws SAXException will be thrown in case of an error
+	 * @throws IOException  will be thrown in case of an error
+	 */
 	public Model deserializeModelFromXML(InputStream aInputStream) throws SAXException, IOException {
 		try {
-			Document theDocument = xmlUtils.parse(aInputStream);
+			BufferedInputStream theStream = new BufferedInputStream(aInputStream);
+			if (!validating) {
+				theStream.mark(MAX_HEADER_SIZE);
+				XMLStreamReader theReader = openModel(theStream);
+				try {
+					if (streamingSerializer.supportsVersion(readVersion(theReader))) {
+						return streamingSerializer.deserializeModelFromXML(theReader);
+					}
+				} catch (XMLStreamException e) {
+					throw new IOException("Cannot read model", e);
+				} finally {
+					try {
+						theReader.close();
+					} catch (XMLStreamException e) {
+						// Ignore this exception
+					}
+				}
+				theStream.reset();
+			}
+
+			Document theDocument = xmlUtils.parse(theStream);
 			for (AbstractXMLModelSerializer theSerializer : knownSerializers) {
 				if (theSerializer.supportsDocument(theDocument)) {
 					return theSerializer.deserializeModelFromXML(theDocument);
@@ -86,6 +190,35 @@ public final class ModelIOUtilities {
 		}
 	}
 
+	/**
+	 * Validate a model document against the schema of its version. The
+	 * document is not kept in memory.
+	 *
+	 * @param aInputStream the stream, will be closed
+	 * @throws SAXException will be thrown in case of an error
+	 * @throws IOException  will be thrown if the document is not valid
+	 */
+	public void validateModelXML(InputStream aInputStream) throws SAXException, IOException {
+		try {
+			BufferedInputStream theStream = new BufferedInputStream(aInputStream);
+			theStream.mark(MAX_HEADER_SIZE);
+			XMLStreamReader theReader = openModel(theStream);
+			String theVersion = readVersion(theReader);
+			try {
+				theReader.close();
+			} catch (XMLStreamException e) {
+				// Ignore this exception
+			}
+			theStream.reset();
+
+			findSerializer(theVersion).validate(new StreamSource(theStream));
+		} finally {
+			if (aInputStream != null) {
+				aInputStream.close();
+			}
+		}
+	}
+
 	/**
 	 * Serialize a model to XML output.
 	 *
@@ -139,4 +272,42 @@ public final class ModelIOUtilities {
 	public List<RepositoryEntryDescriptor> getRepositoryEntries( Dialect aDialect, Connection aConnection) throws Exception {
 		return DictionaryModelSerializer.SERIALIZER.getRepositoryEntries(aDialect.getHibernateDialectClass(), aConnection);
 	}
+
+	/**
+	 * Get a page of the available repository descriptors.
+	 *
+	 * @param aDialect	the dialect
+	 * @param aConnection the connection
+	 * @param aFirstResult the index of the first descriptor
+	 * @param aMaxResults the maximum number of descriptors
+	 * @return the list of descriptors
+	 * @throws Exception will be thrown in case of an exception
+	 */
+	public List<RepositoryEntryDescriptor> getRepositoryEntries(Dialect aDialect, Connection aConnection, int aFirstResult, int aMaxResults) throws Exception {
+		return DictionaryModelSerializer.SERIALIZER.getRepositoryEntries(aDialect.getHibernateDialectClass(), aConnection, aFirstResult, aMaxResults);
+	}
+
+	/**
+	 * Get the number of available repository descriptors.
+	 *
+	 * @param aDialect	the dialect
+	 * @param aConnection the connection
+	 * @return the number of descriptors
+	 * @throws Exception will be thrown in case of an exception
+	 */
+	public int getRepositoryEntryCount(Dialect aDialect, Connection aConnection) throws Exception {
+		return DictionaryModelSerializer.SERIALIZER.getRepositoryEntryCount(aDialect.getHibernateDialectClass(), aConnection);
+	}
+
+	/**
+	 * Get the longest name of the available repository descriptors.
+	 *
+	 * @param aDialect	the dialect
+	 * @param aConnection the connection
+	 * @return the longest name, or null if there are no descriptors
+	 * @throws Exception will be thrown in case of an exception
+	 */
+	public String getLongestRepositoryEntryName(Dialect aDialect, Connection aConnection) throws Exception {
+		return DictionaryModelSerializer.SERIALIZER.getLongestRepositoryEntryName(aDialect.getHibernateDialectClass(), aConnection);
+	}
 }
\ No newline at end of file
@@ -18,6 +18,11 @@
 package de.erdesignerng.model;
 
 import java.io.Serializable;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
 
 /**
  * @author $Author: mirkosertic $
@@ -37,6 +42,8 @@ public abstract class ModelItem implements Serializable {
 
 	private ModelProperties properties = new ModelProperties();
 
+	private transient List<WeakReference<ModelItemVector<?>>> indexingLists;
+
 	/**
 	 * Get the name.
 	 *
@@ -52,7 +59,11 @@ public abstract class ModelItem implements Serializable {
 	 * @param aName the name to set
 	 */
 	public void setName(String aName) {
-		name = aName;
+		if (!Objects.equals(name, aName)) {
+			identityChanging();
+			name = aName;
+			identityChanged();
+		}
 	}
 
 	/**
@@ -66,7 +77,76 @@ public abstract class ModelItem implements Serializable {
 	 * @param aSystemId the systemId to set
 	 */
 	public void setSystemId(String aSystemId) {
-		systemId = aSystemId;
+		if (!Objects.equals(systemId, aSystemId)) {
+			identityChanging();
+			systemId = aSystemId;
+			identityChanged();
+		}
+	}
+
+	/**
+	 * Register a ModelItemVector indexing this item. The list is notified if
+	 * the system id or the unique name of this item changes.
+	 *
+	 * @param aList the list
+	 */
+	synchronized void addIndexingList(ModelItemVector<?> aList) {
+		if (indexingLists == null) {
+			indexingLists = new ArrayList<>(1);
+		}
+		for (Iterator<WeakReference<ModelItemVector<?>>> theIt = indexingLists.iterator(); theIt.hasNext();) {
+			ModelItemVector<?> theList = theIt.next().get();
+			if (theList == aList) {
+				return;
+			}
+			if (theList == null) {
+				theIt.remove();
+			}
+		}
+		// Weak, so temporary lists do not stay reachable through their items
+		indexingLists.add(new WeakReference<>(aList));
+	}
+
+	/**
+	 * Unregister a ModelItemVector no longer indexing this item.
+	 *
+	 * @param aList the list
+	 */
+	synchronized void removeIndexingList(ModelItemVector<?> aList) {
+		if (indexingLists != null) {
+			indexingLists.removeIf(aReference -> aReference.get() == null || aReference.get() == aList);
+		}
+	}
+
+	private synchronized List<ModelItemVector<?>> getIndexingLists() {
+		List<ModelItemVector<?>> theResult = new ArrayList<>(1);
+		if (indexingLists != null) {
+			for (WeakReference<ModelItemVector<?>> theReference : indexingLists) {
+				ModelItemVector<?> theList = theReference.get();
+				if (theList != null) {
+					theResult.add(theList);
+				}
+			}
+		}
+		return theResult;
+	}
+
+	/**
+	 * Must be called before a value used by getUniqueName() is changed.
+	 */
+	protected void identityChanging() {
+		for (ModelItemVector<?> theList : getIndexingLists()) {
+			theList.itemIdentityChanging(this);
+		}
+	}
+
+	/**
+	 * Must be called after a value used by getUniqueName() was changed.
+	 */
+	protected void identityChanged() {
+		for (ModelItemVector<?> theList : getIndexingLists()) {
+			theList.itemIdentityChanged(this);
+		}
 	}
 
 	public ModelProperties getProperties() {
@@ -0,0 +1,265 @@
+/**
+ * Mogwai ERDesigner. Copyright (C) 2002 The Mogwai Project.
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program; if not, write to the Free Software Foundation, Inc., 59 Temple
+ * Place - Suite 330, Boston, MA 02111-1307, USA.
+ */
+package de.erdesignerng.model;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Registry of all items of a model by system id.
+ * <p/>
+ * The registry is updated by the model methods adding and removing items.
+ * Items added to the model lists directly, for instance by the
+ * deserializers, are found by rebuilding the registry on the first unknown
+ * system id. Unknown system ids are remembered until the revision of the
+ * model or the size of one of its lists changes, so repeated misses do not
+ * rebuild the registry again. Every hit is checked against the model, so
+ * items removed or changed without notifying the registry are never returned.
+ */
+class ModelItemRegistry {
+
+	private static class Entry {
+
+		private final ModelItem item;
+
+		private final Entry parent;
+
+		private Entry(ModelItem aItem, Entry aParent) {
+			item = aItem;
+			parent = aParent;
+		}
+	}
+
+	private final Model model;
+
+	private final Map<String, Entry> entries = new HashMap<>();
+
+	private final Set<String> misses = new HashSet<>();
+
+	private long missesRevision = -1;
+
+	private long[] missesStamp;
+
+	ModelItemRegistry(Model aModel) {
+		model = aModel;
+	}
+
+	private ModelList<?> getContainer(Entry aEntry) {
+		ModelItem theItem = aEntry.item;
+		if (aEntry.parent == null) {
+			if (theItem instanceof Table) {
+				return model.getTables();
+			}
+			if (theItem instanceof Relation) {
+				return model.getRelations();
+			}
+			if (theItem instanceof View) {
+				return model.getViews();
+			}
+			if (theItem instanceof Domain) {
+				return model.getDomains();
+			}
+			if (theItem instanceof CustomType) {
+				return model.getCustomTypes();
+			}
+			if (theItem instanceof Comment) {
+				return model.getComments();
+			}
+			return null;
+		}
+		ModelItem theParent = aEntry.parent.item;
+		if (theParent instanceof Table) {
+			if (theItem instanceof Attribute) {
+				return ((Table) theParent).getAttributes();
+			}
+			return ((Table) theParent).getIndexes();
+		}
+		return ((Index) theParent).getExpressions();
+	}
+
+	/**
+	 * Test if an entry still describes an item of the model.
+	 *
+	 * @param aSystemId the system id the entry was registered for
+	 * @param aEntry the entry
+	 * @return true if valid
+	 */
+	private boolean isValid(String aSystemId, Entry aEntry) {
+		if (!aSystemId.equals(aEntry.item.getSystemId())) {
+			return false;
+		}
+		ModelList<?> theContainer = getContainer(aEntry);
+		if (theContainer == null || theContainer.findBySystemId(aSystemId) != aEntry.item) {
+			return false;
+		}
+		return aEntry.parent == null || isValid(aEntry.parent.item.getSystemId(), aEntry.parent);
+	}
+
+	private Entry put(ModelItem aItem, Entry aParent) {
+		Entry theEntry = new Entry(aItem, aParent);
+		if (aItem.getSystemId() != null) {
+			entries.put(aItem.getSystemId(), theEntry);
+			misses.remove(aItem.getSystemId());
+		}
+		return theEntry;
+	}
+
+	public synchronized void register(ModelItem aItem) {
+		put(aItem, null);
+	}
+
+	public synchronized void register(Table aTable) {
+		Entry theTableEntry = put(aTable, null);
+		for (Attribute<Table> theAttribute : aTable.getAttributes()) {
+			put(theAttribute, theTableEntry);
+		}
+		for (Index theIndex : aTable.getIndexes()) {
+			register(theIndex, theTableEntry);
+		}
+	}
+
+	private void register(Index aIndex, Entry aTableEntry) {
+		Entry theIndexEntry = put(aIndex, aTableEntry);
+		for (IndexExpression theExpression : aIndex.getExpressions()) {
+			put(theExpression, theIndexEntry);
+		}
+	}
+
+	public synchronized void register(Table aTable, Attribute<Table> aAttribute) {
+		Entry theTableEntry = entries.get(aTable.getSystemId());
+		if (theTableEntry != null && theTableEntry.item == aTable) {
+			put(aAttribute, theTableEntry);
+		}
+	}
+
+	public synchronized void register(Table aTable, Index aIndex) {
+		Entry theTableEntry = entries.get(aTable.getSystemId());
+		if (theTableEntry != null && theTableEntry.item == aTable) {
+			register(aIndex, theTableEntry);
+		}
+	}
+
+	public synchronized void unregister(ModelItem aItem) {
+		Entry theEntry = entries.get(aItem.getSystemId());
+		if (theEntry != null && theEntry.item == aItem) {
+			entries.remove(aItem.getSystemId());
+		}
+	}
+
+	public synchronized void unregister(Table aTable) {
+		unregister((ModelItem) aTable);
+		for (Attribute<Table> theAttribute : aTable.getAttributes()) {
+			unregister(theAttribute);
+		}
+		for (Index theIndex : aTable.getIndexes()) {
+			unregister(theIndex);
+			theIndex.getExpressions().forEach(this::unregister);
+		}
+	}
+
+	/**
+	 * Rebuild the registry from the model.
+	 */
+	public synchronized void rebuild() {
+		entries.clear();
+		model.getTables().forEach(this::register);
+		model.getRelations().forEach(this::register);
+		model.getViews().forEach(this::register);
+		model.getDomains().forEach(this::register);
+		model.getCustomTypes().forEach(this::register);
+		model.getComments().forEach(this::register);
+	}
+
+	/**
+	 * Get the modification counts of the model lists.
+	 * <p/>
+	 * The counts of the attribute, index and index expression lists are
+	 * summed up. As long as the table list is unchanged, the sum grows with
+	 * every change of one of these lists. This only reads a counter per
+	 * table and index, which is much cheaper than a rebuild.
+	 *
+	 * @return the modification counts
+	 */
+	private long[] getStructureStamp() {
+		long theNestedCount = 0;
+		for (Table theTable : model.getTables()) {
+			theNestedCount += theTable.getAttributes().getModificationCount();
+			theNestedCount += theTable.getIndexes().getModificationCount();
+			for (Index theIndex : theTable.getIndexes()) {
+				theNestedCount += theIndex.getExpressions().getModificationCount();
+			}
+		}
+		return new long[] { model.getTables().getModificationCount(), model.getRelations().getModificationCount(),
+				model.getViews().getModificationCount(), model.getDomains().getModificationCount(),
+				model.getCustomTypes().getModificationCount(), model.getComments().getModificationCount(),
+				theNestedCount };
+	}
+
+	private boolean isKnownMiss(String aSystemId) {
+		if (!misses.contains(aSystemId)) {
+			return false;
+		}
+		if (missesRevision == model.getRevision() && Arrays.equals(missesStamp, getStructureStamp())) {
+			return true;
+		}
+		misses.clear();
+		return false;
+	}
+
+	private void rememberMiss(String aSystemId) {
+		long[] theStamp = getStructureStamp();
+		if (missesRevision != model.getRevision() || !Arrays.equals(missesStamp, theStamp)) {
+			misses.clear();
+			missesRevision = model.getRevision();
+			missesStamp = theStamp;
+		}
+		misses.add(aSystemId);
+	}
+
+	private ModelItem lookup(String aSystemId) {
+		Entry theEntry = entries.get(aSystemId);
+		if (theEntry != null && isValid(aSystemId, theEntry)) {
+			return theEntry.item;
+		}
+		return null;
+	}
+
+	/**
+	 * Find an item by system id.
+	 *
+	 * @param aSystemId the system id
+	 * @return the item or null if there is no such item in the model
+	 */
+	public synchronized ModelItem findBySystemId(String aSystemId) {
+		if (aSystemId == null) {
+			return null;
+		}
+		ModelItem theResult = lookup(aSystemId);
+		if (theResult == null && !isKnownMiss(aSystemId)) {
+			rebuild();
+			theResult = lookup(aSystemId);
+			if (theResult == null) {
+				rememberMiss(aSystemId);
+			}
+		}
+		return theResult;
+	}
+}
@@ -17,9 +17,22 @@
  */
 package de.erdesignerng.model;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Vector;
 
 /**
+ * A list of model items with hash based lookups by system id and name.
+ * <p/>
+ * The indexes are built on the first lookup and kept up to date when items
+ * are added, replaced or removed. Indexed items notify the list when their
+ * name or system id changes. Bulk modifications not handled here let the
+ * indexes be rebuilt on the next lookup. If names are not unique, the first
+ * item in list order is found.
+ *
  * @author $Author: mirkosertic $
  * @version $Date: 2009-03-09 19:07:29 $
  * @param <T>
@@ -29,6 +42,322 @@ public class ModelItemVector<T extends ModelItem> extends Vector<T> implements M
 
 	private static final long serialVersionUID = 5030067810497396582L;
 
+	private static final int SYSTEM_ID = 0;
+
+	private static final int NAME = 1;
+
+	private static final int UNIQUE_NAME = 2;
+
+	private static final int FOLDED_UNIQUE_NAME = 3;
+
+	private transient List<Map<String, T>> indexes;
+
+	/**
+	 * The number of items per key, for the keys used by more than one item.
+	 */
+	private transient List<Map<String, Integer>> duplicates;
+
+	private transient int indexedModCount;
+
+	private static String[] keysOf(ModelItem aItem) {
+		String theUniqueName = aItem.getUniqueName();
+		return new String[]{aItem.getSystemId(), aItem.getName(), theUniqueName,
+				theUniqueName != null ? ModelUtilities.foldCase(theUniqueName) : null};
+	}
+
+	private static String keyOf(ModelItem aItem, int aIndex) {
+		switch (aIndex) {
+			case SYSTEM_ID:
+				return aItem.getSystemId();
+			case NAME:
+				return aItem.getName();
+			case UNIQUE_NAME:
+				return aItem.getUniqueName();
+			default:
+				String theUniqueName = aItem.getUniqueName();
+				return theUniqueName != null ? ModelUtilities.foldCase(theUniqueName) : null;
+		}
+	}
+
+	private void countKey(int aIndex, String aKey) {
+		if (indexes.get(aIndex).containsKey(aKey)) {
+			duplicates.get(aIndex).merge(aKey, 2, (aCount, aTwo) -> aCount + 1);
+		}
+	}
+
+	private boolean isIndexValid() {
+		return indexes != null && indexedModCount == modCount;
+	}
+
+	private int identityIndexOf(ModelItem aItem) {
+		for (int i = 0; i < elementCount; i++) {
+			if (elementData[i] == aItem) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Index an item appended to the list. Items indexed with the same keys
+	 * precede it and stay in the index.
+	 */
+	private void indexAppended(T aItem) {
+		if (aItem == null) {
+			return;
+		}
+		aItem.addIndexingList(this);
+		String[] theKeys = keysOf(aItem);
+		for (int i = 0; i < theKeys.length; i++) {
+			if (theKeys[i] != null) {
+				countKey(i, theKeys[i]);
+				indexes.get(i).putIfAbsent(theKeys[i], aItem);
+			}
+		}
+	}
+
+	/**
+	 * Index an item at any position of the list. It replaces items indexed
+	 * with the same keys if it precedes them.
+	 */
+	private void indexInserted(T aItem) {
+		if (aItem == null) {
+			return;
+		}
+		aItem.addIndexingList(this);
+		int thePosition = identityIndexOf(aItem);
+		String[] theKeys = keysOf(aItem);
+		for (int i = 0; i < theKeys.length; i++) {
+			if (theKeys[i] != null) {
+				countKey(i, theKeys[i]);
+				T theIndexed = indexes.get(i).get(theKeys[i]);
+				if (theIndexed == null || thePosition < identityIndexOf(theIndexed)) {
+					indexes.get(i).put(theKeys[i], aItem);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Remove the keys of an item from the index. Keys also used by other items
+	 * are indexed for the first of them, which needs a scan of the list.
+	 *
+	 * @param aItem the item
+	 * @param aSkipItem true if the item itself must not be indexed again, as its keys are about to change
+	 */
+	private void unindex(T aItem, boolean aSkipItem) {
+		if (aItem == null) {
+			return;
+		}
+		String[] theKeys = keysOf(aItem);
+		for (int i = 0; i < theKeys.length; i++) {
+			if (theKeys[i] == null) {
+				continue;
+			}
+			Map<String, T> theIndex = indexes.get(i);
+			Integer theCount = duplicates.get(i).remove(theKeys[i]);
+			if (theCount == null) {
+				theIndex.remove(theKeys[i]);
+				continue;
+			}
+			if (theCount > 2) {
+				duplicates.get(i).put(theKeys[i], theCount - 1);
+			}
+			if (theIndex.get(theKeys[i]) == aItem) {
+				theIndex.remove(theKeys[i]);
+				for (int j = 0; j < elementCount; j++) {
+					T theItem = elementAt(j);
+					if (theItem != null && !(aSkipItem && theItem == aItem) && theKeys[i].equals(keyOf(theItem, i))) {
+						theIndex.put(theKeys[i], theItem);
+						break;
+					}
+				}
+			}
+		}
+		if (!aSkipItem && identityIndexOf(aItem) < 0) {
+			aItem.removeIndexingList(this);
+		}
+	}
+
+	private void ensureIndex() {
+		if (isIndexValid()) {
+			return;
+		}
+		indexes = new ArrayList<>(4);
+		duplicates = new ArrayList<>(4);
+		for (int i = 0; i <= FOLDED_UNIQUE_NAME; i++) {
+			indexes.add(new HashMap<>());
+			duplicates.add(new HashMap<>());
+		}
+		for (int i = 0; i < elementCount; i++) {
+			indexAppended(elementAt(i));
+		}
+		indexedModCount = modCount;
+	}
+
+	/**
+	 * Called by an indexed item before its name or system id changes.
+	 *
+	 * @param aItem the item
+	 */
+	synchronized void itemIdentityChanging(ModelItem aItem) {
+		int thePosition = identityIndexOf(aItem);
+		if (thePosition < 0) {
+			aItem.removeIndexingList(this);
+		} else if (isIndexValid()) {
+			unindex(elementAt(thePosition), true);
+		}
+	}
+
+	/**
+	 * Called by an indexed item after its name or system id changed.
+	 *
+	 * @param aItem the item
+	 */
+	synchronized void itemIdentityChanged(ModelItem aItem) {
+		int thePosition = identityIndexOf(aItem);
+		if (thePosition >= 0 && isIndexValid()) {
+			indexInserted(elementAt(thePosition));
+		}
+	}
+
+	@Override
+	public synchronized boolean add(T aItem) {
+		boolean theIndexValid = isIndexValid();
+		boolean theResult = super.add(aItem);
+		if (theIndexValid) {
+			indexAppended(aItem);
+			indexedModCount = modCount;
+		}
+		return theResult;
+	}
+
+	@Override
+	public synchronized void addElement(T aItem) {
+		boolean theIndexValid = isIndexValid();
+		super.addElement(aItem);
+		if (theIndexValid) {
+			indexAppended(aItem);
+			indexedModCount = modCount;
+		}
+	}
+
+	@Override
+	public synchronized boolean addAll(Collection<? extends T> aItems) {
+		boolean theIndexValid = isIndexValid();
+		int theOldCount = elementCount;
+		boolean theResult = super.addAll(aItems);
+		if (theIndexValid) {
+			for (int i = theOldCount; i < elementCount; i++) {
+				indexAppended(elementAt(i));
+			}
+			indexedModCount = modCount;
+		}
+		return theResult;
+	}
+
+	@Override
+	public synchronized void insertElementAt(T aItem, int aIndex) {
+		// Also used by add(int, Object)
+		boolean theIndexValid = isIndexValid();
+		super.insertElementAt(aItem, aIndex);
+		if (theIndexValid) {
+			indexInserted(aItem);
+			indexedModCount = modCount;
+		}
+	}
+
+	@Override
+	public synchronized T set(int aIndex, T aItem) {
+		T theOldItem = super.set(aIndex, aItem);
+		if (isIndexValid()) {
+			unindex(theOldItem, false);
+			indexInserted(aItem);
+		}
+		return theOldItem;
+	}
+
+	@Override
+	public synchronized void setElementAt(T aItem, int aIndex) {
+		set(aIndex, aItem);
+	}
+
+	@Override
+	public synchronized T remove(int aIndex) {
+		boolean theIndexValid = isIndexValid();
+		T theOldItem = super.remove(aIndex);
+		if (theIndexValid) {
+			unindex(theOldItem, false);
+			indexedModCount = modCount;
+		}
+		return theOldItem;
+	}
+
+	@Override
+	public synchronized boolean removeElement(Object aItem) {
+		// Also used by remove(Object). Vector counts a modification before
+		// calling removeElementAt, which would invalidate the indexes
+		int theIndex = indexOf(aItem);
+		if (theIndex >= 0) {
+			removeElementAt(theIndex);
+			return true;
+		}
+		return false;
+	}
+
+	@Override
+	public synchronized void removeElementAt(int aIndex) {
+		boolean theIndexValid = isIndexValid();
+		T theOldItem = elementAt(aIndex);
+		super.removeElementAt(aIndex);
+		if (theIndexValid) {
+			unindex(theOldItem, false);
+			indexedModCount = modCount;
+		}
+	}
+
+	@Override
+	public synchronized void removeAllElements() {
+		// Also used by clear()
+		boolean theIndexValid = isIndexValid();
+		if (theIndexValid) {
+			for (int i = 0; i < elementCount; i++) {
+				T theItem = elementAt(i);
+				if (theItem != null) {
+					theItem.removeIndexingList(this);
+				}
+			}
+		}
+		super.removeAllElements();
+		if (theIndexValid) {
+			for (int i = 0; i <= FOLDED_UNIQUE_NAME; i++) {
+				indexes.get(i).clear();
+				duplicates.get(i).clear();
+			}
+			indexedModCount = modCount;
+		}
+	}
+
+	/**
+	 * Get the number of structural modifications of this list.
+	 * <p/>
+	 * The count is incremented when items are added or removed, so it can be
+	 * used to detect that data derived from the list is stale.
+	 *
+	 * @return the modification count
+	 */
+	synchronized int getModificationCount() {
+		return modCount;
+	}
+
+	@Override
+	public synchronized Object clone() {
+		ModelItemVector<?> theClone = (ModelItemVector<?>) super.clone();
+		theClone.indexes = null;
+		theClone.duplicates = null;
+		return theClone;
+	}
+
 	/**
 	 * Find an entry by a given system id.
 	 * 
@@ -37,13 +366,9 @@ public class ModelItemVector<T extends ModelItem> extends Vector<T> implements M
 	 * @return the found element
 	 */
 	@Override
-	public T findBySystemId(String aSystemId) {
-		for (T theItem : this) {
-			if (aSystemId.equals(theItem.getSystemId())) {
-				return theItem;
-			}
-		}
-		return null;
+	public synchronized T findBySystemId(String aSystemId) {
+		ensureIndex();
+		return indexes.get(SYSTEM_ID).get(aSystemId);
 	}
 
 	/**
@@ -56,20 +381,12 @@ public class ModelItemVector<T extends ModelItem> extends Vector<T> implements M
 	 * 
 	 * @return true if it exists, else false.
 	 */
-	public boolean elementExists(String aUniqueName, boolean aCaseSensitive) {
-		for (T theElement : this) {
-			if (aCaseSensitive) {
-				if (aUniqueName.equals(theElement.getUniqueName())) {
-					return true;
-				}
-			} else {
-				if (aUniqueName.equalsIgnoreCase(theElement.getUniqueName())) {
-					return true;
-				}
-			}
+	public synchronized boolean elementExists(String aUniqueName, boolean aCaseSensitive) {
+		ensureIndex();
+		if (aCaseSensitive) {
+			return indexes.get(UNIQUE_NAME).containsKey(aUniqueName);
 		}
-
-		return false;
+		return indexes.get(FOLDED_UNIQUE_NAME).containsKey(ModelUtilities.foldCase(aUniqueName));
 	}
 
 	/**
@@ -79,13 +396,9 @@ public class ModelItemVector<T extends ModelItem> extends Vector<T> implements M
 	 *			the name
 	 * @return the found element
 	 */
-	public T findByName(String aName) {
-		for (T theElement : this) {
-			if (aName.equals(theElement.getName())) {
-				return theElement;
-			}
-		}
-		return null;
+	public synchronized T findByName(String aName) {
+		ensureIndex();
+		return indexes.get(NAME).get(aName);
 	}
 
 	/**
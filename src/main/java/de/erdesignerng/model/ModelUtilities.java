@@ -74,6 +74,20 @@ public final class ModelUtilities {
 		checkExistence(aVector, aItem.getUniqueName(), aDialect);
 	}
 
+	/**
+	 * Fold the case of a name the same way String.equalsIgnoreCase does.
+	 *
+	 * @param aName the name
+	 * @return the folded name
+	 */
+	public static String foldCase(String aName) {
+		char[] theChars = aName.toCharArray();
+		for (int i = 0; i < theChars.length; i++) {
+			theChars[i] = Character.toLowerCase(Character.toUpperCase(theChars[i]));
+		}
+		return new String(theChars);
+	}
+
 	/**
 	 * Create a unique system id.
 	 *
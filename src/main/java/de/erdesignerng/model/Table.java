@@ -21,6 +21,8 @@ import de.erdesignerng.exception.ElementAlreadyExistsException;
 import de.erdesignerng.exception.ElementInvalidNameException;
 import org.apache.commons.lang.StringUtils;
 
+import java.util.Objects;
+
 /**
  * @author $Author: mirkosertic $
  * @version $Date: 2009-03-09 19:07:29 $
@@ -132,7 +134,11 @@ public class Table extends OwnedModelItem<Model> implements AttributeProvider<Ta
      * @param schema the schema to set
      */
     public void setSchema(String schema) {
-        this.schema = schema;
+        if (!Objects.equals(this.schema, schema)) {
+            identityChanging();
+            this.schema = schema;
+            identityChanged();
+        }
     }
 
     @Override
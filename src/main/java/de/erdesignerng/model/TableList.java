@@ -25,23 +25,6 @@ public class TableList extends ModelItemVector<Table> {
 
 	private static final long serialVersionUID = 7291908371933857720L;
 
-	/**
-	 * Find an attribute by a given system id.
-	 * 
-	 * @param aSystemId
-	 *			the system id
-	 * @return the attribute or null if nothing was found
-	 */
-	public Attribute<Table> findAttributeBySystemId(String aSystemId) {
-		for (Table theTable : this) {
-			Attribute<Table> theAttribute = theTable.getAttributes().findBySystemId(aSystemId);
-			if (theAttribute != null) {
-				return theAttribute;
-			}
-		}
-		return null;
-	}
-
 	/**
 	 * Test if the domain is in use by a table.
 	 * 
@@ -19,6 +19,8 @@ package de.erdesignerng.model;
 
 import org.apache.commons.lang.StringUtils;
 
+import java.util.Objects;
+
 /**
  * @author $Author: mirkosertic $
  * @version $Date: 2009-03-09 19:07:29 $
@@ -64,7 +66,11 @@ public class View extends OwnedModelItem<Model> {
      * @param schema the schema to set
      */
     public void setSchema(String schema) {
-        this.schema = schema;
+        if (!Objects.equals(this.schema, schema)) {
+            identityChanging();
+            this.schema = schema;
+            identityChanged();
+        }
     }
 
     @Override
@@ -24,7 +24,10 @@ import java.io.IOException;
 import java.io.Writer;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import javax.xml.XMLConstants;
+import javax.xml.transform.Source;
 import javax.xml.transform.TransformerException;
 import javax.xml.transform.dom.DOMSource;
 import javax.xml.validation.Schema;
@@ -57,6 +60,12 @@ public abstract class AbstractXMLModelSerializer extends CommonAbstractXMLSerial
 
     protected static final String COMMENTS = "Comments";
 
+    /**
+     * The compiled schemas by resource name. Compiling a schema is expensive,
+     * and compiled schemas are thread safe.
+     */
+    private static final Map<String, Schema> SCHEMAS = new ConcurrentHashMap<>();
+
     private AbstractXMLAttributeSerializer xmlAttributeSerializer = null;
 
     private AbstractXMLCommentSerializer xmlCommentSerializer = null;
@@ -93,19 +102,45 @@ public abstract class AbstractXMLModelSerializer extends CommonAbstractXMLSerial
             return false;
         }
         Element theDocumentElement = (Element) theNodes.item(0);
-        return getVersion().equals(theDocumentElement.getAttribute(VERSION));
+        return supportsVersion(theDocumentElement.getAttribute(VERSION));
     }
 
-    public Model deserializeModelFromXML(Document aDocument) throws SAXException, IOException {
+    /**
+     * Test if the persister supports a document version.
+     *
+     * @param aVersion the version attribute of the model element
+     * @return true if yes, else false
+     */
+    public boolean supportsVersion(String aVersion) {
+        return getVersion().equals(aVersion);
+    }
 
-        if (!supportsDocument(aDocument)) {
-            throw new IOException("Unsupported model version");
+    /**
+     * Get the compiled schema of the supported document version.
+     *
+     * @return the schema
+     * @throws SAXException will be thrown if the schema cannot be compiled
+     */
+    protected Schema getSchema() throws SAXException {
+        Schema theSchema = SCHEMAS.get(getSchemaResource());
+        if (theSchema == null) {
+            SchemaFactory theSchemaFactory = SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI);
+            theSchema = theSchemaFactory.newSchema(getClass().getResource(getSchemaResource()));
+            SCHEMAS.put(getSchemaResource(), theSchema);
         }
+        return theSchema;
+    }
 
-        final List<SAXParseException> theExceptions = new ArrayList<>();
+    /**
+     * Validate a document against the schema of the supported version.
+     *
+     * @param aSource the document
+     * @throws SAXException will be thrown in case of an error
+     * @throws IOException  will be thrown if the document is not valid
+     */
+    public void validate(Source aSource) throws SAXException, IOException {
 
-        // Validate the document
-        SchemaFactory theSchemaFactory = SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI);
+        final List<SAXParseException> theExceptions = new ArrayList<>();
 
         // hook up org.XML.sax.ErrorHandler implementation.
         ErrorHandler theHandler = new ErrorHandler() {
@@ -125,23 +160,27 @@ public abstract class AbstractXMLModelSerializer extends CommonAbstractXMLSerial
                 theExceptions.add(aException);
             }
         };
-        theSchemaFactory.setErrorHandler(theHandler);
-
-        // get the custom xsd schema describing the required format for my XML
-        // files.
-        Schema theSchema = theSchemaFactory.newSchema(getClass().getResource(getSchemaResource()));
 
         // Create a Validator capable of validating XML files according to my
         // custom schema.
-        Validator validator = theSchema.newValidator();
+        Validator validator = getSchema().newValidator();
         validator.setErrorHandler(theHandler);
 
-        // parse the XML DOM tree against the stricter XSD schema
-        validator.validate(new DOMSource(aDocument));
+        validator.validate(aSource);
 
         if (theExceptions.size() > 0) {
             throw new IOException("Failed to validate document against schema", theExceptions.get(0));
         }
+    }
+
+    public Model deserializeModelFromXML(Document aDocument) throws SAXException, IOException {
+
+        if (!supportsDocument(aDocument)) {
+            throw new IOException("Unsupported model version");
+        }
+
+        // parse the XML DOM tree against the stricter XSD schema
+        validate(new DOMSource(aDocument));
 
         return deserialize(aDocument);
     }
@@ -24,8 +24,10 @@ import de.erdesignerng.model.serializer.repository.entities.StringKeyValuePair;
 
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 
 /**
@@ -40,13 +42,31 @@ public abstract class DictionaryBaseSerializer {
         aDestination.setName(aSource.getName());
         aDestination.setComment(aSource.getComment());
 
-        aDestination.getProperties().clear();
-        for (Map.Entry<String, String> theEntry : aSource.getProperties().getProperties().entrySet()) {
-            StringKeyValuePair theElement = new StringKeyValuePair();
-            theElement.setKey(theEntry.getKey());
-            theElement.setValue(theEntry.getValue());
-            aDestination.getProperties().add(theElement);
+        // Rewriting an unchanged property list would delete and insert all its rows
+        if (!isSameProperties(aSource.getProperties().getProperties(), aDestination.getProperties())) {
+            aDestination.getProperties().clear();
+            for (Map.Entry<String, String> theEntry : aSource.getProperties().getProperties().entrySet()) {
+                StringKeyValuePair theElement = new StringKeyValuePair();
+                theElement.setKey(theEntry.getKey());
+                theElement.setValue(theEntry.getValue());
+                aDestination.getProperties().add(theElement);
+            }
+        }
+    }
+
+    protected boolean isSameProperties(Map<String, String> aSource, List<StringKeyValuePair> aDestination) {
+        if (aSource.size() != aDestination.size()) {
+            return false;
+        }
+        Iterator<StringKeyValuePair> theDestination = aDestination.iterator();
+        for (Map.Entry<String, String> theEntry : aSource.entrySet()) {
+            StringKeyValuePair theElement = theDestination.next();
+            if (!Objects.equals(theEntry.getKey(), theElement.getKey())
+                    || !Objects.equals(theEntry.getValue(), theElement.getValue())) {
+                return false;
+            }
         }
+        return true;
     }
 
     protected void copyBaseAttributes(ModelEntity aSource, ModelItem aDestination) {
@@ -28,6 +28,7 @@ import de.erdesignerng.model.serializer.repository.entities.StringKeyValuePair;
 import de.erdesignerng.modificationtracker.HistoryModificationTracker;
 import de.erdesignerng.modificationtracker.ModelModificationTracker;
 import org.hibernate.Criteria;
+import org.hibernate.Hibernate;
 import org.hibernate.Session;
 import org.hibernate.criterion.Order;
 import org.hibernate.criterion.Projections;
@@ -46,9 +47,36 @@ public class DictionaryModelSerializer extends DictionaryBaseSerializer {
 
 	public static final DictionaryModelSerializer SERIALIZER = new DictionaryModelSerializer();
 
+	/**
+	 * Save a model to the repository.
+	 * <p/>
+	 * If the model was loaded from or last saved to the same repository entry,
+	 * only the tables and relations marked as dirty are written completely.
+	 * All other items are compared to the stored state and only updated if
+	 * they differ.
+	 *
+	 * @param aDesc the repository descriptor
+	 * @param aModel the model
+	 * @param aConnection the connection
+	 * @param aHibernateDialectClass the hibernate dialect class
+	 * @return the updated descriptor
+	 * @throws Exception will be thrown in case of an error
+	 */
 	public RepositoryEntryDescriptor serialize(final RepositoryEntryDescriptor aDesc, final Model aModel,
 											   Connection aConnection, Class aHibernateDialectClass) throws Exception {
 
+		try {
+			return doSerialize(aDesc, aModel, aConnection, aHibernateDialectClass);
+		} catch (Exception e) {
+			// The repository state is unknown now, so the next save must be a complete one
+			aModel.stopChangeTracking();
+			throw e;
+		}
+	}
+
+	private RepositoryEntryDescriptor doSerialize(final RepositoryEntryDescriptor aDesc, final Model aModel,
+												  Connection aConnection, Class<?> aHibernateDialectClass) throws Exception {
+
 		return (RepositoryEntryDescriptor) new HibernateTemplate(aHibernateDialectClass, aConnection) {
 
 			@Override
@@ -61,16 +89,20 @@ public class DictionaryModelSerializer extends DictionaryBaseSerializer {
 					theEntity = (RepositoryEntity) aSession.get(RepositoryEntity.class, aDesc.getId());
 				}
 
+				boolean theDelta = aDesc.getId() != null && aModel.isChangeTrackingBase(theEntity.getSystemId());
+
 				theEntity.setName(aDesc.getName());
 				theEntity.setDialect(aModel.getDialect().getUniqueName());
 
 				// Serialize properties
-				theEntity.getProperties().clear();
-				for (Map.Entry<String, String> theEntry : aModel.getProperties().getProperties().entrySet()) {
-					StringKeyValuePair theElement = new StringKeyValuePair();
-					theElement.setKey(theEntry.getKey());
-					theElement.setValue(theEntry.getValue());
-					theEntity.getProperties().add(theElement);
+				if (!isSameProperties(aModel.getProperties().getProperties(), theEntity.getProperties())) {
+					theEntity.getProperties().clear();
+					for (Map.Entry<String, String> theEntry : aModel.getProperties().getProperties().entrySet()) {
+						StringKeyValuePair theElement = new StringKeyValuePair();
+						theElement.setKey(theEntry.getKey());
+						theElement.setValue(theEntry.getValue());
+						theEntity.getProperties().add(theElement);
+					}
 				}
 
 				// Serialize the rest
@@ -78,34 +110,43 @@ public class DictionaryModelSerializer extends DictionaryBaseSerializer {
 
 				DictionaryDomainSerializer.SERIALIZER.serialize(aModel, theEntity);
 
-				DictionaryTableSerializer.SERIALIZER.serialize(aModel, aSession, theEntity);
+				DictionaryTableSerializer.SERIALIZER.serialize(aModel, aSession, theEntity, theDelta);
 
 				DictionaryViewSerializer.SERIALIZER.serialize(aModel, theEntity);
 
-				DictionaryRelationSerializer.SERIALIZER.serialize(aModel, theEntity);
+				DictionaryRelationSerializer.SERIALIZER.serialize(aModel, theEntity, theDelta);
 
 				DictionaryCommentSerializer.SERIALIZER.serialize(aModel, theEntity);
 
 				DictionarySubjectAreaSerializer.SERIALIZER.serialize(aModel, theEntity);
 
-				// Serialize changes
+				aSession.saveOrUpdate(theEntity);
+
+				// Serialize changes. The change history is mapped by the changes,
+				// so a new change is saved without reading the history
 				ModelModificationTracker theTracker = aModel.getModificationTracker();
 				if (theTracker instanceof HistoryModificationTracker) {
 					HistoryModificationTracker theHistTracker = (HistoryModificationTracker) theTracker;
 					StatementList theList = theHistTracker.getNotSavedStatements();
 					if (theList.size() > 0) {
+						Number theChangeCount = (Number) aSession.createQuery(
+								"select count(c) from ChangeEntity c where c.repositoryId = :id")
+								.setParameter("id", theEntity.getId()).uniqueResult();
+
 						ChangeEntity theChange = new ChangeEntity();
 						theChange.setSystemId(ModelUtilities.createSystemIdFor());
+						theChange.setRepositoryId(theEntity.getId());
+						theChange.setListIndex(theChangeCount.intValue());
 						for (Statement theStatement : theList) {
 							theChange.getStatements().add(theStatement.getSql());
 							theStatement.setSaved(true);
 						}
 
-						theEntity.getChanges().add(theChange);
+						aSession.save(theChange);
 					}
 				}
 
-				aSession.saveOrUpdate(theEntity);
+				aModel.startChangeTracking(theEntity.getSystemId());
 
 				aDesc.setName(theEntity.getName());
 				aDesc.setId(theEntity.getId());
@@ -149,6 +190,8 @@ public class DictionaryModelSerializer extends DictionaryBaseSerializer {
 
 				DictionarySubjectAreaSerializer.SERIALIZER.deserialize(theNewModel, theRepositoryEntity);
 
+				theNewModel.startChangeTracking(theRepositoryEntity.getSystemId());
+
 				return theNewModel;
 			}
 
@@ -165,15 +208,35 @@ public class DictionaryModelSerializer extends DictionaryBaseSerializer {
 	 */
 	public List<RepositoryEntryDescriptor> getRepositoryEntries(Class aDialectClass, Connection aConnection)
 			throws Exception {
-		return (List<RepositoryEntryDescriptor>) new HibernateTemplate(aDialectClass, aConnection) {
+		return getRepositoryEntries(aDialectClass, aConnection, 0, -1);
+	}
+
+	/**
+	 * Get a page of the available repository entries, ordered by name. Only
+	 * the id and the name of the entries are read.
+	 *
+	 * @param aDialectClass the hibernate dialect class
+	 * @param aConnection   the jdbc connection
+	 * @param aFirstResult  the index of the first entry
+	 * @param aMaxResults   the maximum number of entries, or -1 for all entries
+	 * @return list of entries
+	 * @throws Exception will be thrown in case of an exception
+	 */
+	public List<RepositoryEntryDescriptor> getRepositoryEntries(Class<?> aDialectClass, Connection aConnection,
+			final int aFirstResult, final int aMaxResults) throws Exception {
+		final List<RepositoryEntryDescriptor> theResult = new ArrayList<>();
+		new HibernateTemplate(aDialectClass, aConnection) {
 			@Override
 			public Object doInSession(Session aSession) {
-				List<RepositoryEntryDescriptor> theResult = new ArrayList<>();
-
 				Criteria theCriteria = aSession.createCriteria(RepositoryEntity.class);
 				theCriteria.setProjection(Projections.projectionList().add(Projections.property("id")).add(
 						Projections.property("name")));
 				theCriteria.addOrder(Order.asc("name"));
+				theCriteria.addOrder(Order.asc("id"));
+				theCriteria.setFirstResult(aFirstResult);
+				if (aMaxResults >= 0) {
+					theCriteria.setMaxResults(aMaxResults);
+				}
 
 				for (Object theObject : theCriteria.list()) {
 					Object[] theArray = (Object[]) theObject;
@@ -183,7 +246,45 @@ public class DictionaryModelSerializer extends DictionaryBaseSerializer {
 					theEntry.setName((String) theArray[1]);
 					theResult.add(theEntry);
 				}
-				return theResult;
+				return null;
+			}
+		}.execute();
+		return theResult;
+	}
+
+	/**
+	 * Get the number of available repository entries.
+	 *
+	 * @param aDialectClass the hibernate dialect class
+	 * @param aConnection   the jdbc connection
+	 * @return the number of entries
+	 * @throws Exception will be thrown in case of an exception
+	 */
+	public int getRepositoryEntryCount(Class<?> aDialectClass, Connection aConnection) throws Exception {
+		return (Integer) new HibernateTemplate(aDialectClass, aConnection) {
+			@Override
+			public Object doInSession(Session aSession) {
+				Criteria theCriteria = aSession.createCriteria(RepositoryEntity.class);
+				theCriteria.setProjection(Projections.rowCount());
+				return ((Number) theCriteria.uniqueResult()).intValue();
+			}
+		}.execute();
+	}
+
+	/**
+	 * Get the longest name of the available repository entries.
+	 *
+	 * @param aDialectClass the hibernate dialect class
+	 * @param aConnection   the jdbc connection
+	 * @return the longest name, or null if there are no entries
+	 * @throws Exception will be thrown in case of an exception
+	 */
+	public String getLongestRepositoryEntryName(Class<?> aDialectClass, Connection aConnection) throws Exception {
+		return (String) new HibernateTemplate(aDialectClass, aConnection) {
+			@Override
+			public Object doInSession(Session aSession) {
+				return aSession.createQuery("select r.name from RepositoryEntity r order by length(r.name) desc")
+						.setMaxResults(1).uniqueResult();
 			}
 		}.execute();
 	}
@@ -203,9 +304,49 @@ public class DictionaryModelSerializer extends DictionaryBaseSerializer {
 
 			@Override
 			public Object doInSession(Session aSession) {
-				return aSession.get(RepositoryEntity.class, aCurrentRepositoryEntry.getId());
+				RepositoryEntity theEntity = (RepositoryEntity) aSession.get(RepositoryEntity.class,
+						aCurrentRepositoryEntry.getId());
+				initializeChanges(theEntity.getChanges());
+				return theEntity;
+			}
+
+		}.execute();
+	}
+
+	/**
+	 * Read the change history of a repository entry. The change history is
+	 * mapped lazily, so it is only read if requested by this method.
+	 *
+	 * @param aHibernateDialectClass  the hibernate dialect class
+	 * @param aConnection			 the connection
+	 * @param aCurrentRepositoryEntry the repository descriptor
+	 * @return the changes including their statements, in the order of creation
+	 * @throws Exception will be thrown in case of an error
+	 */
+	public List<ChangeEntity> getChangeHistory(Class<?> aHibernateDialectClass, Connection aConnection,
+											   final RepositoryEntryDescriptor aCurrentRepositoryEntry) throws Exception {
+		final List<ChangeEntity> theChanges = new ArrayList<>();
+		new HibernateTemplate(aHibernateDialectClass, aConnection) {
+
+			@Override
+			public Object doInSession(Session aSession) {
+				for (Object theObject : aSession.createQuery(
+						"select c from ChangeEntity c where c.repositoryId = :id order by c.listIndex")
+						.setParameter("id", aCurrentRepositoryEntry.getId()).list()) {
+					theChanges.add((ChangeEntity) theObject);
+				}
+				initializeChanges(theChanges);
+				return null;
 			}
 
 		}.execute();
+		return theChanges;
+	}
+
+	private void initializeChanges(List<ChangeEntity> aChanges) {
+		Hibernate.initialize(aChanges);
+		for (ChangeEntity theChange : aChanges) {
+			Hibernate.initialize(theChange.getStatements());
+		}
 	}
 }
\ No newline at end of file
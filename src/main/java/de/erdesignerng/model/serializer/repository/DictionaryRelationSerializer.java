@@ -56,8 +56,8 @@ public class DictionaryRelationSerializer extends DictionaryBaseSerializer {
 	}
 
 	private void copyExtendedAttributes(RelationEntity aSource, Relation aDestination, Model aModel) {
-		aDestination.setImportingTable(aModel.getTables().findBySystemId(aSource.getImportingTable()));
-		aDestination.setExportingTable(aModel.getTables().findBySystemId(aSource.getExportingTable()));
+		aDestination.setImportingTable(aModel.findBySystemId(aSource.getImportingTable(), Table.class));
+		aDestination.setExportingTable(aModel.findBySystemId(aSource.getExportingTable(), Table.class));
 		aDestination.setOnUpdate(CascadeType.fromId(aSource.getOnUpdate()));
 		aDestination.setOnDelete(CascadeType.fromId(aSource.getOnDelete()));
 
@@ -81,7 +81,17 @@ public class DictionaryRelationSerializer extends DictionaryBaseSerializer {
 		}
 	}
 
-	public void serialize(Model aModel, RepositoryEntity aDictionary) {
+	/**
+	 * Serialize the relations of a model.
+	 * <p/>
+	 * In delta mode, only the base attributes of existing relations are
+	 * written if the relation was not marked as dirty in the model.
+	 *
+	 * @param aModel the model
+	 * @param aDictionary the repository entity
+	 * @param aDelta true if only the dirty relations shall be written completely
+	 */
+	public void serialize(Model aModel, RepositoryEntity aDictionary, boolean aDelta) {
 
 		Map<String, ModelEntity> theRelations = deletedRemovedInstances(aModel.getRelations(), aDictionary
 				.getRelations());
@@ -95,7 +105,9 @@ public class DictionaryRelationSerializer extends DictionaryBaseSerializer {
 			}
 
 			copyBaseAttributes(theRelation, theExisting);
-			copyExtendedAttributes(theRelation, theExisting);
+			if (!existing || !aDelta || aModel.isDirty(theRelation)) {
+				copyExtendedAttributes(theRelation, theExisting);
+			}
 
 			if (!existing) {
 				aDictionary.getRelations().add(theExisting);
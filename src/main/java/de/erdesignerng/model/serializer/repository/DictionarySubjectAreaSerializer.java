@@ -69,17 +69,17 @@ public class DictionarySubjectAreaSerializer extends DictionaryBaseSerializer {
 
         aDestination.getTables().clear();
         for (String theTable : aSource.getTables()) {
-            aDestination.getTables().add(aModel.getTables().findBySystemId(theTable));
+            aDestination.getTables().add(aModel.findBySystemId(theTable, Table.class));
         }
 
         aDestination.getComments().clear();
         for (String theComment : aSource.getComments()) {
-            aDestination.getComments().add(aModel.getComments().findBySystemId(theComment));
+            aDestination.getComments().add(aModel.findBySystemId(theComment, Comment.class));
         }
 
         aDestination.getViews().clear();
         for (String theView : aSource.getViews()) {
-            aDestination.getViews().add(aModel.getViews().findBySystemId(theView));
+            aDestination.getViews().add(aModel.findBySystemId(theView, View.class));
         }
     }
 
@@ -35,7 +35,18 @@ public class DictionaryTableSerializer extends DictionaryBaseSerializer {
 
 	public static final DictionaryTableSerializer SERIALIZER = new DictionaryTableSerializer();
 
-	public void serialize(Model aModel, Session aSession, RepositoryEntity aDictionary) {
+	/**
+	 * Serialize the tables of a model.
+	 * <p/>
+	 * In delta mode, the attributes and indexes of existing tables are only
+	 * written if the table was marked as dirty in the model.
+	 *
+	 * @param aModel the model
+	 * @param aSession the session
+	 * @param aDictionary the repository entity
+	 * @param aDelta true if only the dirty tables shall be written completely
+	 */
+	public void serialize(Model aModel, Session aSession, RepositoryEntity aDictionary, boolean aDelta) {
 
 		Map<String, ModelEntity> theTables = deletedRemovedInstances(aModel.getTables(), aDictionary.getTables());
 
@@ -51,6 +62,10 @@ public class DictionaryTableSerializer extends DictionaryBaseSerializer {
 
 			theExisting.setSchema(theTable.getSchema());
 
+			if (existing && aDelta && !aModel.isDirty(theTable)) {
+				continue;
+			}
+
 			DictionaryAttributeSerializer.SERIALIZER.serialize(theTable, theExisting);
 
 			DictionaryIndexSerializer.SERIALIZER.serialize(theTable, theExisting);
@@ -35,15 +35,25 @@ import org.hibernate.cfg.Configuration;
 import org.hibernate.cfg.Environment;
 
 import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * Template class for hibernate operations.
+ * <p/>
+ * Building a SessionFactory compiles all mappings and updates the repository
+ * schema, so the factories are cached per hibernate dialect and repository.
+ * The schema update is thus only performed once per repository and process.
+ * The cache is invalidated on reconnect or after a failed operation.
  *
  * @author $Author: mirkosertic $
  * @version $Date: 2009-03-09 19:07:30 $
  */
 public abstract class HibernateTemplate {
 
+    private static final Map<String, SessionFactory> SESSION_FACTORIES = new HashMap<>();
+
     private final Class dialectClass;
 
     private final Connection connection;
@@ -68,14 +78,86 @@ public abstract class HibernateTemplate {
         theConfiguration.addClass(ViewEntity.class);
         theConfiguration.setProperty(Environment.DIALECT, aHibernateDialectClass.getName());
         theConfiguration.setProperty(Environment.HBM2DDL_AUTO, "update");
+        theConfiguration.setProperty(Environment.STATEMENT_BATCH_SIZE, "50");
+        theConfiguration.setProperty(Environment.ORDER_INSERTS, "true");
+        theConfiguration.setProperty(Environment.ORDER_UPDATES, "true");
         theConfiguration.setProperty(Environment.CONNECTION_PROVIDER, ThreadbasedConnectionProvider.class.getName());
         return theConfiguration;
     }
 
-    protected Session createSession(Connection aConnection, Class aHibernateDialectClass) {
+    /**
+     * Compute the cache key for a repository. The key is built from the dialect
+     * and the url and user of the connection, as every repository operation
+     * uses a new connection to the same repository.
+     *
+     * @param aConnection the connection
+     * @param aHibernateDialectClass the hibernate dialect class
+     * @return the key
+     * @throws Exception will be thrown in case of an error
+     */
+    protected static String sessionFactoryKeyFor(Connection aConnection, Class<?> aHibernateDialectClass)
+            throws Exception {
+        DatabaseMetaData theMetaData = aConnection.getMetaData();
+        return aHibernateDialectClass.getName() + "|" + theMetaData.getURL() + "|" + theMetaData.getUserName();
+    }
 
-        Configuration theConfiguration = createConfiguration(aHibernateDialectClass);
-        SessionFactory theSessionFactory = theConfiguration.buildSessionFactory();
+    /**
+     * Get the SessionFactory for a repository, it is built on first access.
+     *
+     * @param aConnection the connection
+     * @param aHibernateDialectClass the hibernate dialect class
+     * @return the session factory
+     * @throws Exception will be thrown in case of an error
+     */
+    protected SessionFactory getSessionFactory(Connection aConnection, Class<?> aHibernateDialectClass)
+            throws Exception {
+        String theKey = sessionFactoryKeyFor(aConnection, aHibernateDialectClass);
+        synchronized (SESSION_FACTORIES) {
+            SessionFactory theSessionFactory = SESSION_FACTORIES.get(theKey);
+            if (theSessionFactory == null) {
+                Configuration theConfiguration = createConfiguration(aHibernateDialectClass);
+                theSessionFactory = theConfiguration.buildSessionFactory();
+                SESSION_FACTORIES.put(theKey, theSessionFactory);
+            }
+            return theSessionFactory;
+        }
+    }
+
+    /**
+     * Remove the cached SessionFactory of a repository. The next operation
+     * rebuilds it and updates the repository schema again.
+     *
+     * @param aConnection the connection
+     * @param aHibernateDialectClass the hibernate dialect class
+     * @throws Exception will be thrown in case of an error
+     */
+    public static void invalidateSessionFactory(Connection aConnection, Class<?> aHibernateDialectClass)
+            throws Exception {
+        String theKey = sessionFactoryKeyFor(aConnection, aHibernateDialectClass);
+        synchronized (SESSION_FACTORIES) {
+            SessionFactory theSessionFactory = SESSION_FACTORIES.remove(theKey);
+            if (theSessionFactory != null) {
+                theSessionFactory.close();
+            }
+        }
+    }
+
+    /**
+     * Remove all cached SessionFactories, for instance after the repository
+     * connection was changed.
+     */
+    public static void invalidateSessionFactories() {
+        synchronized (SESSION_FACTORIES) {
+            for (SessionFactory theSessionFactory : SESSION_FACTORIES.values()) {
+                theSessionFactory.close();
+            }
+            SESSION_FACTORIES.clear();
+        }
+    }
+
+    protected Session createSession(Connection aConnection, Class aHibernateDialectClass) throws Exception {
+
+        SessionFactory theSessionFactory = getSessionFactory(aConnection, aHibernateDialectClass);
 
         return theSessionFactory.openSession(aConnection, AuditInterceptor.INSTANCE);
     }
@@ -109,6 +191,14 @@ public abstract class HibernateTemplate {
                 theTx.rollback();
             }
 
+            // The repository schema might have changed, so build the
+            // SessionFactory again on the next operation
+            try {
+                invalidateSessionFactory(connection, dialectClass);
+            } catch (Exception e1) {
+                // Do nothing here, the original exception is more important
+            }
+
             throw e;
         } finally {
 
@@ -27,6 +27,10 @@ public class ChangeEntity extends ModelEntity {
 
 	private List<String> statements = new ArrayList<>();
 
+	private Long repositoryId;
+
+	private Integer listIndex;
+
 	/**
 	 * @return the statements
 	 */
@@ -41,4 +45,34 @@ public class ChangeEntity extends ModelEntity {
 	public void setStatements(List<String> statements) {
 		this.statements = statements;
 	}
+
+	/**
+	 * @return the id of the repository entity owning this change
+	 */
+	public Long getRepositoryId() {
+		return repositoryId;
+	}
+
+	/**
+	 * @param repositoryId
+	 *			the id of the repository entity owning this change
+	 */
+	public void setRepositoryId(Long repositoryId) {
+		this.repositoryId = repositoryId;
+	}
+
+	/**
+	 * @return the position in the change history of the repository entity
+	 */
+	public Integer getListIndex() {
+		return listIndex;
+	}
+
+	/**
+	 * @param listIndex
+	 *			the position in the change history of the repository entity
+	 */
+	public void setListIndex(Integer listIndex) {
+		this.listIndex = listIndex;
+	}
 }
\ No newline at end of file
@@ -127,12 +127,25 @@ public class RepositoryEntity extends ModelEntity {
      * @return the statements
      */
     public StatementList createChangeLog(ChangeEntity aSource, ChangeEntity aDestination) {
+        return createChangeLog(changes, aSource, aDestination);
+    }
+
+    /**
+     * Create the change log between two changes of a change history.
+     *
+     * @param aChanges     the change history
+     * @param aSource      the source change ( included )
+     * @param aDestination the destination change ( included )
+     * @return the statements
+     */
+    public static StatementList createChangeLog(List<ChangeEntity> aChanges, ChangeEntity aSource,
+            ChangeEntity aDestination) {
         StatementList theStatements = new StatementList();
 
-        int a = changes.indexOf(aSource);
-        int b = changes.indexOf(aDestination);
+        int a = aChanges.indexOf(aSource);
+        int b = aChanges.indexOf(aDestination);
         for (int i = a; i <= b; i++) {
-            ChangeEntity theChange = changes.get(i);
+            ChangeEntity theChange = aChanges.get(i);
             theStatements.addAll(theChange.getStatements().stream().map(Statement::new).collect(Collectors.toList()));
         }
 
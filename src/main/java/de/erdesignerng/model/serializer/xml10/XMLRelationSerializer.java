@@ -74,12 +74,12 @@ public class XMLRelationSerializer extends AbstractXMLRelationSerializer {
 			String theStartTableID = theElement.getAttribute(IMPORTINGTABLEREFID);
 			String theEndTableID = theElement.getAttribute(EXPORTINGTABLEREFID);
 
-			Table theTempTable = aModel.getTables().findBySystemId(theStartTableID);
+			Table theTempTable = aModel.findBySystemId(theStartTableID, Table.class);
 			if (theTempTable == null) {
 				throw new IllegalArgumentException("Cannot find table with id " + theStartTableID);
 			}
 			theRelation.setImportingTable(theTempTable);
-			theTempTable = aModel.getTables().findBySystemId(theEndTableID);
+			theTempTable = aModel.findBySystemId(theEndTableID, Table.class);
 			if (theTempTable == null) {
 				throw new IllegalArgumentException("Cannot find table with id " + theEndTableID);
 			}
@@ -94,12 +94,12 @@ public class XMLRelationSerializer extends AbstractXMLRelationSerializer {
 				String theStartId = theAttributeElement.getAttribute(IMPORTINGATTRIBUTEREFID);
 				String theEndId = theAttributeElement.getAttribute(EXPORTINGATTRIBUTEREFID);
 
-				Attribute<Table> theStartAttribute = aModel.getTables().findAttributeBySystemId(theStartId);
+				Attribute<Table> theStartAttribute = aModel.findAttributeBySystemId(theStartId);
 				if (theStartAttribute == null) {
 					throw new IllegalArgumentException("Cannot find attribute with id " + theStartId);
 				}
 
-				Attribute<Table> theEndAttribute = aModel.getTables().findAttributeBySystemId(theEndId);
+				Attribute<Table> theEndAttribute = aModel.findAttributeBySystemId(theEndId);
 				if (theEndAttribute == null) {
 					throw new IllegalArgumentException("Cannot find attribute with id " + theEndId);
 				}
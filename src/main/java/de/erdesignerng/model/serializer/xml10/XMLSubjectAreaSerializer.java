@@ -79,7 +79,7 @@ public class XMLSubjectAreaSerializer extends AbstractXMLSubjectAreaSerializer {
 				String theCommentId = theItemElement.getAttribute(COMMENTREFID);
 
 				if (!StringUtils.isEmpty(theTableId)) {
-					Table theTable = aModel.getTables().findBySystemId(theTableId);
+					Table theTable = aModel.findBySystemId(theTableId, Table.class);
 					if (theTable == null) {
 						throw new IllegalArgumentException("Cannot find table with id " + theTableId);
 					}
@@ -88,7 +88,7 @@ public class XMLSubjectAreaSerializer extends AbstractXMLSubjectAreaSerializer {
 				}
 
 				if (!StringUtils.isEmpty(theCommentId)) {
-					Comment theComment = aModel.getComments().findBySystemId(theCommentId);
+					Comment theComment = aModel.findBySystemId(theCommentId, Comment.class);
 					if (theComment == null) {
 						throw new IllegalArgumentException("Cannot find comment with id " + theCommentId);
 					}
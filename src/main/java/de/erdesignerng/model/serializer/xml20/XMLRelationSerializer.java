@@ -76,12 +76,12 @@ public class XMLRelationSerializer extends de.erdesignerng.model.serializer.xml1
 			String theStartTableID = theElement.getAttribute(IMPORTINGTABLEREFID);
 			String theEndTableID = theElement.getAttribute(EXPORTINGTABLEREFID);
 
-			Table theTempTable = aModel.getTables().findBySystemId(theStartTableID);
+			Table theTempTable = aModel.findBySystemId(theStartTableID, Table.class);
 			if (theTempTable == null) {
 				throw new IllegalArgumentException("Cannot find table with id " + theStartTableID);
 			}
 			theRelation.setImportingTable(theTempTable);
-			theTempTable = aModel.getTables().findBySystemId(theEndTableID);
+			theTempTable = aModel.findBySystemId(theEndTableID, Table.class);
 			if (theTempTable == null) {
 				throw new IllegalArgumentException("Cannot find table with id " + theEndTableID);
 			}
@@ -98,7 +98,7 @@ public class XMLRelationSerializer extends de.erdesignerng.model.serializer.xml1
 				String theImportingAttributeId = theAttributeElement.getAttribute(IMPORTINGATTRIBUTEREFID);
 				String theExportingExpressionId = theAttributeElement.getAttribute(EXPORTINGEXPRESSIONREFID);
 
-				Attribute<Table> theImportingAttribute = aModel.getTables().findAttributeBySystemId(theImportingAttributeId);
+				Attribute<Table> theImportingAttribute = aModel.findAttributeBySystemId(theImportingAttributeId);
 				if (theImportingAttribute == null) {
 					throw new IllegalArgumentException("Cannot find attribute with id " + theImportingAttributeId);
 				}
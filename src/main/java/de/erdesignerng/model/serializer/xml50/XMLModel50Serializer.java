@@ -17,12 +17,23 @@
  */
 package de.erdesignerng.model.serializer.xml50;
 
+import de.erdesignerng.dialect.DialectFactory;
+import de.erdesignerng.model.Model;
 import de.erdesignerng.model.serializer.AbstractXMLCustomTypeSerializer;
 import de.erdesignerng.model.serializer.AbstractXMLDomainSerializer;
 import de.erdesignerng.model.serializer.AbstractXMLModelSerializer;
 import de.erdesignerng.model.serializer.AbstractXMLSubjectAreaSerializer;
 import de.erdesignerng.model.serializer.xml40.XMLModel40Serializer;
 import de.erdesignerng.util.XMLUtils;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * @author $Author: dr-death2 $
@@ -34,13 +45,105 @@ public class XMLModel50Serializer extends XMLModel40Serializer {
 
 	private static final String XML_SCHEMA_DEFINITION = "/erdesignerschema_5.0.xsd";
 
+	private final XMLUtils xmlUtils;
+
 	public XMLModel50Serializer(XMLUtils utils) {
 		super(utils);
+		xmlUtils = utils;
 		setXMLCustomTypeSerializer(new XMLCustomTypeSerializer(this));
 		setXMLDomainSerializer(new XMLDomainSerializer());
 		setXMLSubjectAreaSerializer(new XMLSubjectAreaSerializer());
 	}
 
+	/**
+	 * Read a model in one pass without building the DOM of the whole document.
+	 * <p/>
+	 * Every custom type, domain, table, relation, view and comment is read
+	 * into a small document of its own and passed to the serializer of its
+	 * kind. The subject areas are deserialized at the end, as they refer to
+	 * the comments following them. The document is not validated.
+	 *
+	 * @param aReader the reader, positioned at the model element
+	 * @return the model
+	 * @throws XMLStreamException will be thrown in case of an error
+	 * @throws IOException		will be thrown if the version is not supported
+	 */
+	public Model deserializeModelFromXML(XMLStreamReader aReader) throws XMLStreamException, IOException {
+
+		if (!MODEL.equals(aReader.getLocalName()) || !supportsVersion(aReader.getAttributeValue(null, VERSION))) {
+			throw new IOException("Unsupported model version");
+		}
+
+		Model theModel = new Model();
+		List<Document> theSubjectAreas = new ArrayList<>();
+
+		String theSection = null;
+		int theDepth = 1;
+		while (theDepth > 0) {
+			switch (aReader.next()) {
+				case XMLStreamConstants.START_ELEMENT:
+					if (theDepth == 1) {
+						theSection = aReader.getLocalName();
+						theDepth++;
+					} else {
+						Document theDocument = xmlUtils.parseElement(aReader);
+						if (SUBJECTAREAS.equals(theSection)) {
+							theSubjectAreas.add(theDocument);
+						} else {
+							deserializeElement(theModel, theSection, theDocument);
+						}
+					}
+					break;
+				case XMLStreamConstants.END_ELEMENT:
+					theDepth--;
+					break;
+				default:
+			}
+		}
+
+		for (Document theDocument : theSubjectAreas) {
+			getXMLSubjectAreaSerializer().deserialize(theModel, theDocument);
+		}
+
+		return theModel;
+	}
+
+	private void deserializeElement(Model aModel, String aSection, Document aDocument) {
+		switch (aSection) {
+			case CONFIGURATION:
+				Element theProperty = aDocument.getDocumentElement();
+
+				String theName = theProperty.getAttribute(NAME);
+				String theValue = theProperty.getAttribute(VALUE);
+
+				if (DIALECT.equals(theName)) {
+					aModel.setDialect(DialectFactory.getInstance().getDialect(theValue));
+				} else {
+					aModel.getProperties().setProperty(theName, theValue);
+				}
+				break;
+			case CUSTOMTYPES:
+				getXMLCustomTypeSerializer(this).deserialize(aModel, aDocument);
+				break;
+			case DOMAINS:
+				getXMLDomainSerializer().deserialize(aModel, aDocument);
+				break;
+			case TABLES:
+				getXMLTableSerializer(this).deserialize(aModel, aDocument);
+				break;
+			case RELATIONS:
+				getXMLRelationSerializer().deserialize(aModel, aDocument);
+				break;
+			case VIEWS:
+				getXMLViewSerializer().deserialize(aModel, aDocument);
+				break;
+			case COMMENTS:
+				getXMLCommentSerializer().deserialize(aModel, aDocument);
+				break;
+			default:
+		}
+	}
+
 	@Override
 	public String getSchemaResource() {
 		return XML_SCHEMA_DEFINITION;
@@ -85,7 +85,7 @@ public class XMLSubjectAreaSerializer extends de.erdesignerng.model.serializer.x
                 String theCommentId = theItemElement.getAttribute(COMMENTREFID);
 
                 if (!StringUtils.isEmpty(theTableId)) {
-                    Table theTable = aModel.getTables().findBySystemId(theTableId);
+                    Table theTable = aModel.findBySystemId(theTableId, Table.class);
                     if (theTable == null) {
                         throw new IllegalArgumentException("Cannot find table with id " + theTableId);
                     }
@@ -94,7 +94,7 @@ public class XMLSubjectAreaSerializer extends de.erdesignerng.model.serializer.x
                 }
 
                 if (!StringUtils.isEmpty(theViewId)) {
-                    View theView = aModel.getViews().findBySystemId(theViewId);
+                    View theView = aModel.findBySystemId(theViewId, View.class);
                     if (theView == null) {
                         throw new IllegalArgumentException("Cannot find view with id " + theViewId);
                     }
@@ -103,7 +103,7 @@ public class XMLSubjectAreaSerializer extends de.erdesignerng.model.serializer.x
                 }
 
                 if (!StringUtils.isEmpty(theCommentId)) {
-                    Comment theComment = aModel.getComments().findBySystemId(theCommentId);
+                    Comment theComment = aModel.findBySystemId(theCommentId, Comment.class);
                     if (theComment == null) {
                         throw new IllegalArgumentException("Cannot find comment with id " + theCommentId);
                     }
@@ -0,0 +1,523 @@
+/**
+ * Mogwai ERDesigner. Copyright (C) 2002 The Mogwai Project.
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program; if not, write to the Free Software Foundation, Inc., 59 Temple
+ * Place - Suite 330, Boston, MA 02111-1307, USA.
+ */
+package de.erdesignerng.model.utils;
+
+import de.erdesignerng.model.Model;
+import de.erdesignerng.model.ModelItem;
+import de.erdesignerng.model.Relation;
+import de.erdesignerng.model.SubjectArea;
+import de.erdesignerng.model.Table;
+import de.erdesignerng.model.View;
+
+import java.awt.Dimension;
+import java.awt.Point;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Cluster layout of a model, without the need of a graph or a display.
+ * <p/>
+ * The tables form a graph with an edge from the importing to the exporting
+ * table of every relation. Cyclic references are merged into one node by
+ * computing the strongly connected components of this graph. Every table
+ * not referenced by other tables is the root of a cluster. A cluster
+ * contains all tables reachable from its root only, and becomes a subject
+ * area if it contains more than the root. The tables of a cluster are put
+ * into layers by the longest path from the root, and the layers are sorted
+ * by the barycenter of the neighbours of the tables to reduce crossing
+ * relations. The tables not in a cluster and the views are put in rows
+ * below the clusters.
+ * <p/>
+ * Tables reachable from more than one root are shared and belong to no
+ * cluster, and neither do the tables only reachable through them. A root
+ * only referencing shared tables therefore stays alone and is not a
+ * subject area. The ownership of all tables is decided in one pass, there
+ * are no further rounds assigning the shared tables to such roots.
+ * <p/>
+ * All steps are iterative and run in linear time, except for sorting the
+ * layers.
+ */
+public class ClusterLayout {
+
+	public static final int OFFSETX = 60;
+
+	public static final int OFFSETY = 60;
+
+	public static final int DISTANCEX = 120;
+
+	public static final int DISTANCEY = 120;
+
+	public static final int MAXWIDTH = 6000;
+
+	private static final int CROSSING_REDUCTION_SWEEPS = 4;
+
+	private static final int UNASSIGNED = -1;
+
+	private static final int SHARED = -2;
+
+	/**
+	 * The tables and relations as a graph of integers.
+	 */
+	private static class Graph {
+
+		private final List<Table> tables;
+
+		/**
+		 * The exporting tables of the relations of every table, in
+		 * compressed row storage.
+		 */
+		private final int[] parentStart;
+
+		private final int[] parents;
+
+		private Graph(Model aModel) {
+			tables = new ArrayList<>(aModel.getTables());
+			Map<Table, Integer> theIndex = new HashMap<>();
+			for (int i = 0; i < tables.size(); i++) {
+				theIndex.putIfAbsent(tables.get(i), i);
+			}
+
+			List<int[]> theEdges = new ArrayList<>();
+			int[] theCounts = new int[tables.size()];
+			for (Relation theRelation : aModel.getRelations()) {
+				if (!theRelation.isSelfReference()) {
+					Integer theImporting = theIndex.get(theRelation.getImportingTable());
+					Integer theExporting = theIndex.get(theRelation.getExportingTable());
+					if (theImporting != null && theExporting != null && !theImporting.equals(theExporting)) {
+						theEdges.add(new int[]{theImporting, theExporting});
+						theCounts[theImporting]++;
+					}
+				}
+			}
+
+			parentStart = new int[tables.size() + 1];
+			for (int i = 0; i < tables.size(); i++) {
+				parentStart[i + 1] = parentStart[i] + theCounts[i];
+			}
+			parents = new int[theEdges.size()];
+			int[] theFill = Arrays.copyOf(parentStart, tables.size());
+			for (int[] theEdge : theEdges) {
+				parents[theFill[theEdge[0]]++] = theEdge[1];
+			}
+		}
+	}
+
+	/**
+	 * The graph of the strongly connected components. The components are
+	 * numbered in reverse topological order, so the exporting side of an
+	 * edge always has the lower number.
+	 */
+	private static class Components {
+
+		private final int count;
+
+		/**
+		 * The component of every table.
+		 */
+		private final int[] component;
+
+		/**
+		 * The tables of every component in the order of the model.
+		 */
+		private final List<List<Integer>> members = new ArrayList<>();
+
+		private final List<int[]> parents = new ArrayList<>();
+
+		private final List<int[]> children = new ArrayList<>();
+
+		private Components(Graph aGraph) {
+			int theSize = aGraph.tables.size();
+			component = new int[theSize];
+			count = computeStronglyConnectedComponents(aGraph, component);
+
+			for (int i = 0; i < count; i++) {
+				members.add(new ArrayList<>());
+			}
+			for (int i = 0; i < theSize; i++) {
+				members.get(component[i]).add(i);
+			}
+
+			// Edges between different components, without duplicates
+			List<List<Integer>> theParents = new ArrayList<>();
+			List<List<Integer>> theChildren = new ArrayList<>();
+			for (int i = 0; i < count; i++) {
+				theParents.add(new ArrayList<>());
+				theChildren.add(new ArrayList<>());
+			}
+			int[] theLastSource = new int[count];
+			Arrays.fill(theLastSource, -1);
+			for (int theComponent = 0; theComponent < count; theComponent++) {
+				for (int theTable : members.get(theComponent)) {
+					for (int i = aGraph.parentStart[theTable]; i < aGraph.parentStart[theTable + 1]; i++) {
+						int theParent = component[aGraph.parents[i]];
+						if (theParent != theComponent && theLastSource[theParent] != theComponent) {
+							theLastSource[theParent] = theComponent;
+							theParents.get(theComponent).add(theParent);
+							theChildren.get(theParent).add(theComponent);
+						}
+					}
+				}
+			}
+			for (int i = 0; i < count; i++) {
+				parents.add(toArray(theParents.get(i)));
+				children.add(toArray(theChildren.get(i)));
+			}
+		}
+
+		private int first(int aComponent) {
+			return members.get(aComponent).get(0);
+		}
+	}
+
+	private static int[] toArray(List<Integer> aList) {
+		int[] theResult = new int[aList.size()];
+		for (int i = 0; i < theResult.length; i++) {
+			theResult[i] = aList.get(i);
+		}
+		return theResult;
+	}
+
+	/**
+	 * Tarjan's algorithm with an explicit stack, so deep chains of relations
+	 * do not overflow the call stack.
+	 *
+	 * @param aGraph     the graph
+	 * @param aComponent receives the component of every table
+	 * @return the number of components
+	 */
+	private static int computeStronglyConnectedComponents(Graph aGraph, int[] aComponent) {
+		int theSize = aGraph.tables.size();
+		int[] theIndex = new int[theSize];
+		int[] theLowLink = new int[theSize];
+		boolean[] theOnStack = new boolean[theSize];
+		int[] theStack = new int[theSize];
+		int theStackSize = 0;
+		int[] theCallStack = new int[theSize];
+		int[] theNextEdge = new int[theSize];
+		Arrays.fill(theIndex, -1);
+
+		int theCounter = 0;
+		int theComponents = 0;
+		for (int theStart = 0; theStart < theSize; theStart++) {
+			if (theIndex[theStart] >= 0) {
+				continue;
+			}
+			int theCallDepth = 0;
+			theCallStack[theCallDepth++] = theStart;
+			theIndex[theStart] = theLowLink[theStart] = theCounter++;
+			theNextEdge[theStart] = aGraph.parentStart[theStart];
+			theStack[theStackSize++] = theStart;
+			theOnStack[theStart] = true;
+
+			while (theCallDepth > 0) {
+				int theNode = theCallStack[theCallDepth - 1];
+				if (theNextEdge[theNode] < aGraph.parentStart[theNode + 1]) {
+					int theParent = aGraph.parents[theNextEdge[theNode]++];
+					if (theIndex[theParent] < 0) {
+						theIndex[theParent] = theLowLink[theParent] = theCounter++;
+						theNextEdge[theParent] = aGraph.parentStart[theParent];
+						theStack[theStackSize++] = theParent;
+						theOnStack[theParent] = true;
+						theCallStack[theCallDepth++] = theParent;
+					} else if (theOnStack[theParent]) {
+						theLowLink[theNode] = Math.min(theLowLink[theNode], theIndex[theParent]);
+					}
+				} else {
+					theCallDepth--;
+					if (theCallDepth > 0) {
+						int theCaller = theCallStack[theCallDepth - 1];
+						theLowLink[theCaller] = Math.min(theLowLink[theCaller], theLowLink[theNode]);
+					}
+					if (theLowLink[theNode] == theIndex[theNode]) {
+						int theMember;
+						do {
+							theMember = theStack[--theStackSize];
+							theOnStack[theMember] = false;
+							aComponent[theMember] = theComponents;
+						} while (theMember != theNode);
+						theComponents++;
+					}
+				}
+			}
+		}
+		return theComponents;
+	}
+
+	private final Function<ModelItem, Dimension> sizes;
+
+	/**
+	 * @param aSizes the size of the tables and views in the diagram
+	 */
+	public ClusterLayout(Function<ModelItem, Dimension> aSizes) {
+		sizes = aSizes;
+	}
+
+	/**
+	 * Replace the subject areas of a model by the clusters of its tables,
+	 * and store the new positions of all tables and views in their
+	 * properties.
+	 *
+	 * @param aModel the model
+	 */
+	public void performClusterLayout(Model aModel) {
+
+		Graph theGraph = new Graph(aModel);
+		Components theComponents = new Components(theGraph);
+		List<List<List<Integer>>> theClusters = computeClusters(theComponents);
+
+		// Destroy all subject areas in the model
+		aModel.getSubjectAreas().clear();
+
+		Point theStart = new Point(OFFSETX, OFFSETY);
+		int maxHeight = 0;
+		boolean[] theClustered = new boolean[theGraph.tables.size()];
+
+		for (List<List<Integer>> theLayers : theClusters) {
+			reduceCrossings(theComponents, theLayers);
+
+			List<List<Table>> theTableLayers = new ArrayList<>();
+			SubjectArea theArea = new SubjectArea();
+			theArea.setExpanded(true);
+			theArea.setName(theGraph.tables.get(theComponents.first(theLayers.get(0).get(0))).getName());
+			for (List<Integer> theLayer : theLayers) {
+				List<Table> theTables = new ArrayList<>();
+				for (int theComponent : theLayer) {
+					for (int theTable : theComponents.members.get(theComponent)) {
+						theTables.add(theGraph.tables.get(theTable));
+						theClustered[theTable] = true;
+					}
+				}
+				theArea.getTables().addAll(theTables);
+				theTableLayers.add(theTables);
+			}
+
+			Dimension theSize = performLayerLayout(theStart, theTableLayers);
+			theStart.x += theSize.width + DISTANCEX;
+			maxHeight = Math.max(maxHeight, theSize.height);
+
+			if (theStart.x > MAXWIDTH) {
+				theStart.x = OFFSETX;
+				theStart.y += maxHeight + DISTANCEY;
+				maxHeight = 0;
+			}
+
+			aModel.getSubjectAreas().add(theArea);
+		}
+
+		// Now, we compute the position of the remaining tables and views
+		List<ModelItem> theRemaining = new ArrayList<>();
+		for (int i = 0; i < theClustered.length; i++) {
+			if (!theClustered[i]) {
+				theRemaining.add(theGraph.tables.get(i));
+			}
+		}
+		theStart.x = OFFSETX;
+		if (maxHeight > 0) {
+			theStart.y += maxHeight + DISTANCEY;
+		}
+		theStart.y += performRowLayout(theStart, theRemaining);
+		theStart.x = OFFSETX;
+		performRowLayout(theStart, aModel.getViews());
+	}
+
+	/**
+	 * Compute the clusters of the components.
+	 *
+	 * @return the layers of components of every cluster with more than one table
+	 */
+	private static List<List<List<Integer>>> computeClusters(Components aComponents) {
+		int theCount = aComponents.count;
+
+		// The root of the cluster every component belongs to. The
+		// components are visited in topological order, so the owner of all
+		// importing components is known
+		int[] theOwner = new int[theCount];
+		int[] theLevel = new int[theCount];
+		int[] theSize = new int[theCount];
+		Arrays.fill(theOwner, UNASSIGNED);
+		List<Integer> theRoots = new ArrayList<>();
+		for (int theComponent = theCount - 1; theComponent >= 0; theComponent--) {
+			if (theOwner[theComponent] == UNASSIGNED) {
+				theOwner[theComponent] = theComponent;
+				theRoots.add(theComponent);
+			}
+			int theComponentOwner = theOwner[theComponent];
+			if (theComponentOwner != SHARED) {
+				theSize[theComponentOwner] += aComponents.members.get(theComponent).size();
+			}
+			for (int theParent : aComponents.parents.get(theComponent)) {
+				if (theOwner[theParent] == UNASSIGNED) {
+					theOwner[theParent] = theComponentOwner;
+				} else if (theOwner[theParent] != theComponentOwner) {
+					theOwner[theParent] = SHARED;
+				}
+				if (theComponentOwner != SHARED) {
+					theLevel[theParent] = Math.max(theLevel[theParent], theLevel[theComponent] + 1);
+				}
+			}
+		}
+
+		// The clusters in the order of their root tables in the model
+		theRoots.sort(Comparator.comparingInt(aComponents::first));
+		Map<Integer, List<List<Integer>>> theClusters = new HashMap<>();
+		List<List<List<Integer>>> theResult = new ArrayList<>();
+		for (int theRoot : theRoots) {
+			if (theSize[theRoot] > 1) {
+				List<List<Integer>> theLayers = new ArrayList<>();
+				theClusters.put(theRoot, theLayers);
+				theResult.add(theLayers);
+			}
+		}
+
+		// Add the components in the order of their first table in the model
+		Integer[] theOrder = new Integer[theCount];
+		for (int i = 0; i < theCount; i++) {
+			theOrder[i] = i;
+		}
+		Arrays.sort(theOrder, Comparator.comparingInt(aComponents::first));
+		for (int theComponent : theOrder) {
+			List<List<Integer>> theLayers = theClusters.get(theOwner[theComponent]);
+			if (theLayers != null) {
+				while (theLayers.size() <= theLevel[theComponent]) {
+					theLayers.add(new ArrayList<>());
+				}
+				theLayers.get(theLevel[theComponent]).add(theComponent);
+			}
+		}
+		for (List<List<Integer>> theLayers : theResult) {
+			theLayers.removeIf(List::isEmpty);
+		}
+		return theResult;
+	}
+
+	/**
+	 * Sort the layers of a cluster by the barycenter heuristic, alternating
+	 * between sweeps down and up the layers.
+	 */
+	private static void reduceCrossings(Components aComponents, List<List<Integer>> aLayers) {
+		Map<Integer, Integer> theLayerOf = new HashMap<>();
+		Map<Integer, Integer> thePosition = new HashMap<>();
+		for (int i = 0; i < aLayers.size(); i++) {
+			List<Integer> theLayer = aLayers.get(i);
+			for (int j = 0; j < theLayer.size(); j++) {
+				theLayerOf.put(theLayer.get(j), i);
+				thePosition.put(theLayer.get(j), j);
+			}
+		}
+
+		for (int theSweep = 0; theSweep < CROSSING_REDUCTION_SWEEPS; theSweep++) {
+			boolean theDown = theSweep % 2 == 0;
+			for (int k = 1; k < aLayers.size(); k++) {
+				int theLayerIndex = theDown ? k : aLayers.size() - 1 - k;
+				List<Integer> theLayer = aLayers.get(theLayerIndex);
+				Map<Integer, Double> theBarycenter = new HashMap<>();
+				for (int theComponent : theLayer) {
+					int[] theNeighbours = theDown ? aComponents.children.get(theComponent) : aComponents.parents
+							.get(theComponent);
+					double theSum = 0;
+					int theNeighbourCount = 0;
+					for (int theNeighbour : theNeighbours) {
+						Integer theNeighbourLayer = theLayerOf.get(theNeighbour);
+						if (theNeighbourLayer != null
+								&& (theDown ? theNeighbourLayer < theLayerIndex : theNeighbourLayer > theLayerIndex)) {
+							theSum += thePosition.get(theNeighbour);
+							theNeighbourCount++;
+						}
+					}
+					theBarycenter.put(theComponent, theNeighbourCount > 0 ? theSum / theNeighbourCount : thePosition
+							.get(theComponent));
+				}
+				theLayer.sort(Comparator.comparingDouble(theBarycenter::get));
+				for (int j = 0; j < theLayer.size(); j++) {
+					thePosition.put(theLayer.get(j), j);
+				}
+			}
+		}
+	}
+
+	private Dimension getSize(ModelItem aItem) {
+		return sizes.apply(aItem);
+	}
+
+	/**
+	 * Put every layer of tables into a row.
+	 *
+	 * @param aStartLocation the top left corner
+	 * @param aLayers        the layers
+	 * @return the size of the layout
+	 */
+	private Dimension performLayerLayout(Point aStartLocation, List<? extends Collection<Table>> aLayers) {
+		int yp = aStartLocation.y;
+		int maxx = 0;
+		int maxy = 0;
+		for (Collection<Table> theLayer : aLayers) {
+			int xp = aStartLocation.x;
+			int maxHeight = 0;
+			for (Table theTable : theLayer) {
+				theTable.getProperties().setPointProperty(Table.PROPERTY_LOCATION, xp, yp);
+
+				Dimension theSize = getSize(theTable);
+				maxHeight = Math.max(maxHeight, theSize.height);
+				xp += theSize.width + DISTANCEX;
+
+				maxx = Math.max(xp, maxx);
+				maxy = Math.max(yp + maxHeight, maxy);
+			}
+			if (theLayer.size() > 0) {
+				yp += maxHeight + DISTANCEY;
+			}
+		}
+		return new Dimension(maxx - aStartLocation.x, maxy - aStartLocation.y);
+	}
+
+	/**
+	 * Put items into rows, starting a new row at the maximum width.
+	 *
+	 * @param aStartLocation the top left corner
+	 * @param aItems         the tables or views
+	 * @return the height of the rows including the distance to the next row, or 0 if there are no items
+	 */
+	private int performRowLayout(Point aStartLocation, List<? extends ModelItem> aItems) {
+		int xp = aStartLocation.x;
+		int yp = aStartLocation.y;
+		int maxHeight = 0;
+		for (ModelItem theItem : aItems) {
+			theItem.getProperties().setPointProperty(ModelItem.PROPERTY_LOCATION, xp, yp);
+
+			Dimension theSize = getSize(theItem);
+			xp += theSize.width + DISTANCEX;
+			maxHeight = Math.max(maxHeight, theSize.height);
+
+			if (xp > MAXWIDTH) {
+				xp = aStartLocation.x;
+				yp += maxHeight + DISTANCEY;
+				maxHeight = 0;
+			}
+		}
+		if (maxHeight > 0) {
+			yp += maxHeight + DISTANCEY;
+		}
+		return yp - aStartLocation.y;
+	}
+}
@@ -0,0 +1,109 @@
+/**
+ * Mogwai ERDesigner. Copyright (C) 2002 The Mogwai Project.
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program; if not, write to the Free Software Foundation, Inc., 59 Temple
+ * Place - Suite 330, Boston, MA 02111-1307, USA.
+ */
+package de.erdesignerng.model.utils;
+
+import de.erdesignerng.model.ModelItem;
+
+/**
+ * A difference between the current model and the database model found by
+ * the ModelComparator.
+ * <p/>
+ * The change type describes the database model relative to the current
+ * model, an item only existing in the database model is ADDED, an item only
+ * existing in the current model is REMOVED.
+ */
+public class ModelChange {
+
+	public enum ItemType {
+		TABLE, ATTRIBUTE, INDEX, RELATION, VIEW
+	}
+
+	public enum ChangeType {
+		UNCHANGED, ADDED, REMOVED, REDEFINED
+	}
+
+	private final ItemType itemType;
+
+	private final ChangeType changeType;
+
+	private final String tableName;
+
+	private final String name;
+
+	private final ModelItem fromModel;
+
+	private final ModelItem fromDatabase;
+
+	public ModelChange(ItemType aItemType, ChangeType aChangeType, String aTableName, String aName,
+			ModelItem aFromModel, ModelItem aFromDatabase) {
+		itemType = aItemType;
+		changeType = aChangeType;
+		tableName = aTableName;
+		name = aName;
+		fromModel = aFromModel;
+		fromDatabase = aFromDatabase;
+	}
+
+	public ItemType getItemType() {
+		return itemType;
+	}
+
+	public ChangeType getChangeType() {
+		return changeType;
+	}
+
+	/**
+	 * @return true if the item is not the same in both models
+	 */
+	public boolean isChanged() {
+		return changeType != ChangeType.UNCHANGED;
+	}
+
+	/**
+	 * @return the name of the table owning an attribute, index or relation, null for tables and views
+	 */
+	public String getTableName() {
+		return tableName;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * @return the item of the current model, null if it does not exist there
+	 */
+	public ModelItem getFromModel() {
+		return fromModel;
+	}
+
+	/**
+	 * @return the item of the database model, null if it does not exist there
+	 */
+	public ModelItem getFromDatabase() {
+		return fromDatabase;
+	}
+
+	@Override
+	public String toString() {
+		if (tableName != null) {
+			return changeType + " " + itemType + " " + tableName + "." + name;
+		}
+		return changeType + " " + itemType + " " + name;
+	}
+}
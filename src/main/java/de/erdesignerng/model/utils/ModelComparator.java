@@ -17,543 +17,303 @@
  */
 package de.erdesignerng.model.utils;
 
-import de.erdesignerng.ERDesignerBundle;
+import de.erdesignerng.dialect.Dialect;
 import de.erdesignerng.model.Attribute;
-import de.erdesignerng.model.AttributeList;
 import de.erdesignerng.model.Index;
-import de.erdesignerng.model.IndexList;
 import de.erdesignerng.model.Model;
+import de.erdesignerng.model.ModelItem;
+import de.erdesignerng.model.ModelUtilities;
 import de.erdesignerng.model.Relation;
-import de.erdesignerng.model.RelationList;
 import de.erdesignerng.model.Table;
-import de.erdesignerng.model.TableList;
 import de.erdesignerng.model.View;
-import de.erdesignerng.model.ViewList;
-import de.mogwai.common.i18n.ResourceHelper;
-
-import javax.swing.tree.DefaultMutableTreeNode;
+import de.erdesignerng.model.utils.ModelChange.ChangeType;
+import de.erdesignerng.model.utils.ModelChange.ItemType;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiPredicate;
+import java.util.stream.Collectors;
 
 /**
  * A comparator for models.
+ * <p/>
+ * The items of both models are put into hash maps by name once, and then
+ * joined by name. The names are compared case insensitive if the dialect of
+ * the models is not case sensitive. The tables can be compared in parallel,
+ * the changes are reported in the order of the tables afterwards.
  *
  * @author mirkosertic
  */
 public class ModelComparator {
 
-	private static final ResourceHelper HELPER = ResourceHelper.getResourceHelper(ERDesignerBundle.BUNDLE_NAME);
-
 	/**
-	 * Compare two models.
-	 *
-	 * @param aCurrentModel  the current model
-	 * @param aDatabaseModel the database model
-	 * @return the compare result
+	 * The items of both sides with the same name. One of them may be null.
 	 */
-	public ModelCompareResult compareModels(Model aCurrentModel, Model aDatabaseModel) {
-		DefaultMutableTreeNode theModelSideRootNode = new DefaultMutableTreeNode(HELPER.getText(ERDesignerBundle.CURRENTMODEL));
-		DefaultMutableTreeNode theDBSideRootNode = new DefaultMutableTreeNode(HELPER.getText(ERDesignerBundle.OTHERMODEL));
-
-		TableList theAllTables = new TableList();
-		theAllTables.addAll(aCurrentModel.getTables());
+	private static class Match<T extends ModelItem> {
 
-        aDatabaseModel.getTables().stream().filter(theTable -> theAllTables.findByName(theTable.getName()) == null).forEach(theAllTables::add);
+		private final String name;
 
-		for (Table theTable : theAllTables) {
+		private final T fromModel;
 
-			String theTableName = theTable.getName();
+		private final T fromDB;
 
-			DefaultMutableTreeNode theModelSideTableNode;
-			DefaultMutableTreeNode theDBSideTableNode;
+		private Match(String aName, T aFromModel, T aFromDB) {
+			name = aName;
+			fromModel = aFromModel;
+			fromDB = aFromDB;
+		}
+	}
 
-			Table theTableFromModel = aCurrentModel.getTables().findByName(theTableName);
-			Table theTableFromDB = null;
+	private static final BiPredicate<Attribute<Table>, Attribute<Table>> ATTRIBUTE_MODIFIED = (aFromModel, aFromDB) -> aFromModel
+			.isModified(aFromDB, true);
 
-			// Add it to both sides
-			if (theTableFromModel != null) {
+	private static final BiPredicate<Index, Index> INDEX_MODIFIED = (aFromModel, aFromDB) -> aFromModel.isModified(
+			aFromDB, true);
 
-				// Entity exists in model
-				theModelSideTableNode = new DefaultMutableTreeNode(theTableName);
-				theModelSideRootNode.add(theModelSideTableNode);
+	private static final BiPredicate<Relation, Relation> RELATION_MODIFIED = (aFromModel, aFromDB) -> aFromModel
+			.isModified(aFromDB, true);
 
-			} else {
+	private static final BiPredicate<View, View> VIEW_MODIFIED = View::isModified;
 
-				// Entity does not exist in model
-				theModelSideTableNode = new DefaultMutableTreeNode(new MissingEntityInfo(theTableName));
-				theModelSideRootNode.add(theModelSideTableNode);
+	private static final BiPredicate<Table, Table> TABLE_MODIFIED = (aFromModel, aFromDB) -> false;
 
-			}
+	/**
+	 * The state of one comparison.
+	 */
+	private static class Context {
 
-			if (aDatabaseModel.getTables().findByName(theTableName) != null) {
+		private final boolean caseSensitive;
 
-				// Entity exists in db
-				theDBSideTableNode = new DefaultMutableTreeNode(theTableName);
-				theDBSideRootNode.add(theDBSideTableNode);
+		private final Map<String, Relation> modelRelations;
 
-				theTableFromDB = aDatabaseModel.getTables().findByName(theTableName);
+		private final Map<String, Relation> dbRelations;
 
-			} else {
+		private final Map<Table, List<Relation>> modelForeignKeys;
 
-				// Entity does not exists in db
-				theDBSideTableNode = new DefaultMutableTreeNode(new MissingEntityInfo(theTableName));
-				theDBSideRootNode.add(theDBSideTableNode);
+		private final Map<Table, List<Relation>> dbForeignKeys;
 
+		private Context(Model aCurrentModel, Model aDatabaseModel) {
+			Dialect theDialect = aCurrentModel.getDialect();
+			if (theDialect == null) {
+				theDialect = aDatabaseModel.getDialect();
 			}
+			caseSensitive = theDialect == null || theDialect.isCaseSensitive();
 
-			AttributeList theAllAttributes = new AttributeList();
-			IndexList theAllIndexes = new IndexList();
-			RelationList theAllRelations = new RelationList();
-
-			if (theTableFromModel != null) {
-				theAllAttributes.addAll(theTableFromModel.getAttributes());
-				theAllIndexes.addAll(theTableFromModel.getIndexes());
-				theAllRelations.addAll(aCurrentModel.getRelations().getForeignKeysFor(theTableFromModel));
-			}
+			modelRelations = indexByName(aCurrentModel.getRelations());
+			dbRelations = indexByName(aDatabaseModel.getRelations());
+			modelForeignKeys = groupByImportingTable(aCurrentModel.getRelations());
+			dbForeignKeys = groupByImportingTable(aDatabaseModel.getRelations());
+		}
 
-			if (theTableFromDB != null) {
-                theTableFromDB.getAttributes().stream().filter(theAttribute -> theAllAttributes.findByName(theAttribute.getName()) == null).forEach(theAllAttributes::add);
-                theTableFromDB.getIndexes().stream().filter(theIndex -> theAllIndexes.findByName(theIndex.getName()) == null).forEach(theAllIndexes::add);
-                aDatabaseModel.getRelations().getForeignKeysFor(theTableFromDB).stream().filter(theRelation -> theAllRelations.findByName(theRelation.getName()) == null).forEach(theAllRelations::add);
+		private String keyFor(String aName) {
+			if (aName == null || caseSensitive) {
+				return aName;
 			}
-
-			generateAttributesForTable(theModelSideTableNode, theDBSideTableNode, theTableFromModel, theTableFromDB,
-					theAllAttributes);
-
-			DefaultMutableTreeNode theIndexModelSideNode = new DefaultMutableTreeNode(HELPER
-					.getText(ERDesignerBundle.INDEXES));
-			DefaultMutableTreeNode theIndexDBSideNode = new DefaultMutableTreeNode(HELPER
-					.getText(ERDesignerBundle.INDEXES));
-
-			theModelSideTableNode.add(theIndexModelSideNode);
-			theDBSideTableNode.add(theIndexDBSideNode);
-
-			generateIndexesForTable(theIndexModelSideNode, theIndexDBSideNode, theTableFromModel, theTableFromDB,
-					theAllIndexes);
-
-			DefaultMutableTreeNode theRelationsModelSideNode = new DefaultMutableTreeNode(HELPER
-					.getText(ERDesignerBundle.RELATIONS));
-			DefaultMutableTreeNode theRelationsDBSideNode = new DefaultMutableTreeNode(HELPER
-					.getText(ERDesignerBundle.RELATIONS));
-
-			theModelSideTableNode.add(theRelationsModelSideNode);
-			theDBSideTableNode.add(theRelationsDBSideNode);
-
-			generateRelationsForTable(theRelationsModelSideNode, theRelationsDBSideNode, theTableFromModel,
-					theTableFromDB, theAllRelations, aDatabaseModel, aCurrentModel);
-
+			return ModelUtilities.foldCase(aName);
 		}
 
-		ViewList theAllViews = new ViewList();
-		theAllViews.addAll(aCurrentModel.getViews());
-
-        aDatabaseModel.getViews().stream().filter(theView -> theAllViews.findByName(theView.getName()) == null).forEach(theAllViews::add);
-
-		for (View theView : theAllViews) {
-
-			String theViewName = theView.getName();
-
-			DefaultMutableTreeNode theModelSideTableNode;
-			DefaultMutableTreeNode theDBSideTableNode;
-
-			View theViewFromModel = aCurrentModel.getViews().findByName(theViewName);
-			View theViewFromDB = aDatabaseModel.getViews().findByName(theViewName);
-
-			// Add it to both sides
-			if (theViewFromModel != null) {
-
-				if (theViewFromModel.isModified(theView)) {
-					// View was redefined
-					theModelSideTableNode = new DefaultMutableTreeNode(new RedefinedViewInfo(theViewName));
-					theModelSideRootNode.add(theModelSideTableNode);
-				} else {
-					// View exists in model
-					theModelSideTableNode = new DefaultMutableTreeNode(theViewName);
-					theModelSideRootNode.add(theModelSideTableNode);
-				}
-
-			} else {
-
-				// Entity does not exist in model
-				theModelSideTableNode = new DefaultMutableTreeNode(new MissingViewInfo(theViewName));
-				theModelSideRootNode.add(theModelSideTableNode);
-
+		/**
+		 * Put items into a map by name. If there are items with the same
+		 * name, the first one wins.
+		 */
+		private <T extends ModelItem> Map<String, T> indexByName(Collection<T> aItems) {
+			Map<String, T> theResult = new LinkedHashMap<>();
+			for (T theItem : aItems) {
+				theResult.putIfAbsent(keyFor(theItem.getName()), theItem);
 			}
+			return theResult;
+		}
 
-			if (theViewFromDB != null) {
-
-				if (theViewFromDB.isModified(theView)) {
-					// View was redefined
-					theDBSideTableNode = new DefaultMutableTreeNode(new RedefinedViewInfo(theViewName));
-					theDBSideRootNode.add(theDBSideTableNode);
-
-				} else {
-					// View exists in db
-					theDBSideTableNode = new DefaultMutableTreeNode(theViewName);
-					theDBSideRootNode.add(theDBSideTableNode);
-				}
-
-			} else {
-
-				// Entity does not exists in db
-				theDBSideTableNode = new DefaultMutableTreeNode(new MissingViewInfo(theViewName));
-				theDBSideRootNode.add(theDBSideTableNode);
-
+		private static Map<Table, List<Relation>> groupByImportingTable(Collection<Relation> aRelations) {
+			Map<Table, List<Relation>> theResult = new HashMap<>();
+			for (Relation theRelation : aRelations) {
+				theResult.computeIfAbsent(theRelation.getImportingTable(), k -> new ArrayList<>()).add(theRelation);
 			}
+			return theResult;
 		}
-		return new ModelCompareResult(theModelSideRootNode, theDBSideRootNode);
-	}
-
-	private void generateAttributesForTable(DefaultMutableTreeNode aModelSideTableNode,
-											DefaultMutableTreeNode aDBSideTableNode, Table aTableFromModel, Table aTableFromDB,
-											AttributeList<Table> aAllAttributes) {
-
-		// Now, do it for each attribute
-		for (Attribute<Table> theAttribute : aAllAttributes) {
-			String theAttributeName = theAttribute.getName();
-
-			// First, handle the model side
-			if (aTableFromModel != null) {
-				Attribute<Table> theAttributeFromModel = aTableFromModel.getAttributes().findByName(theAttributeName);
-
-				if (theAttributeFromModel != null) {
-					Attribute<Table> theAttributeFromDB = null;
-					if (aTableFromDB != null) {
-						theAttributeFromDB = aTableFromDB.getAttributes().findByName(theAttributeName);
-					}
-
-					if (theAttributeFromDB != null) {
-
-						if (theAttributeFromModel.isModified(theAttributeFromDB, true)) {
-							// Compute the difference
-
-							String theDiffInfo = theAttributeFromModel.getPhysicalDeclaration();
-
-							// Differences in definition
-							DefaultMutableTreeNode error = new DefaultMutableTreeNode(new RedefinedAttributeInfo(
-									theAttributeName + " " + theDiffInfo));
-							aModelSideTableNode.add(error);
-
-						} else {
-							DefaultMutableTreeNode existing = new DefaultMutableTreeNode(theAttributeName);
-							aModelSideTableNode.add(existing);
-						}
-
-						// Here, we have to compare the attributes
-
-					} else {
-
-						DefaultMutableTreeNode existing = new DefaultMutableTreeNode(theAttributeName);
-						aModelSideTableNode.add(existing);
-					}
-
-				} else {
-
-					// The entity is existing, but the attribute is
-					// missing
-					DefaultMutableTreeNode missing = new DefaultMutableTreeNode(new MissingAttributeInfo(
-							theAttributeName));
-					aModelSideTableNode.add(missing);
-
-				}
-
-			} else {
-
-				// The entity is not existing in the model, so every
-				// attribute is missing
-				DefaultMutableTreeNode missing = new DefaultMutableTreeNode(new MissingAttributeInfo(theAttributeName));
-				aModelSideTableNode.add(missing);
 
+		/**
+		 * Join the items of both sides by name. The result contains the
+		 * items of the current model in their order, followed by the items
+		 * existing only in the database model.
+		 */
+		private <T extends ModelItem> List<Match<T>> join(Collection<T> aFromModel, Collection<T> aFromDB) {
+			Map<String, T> theModelItems = indexByName(aFromModel);
+			Map<String, T> theDBItems = indexByName(aFromDB);
+
+			List<Match<T>> theResult = new ArrayList<>(theModelItems.size() + theDBItems.size());
+			for (Map.Entry<String, T> theEntry : theModelItems.entrySet()) {
+				T theItem = theEntry.getValue();
+				theResult.add(new Match<>(theItem.getName(), theItem, theDBItems.get(theEntry.getKey())));
 			}
-
-			// Now, the database side
-			if (aTableFromDB != null) {
-
-				Attribute<Table> theAttributeFromDB = aTableFromDB.getAttributes().findByName(theAttributeName);
-
-				if (theAttributeFromDB != null) {
-
-					Attribute<Table> theAttributeFromModel = null;
-					if (aTableFromModel != null) {
-						theAttributeFromModel = aTableFromModel.getAttributes().findByName(theAttributeName);
-					}
-
-					if (theAttributeFromModel != null) {
-
-						if (theAttributeFromModel.isModified(theAttributeFromDB, true)) {
-
-							String diffInfo = theAttributeFromDB.getPhysicalDeclaration();
-
-							// Modified
-							// Differences in definition
-							DefaultMutableTreeNode error = new DefaultMutableTreeNode(new RedefinedAttributeInfo(
-									theAttributeName + " " + diffInfo));
-							aDBSideTableNode.add(error);
-
-						} else {
-							DefaultMutableTreeNode existing = new DefaultMutableTreeNode(theAttributeName);
-							aDBSideTableNode.add(existing);
-						}
-
-					} else {
-
-						DefaultMutableTreeNode existing = new DefaultMutableTreeNode(theAttributeName);
-						aDBSideTableNode.add(existing);
-					}
-
-				} else {
-
-					// The entity is existing, but the attribute is
-					// missing
-					DefaultMutableTreeNode missing = new DefaultMutableTreeNode(new MissingAttributeInfo(
-							theAttributeName));
-					aDBSideTableNode.add(missing);
-
+			for (Map.Entry<String, T> theEntry : theDBItems.entrySet()) {
+				if (!theModelItems.containsKey(theEntry.getKey())) {
+					T theItem = theEntry.getValue();
+					theResult.add(new Match<>(theItem.getName(), null, theItem));
 				}
-
-			} else {
-
-				// The entity is not existing in the model, so every
-				// attribute is missing
-				DefaultMutableTreeNode missing = new DefaultMutableTreeNode(new MissingAttributeInfo(theAttributeName));
-				aDBSideTableNode.add(missing);
-
 			}
+			return theResult;
 		}
-	}
-
-	private void generateIndexesForTable(DefaultMutableTreeNode aModelSideTableNode,
-										 DefaultMutableTreeNode aDBSideTableNode, Table aTableFromModel, Table aTableFromDB, IndexList aAllIndexes) {
-
-		// Now, do it for each attribute
-		for (Index theAttribute : aAllIndexes) {
-			String theIndexName = theAttribute.getName();
-
-			// First, handle the model side
-			if (aTableFromModel != null) {
-
-				Index theIndexFromModel = aTableFromModel.getIndexes().findByName(theIndexName);
-
-				if (theIndexFromModel != null) {
-
-					Index theIndexFromDB = null;
-					if (aTableFromDB != null) {
-						theIndexFromDB = aTableFromDB.getIndexes().findByName(theIndexName);
-					}
-
-					if (theIndexFromDB != null) {
-
-						if (theIndexFromModel.isModified(theIndexFromDB, true)) {
-							// Compute the difference
-
-							String theDiffInfo = "";
-
-							// Differences in definition
-							DefaultMutableTreeNode error = new DefaultMutableTreeNode(new RedefinedIndexInfo(
-									theIndexName + " " + theDiffInfo));
-							aModelSideTableNode.add(error);
-
-						} else {
-							DefaultMutableTreeNode existing = new DefaultMutableTreeNode(theIndexName);
-							aModelSideTableNode.add(existing);
-						}
-
-						// Here, we have to compare the attributes
-
-					} else {
-
-						DefaultMutableTreeNode existing = new DefaultMutableTreeNode(theIndexName);
-						aModelSideTableNode.add(existing);
-					}
-
-				} else {
-
-					// The entity is existing, but the attribute is
-					// missing
-					DefaultMutableTreeNode missing = new DefaultMutableTreeNode(new MissingIndexInfo(theIndexName));
-					aModelSideTableNode.add(missing);
-
-				}
-
-			} else {
-
-				// The entity is not existing in the model, so every
-				// attribute is missing
-				DefaultMutableTreeNode missing = new DefaultMutableTreeNode(new MissingIndexInfo(theIndexName));
-				aModelSideTableNode.add(missing);
 
+		private List<Relation> getForeignKeys(Map<Table, List<Relation>> aForeignKeys, Table aTable) {
+			if (aTable == null) {
+				return Collections.emptyList();
 			}
-
-			// Now, the database side
-			if (aTableFromDB != null) {
-
-				Index theIndexFromDB = aTableFromDB.getIndexes().findByName(theIndexName);
-
-				if (theIndexFromDB != null) {
-
-					Index theIndexFromModel = null;
-					if (aTableFromModel != null) {
-						theIndexFromModel = aTableFromModel.getIndexes().findByName(theIndexName);
-					}
-
-					if (theIndexFromModel != null) {
-
-						if (theIndexFromModel.isModified(theIndexFromDB, true)) {
-
-							String diffInfo = "";
-
-							// Modified
-							// Differences in definition
-							DefaultMutableTreeNode error = new DefaultMutableTreeNode(new RedefinedIndexInfo(
-									theIndexName + " " + diffInfo));
-							aDBSideTableNode.add(error);
-
-						} else {
-							DefaultMutableTreeNode existing = new DefaultMutableTreeNode(theIndexName);
-							aDBSideTableNode.add(existing);
-						}
-
-					} else {
-
-						DefaultMutableTreeNode existing = new DefaultMutableTreeNode(theIndexName);
-						aDBSideTableNode.add(existing);
-					}
-
-				} else {
-
-					// The entity is existing, but the attribute is
-					// missing
-					DefaultMutableTreeNode missing = new DefaultMutableTreeNode(new MissingIndexInfo(theIndexName));
-					aDBSideTableNode.add(missing);
-
-				}
-
-			} else {
-
-				// The entity is not existing in the model, so every
-				// attribute is missing
-				DefaultMutableTreeNode missing = new DefaultMutableTreeNode(new MissingIndexInfo(theIndexName));
-				aDBSideTableNode.add(missing);
-
+			List<Relation> theResult = aForeignKeys.get(aTable);
+			if (theResult == null) {
+				return Collections.emptyList();
 			}
+			return theResult;
 		}
 	}
 
-	private void generateRelationsForTable(DefaultMutableTreeNode aModelSideTableNode,
-										   DefaultMutableTreeNode aDBSideTableNode, Table aTableFromModel, Table aTableFromDB,
-										   RelationList aAllRelations, Model aDBModel, Model aCurrentModel) {
-
-		// Now, do it for each attribute
-		for (Relation theRelation : aAllRelations) {
-			String theRelationName = theRelation.getName();
-
-			// First, handle the model side
-			if (aTableFromModel != null) {
-
-				Relation theRelationFromModel = aCurrentModel.getRelations().findByName(theRelationName);
+	private final boolean parallel;
 
-				if (theRelationFromModel != null) {
-
-					Relation theRelationFromDB = null;
-					if (aTableFromDB != null) {
-						theRelationFromDB = aDBModel.getRelations().findByName(theRelationName);
-					}
-
-					if (theRelationFromDB != null) {
-
-						if (theRelationFromModel.isModified(theRelationFromDB, true)) {
-							// Compute the difference
-
-							String theDiffInfo = "";
-
-							// Differences in definition
-							DefaultMutableTreeNode error = new DefaultMutableTreeNode(new RedefinedRelationInfo(
-									theRelationName + " " + theDiffInfo));
-							aModelSideTableNode.add(error);
-
-						} else {
-							DefaultMutableTreeNode existing = new DefaultMutableTreeNode(theRelationName);
-							aModelSideTableNode.add(existing);
-						}
-
-						// Here, we have to compare the attributes
-
-					} else {
-
-						DefaultMutableTreeNode existing = new DefaultMutableTreeNode(theRelationName);
-						aModelSideTableNode.add(existing);
-					}
+	public ModelComparator() {
+		this(false);
+	}
 
-				} else {
+	/**
+	 * @param aParallel true if the tables shall be compared in parallel
+	 */
+	public ModelComparator(boolean aParallel) {
+		parallel = aParallel;
+	}
 
-					// The entity is existing, but the attribute is
-					// missing
-					DefaultMutableTreeNode missing = new DefaultMutableTreeNode(
-							new MissingRelationInfo(theRelationName));
-					aModelSideTableNode.add(missing);
+	/**
+	 * Compare two models and build the trees of the complete compare editor.
+	 *
+	 * @param aCurrentModel  the current model
+	 * @param aDatabaseModel the database model
+	 * @return the compare result
+	 */
+	public ModelCompareResult compareModels(Model aCurrentModel, Model aDatabaseModel) {
+		ModelCompareTreeBuilder theBuilder = new ModelCompareTreeBuilder();
+		compare(aCurrentModel, aDatabaseModel, theBuilder);
+		return theBuilder.getResult();
+	}
 
-				}
+	/**
+	 * Compute the differences between two models.
+	 *
+	 * @param aCurrentModel  the current model
+	 * @param aDatabaseModel the database model
+	 * @return the differences
+	 */
+	public ModelDiff diff(Model aCurrentModel, Model aDatabaseModel) {
+		ModelDiff theDiff = new ModelDiff();
+		compare(aCurrentModel, aDatabaseModel, theDiff);
+		return theDiff;
+	}
 
-			} else {
+	/**
+	 * Compare two models and report every table, attribute, index, relation
+	 * and view to a visitor.
+	 *
+	 * @param aCurrentModel  the current model
+	 * @param aDatabaseModel the database model
+	 * @param aVisitor       the visitor
+	 */
+	public void compare(Model aCurrentModel, Model aDatabaseModel, ModelDiffVisitor aVisitor) {
 
-				// The entity is not existing in the model, so every
-				// attribute is missing
-				DefaultMutableTreeNode missing = new DefaultMutableTreeNode(new MissingRelationInfo(theRelationName));
-				aModelSideTableNode.add(missing);
+		Context theContext = new Context(aCurrentModel, aDatabaseModel);
 
+		List<Match<Table>> theTables = theContext.join(aCurrentModel.getTables(), aDatabaseModel.getTables());
+		if (parallel) {
+			List<List<ModelChange>> theTableChanges = theTables.parallelStream().map(
+					theMatch -> compareTable(theContext, theMatch)).collect(Collectors.toList());
+			for (List<ModelChange> theChanges : theTableChanges) {
+				report(theChanges, aVisitor);
 			}
+		} else {
+			for (Match<Table> theMatch : theTables) {
+				report(compareTable(theContext, theMatch), aVisitor);
+			}
+		}
 
-			// Now, the database side
-			if (aTableFromDB != null) {
-
-				Relation theRelationFromDB = aDBModel.getRelations().findByName(theRelationName);
-
-				if (theRelationFromDB != null) {
-
-					Relation theRelationFromModel = null;
-					if (aTableFromModel != null) {
-						theRelationFromModel = aCurrentModel.getRelations().findByName(theRelationName);
-					}
-
-					if (theRelationFromModel != null) {
-
-						if (theRelationFromModel.isModified(theRelationFromDB, true)) {
+		for (Match<View> theMatch : theContext.join(aCurrentModel.getViews(), aDatabaseModel.getViews())) {
+			aVisitor.visit(createChange(ItemType.VIEW, null, theMatch.name, theMatch.fromModel, theMatch.fromDB,
+					VIEW_MODIFIED));
+		}
+	}
 
-							String diffInfo = "";
+	private static void report(List<ModelChange> aTableChanges, ModelDiffVisitor aVisitor) {
+		ModelChange theTable = aTableChanges.get(0);
+		aVisitor.beginTable(theTable);
+		for (int i = 1; i < aTableChanges.size(); i++) {
+			aVisitor.visit(aTableChanges.get(i));
+		}
+		aVisitor.endTable(theTable);
+	}
 
-							// Modified
-							// Differences in definition
-							DefaultMutableTreeNode error = new DefaultMutableTreeNode(new RedefinedRelationInfo(
-									theRelationName + " " + diffInfo));
-							aDBSideTableNode.add(error);
+	private static <T extends ModelItem> ModelChange createChange(ItemType aItemType, String aTableName, String aName,
+			T aFromModel, T aFromDB, BiPredicate<T, T> aModified) {
+		ChangeType theChangeType;
+		if (aFromModel == null) {
+			theChangeType = ChangeType.ADDED;
+		} else if (aFromDB == null) {
+			theChangeType = ChangeType.REMOVED;
+		} else if (aModified.test(aFromModel, aFromDB)) {
+			theChangeType = ChangeType.REDEFINED;
+		} else {
+			theChangeType = ChangeType.UNCHANGED;
+		}
+		return new ModelChange(aItemType, theChangeType, aTableName, aName, aFromModel, aFromDB);
+	}
 
-						} else {
-							DefaultMutableTreeNode existing = new DefaultMutableTreeNode(theRelationName);
-							aDBSideTableNode.add(existing);
-						}
+	/**
+	 * Compare one table.
+	 *
+	 * @param aContext the comparison state
+	 * @param aMatch   the table of both sides
+	 * @return the change of the table followed by the changes of its attributes, indexes and relations
+	 */
+	private List<ModelChange> compareTable(Context aContext, Match<Table> aMatch) {
 
-					} else {
+		String theTableName = aMatch.name;
+		Table theTableFromModel = aMatch.fromModel;
+		Table theTableFromDB = aMatch.fromDB;
 
-						DefaultMutableTreeNode existing = new DefaultMutableTreeNode(theRelationName);
-						aDBSideTableNode.add(existing);
-					}
+		List<ModelChange> theResult = new ArrayList<>();
+		theResult.add(createChange(ItemType.TABLE, null, theTableName, theTableFromModel, theTableFromDB,
+				TABLE_MODIFIED));
 
-				} else {
+		List<Attribute<Table>> theNoAttributes = Collections.emptyList();
+		List<Index> theNoIndexes = Collections.emptyList();
 
-					// The entity is existing, but the attribute is
-					// missing
-					DefaultMutableTreeNode missing = new DefaultMutableTreeNode(
-							new MissingRelationInfo(theRelationName));
-					aDBSideTableNode.add(missing);
+		for (Match<Attribute<Table>> theMatch : aContext.join(
+				theTableFromModel != null ? theTableFromModel.getAttributes() : theNoAttributes,
+				theTableFromDB != null ? theTableFromDB.getAttributes() : theNoAttributes)) {
+			theResult.add(createChange(ItemType.ATTRIBUTE, theTableName, theMatch.name, theMatch.fromModel,
+					theMatch.fromDB, ATTRIBUTE_MODIFIED));
+		}
 
-				}
+		for (Match<Index> theMatch : aContext.join(
+				theTableFromModel != null ? theTableFromModel.getIndexes() : theNoIndexes,
+				theTableFromDB != null ? theTableFromDB.getIndexes() : theNoIndexes)) {
+			theResult.add(createChange(ItemType.INDEX, theTableName, theMatch.name, theMatch.fromModel,
+					theMatch.fromDB, INDEX_MODIFIED));
+		}
 
-			} else {
+		for (Match<Relation> theMatch : aContext.join(
+				aContext.getForeignKeys(aContext.modelForeignKeys, theTableFromModel),
+				aContext.getForeignKeys(aContext.dbForeignKeys, theTableFromDB))) {
 
-				// The entity is not existing in the model, so every
-				// attribute is missing
-				DefaultMutableTreeNode missing = new DefaultMutableTreeNode(new MissingRelationInfo(theRelationName));
-				aDBSideTableNode.add(missing);
+			// Relations are looked up in the whole model, as they might have
+			// been moved to another table
+			String theKey = aContext.keyFor(theMatch.name);
+			Relation theRelationFromModel = theTableFromModel != null ? aContext.modelRelations.get(theKey) : null;
+			Relation theRelationFromDB = theTableFromDB != null ? aContext.dbRelations.get(theKey) : null;
 
-			}
+			theResult.add(createChange(ItemType.RELATION, theTableName, theMatch.name, theRelationFromModel,
+					theRelationFromDB, RELATION_MODIFIED));
 		}
+
+		return theResult;
 	}
 }
@@ -0,0 +1,148 @@
+/**
+ * Mogwai ERDesigner. Copyright (C) 2002 The Mogwai Project.
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program; if not, write to the Free Software Foundation, Inc., 59 Temple
+ * Place - Suite 330, Boston, MA 02111-1307, USA.
+ */
+package de.erdesignerng.model.utils;
+
+import de.erdesignerng.ERDesignerBundle;
+import de.erdesignerng.model.Attribute;
+import de.erdesignerng.model.ModelItem;
+import de.mogwai.common.i18n.ResourceHelper;
+
+import javax.swing.tree.DefaultMutableTreeNode;
+
+/**
+ * Builds the trees of both models shown by the complete compare editor
+ * from the result of a model comparison.
+ */
+public class ModelCompareTreeBuilder implements ModelDiffVisitor {
+
+	private static final ResourceHelper HELPER = ResourceHelper.getResourceHelper(ERDesignerBundle.BUNDLE_NAME);
+
+	private final DefaultMutableTreeNode modelSideRootNode = new DefaultMutableTreeNode(HELPER.getText(ERDesignerBundle.CURRENTMODEL));
+
+	private final DefaultMutableTreeNode dbSideRootNode = new DefaultMutableTreeNode(HELPER.getText(ERDesignerBundle.OTHERMODEL));
+
+	private DefaultMutableTreeNode modelSideTableNode;
+
+	private DefaultMutableTreeNode dbSideTableNode;
+
+	private DefaultMutableTreeNode modelSideIndexesNode;
+
+	private DefaultMutableTreeNode dbSideIndexesNode;
+
+	private DefaultMutableTreeNode modelSideRelationsNode;
+
+	private DefaultMutableTreeNode dbSideRelationsNode;
+
+	private static Object createMissingInfo(ModelChange aChange) {
+		String theName = aChange.getName();
+		switch (aChange.getItemType()) {
+			case TABLE:
+				return new MissingEntityInfo(theName);
+			case ATTRIBUTE:
+				return new MissingAttributeInfo(theName);
+			case INDEX:
+				return new MissingIndexInfo(theName);
+			case RELATION:
+				return new MissingRelationInfo(theName);
+			default:
+				return new MissingViewInfo(theName);
+		}
+	}
+
+	private static Object createRedefinedInfo(ModelChange aChange, ModelItem aItem) {
+		String theName = aChange.getName();
+		switch (aChange.getItemType()) {
+			case ATTRIBUTE:
+				return new RedefinedAttributeInfo(theName + " " + ((Attribute) aItem).getPhysicalDeclaration());
+			case INDEX:
+				return new RedefinedIndexInfo(theName + " ");
+			case RELATION:
+				return new RedefinedRelationInfo(theName + " ");
+			default:
+				return new RedefinedViewInfo(theName);
+		}
+	}
+
+	/**
+	 * Create the node for one side.
+	 *
+	 * @param aChange the change
+	 * @param aItem   the item of this side, null if missing
+	 * @return the node
+	 */
+	private static DefaultMutableTreeNode createNode(ModelChange aChange, ModelItem aItem) {
+		if (aItem == null) {
+			return new DefaultMutableTreeNode(createMissingInfo(aChange));
+		}
+		if (aChange.getChangeType() == ModelChange.ChangeType.REDEFINED) {
+			return new DefaultMutableTreeNode(createRedefinedInfo(aChange, aItem));
+		}
+		return new DefaultMutableTreeNode(aChange.getName());
+	}
+
+	@Override
+	public void beginTable(ModelChange aTable) {
+		modelSideTableNode = createNode(aTable, aTable.getFromModel());
+		dbSideTableNode = createNode(aTable, aTable.getFromDatabase());
+		modelSideRootNode.add(modelSideTableNode);
+		dbSideRootNode.add(dbSideTableNode);
+
+		modelSideIndexesNode = new DefaultMutableTreeNode(HELPER.getText(ERDesignerBundle.INDEXES));
+		dbSideIndexesNode = new DefaultMutableTreeNode(HELPER.getText(ERDesignerBundle.INDEXES));
+		modelSideRelationsNode = new DefaultMutableTreeNode(HELPER.getText(ERDesignerBundle.RELATIONS));
+		dbSideRelationsNode = new DefaultMutableTreeNode(HELPER.getText(ERDesignerBundle.RELATIONS));
+	}
+
+	@Override
+	public void visit(ModelChange aChange) {
+		DefaultMutableTreeNode theModelSideParent;
+		DefaultMutableTreeNode theDBSideParent;
+		switch (aChange.getItemType()) {
+			case ATTRIBUTE:
+				theModelSideParent = modelSideTableNode;
+				theDBSideParent = dbSideTableNode;
+				break;
+			case INDEX:
+				theModelSideParent = modelSideIndexesNode;
+				theDBSideParent = dbSideIndexesNode;
+				break;
+			case RELATION:
+				theModelSideParent = modelSideRelationsNode;
+				theDBSideParent = dbSideRelationsNode;
+				break;
+			default:
+				theModelSideParent = modelSideRootNode;
+				theDBSideParent = dbSideRootNode;
+		}
+		theModelSideParent.add(createNode(aChange, aChange.getFromModel()));
+		theDBSideParent.add(createNode(aChange, aChange.getFromDatabase()));
+	}
+
+	@Override
+	public void endTable(ModelChange aTable) {
+		// The indexes and relations follow the attributes
+		modelSideTableNode.add(modelSideIndexesNode);
+		dbSideTableNode.add(dbSideIndexesNode);
+		modelSideTableNode.add(modelSideRelationsNode);
+		dbSideTableNode.add(dbSideRelationsNode);
+	}
+
+	public ModelCompareResult getResult() {
+		return new ModelCompareResult(modelSideRootNode, dbSideRootNode);
+	}
+}
@@ -0,0 +1,65 @@
+/**
+ * Mogwai ERDesigner. Copyright (C) 2002 The Mogwai Project.
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program; if not, write to the Free Software Foundation, Inc., 59 Temple
+ * Place - Suite 330, Boston, MA 02111-1307, USA.
+ */
+package de.erdesignerng.model.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * The differences between two models, without the unchanged items.
+ */
+public class ModelDiff implements ModelDiffVisitor {
+
+	private final List<ModelChange> changes = new ArrayList<>();
+
+	private void add(ModelChange aChange) {
+		if (aChange.isChanged()) {
+			changes.add(aChange);
+		}
+	}
+
+	@Override
+	public void beginTable(ModelChange aTable) {
+		add(aTable);
+	}
+
+	@Override
+	public void visit(ModelChange aChange) {
+		add(aChange);
+	}
+
+	@Override
+	public void endTable(ModelChange aTable) {
+	}
+
+	/**
+	 * @return true if both models are the same
+	 */
+	public boolean isEmpty() {
+		return changes.isEmpty();
+	}
+
+	public List<ModelChange> getChanges() {
+		return changes;
+	}
+
+	public List<ModelChange> getChanges(ModelChange.ItemType aItemType) {
+		return changes.stream().filter(theChange -> theChange.getItemType() == aItemType).collect(Collectors.toList());
+	}
+}
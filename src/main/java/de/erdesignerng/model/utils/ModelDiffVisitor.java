@@ -0,0 +1,39 @@
+/**
+ * Mogwai ERDesigner. Copyright (C) 2002 The Mogwai Project.
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program; if not, write to the Free Software Foundation, Inc., 59 Temple
+ * Place - Suite 330, Boston, MA 02111-1307, USA.
+ */
+package de.erdesignerng.model.utils;
+
+/**
+ * Receives the result of a model comparison item by item.
+ * <p/>
+ * Every table is reported by beginTable, followed by its attributes,
+ * indexes and relations in this order, and endTable. The views are reported
+ * after all tables. Unchanged items are reported as well.
+ */
+public interface ModelDiffVisitor {
+
+	void beginTable(ModelChange aTable);
+
+	/**
+	 * Visit an attribute, index or relation of the current table or a view.
+	 *
+	 * @param aChange the change
+	 */
+	void visit(ModelChange aChange);
+
+	void endTable(ModelChange aTable);
+}
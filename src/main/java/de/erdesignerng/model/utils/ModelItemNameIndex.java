@@ -0,0 +1,333 @@
+/**
+ * Mogwai ERDesigner. Copyright (C) 2002 The Mogwai Project.
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program; if not, write to the Free Software Foundation, Inc., 59 Temple
+ * Place - Suite 330, Boston, MA 02111-1307, USA.
+ */
+package de.erdesignerng.model.utils;
+
+import de.erdesignerng.model.Attribute;
+import de.erdesignerng.model.CustomType;
+import de.erdesignerng.model.Index;
+import de.erdesignerng.model.IndexExpression;
+import de.erdesignerng.model.Model;
+import de.erdesignerng.model.ModelItem;
+import de.erdesignerng.model.Relation;
+import de.erdesignerng.model.SubjectArea;
+import de.erdesignerng.model.Table;
+import de.erdesignerng.model.View;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An index over the names of all items of a model, answering substring
+ * queries.
+ * <p/>
+ * The names are taken from the model when the index is created, so the
+ * index has to be created by the thread modifying the model. Queries can be
+ * run by any thread afterwards. Names of three or more characters are
+ * searched using trigram posting lists, shorter ones by scanning the names.
+ * <p/>
+ * An item matching the query makes its owner visible too: a table is
+ * visible if one of its attributes, indexes, index expressions or foreign
+ * keys matches, a foreign key if one of its attributes matches, and a
+ * subject area if one of its tables or views is visible.
+ */
+public class ModelItemNameIndex {
+
+	private static final int[] NO_OWNERS = new int[0];
+
+	/**
+	 * The result of a query.
+	 */
+	public final class Result {
+
+		private final String text;
+
+		private final BitSet visible;
+
+		private Result(String aText, BitSet aVisible) {
+			text = aText;
+			visible = aVisible;
+		}
+
+		/**
+		 * @return the lower case text of the query
+		 */
+		public String getText() {
+			return text;
+		}
+
+		/**
+		 * @return the index the result was computed by
+		 */
+		public ModelItemNameIndex getIndex() {
+			return ModelItemNameIndex.this;
+		}
+
+		/**
+		 * Test if an item matches the query or owns a matching item.
+		 *
+		 * @param aItem the item
+		 * @return true if visible, false if not visible or not indexed
+		 */
+		public boolean isVisible(ModelItem aItem) {
+			Integer theId = ids.get(aItem);
+			return theId != null && visible.get(theId);
+		}
+
+		/**
+		 * @return the number of visible items
+		 */
+		public int size() {
+			return visible.cardinality();
+		}
+	}
+
+	private final Map<ModelItem, Integer> ids = new IdentityHashMap<>();
+
+	private final List<String> names = new ArrayList<>();
+
+	private final List<int[]> owners = new ArrayList<>();
+
+	private Map<Long, int[]> trigrams;
+
+	/**
+	 * Create the index for a model.
+	 *
+	 * @param aModel the model
+	 */
+	public ModelItemNameIndex(Model aModel) {
+		for (Table theTable : aModel.getTables()) {
+			int theTableId = add(theTable);
+			for (Attribute<Table> theAttribute : theTable.getAttributes()) {
+				addOwner(add(theAttribute), theTableId);
+			}
+			for (Index theIndex : theTable.getIndexes()) {
+				addOwner(add(theIndex), theTableId);
+				for (IndexExpression theExpression : theIndex.getExpressions()) {
+					addOwner(add(theExpression), theTableId);
+				}
+			}
+		}
+		for (Relation theRelation : aModel.getRelations()) {
+			int theRelationId = add(theRelation);
+			Table theImportingTable = theRelation.getImportingTable();
+			if (theImportingTable != null) {
+				addOwner(theRelationId, add(theImportingTable));
+			}
+			for (Attribute<Table> theAttribute : theRelation.getMapping().values()) {
+				if (theAttribute != null) {
+					addOwner(add(theAttribute), theRelationId);
+				}
+			}
+		}
+		for (View theView : aModel.getViews()) {
+			add(theView);
+		}
+		for (SubjectArea theArea : aModel.getSubjectAreas()) {
+			int theAreaId = add(theArea);
+			for (Table theTable : theArea.getTables()) {
+				addOwner(add(theTable), theAreaId);
+			}
+			for (View theView : theArea.getViews()) {
+				addOwner(add(theView), theAreaId);
+			}
+		}
+		aModel.getDomains().forEach(this::add);
+		for (CustomType theType : aModel.getCustomTypes()) {
+			add(theType);
+			theType.getAttributes().forEach(this::add);
+		}
+	}
+
+	private int add(ModelItem aItem) {
+		Integer theId = ids.get(aItem);
+		if (theId == null) {
+			theId = names.size();
+			ids.put(aItem, theId);
+			String theName = aItem.toString();
+			names.add(theName != null ? theName.toLowerCase() : "");
+			owners.add(NO_OWNERS);
+		}
+		return theId;
+	}
+
+	private void addOwner(int aId, int aOwnerId) {
+		int[] theOwners = owners.get(aId);
+		for (int theOwner : theOwners) {
+			if (theOwner == aOwnerId) {
+				return;
+			}
+		}
+		theOwners = Arrays.copyOf(theOwners, theOwners.length + 1);
+		theOwners[theOwners.length - 1] = aOwnerId;
+		owners.set(aId, theOwners);
+	}
+
+	/**
+	 * Test if an item was part of the model when the index was created.
+	 *
+	 * @param aItem the item
+	 * @return true if indexed
+	 */
+	public boolean isIndexed(ModelItem aItem) {
+		return ids.containsKey(aItem);
+	}
+
+	/**
+	 * @return the number of indexed items
+	 */
+	public int size() {
+		return names.size();
+	}
+
+	private static long trigram(String aText, int aOffset) {
+		return ((long) aText.charAt(aOffset) << 32) | ((long) aText.charAt(aOffset + 1) << 16)
+				| aText.charAt(aOffset + 2);
+	}
+
+	private static void checkInterrupted() throws InterruptedException {
+		if (Thread.interrupted()) {
+			throw new InterruptedException();
+		}
+	}
+
+	/**
+	 * The ids of the items containing a trigram, in ascending order.
+	 */
+	private static class Postings {
+
+		private int[] ids = new int[4];
+
+		private int size;
+
+		private void add(int aId) {
+			if (size > 0 && ids[size - 1] == aId) {
+				// Trigram occurs more than once in this name
+				return;
+			}
+			if (size == ids.length) {
+				ids = Arrays.copyOf(ids, size * 2);
+			}
+			ids[size++] = aId;
+		}
+	}
+
+	/**
+	 * Build the trigram posting lists. This is done by the first query
+	 * needing them, or in advance by calling this method.
+	 *
+	 * @throws InterruptedException if the thread was interrupted
+	 */
+	public void prepare() throws InterruptedException {
+		getTrigrams();
+	}
+
+	private synchronized Map<Long, int[]> getTrigrams() throws InterruptedException {
+		if (trigrams == null) {
+			Map<Long, Postings> thePostings = new HashMap<>();
+			for (int i = 0; i < names.size(); i++) {
+				if (i % 1024 == 0) {
+					checkInterrupted();
+				}
+				String theName = names.get(i);
+				for (int j = 0; j + 3 <= theName.length(); j++) {
+					thePostings.computeIfAbsent(trigram(theName, j), k -> new Postings()).add(i);
+				}
+			}
+			Map<Long, int[]> theTrigrams = new HashMap<>(thePostings.size() * 2);
+			for (Map.Entry<Long, Postings> theEntry : thePostings.entrySet()) {
+				Postings theList = theEntry.getValue();
+				theTrigrams.put(theEntry.getKey(), Arrays.copyOf(theList.ids, theList.size));
+			}
+			trigrams = theTrigrams;
+		}
+		return trigrams;
+	}
+
+	/**
+	 * Compute the items whose names contain a text, case insensitive. Items
+	 * without a name always match.
+	 *
+	 * @param aText the text
+	 * @return the result
+	 * @throws InterruptedException if the thread was interrupted during the query
+	 */
+	public Result query(String aText) throws InterruptedException {
+		String theText = aText.toLowerCase();
+		BitSet theVisible = new BitSet(names.size());
+
+		if (theText.length() >= 3) {
+			Map<Long, int[]> theTrigrams = getTrigrams();
+
+			// Every match contains all trigrams of the text, so it is enough
+			// to check the names in the shortest posting list
+			int[] theCandidates = null;
+			for (int j = 0; j + 3 <= theText.length(); j++) {
+				int[] theList = theTrigrams.get(trigram(theText, j));
+				if (theList == null) {
+					theCandidates = new int[0];
+					break;
+				}
+				if (theCandidates == null || theList.length < theCandidates.length) {
+					theCandidates = theList;
+				}
+			}
+			for (int theId : theCandidates) {
+				if (names.get(theId).contains(theText)) {
+					theVisible.set(theId);
+				}
+			}
+			for (int i = 0; i < names.size(); i++) {
+				if (names.get(i).isEmpty()) {
+					theVisible.set(i);
+				}
+			}
+		} else {
+			for (int i = 0; i < names.size(); i++) {
+				if (i % 1024 == 0) {
+					checkInterrupted();
+				}
+				String theName = names.get(i);
+				if (theName.isEmpty() || theName.contains(theText)) {
+					theVisible.set(i);
+				}
+			}
+		}
+		checkInterrupted();
+
+		// Propagate the visibility to the owners
+		int[] theQueue = new int[names.size()];
+		int theTail = 0;
+		for (int i = theVisible.nextSetBit(0); i >= 0; i = theVisible.nextSetBit(i + 1)) {
+			theQueue[theTail++] = i;
+		}
+		for (int theHead = 0; theHead < theTail; theHead++) {
+			for (int theOwner : owners.get(theQueue[theHead])) {
+				if (!theVisible.get(theOwner)) {
+					theVisible.set(theOwner);
+					theQueue[theTail++] = theOwner;
+				}
+			}
+		}
+		return new Result(theText, theVisible);
+	}
+}
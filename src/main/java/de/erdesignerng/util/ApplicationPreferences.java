@@ -17,6 +17,8 @@
  */
 package de.erdesignerng.util;
 
+import de.erdesignerng.dialect.StatementExecutor;
+import de.erdesignerng.dialect.TransactionMode;
 import de.erdesignerng.model.CascadeType;
 import de.erdesignerng.visual.EditorMode;
 import org.apache.commons.lang.StringUtils;
@@ -62,6 +64,14 @@ public class ApplicationPreferences {
 
 	private static final String TABLEGRIDWIDTHAFTERREVERSEENGINEERING = "tablegridwidthafterre";
 
+	private static final String REVERSEENGINEERINGWORKERCOUNT = "reverseengineeringworkers";
+
+	private static final String SCRIPTBATCHSIZE = "scriptbatchsize";
+
+	private static final String SCRIPTTRANSACTIONMODE = "scripttransactionmode";
+
+	private static final String DATABROWSERQUERYTIMEOUT = "databrowserquerytimeout";
+
 	private static final String AUTOMATICRELATIONATTRIBUTEPATTERN = "automaticrelationattributepattern";
 
 	private static final String ONUPDATEDEFAULT = "onupdatedefault";
@@ -116,6 +126,14 @@ public class ApplicationPreferences {
 
 	private int gridWidthAfterReverseEngineering;
 
+	private int reverseEngineeringWorkerCount;
+
+	private int scriptBatchSize;
+
+	private TransactionMode scriptTransactionMode;
+
+	private int dataBrowserQueryTimeout;
+
 	private EditorMode editorMode;
 
 	private static ApplicationPreferences me;
@@ -204,6 +222,14 @@ public class ApplicationPreferences {
 		windowLayout = preferences.getByteArray(LAYOUT, new byte[0]);
 		gridWidthAfterReverseEngineering = preferences.getInt(
 				TABLEGRIDWIDTHAFTERREVERSEENGINEERING, 8);
+		reverseEngineeringWorkerCount = preferences.getInt(
+				REVERSEENGINEERINGWORKERCOUNT, 1);
+		scriptBatchSize = preferences.getInt(SCRIPTBATCHSIZE,
+				StatementExecutor.DEFAULT_BATCH_SIZE);
+		scriptTransactionMode = TransactionMode.fromString(preferences.get(
+				SCRIPTTRANSACTIONMODE, TransactionMode.AUTOCOMMIT.toString()));
+		dataBrowserQueryTimeout = preferences.getInt(DATABROWSERQUERYTIMEOUT,
+				120);
 		xmlIndentation = preferences.getInt(XMLINDENTATION, 4);
 
 		onUpdateDefault = CascadeType.fromString(preferences.get(ONUPDATEDEFAULT, CascadeType.NOTHING.toString()));
@@ -340,6 +366,11 @@ public class ApplicationPreferences {
 		preferences.putByteArray(LAYOUT, windowLayout);
 		preferences.putInt(TABLEGRIDWIDTHAFTERREVERSEENGINEERING,
 				gridWidthAfterReverseEngineering);
+		preferences.putInt(REVERSEENGINEERINGWORKERCOUNT,
+				reverseEngineeringWorkerCount);
+		preferences.putInt(SCRIPTBATCHSIZE, scriptBatchSize);
+		preferences.put(SCRIPTTRANSACTIONMODE, scriptTransactionMode.toString());
+		preferences.putInt(DATABROWSERQUERYTIMEOUT, dataBrowserQueryTimeout);
 
 		if (repositoryConnection != null) {
 			preferences.put(RPCPREFIX + "DIALECT", repositoryConnection
@@ -608,6 +639,39 @@ public class ApplicationPreferences {
 		this.gridWidthAfterReverseEngineering = gridWidthAfterReverseEngineering;
 	}
 
+	public int getReverseEngineeringWorkerCount() {
+		return reverseEngineeringWorkerCount;
+	}
+
+	public void setReverseEngineeringWorkerCount(
+			int reverseEngineeringWorkerCount) {
+		this.reverseEngineeringWorkerCount = reverseEngineeringWorkerCount;
+	}
+
+	public int getScriptBatchSize() {
+		return scriptBatchSize;
+	}
+
+	public void setScriptBatchSize(int scriptBatchSize) {
+		this.scriptBatchSize = scriptBatchSize;
+	}
+
+	public TransactionMode getScriptTransactionMode() {
+		return scriptTransactionMode;
+	}
+
+	public void setScriptTransactionMode(TransactionMode scriptTransactionMode) {
+		this.scriptTransactionMode = scriptTransactionMode;
+	}
+
+	public int getDataBrowserQueryTimeout() {
+		return dataBrowserQueryTimeout;
+	}
+
+	public void setDataBrowserQueryTimeout(int dataBrowserQueryTimeout) {
+		this.dataBrowserQueryTimeout = dataBrowserQueryTimeout;
+	}
+
 	public int getXmlIndentation() {
 		return xmlIndentation;
 	}
@@ -0,0 +1,390 @@
+/**
+ * Mogwai ERDesigner. Copyright (C) 2002 The Mogwai Project.
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program; if not, write to the Free Software Foundation, Inc., 59 Temple
+ * Place - Suite 330, Boston, MA 02111-1307, USA.
+ */
+package de.erdesignerng.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Append only storage for the rows of a query result.
+ * <p/>
+ * The rows are collected in blocks. A full block is encoded column by column
+ * and written to a memory mapped temporary file, so only the block being
+ * filled and a few recently read blocks are kept on the heap. Reading a row
+ * decodes its whole block.
+ * <p/>
+ * Strings, numbers, booleans, dates, times, timestamps and byte arrays keep
+ * their type. Other values, for instance LOBs or vendor types, are stored as
+ * their string representation.
+ */
+public class RowStore implements Closeable {
+
+	public static final int DEFAULT_BLOCK_SIZE = 256;
+
+	private static final int SEGMENT_SIZE = 16 * 1024 * 1024;
+
+	private static final int DECODED_BLOCKS = 8;
+
+	private static final byte NULL = 0;
+
+	private static final byte STRING = 1;
+
+	private static final byte INTEGER = 2;
+
+	private static final byte LONG = 3;
+
+	private static final byte DOUBLE = 4;
+
+	private static final byte FLOAT = 5;
+
+	private static final byte SHORT = 6;
+
+	private static final byte BYTE = 7;
+
+	private static final byte BOOLEAN = 8;
+
+	private static final byte BIGDECIMAL = 9;
+
+	private static final byte BIGINTEGER = 10;
+
+	private static final byte DATE = 11;
+
+	private static final byte TIME = 12;
+
+	private static final byte TIMESTAMP = 13;
+
+	private static final byte BYTES = 14;
+
+	private final int columnCount;
+
+	private final int blockSize;
+
+	private List<Object[]> currentBlock;
+
+	private final List<MappedByteBuffer> segments = new ArrayList<>();
+
+	private int[] blockSegments = new int[16];
+
+	private int[] blockPositions = new int[16];
+
+	private int[] blockLengths = new int[16];
+
+	private int blockCount;
+
+	private final Map<Integer, Object[][]> decodedBlocks = new LinkedHashMap<Integer, Object[][]>(16, 0.75f, true) {
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Integer, Object[][]> aEldest) {
+			return size() > DECODED_BLOCKS;
+		}
+	};
+
+	private File file;
+
+	private FileChannel channel;
+
+	private long fileSize;
+
+	private int rowCount;
+
+	public RowStore(int aColumnCount) {
+		this(aColumnCount, DEFAULT_BLOCK_SIZE);
+	}
+
+	public RowStore(int aColumnCount, int aBlockSize) {
+		columnCount = aColumnCount;
+		blockSize = aBlockSize;
+		currentBlock = new ArrayList<>(aBlockSize);
+	}
+
+	/**
+	 * Add a row. Values of other than the supported types are converted to
+	 * strings.
+	 *
+	 * @param aRow the values of the row
+	 * @throws IOException if the block could not be written to the temporary file
+	 */
+	public synchronized void add(Object[] aRow) throws IOException {
+		if (aRow.length != columnCount) {
+			throw new IllegalArgumentException("Expected " + columnCount + " values, got " + aRow.length);
+		}
+		Object[] theRow = new Object[columnCount];
+		for (int i = 0; i < columnCount; i++) {
+			theRow[i] = isSupported(aRow[i]) ? aRow[i] : aRow[i].toString();
+		}
+		currentBlock.add(theRow);
+		rowCount++;
+		if (currentBlock.size() == blockSize) {
+			spill();
+		}
+	}
+
+	public synchronized int getRowCount() {
+		return rowCount;
+	}
+
+	public int getColumnCount() {
+		return columnCount;
+	}
+
+	/**
+	 * Get a row.
+	 *
+	 * @param aRow the index of the row
+	 * @return the values of the row, must not be modified
+	 * @throws IOException if the block of the row could not be read
+	 */
+	public synchronized Object[] getRow(int aRow) throws IOException {
+		if (aRow < 0 || aRow >= rowCount) {
+			throw new IndexOutOfBoundsException("Row " + aRow + " of " + rowCount);
+		}
+		int theBlock = aRow / blockSize;
+		int theOffset = aRow % blockSize;
+		if (theBlock == blockCount) {
+			return currentBlock.get(theOffset);
+		}
+		Object[][] theRows = decodedBlocks.get(theBlock);
+		if (theRows == null) {
+			theRows = decode(theBlock);
+			decodedBlocks.put(theBlock, theRows);
+		}
+		return theRows[theOffset];
+	}
+
+	public Object getValue(int aRow, int aColumn) throws IOException {
+		return getRow(aRow)[aColumn];
+	}
+
+	/**
+	 * @return the size of the temporary file, 0 if nothing was spilled yet
+	 */
+	public synchronized long getSpilledSize() {
+		return fileSize;
+	}
+
+	private void spill() throws IOException {
+		ByteArrayOutputStream theBytes = new ByteArrayOutputStream();
+		DataOutputStream theOutput = new DataOutputStream(theBytes);
+		for (int theColumn = 0; theColumn < columnCount; theColumn++) {
+			for (Object[] theRow : currentBlock) {
+				writeValue(theOutput, theRow[theColumn]);
+			}
+		}
+		theOutput.flush();
+		byte[] theData = theBytes.toByteArray();
+
+		if (channel == null) {
+			file = File.createTempFile("rows", ".tmp");
+			file.deleteOnExit();
+			channel = new RandomAccessFile(file, "rw").getChannel();
+		}
+
+		// Blocks never span segments
+		MappedByteBuffer theSegment = segments.isEmpty() ? null : segments.get(segments.size() - 1);
+		if (theSegment == null || theSegment.remaining() < theData.length) {
+			int theSize = Math.max(SEGMENT_SIZE, theData.length);
+			theSegment = channel.map(FileChannel.MapMode.READ_WRITE, fileSize, theSize);
+			segments.add(theSegment);
+			fileSize += theSize;
+		}
+
+		if (blockCount == blockSegments.length) {
+			blockSegments = Arrays.copyOf(blockSegments, blockCount * 2);
+			blockPositions = Arrays.copyOf(blockPositions, blockCount * 2);
+			blockLengths = Arrays.copyOf(blockLengths, blockCount * 2);
+		}
+		blockSegments[blockCount] = segments.size() - 1;
+		blockPositions[blockCount] = theSegment.position();
+		blockLengths[blockCount] = theData.length;
+		blockCount++;
+
+		theSegment.put(theData);
+		currentBlock = new ArrayList<>(blockSize);
+	}
+
+	private Object[][] decode(int aBlock) throws IOException {
+		ByteBuffer theBuffer = segments.get(blockSegments[aBlock]).duplicate();
+		theBuffer.position(blockPositions[aBlock]);
+		byte[] theData = new byte[blockLengths[aBlock]];
+		theBuffer.get(theData);
+
+		DataInputStream theInput = new DataInputStream(new ByteArrayInputStream(theData));
+		Object[][] theRows = new Object[blockSize][columnCount];
+		for (int theColumn = 0; theColumn < columnCount; theColumn++) {
+			for (int theRow = 0; theRow < blockSize; theRow++) {
+				theRows[theRow][theColumn] = readValue(theInput);
+			}
+		}
+		return theRows;
+	}
+
+	private static void writeBytes(DataOutputStream aOutput, byte[] aBytes) throws IOException {
+		aOutput.writeInt(aBytes.length);
+		aOutput.write(aBytes);
+	}
+
+	private static byte[] readBytes(DataInputStream aInput) throws IOException {
+		byte[] theBytes = new byte[aInput.readInt()];
+		aInput.readFully(theBytes);
+		return theBytes;
+	}
+
+	private static boolean isSupported(Object aValue) {
+		return aValue == null || aValue instanceof String || aValue instanceof Integer || aValue instanceof Long
+				|| aValue instanceof Double || aValue instanceof Float || aValue instanceof Short
+				|| aValue instanceof Byte || aValue instanceof Boolean || aValue instanceof BigDecimal
+				|| aValue instanceof BigInteger || aValue instanceof Timestamp || aValue instanceof Date
+				|| aValue instanceof Time || aValue instanceof byte[];
+	}
+
+	private static void writeValue(DataOutputStream aOutput, Object aValue) throws IOException {
+		if (aValue == null) {
+			aOutput.writeByte(NULL);
+		} else if (aValue instanceof String) {
+			aOutput.writeByte(STRING);
+			writeBytes(aOutput, ((String) aValue).getBytes(StandardCharsets.UTF_8));
+		} else if (aValue instanceof Integer) {
+			aOutput.writeByte(INTEGER);
+			aOutput.writeInt((Integer) aValue);
+		} else if (aValue instanceof Long) {
+			aOutput.writeByte(LONG);
+			aOutput.writeLong((Long) aValue);
+		} else if (aValue instanceof Double) {
+			aOutput.writeByte(DOUBLE);
+			aOutput.writeDouble((Double) aValue);
+		} else if (aValue instanceof Float) {
+			aOutput.writeByte(FLOAT);
+			aOutput.writeFloat((Float) aValue);
+		} else if (aValue instanceof Short) {
+			aOutput.writeByte(SHORT);
+			aOutput.writeShort((Short) aValue);
+		} else if (aValue instanceof Byte) {
+			aOutput.writeByte(BYTE);
+			aOutput.writeByte((Byte) aValue);
+		} else if (aValue instanceof Boolean) {
+			aOutput.writeByte(BOOLEAN);
+			aOutput.writeBoolean((Boolean) aValue);
+		} else if (aValue instanceof BigDecimal) {
+			BigDecimal theDecimal = (BigDecimal) aValue;
+			aOutput.writeByte(BIGDECIMAL);
+			aOutput.writeInt(theDecimal.scale());
+			writeBytes(aOutput, theDecimal.unscaledValue().toByteArray());
+		} else if (aValue instanceof BigInteger) {
+			aOutput.writeByte(BIGINTEGER);
+			writeBytes(aOutput, ((BigInteger) aValue).toByteArray());
+		} else if (aValue instanceof Timestamp) {
+			Timestamp theTimestamp = (Timestamp) aValue;
+			aOutput.writeByte(TIMESTAMP);
+			aOutput.writeLong(theTimestamp.getTime());
+			aOutput.writeInt(theTimestamp.getNanos());
+		} else if (aValue instanceof Date) {
+			aOutput.writeByte(DATE);
+			aOutput.writeLong(((Date) aValue).getTime());
+		} else if (aValue instanceof Time) {
+			aOutput.writeByte(TIME);
+			aOutput.writeLong(((Time) aValue).getTime());
+		} else {
+			aOutput.writeByte(BYTES);
+			writeBytes(aOutput, (byte[]) aValue);
+		}
+	}
+
+	private static Object readValue(DataInputStream aInput) throws IOException {
+		byte theType = aInput.readByte();
+		switch (theType) {
+			case NULL:
+				return null;
+			case STRING:
+				return new String(readBytes(aInput), StandardCharsets.UTF_8);
+			case INTEGER:
+				return aInput.readInt();
+			case LONG:
+				return aInput.readLong();
+			case DOUBLE:
+				return aInput.readDouble();
+			case FLOAT:
+				return aInput.readFloat();
+			case SHORT:
+				return aInput.readShort();
+			case BYTE:
+				return aInput.readByte();
+			case BOOLEAN:
+				return aInput.readBoolean();
+			case BIGDECIMAL:
+				int theScale = aInput.readInt();
+				return new BigDecimal(new BigInteger(readBytes(aInput)), theScale);
+			case BIGINTEGER:
+				return new BigInteger(readBytes(aInput));
+			case TIMESTAMP:
+				Timestamp theTimestamp = new Timestamp(aInput.readLong());
+				theTimestamp.setNanos(aInput.readInt());
+				return theTimestamp;
+			case DATE:
+				return new Date(aInput.readLong());
+			case TIME:
+				return new Time(aInput.readLong());
+			case BYTES:
+				return readBytes(aInput);
+			default:
+				throw new IOException("Unknown value type " + theType);
+		}
+	}
+
+	/**
+	 * Release the temporary file.
+	 */
+	@Override
+	public synchronized void close() {
+		segments.clear();
+		decodedBlocks.clear();
+		currentBlock = new ArrayList<>();
+		blockCount = 0;
+		rowCount = 0;
+		if (channel != null) {
+			try {
+				channel.close();
+			} catch (IOException e) {
+				// Ignore this
+			}
+			channel = null;
+			// Fails on some platforms while the segments are still mapped,
+			// the file is deleted on exit then
+			file.delete();
+		}
+		fileSize = 0;
+	}
+}
@@ -19,11 +19,16 @@ package de.erdesignerng.util;
 
 import de.erdesignerng.PlatformConfig;
 import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
 import org.xml.sax.SAXException;
 
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 import javax.xml.transform.OutputKeys;
 import javax.xml.transform.Transformer;
 import javax.xml.transform.TransformerException;
@@ -70,6 +75,47 @@ public final class XMLUtils {
 		return documentBuilder.newDocument();
 	}
 
+	/**
+	 * Read the element the reader is positioned at into a new document. The
+	 * reader is positioned at the end of the element afterwards.
+	 *
+	 * @param aReader the reader, positioned at a start element
+	 * @return the document with the element as document element
+	 * @throws XMLStreamException will be thrown in case of an error
+	 */
+	public Document parseElement(XMLStreamReader aReader) throws XMLStreamException {
+		Document theDocument = documentBuilder.newDocument();
+		Node theCurrentNode = theDocument;
+		int theDepth = 0;
+		while (true) {
+			switch (aReader.getEventType()) {
+				case XMLStreamConstants.START_ELEMENT:
+					Element theElement = theDocument.createElement(aReader.getLocalName());
+					for (int i = 0; i < aReader.getAttributeCount(); i++) {
+						theElement.setAttribute(aReader.getAttributeLocalName(i), aReader.getAttributeValue(i));
+					}
+					theCurrentNode.appendChild(theElement);
+					theCurrentNode = theElement;
+					theDepth++;
+					break;
+				case XMLStreamConstants.END_ELEMENT:
+					theCurrentNode = theCurrentNode.getParentNode();
+					theDepth--;
+					break;
+				case XMLStreamConstants.CHARACTERS:
+				case XMLStreamConstants.CDATA:
+				case XMLStreamConstants.SPACE:
+					theCurrentNode.appendChild(theDocument.createTextNode(aReader.getText()));
+					break;
+				default:
+			}
+			if (theDepth == 0) {
+				return theDocument;
+			}
+			aReader.next();
+		}
+	}
+
 	public void transform(Document aDocument, Writer aWriter)
 			throws TransformerException {
 
@@ -18,16 +18,14 @@
 package de.erdesignerng.visual;
 
 import de.erdesignerng.dialect.DataTypeIO;
+import de.erdesignerng.visual.jgraph.export.BatchExporter;
 import de.mogwai.common.client.looks.components.DefaultSplashScreen;
 import org.apache.commons.lang.StringUtils;
 import org.apache.log4j.Logger;
-import org.xml.sax.SAXException;
 
 import javax.swing.*;
-import javax.xml.parsers.ParserConfigurationException;
-import javax.xml.transform.TransformerException;
 import java.io.File;
-import java.io.IOException;
+import java.util.Arrays;
 
 /**
  * @author $Author: mirkosertic $
@@ -40,17 +38,19 @@ public final class ERDesigner {
 	private ERDesigner() {
 	}
 
-	public static void main(String[] args)
-			throws
-			IllegalAccessException,
-			TransformerException, IOException, ParserConfigurationException,
-			SAXException {
+	public static void main(String[] args) throws Exception {
 
 		String theFilenameToOpen = null;
 		if (args != null) {
 			for (String theArgument : args) {
 				LOGGER.info("Was called with argument :" + theArgument);
 			}
+			// -export <filename> <imagefile> [dpi] exports the model without
+			// opening the user interface
+			if (args.length > 0 && "-export".equals(args[0])) {
+				BatchExporter.main(Arrays.copyOfRange(args, 1, args.length));
+				return;
+			}
 			// In WebStart mode or standalone, there can be two options
 			// -open <filename>
 			// -print <filename>
@@ -18,6 +18,7 @@
 package de.erdesignerng.visual;
 
 import de.erdesignerng.model.*;
+import de.erdesignerng.model.utils.ClusterLayout;
 import de.erdesignerng.visual.jgraph.cells.views.TableCellView;
 import de.erdesignerng.visual.jgraph.cells.views.ViewCellView;
 import java.awt.Dimension;
@@ -30,244 +31,33 @@ public class LayoutHelper {
 
     private static final Logger LOGGER = Logger.getLogger(LayoutHelper.class);
 
-    private static final int OFFSETX = 60;
-
-    private static final int OFFSETY = 60;
-
     private static final int DISTANCEX = 120;
 
     private static final int DISTANCEY = 120;
 
-    private static final int MAXWIDTH = 6000;
-
-    private class Cluster {
-        Table root;
-        final Set<ModelItem> nodes = new HashSet<>();
-        final Map<ModelItem, Integer> hierarchyLevel = new HashMap<>();
-        int maxLevel;
-
-        List<Set<Table>> computeHierarchy() {
-
-            List<ModelItem> theAllNodes = new ArrayList<>();
-            if (root != null) {
-                theAllNodes.add(root);
-            }
-            theAllNodes.addAll(nodes);
-
-            List<Set<Table>> theResult = new ArrayList<>();
-            for (int i = 0; i <= maxLevel; i++) {
-                Set<Table> theLevel = new HashSet<>();
-                for (ModelItem theItem : theAllNodes) {
-                    if (hierarchyLevel.get(theItem) == i) {
-                        theLevel.add((Table) theItem);
-                    }
-                }
-                theResult.add(theLevel);
-            }
-            return theResult;
-        }
-    }
-
-    private final Set<ModelItem> alreadyProcessed = new HashSet<>();
-
     public LayoutHelper() {
     }
 
-    private void buildTree(Model aModel, Table aNode, Cluster aCluster, int aLevel) {
-        for (Relation theRelation : aModel.getRelations().getForeignKeysFor(aNode)) {
-            Table theExp = theRelation.getExportingTable();
-            if (!aNode.equals(theExp) && !aCluster.nodes.contains(theExp) && !alreadyProcessed.contains(theExp)) {
-                aCluster.nodes.add(theExp);
-                aCluster.hierarchyLevel.put(theExp, aLevel);
-                aCluster.maxLevel = Math.max(aCluster.maxLevel, aLevel);
-                buildTree(aModel, theExp, aCluster, aLevel + 1);
-            }
-        }
-    }
-
+    /**
+     * Replace the subject areas by clusters of related tables and layout
+     * the whole model.
+     *
+     * @param aModel the model
+     * @see ClusterLayout
+     */
     public void performClusterLayout(Model aModel) {
 
-        LOGGER.info("Destroying all subject areas");
-
         long theDuration = System.currentTimeMillis();
 
-        // Destroy all subject areas in the model
-        aModel.getSubjectAreas().clear();
-
-        boolean continueRun = true;
-
-        Point theStart = new Point(OFFSETX, OFFSETY);
-        List<Table> theAllTables = new ArrayList<>();
-        theAllTables.addAll(aModel.getTables());
-        int maxHeight = 0;
-
-        while (continueRun) {
-
-            LOGGER.info("Starting with build cluster run");
-
-            continueRun = false;
-
-            // Step 1. Identify the Root Nodes
-            List<Cluster> theRoots = new ArrayList<>();
-            for (Table theTable : aModel.getTables()) {
-                if (!alreadyProcessed.contains(theTable)) {
-                    boolean isRoot = true;
-                    for (Relation theRelation : aModel.getRelations().getExportedKeysFor(theTable)) {
-                        // Check for self references
-                        if (!theRelation.getImportingTable().equals(theTable)) {
-                            isRoot = false;
-                        }
-                    }
-                    if (isRoot) {
-                        Cluster theCluster = new Cluster();
-                        theCluster.root = theTable;
-                        theRoots.add(theCluster);
-                    }
-                }
-            }
-
-            LOGGER.info("Found " + theRoots.size() + " root nodes : " + theRoots);
-
-            // Step 2. Build the tree for every root node
-            for (Cluster theCluster : theRoots) {
-                theCluster.hierarchyLevel.put(theCluster.root, 0);
-                theCluster.maxLevel = 0;
-                buildTree(aModel, theCluster.root, theCluster, 1);
-            }
-
-            Set<ModelItem> theClusteredTables = new HashSet<>();
-
-            // Step 3. Remove nodes that are assigned to more than one cluster
-            for (Cluster theCluster : theRoots) {
-                for (Cluster theCluster2 : theRoots) {
-                    if (theCluster != theCluster2) {
-                        theCluster.nodes.remove(theCluster2.root);
-                        theCluster2.nodes.remove(theCluster.root);
-                        theCluster.nodes.removeAll(theCluster2.nodes);
-                        theCluster2.nodes.removeAll(theCluster.nodes);
-
-                        theClusteredTables.addAll(theCluster.nodes);
-                        theClusteredTables.addAll(theCluster2.nodes);
-                    }
-                }
-            }
-
-            // Check for clustes with only one root
-            for (Cluster theCluster : theRoots) {
-                if (theCluster.nodes.size() == 0) {
-                    Set<Table> theDependentTables = new HashSet<>();
-                    for (Relation theRelation : aModel.getRelations().getForeignKeysFor(theCluster.root)) {
-                        if (!theRelation.isSelfReference()) {
-                            theDependentTables.add(theRelation.getExportingTable());
-                        }
-                    }
-                    if (theDependentTables.size() > 0) {
-                        // Map the root node of the cluster to the cluster that contains all the referenced
-                        // tables
-                        for (Cluster theCluster2 : theRoots) {
-                            if (theCluster2.nodes.containsAll(theDependentTables)) {
-                                theCluster2.nodes.add(theCluster.root);
-                                theCluster2.hierarchyLevel.put(theCluster.root, theCluster2.maxLevel);
-                            }
-                        }
-                    }
-                }
-            }
-
-            // Now, we have the top level clusters
-            // Every cluster might result in a new subject area
-            for (Cluster theCluster : theRoots) {
-                // A cluster should have more than 1 element including the root
-                if (theCluster.nodes.size() > 0) {
-                    LOGGER.info("Creating new subject area for cluster " + theCluster.root + " with " + theCluster.nodes.size() + " nodes : " + theCluster.nodes);
-
-                    SubjectArea theArea = new SubjectArea();
-                    theArea.setExpanded(true);
-                    theArea.setName(theCluster.root.getName());
-                    if (theCluster.root != null) {
-                        theArea.getTables().add(theCluster.root);
-                        alreadyProcessed.add(theCluster.root);
-                        theAllTables.remove(theCluster.root);
-                    }
-                    for (ModelItem theItem : theCluster.nodes) {
-                        alreadyProcessed.add(theItem);
-                        if (theItem instanceof Table) {
-                            theArea.getTables().add((Table) theItem);
-                            theAllTables.remove(theItem);
-                        }
-                        if (theItem instanceof View) {
-                            theArea.getViews().add((View) theItem);
-                        }
-                    }
-
-                    // We layout every subject area initially as a tree
-                    Dimension theSize = performTreeLayout(theStart, theCluster.computeHierarchy(), theArea.getViews());
-                    theStart.x += theSize.width + DISTANCEX;
-                    maxHeight = Math.max(maxHeight, theSize.height);
-
-                    if (theStart.x > MAXWIDTH) {
-                        theStart.x = OFFSETX;
-                        theStart.y += maxHeight + DISTANCEY;
-                        maxHeight = 0;
-                    }
-
-                    aModel.getSubjectAreas().add(theArea);
-
-                    // We continue as long as we find new subject areas
-                    continueRun = true;
-                }
-            }
-        }
-
-        // Now, we recompute the position of the remaining tables and views
-        theStart.x = OFFSETX;
-        if (maxHeight > 0) {
-            theStart.y += maxHeight + DISTANCEY;
-            maxHeight = 0;
-        }
-
         TableCellView.MyRenderer theTableRenderer = new TableCellView.MyRenderer();
-
-        for (Table theTable : theAllTables) {
-            theTable.getProperties().setPointProperty(Table.PROPERTY_LOCATION, theStart.x, theStart.y);
-
-            JComponent theRendererComponent = theTableRenderer.getRendererComponent(theTable);
-            Dimension theSize = theRendererComponent.getPreferredSize();
-
-            theStart.x += theSize.width + DISTANCEX;
-            maxHeight = Math.max(maxHeight, theSize.height);
-
-            if (theStart.x > MAXWIDTH) {
-                theStart.x = OFFSETX;
-                theStart.y += maxHeight + DISTANCEY;
-                maxHeight = 0;
-            }
-        }
-
-        theStart.x = OFFSETX;
-        if (maxHeight > 0) {
-            theStart.y += maxHeight + DISTANCEY;
-            maxHeight = 0;
-        }
-
         ViewCellView.MyRenderer theViewRenderer = new ViewCellView.MyRenderer();
 
-        for (View theView : aModel.getViews()) {
-
-            theView.getProperties().setPointProperty(Table.PROPERTY_LOCATION, theStart.x, theStart.y);
-
-            JComponent theRendererComponent = theViewRenderer.getRendererComponent(theView);
-            Dimension theSize = theRendererComponent.getPreferredSize();
-
-            theStart.x += theSize.width + DISTANCEX;
-            maxHeight = Math.max(maxHeight, theSize.height);
-
-            if (theStart.x > MAXWIDTH) {
-                theStart.x = OFFSETX;
-                theStart.y += maxHeight + DISTANCEY;
-                maxHeight = 0;
+        new ClusterLayout(aItem -> {
+            if (aItem instanceof View) {
+                return theViewRenderer.getRendererComponent((View) aItem).getPreferredSize();
             }
-        }
+            return theTableRenderer.getRendererComponent((Table) aItem).getPreferredSize();
+        }).performClusterLayout(aModel);
 
         theDuration = System.currentTimeMillis() - theDuration;
 
@@ -18,10 +18,13 @@
 package de.erdesignerng.visual.common;
 
 import de.erdesignerng.ERDesignerBundle;
+import de.erdesignerng.dialect.ConnectionProvider;
 import de.erdesignerng.dialect.JDBCReverseEngineeringStrategy;
 import de.erdesignerng.dialect.ReverseEngineeringNotifier;
 import de.erdesignerng.dialect.ReverseEngineeringOptions;
 import de.erdesignerng.model.Model;
+import de.erdesignerng.model.ModelBasedConnectionProvider;
+import de.erdesignerng.util.ApplicationPreferences;
 import de.erdesignerng.visual.LongRunningTask;
 import de.erdesignerng.visual.editor.DialogConstants;
 import de.erdesignerng.visual.editor.completecompare.CompleteCompareEditor;
@@ -84,9 +87,16 @@ public class CompleteCompareWithDatabaseCommand extends UICommand {
                             aPublisher.publishMessage(theMessage);
                         };
 
+                        // Additional worker connections are only used if they can be created without prompting the user
+                        ConnectionProvider theWorkerConnections = null;
+                        if (!theModel.getProperties().getBooleanProperty(Model.PROPERTY_PROMPTFORPASSWORD)) {
+                            theWorkerConnections = new ModelBasedConnectionProvider(theModel);
+                        }
+                        theOptions.setWorkerCount(ApplicationPreferences.getInstance().getReverseEngineeringWorkerCount());
+
                         theStrategy.updateModelFromConnection(theDatabaseModel,
-                                getWorldConnector(), theConnection, theOptions,
-                                theNotifier);
+                                getWorldConnector(), theConnection,
+                                theWorkerConnections, theOptions, theNotifier);
 
                         return theDatabaseModel;
 
@@ -915,6 +915,15 @@ public final class ERDesignerComponent implements ResourceHelperProvider {
 
         UIInitializer.getInstance().initialize(subjectAreas);
 
+        refreshOutline();
+    }
+
+    /**
+     * Refresh the outline after the model was changed. The cached SQL
+     * statements are cleared as well.
+     */
+    public void refreshOutline() {
+        SQLComponent.getDefault().modelChanged();
         OutlineComponent.getDefault().refresh(model);
     }
 
@@ -1159,6 +1168,28 @@ public final class ERDesignerComponent implements ResourceHelperProvider {
         return editor;
     }
 
+    /**
+     * Validate a model file against its schema without blocking the user
+     * interface. The model was read without validation before.
+     *
+     * @param aFile the file
+     */
+    private void validateInBackground(final File aFile) {
+        LongRunningTask<Void> theTask = new LongRunningTask<Void>(getWorldConnector()) {
+
+            @Override
+            public Void doWork(MessagePublisher aMessagePublisher) throws Exception {
+                ModelIOUtilities.getInstance().validateModelXML(new FileInputStream(aFile));
+                return null;
+            }
+
+            @Override
+            public void handleResult(Void aResult) {
+            }
+        };
+        theTask.start();
+    }
+
     public void commandOpenFile(File aFile) {
         FileInputStream theStream = null;
 
@@ -1180,6 +1211,10 @@ public final class ERDesignerComponent implements ResourceHelperProvider {
                     getResourceHelper().getText(
                             ERDesignerBundle.FILELOADED));
 
+            if (!ModelIOUtilities.getInstance().isValidating()) {
+                validateInBackground(aFile);
+            }
+
         } catch (Exception e) {
 
             MessagesHelper.displayErrorMessage(getDetailComponent(), getResourceHelper().getText(
@@ -22,7 +22,7 @@ import de.erdesignerng.dialect.Dialect;
 import de.erdesignerng.dialect.DialectFactory;
 import de.erdesignerng.dialect.GenericConnectionProvider;
 import de.erdesignerng.model.serializer.repository.DictionaryModelSerializer;
-import de.erdesignerng.model.serializer.repository.entities.RepositoryEntity;
+import de.erdesignerng.model.serializer.repository.entities.ChangeEntity;
 import de.erdesignerng.util.ApplicationPreferences;
 import de.erdesignerng.util.ConnectionDescriptor;
 import de.erdesignerng.util.JDBCUtils;
@@ -30,6 +30,7 @@ import de.erdesignerng.visual.MessagesHelper;
 import de.erdesignerng.visual.editor.repository.MigrationScriptEditor;
 
 import java.sql.Connection;
+import java.util.List;
 
 public class GenerateMigrationScriptCommand extends UICommand {
 
@@ -61,15 +62,16 @@ public class GenerateMigrationScriptCommand extends UICommand {
                     .getUsername(), theRepositoryConnection
                     .getPassword(), false);
 
-            RepositoryEntity theEntity = DictionaryModelSerializer.SERIALIZER
-                    .getRepositoryEntity(theDialect.getHibernateDialectClass(),
+            List<ChangeEntity> theChanges = DictionaryModelSerializer.SERIALIZER
+                    .getChangeHistory(theDialect.getHibernateDialectClass(),
                             theConnection, component.currentRepositoryEntry);
 
             MigrationScriptEditor theEditor = new MigrationScriptEditor(
-                    getDetailComponent(), theEntity,
+                    getDetailComponent(), theChanges,
                     new GenericConnectionProvider(theConnection, theDialect
                             .createSQLGenerator()
-                            .createScriptStatementSeparator()),
+                            .createScriptStatementSeparator(), theDialect
+                            .isSupportsTransactionalDDL()),
                     getWorldConnector());
 
             theEditor.showModal();
@@ -28,10 +28,10 @@ import de.erdesignerng.util.ConnectionDescriptor;
 import de.erdesignerng.visual.MessagesHelper;
 import de.erdesignerng.visual.editor.DialogConstants;
 import de.erdesignerng.visual.editor.repository.LoadFromRepositoryEditor;
+import de.erdesignerng.visual.editor.repository.RepositoryEntryListModel;
 
 import java.sql.Connection;
 import java.sql.SQLException;
-import java.util.List;
 
 public class OpenFromRepositoryCommand extends UICommand {
 
@@ -61,9 +61,16 @@ public class OpenFromRepositoryCommand extends UICommand {
                     .getUsername(), theRepositoryConnection
                     .getPassword(), false);
 
-            List<RepositoryEntryDescriptor> theEntries = ModelIOUtilities
-                    .getInstance().getRepositoryEntries(theDialect,
-                            theConnection);
+            final Connection theEntryConnection = theConnection;
+            RepositoryEntryListModel theEntries = new RepositoryEntryListModel(
+                    (aFirstResult, aMaxResults) -> ModelIOUtilities.getInstance()
+                            .getRepositoryEntries(theDialect,
+                                    theEntryConnection,
+                                    aFirstResult, aMaxResults),
+                    ModelIOUtilities.getInstance().getRepositoryEntryCount(
+                            theDialect, theConnection),
+                    ModelIOUtilities.getInstance().getLongestRepositoryEntryName(
+                            theDialect, theConnection));
 
             LoadFromRepositoryEditor theEditor = new LoadFromRepositoryEditor(
                     getDetailComponent(), theEntries);
@@ -31,6 +31,7 @@ import de.erdesignerng.model.Relation;
 import de.erdesignerng.model.SubjectArea;
 import de.erdesignerng.model.Table;
 import de.erdesignerng.model.View;
+import de.erdesignerng.model.utils.ModelItemNameIndex;
 import de.erdesignerng.visual.IconFactory;
 import de.mogwai.common.client.looks.UIInitializer;
 import de.mogwai.common.client.looks.components.DefaultButton;
@@ -49,6 +50,8 @@ import javax.swing.JPanel;
 import javax.swing.JPopupMenu;
 import javax.swing.JTree;
 import javax.swing.SwingUtilities;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
 import javax.swing.event.TreeExpansionEvent;
 import javax.swing.event.TreeExpansionListener;
 import javax.swing.event.TreeSelectionEvent;
@@ -65,11 +68,8 @@ import java.awt.Dimension;
 import java.awt.Font;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
-import java.awt.event.KeyAdapter;
-import java.awt.event.KeyEvent;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
-import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
@@ -79,8 +79,9 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.Timer;
-import java.util.TimerTask;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 public class OutlineComponent extends DefaultPanel implements
 		ResourceHelperProvider {
@@ -92,6 +93,34 @@ public class OutlineComponent extends DefaultPanel implements
 		public String toString() {
 			return ref.toString();
 		}
+
+		@Override
+		public boolean equals(Object aOther) {
+			return aOther instanceof UsedBy && ((UsedBy) aOther).ref.equals(ref);
+		}
+
+		@Override
+		public int hashCode() {
+			return ref.hashCode();
+		}
+	}
+
+	/**
+	 * Node of the outline tree. The label is the text of the node when it was
+	 * built, so nodes showing a renamed item can be detected.
+	 */
+	private static final class OutlineNode extends DefaultMutableTreeNode {
+
+		private static final long serialVersionUID = 6381358907790965008L;
+
+		private String label;
+
+		private Object registeredObject;
+
+		private OutlineNode(Object aUserObject) {
+			super(aUserObject);
+			label = getLabel(aUserObject);
+		}
 	}
 
 	private static final class OutlineSelectionListener implements
@@ -125,34 +154,23 @@ public class OutlineComponent extends DefaultPanel implements
 		@Override
 		public void actionPerformed(ActionEvent e) {
 			filterField.setText("");
-			refresh(ERDesignerComponent.getDefault().getModel());
 		}
 	}
 
-	private final class OutlineKeyAdapter extends KeyAdapter {
+	private final class OutlineFilterDocumentListener implements DocumentListener {
 
-		private final Timer timer = new Timer();
+		@Override
+		public void insertUpdate(DocumentEvent aEvent) {
+			startFilterQuery();
+		}
 
-		private TimerTask oldTask;
+		@Override
+		public void removeUpdate(DocumentEvent aEvent) {
+			startFilterQuery();
+		}
 
 		@Override
-		public void keyTyped(KeyEvent aEvent) {
-			if (oldTask != null) {
-				oldTask.cancel();
-			}
-			oldTask = new TimerTask() {
-
-				@Override
-				public void run() {
-					try {
-						SwingUtilities.invokeAndWait(() -> refresh(ERDesignerComponent.getDefault()
-                                .getModel()));
-					} catch (InterruptedException | InvocationTargetException e) {
-						throw new RuntimeException(e);
-					}
-				}
-			};
-			timer.schedule(oldTask, 500);
+		public void changedUpdate(DocumentEvent aEvent) {
 		}
 	}
 
@@ -337,15 +355,7 @@ public class OutlineComponent extends DefaultPanel implements
 									"Unknown grouping element : " + aValue);
 					}
 				} else {
-					if (theUserObject instanceof Relation) {
-						Relation theRelation = (Relation) theUserObject;
-						theLabel.setText(theRelation.toString() + " -> " + theRelation.getExportingTable());
-					} else if (theUserObject instanceof UsedBy) {
-						UsedBy theUsedBy = (UsedBy) theUserObject;
-						theLabel.setText("<< " + theUsedBy.toString());
-					} else {
-						theLabel.setText(aValue.toString());
-					}
+					theLabel.setText(getLabel(theUserObject));
 				}
 			}
 			return theLabel;
@@ -364,6 +374,27 @@ public class OutlineComponent extends DefaultPanel implements
 
 	private final Set<Object> expandedUserObjects = new HashSet<>();
 
+	private Model model;
+
+	/**
+	 * The name index of the model, created on the first query after the
+	 * model was changed.
+	 */
+	private ModelItemNameIndex nameIndex;
+
+	/**
+	 * The result of the last completed query.
+	 */
+	private ModelItemNameIndex.Result filterResult;
+
+	private final ExecutorService filterExecutor = Executors.newSingleThreadExecutor(aRunnable -> {
+		Thread theThread = new Thread(aRunnable, "Outline filter");
+		theThread.setDaemon(true);
+		return theThread;
+	});
+
+	private Future<?> filterQuery;
+
 	private static OutlineComponent DEFAULT;
 
 	private OutlineComponent() {
@@ -388,24 +419,44 @@ public class OutlineComponent extends DefaultPanel implements
 	/**
 	 * Register a combination of an object and a tree node.
 	 * <p/>
-	 * An object can only be registered once!
+	 * An object can only be registered once! The registration is done by
+	 * registerUserObjects after the tree was built or updated.
 	 *
 	 * @param aObject - object
 	 * @param aNode   - node
 	 */
 	private void registerUserObject(Object aObject, DefaultMutableTreeNode aNode) {
-		if (!userObjectMap.containsKey(aObject)) {
-			userObjectMap.put(aObject, aNode);
+		((OutlineNode) aNode).registeredObject = aObject;
+	}
+
+	private void registerUserObjects(DefaultMutableTreeNode aRoot) {
+		userObjectMap.clear();
+		for (Enumeration<?> theNodes = aRoot.preorderEnumeration(); theNodes.hasMoreElements(); ) {
+			OutlineNode theNode = (OutlineNode) theNodes.nextElement();
+			if (theNode.registeredObject != null) {
+				userObjectMap.putIfAbsent(theNode.registeredObject, theNode);
+			}
 		}
 	}
 
+	private static String getLabel(Object aUserObject) {
+		if (aUserObject instanceof Relation) {
+			Relation theRelation = (Relation) aUserObject;
+			return theRelation.toString() + " -> " + theRelation.getExportingTable();
+		}
+		if (aUserObject instanceof UsedBy) {
+			return "<< " + aUserObject.toString();
+		}
+		return String.valueOf(aUserObject);
+	}
+
 	private void initialize() {
 
 		tree = new DefaultTree();
 		tree.setCellRenderer(new OutlineTreeCellRenderer());
 		tree.addMouseListener(new OutlineMouseListener());
 		tree.addTreeSelectionListener(new OutlineSelectionListener());
-		tree.setModel(new DefaultTreeModel(new DefaultMutableTreeNode(
+		tree.setModel(new DefaultTreeModel(new OutlineNode(
 				TreeGroupingElement.MODEL)));
 
 		setLayout(new BorderLayout());
@@ -413,7 +464,7 @@ public class OutlineComponent extends DefaultPanel implements
 
 		filterField = new DefaultTextField();
 		filterField.setColumns(255);
-		filterField.addKeyListener(new OutlineKeyAdapter());
+		filterField.getDocument().addDocumentListener(new OutlineFilterDocumentListener());
 		DefaultButton disableFilterButton = new DefaultButton();
 		disableFilterButton.setIcon(IconFactory.getCancelIcon());
 		disableFilterButton.setMaximumSize(new Dimension(21, 21));
@@ -432,9 +483,89 @@ public class OutlineComponent extends DefaultPanel implements
 		tree.addTreeExpansionListener(new OutlineTreeExpansionListener());
 	}
 
+	/**
+	 * Start a query of the name index for the current filter text. A running
+	 * query is cancelled, the result is shown when the query completes.
+	 */
+	private void startFilterQuery() {
+		if (filterQuery != null) {
+			filterQuery.cancel(true);
+			filterQuery = null;
+		}
+		String theText = filterField.getText();
+		if (StringUtils.isEmpty(theText)) {
+			filterResult = null;
+			updateTree();
+			return;
+		}
+		if (model == null) {
+			return;
+		}
+		boolean theNewIndex = nameIndex == null;
+		if (theNewIndex) {
+			nameIndex = new ModelItemNameIndex(model);
+		}
+		ModelItemNameIndex theIndex = nameIndex;
+		filterQuery = filterExecutor.submit(() -> {
+			try {
+				ModelItemNameIndex.Result theResult = theIndex.query(theText);
+				SwingUtilities.invokeLater(() -> publishFilterResult(theResult));
+			} catch (InterruptedException e) {
+				// A newer query was started
+			}
+		});
+		if (theNewIndex) {
+			// Build the posting lists while the user is still typing
+			filterExecutor.submit(() -> {
+				theIndex.prepare();
+				return null;
+			});
+		}
+	}
+
+	private void publishFilterResult(ModelItemNameIndex.Result aResult) {
+		// Results of stale queries are dropped
+		if (aResult.getIndex() == nameIndex && aResult.getText().equals(filterField.getText().toLowerCase())) {
+			filterResult = aResult;
+			updateTree();
+		}
+	}
+
+	/**
+	 * Forget the name index after the model was changed and query the new
+	 * one if there is a filter.
+	 */
+	private void invalidateNameIndex() {
+		nameIndex = null;
+		if (StringUtils.isNotEmpty(filterField.getText())) {
+			startFilterQuery();
+		}
+	}
+
+	/**
+	 * Test if an item is shown for the current filter.
+	 * <p/>
+	 * The result of the last query is used for items known by the name index.
+	 * New items, or all items while there is no result for the current text,
+	 * are checked directly.
+	 *
+	 * @param aItem the item
+	 * @return true if visible
+	 */
 	private boolean isVisible(ModelItem aItem) {
 		String thePartialString = filterField.getText().toLowerCase();
-		if (StringUtils.isNotEmpty(thePartialString)) {
+		if (StringUtils.isEmpty(thePartialString)) {
+			return true;
+		}
+		if (filterResult != null && filterResult.getText().equals(thePartialString)
+				&& filterResult.getIndex().isIndexed(aItem)) {
+			return filterResult.isVisible(aItem);
+		}
+		return matchesFilter(aItem, thePartialString);
+	}
+
+	private boolean matchesFilter(ModelItem aItem, String aPartialString) {
+		if (StringUtils.isNotEmpty(aPartialString)) {
 
 			boolean theOverride = false;
 
@@ -457,8 +588,7 @@ public class OutlineComponent extends DefaultPanel implements
 					}
 				}
 
-				for (Relation theRelation : ERDesignerComponent.getDefault()
-						.getModel().getRelations().getForeignKeysFor(theTable)) {
+				for (Relation theRelation : model.getRelations().getForeignKeysFor(theTable)) {
 					if (isVisible(theRelation)) {
 						theOverride = true;
 					}
@@ -491,7 +621,7 @@ public class OutlineComponent extends DefaultPanel implements
 			String theName = aItem.toString();
 
 			if (StringUtils.isNotEmpty(theName)) {
-				return theName.toLowerCase().contains(thePartialString) || theOverride;
+				return theName.toLowerCase().contains(aPartialString) || theOverride;
 			}
 		}
 
@@ -500,10 +630,38 @@ public class OutlineComponent extends DefaultPanel implements
 
 	public void setModel(Model aModel) {
 
-		userObjectMap.clear();
+		model = aModel;
 		expandedUserObjects.clear();
+		filterResult = null;
+		invalidateNameIndex();
+
+		DefaultMutableTreeNode theRoot = buildTree(aModel);
+		tree.setModel(new DefaultTreeModel(theRoot));
+		registerUserObjects(theRoot);
 
-		DefaultMutableTreeNode theRoot = new DefaultMutableTreeNode(
+		// if (aExpandAll) {
+		for (int row = 0; row < tree.getRowCount(); row++) {
+			TreePath thePath = tree.getPathForRow(row);
+			DefaultMutableTreeNode theNode = (DefaultMutableTreeNode) thePath
+					.getLastPathComponent();
+			Object theUserObject = theNode.getUserObject();
+			if (theUserObject instanceof TreeGroupingElement) {
+				tree.expandRow(row);
+			}
+		}
+		// }
+	}
+
+	/**
+	 * Build the tree of the model, containing only the items matching the
+	 * filter.
+	 *
+	 * @param aModel the model
+	 * @return the root node
+	 */
+	private DefaultMutableTreeNode buildTree(Model aModel) {
+
+		DefaultMutableTreeNode theRoot = new OutlineNode(
 				TreeGroupingElement.MODEL);
 
 		Comparator<OwnedModelItem> theComparator = new BeanComparator("name");
@@ -533,7 +691,7 @@ public class OutlineComponent extends DefaultPanel implements
 		// Add the Views
 		List<View> theViews = new ArrayList<>();
 		theViews.addAll(aModel.getViews());
-		Collections.sort(theTables, theComparator);
+		Collections.sort(theViews, theComparator);
 		buildViewsChildren(aModel, theRoot, theViews);
 
 		// Add the Relations
@@ -556,27 +714,167 @@ public class OutlineComponent extends DefaultPanel implements
 		Collections.sort(theSAList, theComparator);
 		buildSubjectAreasChildren(aModel, theRoot, theSAList);
 
-		tree.setModel(new DefaultTreeModel(theRoot));
+		return theRoot;
+	}
 
-		// if (aExpandAll) {
-		for (int row = 0; row < tree.getRowCount(); row++) {
-			TreePath thePath = tree.getPathForRow(row);
-			DefaultMutableTreeNode theNode = (DefaultMutableTreeNode) thePath
-					.getLastPathComponent();
-			Object theUserObject = theNode.getUserObject();
-			if (theUserObject instanceof TreeGroupingElement) {
-				tree.expandRow(row);
+	/**
+	 * Update the children of a node of the tree to match the children of a
+	 * newly built node. Children are matched by their user objects, nodes
+	 * which are still there are kept, so their expansion and selection state
+	 * is kept too. The tree model is notified about the removed, inserted and
+	 * changed nodes only.
+	 *
+	 * @param aTreeModel the tree model
+	 * @param aNode      the node of the tree
+	 * @param aNewNode   the newly built node
+	 * @param aInserted  the inserted nodes are added to this list
+	 */
+	private void updateChildren(DefaultTreeModel aTreeModel, DefaultMutableTreeNode aNode,
+								DefaultMutableTreeNode aNewNode, List<DefaultMutableTreeNode> aInserted) {
+
+		Map<Object, Integer> theNewPositions = new HashMap<>();
+		for (int i = 0; i < aNewNode.getChildCount(); i++) {
+			theNewPositions.putIfAbsent(((DefaultMutableTreeNode) aNewNode.getChildAt(i)).getUserObject(), i);
+		}
+
+		// Children still there but in another position are removed and
+		// inserted again. The longest run of children already in the right
+		// order is kept.
+		int theCount = aNode.getChildCount();
+		int[] thePositions = new int[theCount];
+		for (int i = 0; i < theCount; i++) {
+			Integer thePosition = theNewPositions.remove(((DefaultMutableTreeNode) aNode.getChildAt(i))
+					.getUserObject());
+			thePositions[i] = thePosition != null ? thePosition : -1;
+		}
+		boolean[] theKeep = longestIncreasingRun(thePositions);
+
+		List<Integer> theRemovedIndexes = new ArrayList<>();
+		List<Object> theRemovedNodes = new ArrayList<>();
+		for (int i = 0; i < theCount; i++) {
+			if (!theKeep[i]) {
+				theRemovedIndexes.add(i);
+				theRemovedNodes.add(aNode.getChildAt(i));
+			}
+		}
+		for (int i = theRemovedIndexes.size() - 1; i >= 0; i--) {
+			aNode.remove(theRemovedIndexes.get(i));
+		}
+		if (!theRemovedIndexes.isEmpty()) {
+			aTreeModel.nodesWereRemoved(aNode, toArray(theRemovedIndexes), theRemovedNodes.toArray());
+		}
+
+		List<Integer> theInsertedIndexes = new ArrayList<>();
+		List<Integer> theChangedIndexes = new ArrayList<>();
+		List<DefaultMutableTreeNode[]> theKeptNodes = new ArrayList<>();
+		DefaultMutableTreeNode[] theNewChildren = new DefaultMutableTreeNode[aNewNode.getChildCount()];
+		for (int i = 0; i < theNewChildren.length; i++) {
+			theNewChildren[i] = (DefaultMutableTreeNode) aNewNode.getChildAt(i);
+		}
+		for (int i = 0; i < theNewChildren.length; i++) {
+			DefaultMutableTreeNode theNewChild = theNewChildren[i];
+			OutlineNode theChild = i < aNode.getChildCount() ? (OutlineNode) aNode.getChildAt(i) : null;
+			if (theChild != null && theChild.getUserObject().equals(theNewChild.getUserObject())) {
+				String theNewLabel = ((OutlineNode) theNewChild).label;
+				if (!theChild.label.equals(theNewLabel)) {
+					theChild.label = theNewLabel;
+					theChangedIndexes.add(i);
+				}
+				// Items are equal by system id, so the item might have been
+				// replaced by a changed copy
+				theChild.setUserObject(theNewChild.getUserObject());
+				theChild.registeredObject = ((OutlineNode) theNewChild).registeredObject;
+				theKeptNodes.add(new DefaultMutableTreeNode[]{theChild, theNewChild});
+			} else {
+				aNode.insert(theNewChild, i);
+				theInsertedIndexes.add(i);
+				aInserted.add(theNewChild);
+			}
+		}
+		if (!theInsertedIndexes.isEmpty()) {
+			aTreeModel.nodesWereInserted(aNode, toArray(theInsertedIndexes));
+		}
+
+		for (DefaultMutableTreeNode[] theNodes : theKeptNodes) {
+			updateChildren(aTreeModel, theNodes[0], theNodes[1], aInserted);
+		}
+
+		if (!theChangedIndexes.isEmpty()) {
+			aTreeModel.nodesChanged(aNode, toArray(theChangedIndexes));
+		}
+	}
+
+	private static int[] toArray(List<Integer> aList) {
+		int[] theResult = new int[aList.size()];
+		for (int i = 0; i < theResult.length; i++) {
+			theResult[i] = aList.get(i);
+		}
+		return theResult;
+	}
+
+	/**
+	 * Find the longest strictly increasing subsequence of positions. Negative
+	 * positions are never part of it.
+	 *
+	 * @param aPositions the positions
+	 * @return true for every position being part of the subsequence
+	 */
+	private static boolean[] longestIncreasingRun(int[] aPositions) {
+		int theCount = aPositions.length;
+		int[] theTails = new int[theCount];
+		int[] thePredecessors = new int[theCount];
+		int theLength = 0;
+		for (int i = 0; i < theCount; i++) {
+			if (aPositions[i] < 0) {
+				continue;
+			}
+			int theLow = 0;
+			int theHigh = theLength;
+			while (theLow < theHigh) {
+				int theMiddle = (theLow + theHigh) >>> 1;
+				if (aPositions[theTails[theMiddle]] < aPositions[i]) {
+					theLow = theMiddle + 1;
+				} else {
+					theHigh = theMiddle;
+				}
+			}
+			thePredecessors[i] = theLow > 0 ? theTails[theLow - 1] : -1;
+			theTails[theLow] = i;
+			if (theLow == theLength) {
+				theLength++;
+			}
+		}
+		boolean[] theResult = new boolean[theCount];
+		for (int i = theLength > 0 ? theTails[theLength - 1] : -1; i >= 0; i = thePredecessors[i]) {
+			theResult[i] = true;
+		}
+		return theResult;
+	}
+
+	/**
+	 * Expand the inserted nodes which were expanded before they were removed
+	 * from the tree, as long as their parents are expanded.
+	 */
+	private void expandInsertedNodes(List<DefaultMutableTreeNode> aInserted) {
+		for (DefaultMutableTreeNode theInserted : aInserted) {
+			for (Enumeration<?> theNodes = theInserted.preorderEnumeration(); theNodes.hasMoreElements(); ) {
+				DefaultMutableTreeNode theNode = (DefaultMutableTreeNode) theNodes.nextElement();
+				if (!theNode.isLeaf() && expandedUserObjects.contains(theNode.getUserObject())) {
+					TreePath thePath = new TreePath(theNode.getPath());
+					if (tree.isExpanded(thePath.getParentPath())) {
+						tree.expandPath(thePath);
+					}
+				}
 			}
 		}
-		// }
 	}
 
 	private void buildSubjectAreasChildren(Model aModel,
 										   DefaultMutableTreeNode aParent, List<SubjectArea> aList) {
-		DefaultMutableTreeNode theSANode = new DefaultMutableTreeNode(
+		DefaultMutableTreeNode theSANode = new OutlineNode(
 				TreeGroupingElement.SUBJECTAREAS);
         aList.stream().filter(theArea -> isVisible(theArea)).forEach(theArea -> {
-            DefaultMutableTreeNode theAreaNode = new DefaultMutableTreeNode(
+            DefaultMutableTreeNode theAreaNode = new OutlineNode(
                     theArea);
             theSANode.add(theAreaNode);
 
@@ -598,10 +896,10 @@ public class OutlineComponent extends DefaultPanel implements
 
 	private void buildViewsChildren(Model aModel,
 									DefaultMutableTreeNode aParent, List<View> aViews) {
-		DefaultMutableTreeNode theViewsNode = new DefaultMutableTreeNode(
+		DefaultMutableTreeNode theViewsNode = new OutlineNode(
 				TreeGroupingElement.VIEWS);
         aViews.stream().filter(theView -> isVisible(theView)).forEach(theView -> {
-            DefaultMutableTreeNode theViewNode = new DefaultMutableTreeNode(
+            DefaultMutableTreeNode theViewNode = new OutlineNode(
                     theView);
             theViewsNode.add(theViewNode);
 
@@ -614,10 +912,10 @@ public class OutlineComponent extends DefaultPanel implements
 
 	private void buildCustomTypesChildren(Model aModel,
 										  DefaultMutableTreeNode aParent, List<CustomType> aCustomTypesList) {
-		DefaultMutableTreeNode theCustomTypesNode = new DefaultMutableTreeNode(
+		DefaultMutableTreeNode theCustomTypesNode = new OutlineNode(
 				TreeGroupingElement.CUSTOMTYPES);
         aCustomTypesList.stream().filter(theCustomType -> isVisible(theCustomType)).forEach(theCustomType -> {
-            DefaultMutableTreeNode theCustomTypeNode = new DefaultMutableTreeNode(
+            DefaultMutableTreeNode theCustomTypeNode = new OutlineNode(
                     theCustomType);
             theCustomTypesNode.add(theCustomTypeNode);
 
@@ -631,10 +929,10 @@ public class OutlineComponent extends DefaultPanel implements
 
 	private void buildDomainsChildren(Model aModel,
 									  DefaultMutableTreeNode aParent, List<Domain> aDomainList) {
-		DefaultMutableTreeNode theDomainsNode = new DefaultMutableTreeNode(
+		DefaultMutableTreeNode theDomainsNode = new OutlineNode(
 				TreeGroupingElement.DOMAINS);
         aDomainList.stream().filter(theDomain -> isVisible(theDomain)).forEach(theDomain -> {
-            DefaultMutableTreeNode theDomainNode = new DefaultMutableTreeNode(
+            DefaultMutableTreeNode theDomainNode = new OutlineNode(
                     theDomain);
             theDomainsNode.add(theDomainNode);
 
@@ -647,10 +945,10 @@ public class OutlineComponent extends DefaultPanel implements
 
 	private void buildTablesChildren(Model aModel,
 									 DefaultMutableTreeNode aParentNode, List<Table> aTableList) {
-		DefaultMutableTreeNode theTablesNode = new DefaultMutableTreeNode(
+		DefaultMutableTreeNode theTablesNode = new OutlineNode(
 				TreeGroupingElement.TABLES);
         aTableList.stream().filter(theTable -> isVisible(theTable)).forEach(theTable -> {
-            DefaultMutableTreeNode theTableNode = new DefaultMutableTreeNode(
+            DefaultMutableTreeNode theTableNode = new OutlineNode(
                     theTable);
             theTablesNode.add(theTableNode);
 
@@ -663,7 +961,7 @@ public class OutlineComponent extends DefaultPanel implements
 
 	private void buildRelationChildren(DefaultMutableTreeNode aParentNode,
 									   List<Relation> aRelationList) {
-		DefaultMutableTreeNode theRelationsNode = new DefaultMutableTreeNode(
+		DefaultMutableTreeNode theRelationsNode = new OutlineNode(
 				TreeGroupingElement.RELATIONS);
         aRelationList.stream().filter(theRelation -> isVisible(theRelation)).forEach(theRelation -> {
             createRelationTreeNode(theRelationsNode, theRelation);
@@ -673,7 +971,7 @@ public class OutlineComponent extends DefaultPanel implements
 
 	private void buildIndexChildren(DefaultMutableTreeNode aParentNode,
 									List<Index> aIndexList) {
-		DefaultMutableTreeNode theIndexesNode = new DefaultMutableTreeNode(
+		DefaultMutableTreeNode theIndexesNode = new OutlineNode(
 				TreeGroupingElement.INDEXES);
         aIndexList.stream().filter(theIndex -> isVisible(theIndex)).forEach(theIndex -> {
             createIndexTreeNode(theIndexesNode, theIndex);
@@ -683,12 +981,12 @@ public class OutlineComponent extends DefaultPanel implements
 
 	private void createIndexTreeNode(DefaultMutableTreeNode aParentNode,
 									 Index aIndex) {
-		DefaultMutableTreeNode theIndexNode = new DefaultMutableTreeNode(aIndex);
+		DefaultMutableTreeNode theIndexNode = new OutlineNode(aIndex);
 		aParentNode.add(theIndexNode);
 		registerUserObject(aIndex, theIndexNode);
 
         aIndex.getExpressions().stream().filter(theExpression -> isVisible(theExpression)).forEach(theExpression -> {
-            DefaultMutableTreeNode theExpressionNode = new DefaultMutableTreeNode(
+            DefaultMutableTreeNode theExpressionNode = new OutlineNode(
                     theExpression);
             theIndexNode.add(theExpressionNode);
 
@@ -697,14 +995,14 @@ public class OutlineComponent extends DefaultPanel implements
 	}
 
 	private void createRelationTreeNode(DefaultMutableTreeNode aParent, Relation aRelation) {
-		DefaultMutableTreeNode theRelationNode = new DefaultMutableTreeNode(aRelation);
+		DefaultMutableTreeNode theRelationNode = new OutlineNode(aRelation);
 		aParent.add(theRelationNode);
 
 		registerUserObject(aRelation, theRelationNode);
 
         aRelation
                 .getMapping().entrySet().stream().filter(theEntry -> isVisible(theEntry.getValue())).forEach(theEntry -> {
-            DefaultMutableTreeNode theAttributeNode = new DefaultMutableTreeNode(
+            DefaultMutableTreeNode theAttributeNode = new OutlineNode(
                     theEntry.getValue());
             theRelationNode.add(theAttributeNode);
 
@@ -721,7 +1019,7 @@ public class OutlineComponent extends DefaultPanel implements
 		if ((aCustomType.getType() == CustomTypeType.ENUMERATION) ||
 				(aCustomType.getType() == CustomTypeType.COMPOSITE)) {
             aCustomType.getAttributes().stream().filter(theAttribute -> isVisible(theAttribute)).forEach(theAttribute -> {
-                DefaultMutableTreeNode theAttributeNode = new DefaultMutableTreeNode(theAttribute);
+                DefaultMutableTreeNode theAttributeNode = new OutlineNode(theAttribute);
 
                 aCustomTypeNode.add(theAttributeNode);
 
@@ -750,7 +1048,7 @@ public class OutlineComponent extends DefaultPanel implements
 		aTableNode.removeAllChildren();
 
         aTable.getAttributes().stream().filter(theAttribute -> isVisible(theAttribute)).forEach(theAttribute -> {
-            DefaultMutableTreeNode theAttributeNode = new DefaultMutableTreeNode(
+            DefaultMutableTreeNode theAttributeNode = new OutlineNode(
                     theAttribute);
             aTableNode.add(theAttributeNode);
 
@@ -770,7 +1068,7 @@ public class OutlineComponent extends DefaultPanel implements
         aModel.getRelations().getExportedKeysFor(aTable).stream().filter(theRelation -> isVisible(theRelation) && !theAlreadyKnown.contains(theRelation.getImportingTable())).forEach(theRelation -> {
             UsedBy theUsedBy = new UsedBy();
             theUsedBy.ref = theRelation.getImportingTable();
-            DefaultMutableTreeNode theUsedByNode = new DefaultMutableTreeNode(theUsedBy);
+            DefaultMutableTreeNode theUsedByNode = new OutlineNode(theUsedBy);
             aTableNode.add(theUsedByNode);
 
             theAlreadyKnown.add(theRelation.getImportingTable());
@@ -784,6 +1082,11 @@ public class OutlineComponent extends DefaultPanel implements
 
 	/**
 	 * Refresh the model tree as there were changes.
+	 * <p/>
+	 * The tree is built again for the current filter and compared with the
+	 * displayed one, only the affected nodes are updated. If there is a
+	 * filter, the name index is queried again and the tree is updated once
+	 * more with the new result.
 	 *
 	 * @param aModel - model
 	 */
@@ -791,56 +1094,28 @@ public class OutlineComponent extends DefaultPanel implements
 
 		if (aModel != null) {
 
-			TreePath theSelected = tree.getSelectionPath();
-
-			DefaultMutableTreeNode theGroup = null;
-			DefaultMutableTreeNode theSelectedNode = theSelected != null ? (DefaultMutableTreeNode) theSelected
-					.getLastPathComponent()
-					: null;
-			if (theSelected != null && theSelected.getPathCount() > 1) {
-				theGroup = (DefaultMutableTreeNode) theSelected.getPath()[1];
+			if (aModel != model) {
+				setModel(aModel);
+				return;
 			}
 
-			Set<Object> theExpandedUserObjects = expandedUserObjects;
+			invalidateNameIndex();
+			updateTree();
+		}
+	}
 
-			setModel(aModel);
+	private void updateTree() {
 
-			List<TreePath> thePathsToExpand = new ArrayList<>();
-			TreePath theNewSelection = null;
+		if (model != null) {
 
-			for (int theRow = 0; theRow < tree.getRowCount(); theRow++) {
-				TreePath thePath = tree.getPathForRow(theRow);
+			DefaultTreeModel theTreeModel = (DefaultTreeModel) tree.getModel();
+			DefaultMutableTreeNode theRoot = (DefaultMutableTreeNode) theTreeModel.getRoot();
 
-				DefaultMutableTreeNode theLastNew = (DefaultMutableTreeNode) thePath
-						.getLastPathComponent();
-				if (theExpandedUserObjects.contains(theLastNew.getUserObject())) {
-					thePathsToExpand.add(thePath);
-				}
-				if (theSelectedNode != null) {
-					DefaultMutableTreeNode theLastGroup = null;
-					if (thePath.getPathCount() > 1) {
-						theLastGroup = (DefaultMutableTreeNode) thePath
-								.getPath()[1];
-					}
-					if (theLastGroup != null && theGroup != null) {
-						if (!theLastGroup.getUserObject().equals(
-								theGroup.getUserObject())) {
-							continue;
-						}
-					}
-					if (theLastNew.getUserObject().equals(
-							theSelectedNode.getUserObject())) {
-						theNewSelection = thePath;
-					}
-				}
-			}
+			List<DefaultMutableTreeNode> theInserted = new ArrayList<>();
+			updateChildren(theTreeModel, theRoot, buildTree(model), theInserted);
+			registerUserObjects(theRoot);
 
-            thePathsToExpand.forEach(tree::expandPath);
-
-			if (theNewSelection != null) {
-				tree.setSelectionPath(theNewSelection);
-				tree.scrollPathToVisible(theNewSelection);
-			}
+			expandInsertedNodes(theInserted);
 		}
 	}
 
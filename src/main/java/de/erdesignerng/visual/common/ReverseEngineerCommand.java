@@ -17,11 +17,13 @@
  */
 package de.erdesignerng.visual.common;
 
+import de.erdesignerng.dialect.ConnectionProvider;
 import de.erdesignerng.dialect.JDBCReverseEngineeringStrategy;
 import de.erdesignerng.dialect.ReverseEngineeringNotifier;
 import de.erdesignerng.dialect.ReverseEngineeringOptions;
 import de.erdesignerng.dialect.TableNamingEnum;
 import de.erdesignerng.model.Model;
+import de.erdesignerng.model.ModelBasedConnectionProvider;
 import de.erdesignerng.model.ModelItem;
 import de.erdesignerng.model.Table;
 import de.erdesignerng.model.View;
@@ -131,7 +133,14 @@ public class ReverseEngineerCommand extends UICommand {
                         aPublisher.publishMessage(theMessage);
                     };
 
-					aStrategy.updateModelFromConnection(aModel, getWorldConnector(), aConnection, theOptions, theNotifier);
+					// Additional worker connections are only used if they can be created without prompting the user
+					ConnectionProvider theWorkerConnections = null;
+					if (!aModel.getProperties().getBooleanProperty(Model.PROPERTY_PROMPTFORPASSWORD)) {
+						theWorkerConnections = new ModelBasedConnectionProvider(aModel);
+					}
+					theOptions.setWorkerCount(ApplicationPreferences.getInstance().getReverseEngineeringWorkerCount());
+
+					aStrategy.updateModelFromConnection(aModel, getWorldConnector(), aConnection, theWorkerConnections, theOptions, theNotifier);
 
 					// Iterate over the views and the tables and
 					// order them in a matrix like position
@@ -40,18 +40,61 @@ import de.mogwai.common.i18n.ResourceHelper;
 import de.mogwai.common.i18n.ResourceHelperProvider;
 import org.apache.commons.lang.ArrayUtils;
 
+import javax.swing.*;
+import javax.swing.text.BadLocationException;
+import javax.swing.text.Document;
 import javax.swing.text.EditorKit;
 import java.awt.*;
 import java.io.PrintWriter;
 import java.io.StringWriter;
+import java.util.ConcurrentModificationException;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
+/**
+ * Display of the CREATE statements of the selected model items.
+ * <p/>
+ * The statements are generated by a background thread and appended to the
+ * document in chunks. A new selection cancels the generation for the last
+ * one. The statements are cached per item for the current model and dialect,
+ * the cache is cleared when the model was changed.
+ *
+ * @author $Author: mirkosertic $
+ * @version $Date: 2009-03-13 15:40:33 $
+ */
 public class SQLComponent extends DefaultPanel implements
 		ResourceHelperProvider {
 
+	private static final int CHUNK_SIZE = 4096;
+
 	private DefaultEditorPane sql;
 
 	private static SQLComponent DEFAULT;
 
+	private final ExecutorService executor = Executors.newSingleThreadExecutor(aRunnable -> {
+		Thread theThread = new Thread(aRunnable, "SQL preview");
+		theThread.setDaemon(true);
+		return theThread;
+	});
+
+	// Changed by the event dispatch thread for every display, chunks of
+	// older displays are dropped
+	private volatile int displayGeneration;
+
+	private Future<?> generation;
+
+	// Guarded by itself
+	private final Map<ModelItem, String> cache = new IdentityHashMap<>();
+
+	private Model cacheModel;
+
+	private Dialect cacheDialect;
+
+	private int cacheVersion;
+
 	public static SQLComponent initializeComponent() {
 		if (DEFAULT == null) {
 			DEFAULT = new SQLComponent();
@@ -88,9 +131,28 @@ public class SQLComponent extends DefaultPanel implements
 	 * Reset the SQL display.
 	 */
 	public void resetDisplay() {
+		cancelGeneration();
 		sql.setText("");
 	}
 
+	/**
+	 * Clear the cached statements, must be called if the model was changed.
+	 */
+	public void modelChanged() {
+		synchronized (cache) {
+			cache.clear();
+			cacheVersion++;
+		}
+	}
+
+	private void cancelGeneration() {
+		displayGeneration++;
+		if (generation != null) {
+			generation.cancel(true);
+			generation = null;
+		}
+	}
+
 	/**
 	 * Display the CREATE SQL Statements for a given set of model items.
 	 *
@@ -102,83 +164,162 @@ public class SQLComponent extends DefaultPanel implements
 		Model theModel = ERDesignerComponent.getDefault().getModel();
 		Dialect theDialect = theModel.getDialect();
 		if (theDialect != null && !ArrayUtils.isEmpty(aModelItems)) {
-			StatementList theStatementList = new StatementList();
-			SQLGenerator theGenerator = theDialect.createSQLGenerator();
-			for (ModelItem aItem : aModelItems) {
-				if (aItem instanceof Table) {
-					Table theTable = (Table) aItem;
-					theStatementList.addAll(theGenerator
-							.createAddTableStatement(theTable));
-					for (Relation theRelation : theModel.getRelations()
-							.getForeignKeysFor(theTable)) {
-						theStatementList.addAll(theGenerator
-								.createAddRelationStatement(theRelation));
+			int theGeneration = displayGeneration;
+			ModelItem[] theItems = aModelItems.clone();
+			generation = executor.submit(() -> generateSQL(theGeneration, theModel, theDialect, theItems));
+		} else {
+			if (theDialect == null) {
+				sql.setText(getResourceHelper().getText(
+						ERDesignerBundle.PLEASEDEFINEADATABASECONNECTIONFIRST));
+			}
+		}
+	}
 
-					}
-				}
-				if (aItem instanceof View) {
-					theStatementList.addAll(theGenerator
-							.createAddViewStatement((View) aItem));
-				}
-				if (aItem instanceof Relation) {
-					theStatementList.addAll(theGenerator
-							.createAddRelationStatement((Relation) aItem));
-				}
-				if (aItem instanceof Attribute) {
-					Attribute theAttribute = (Attribute) aItem;
+	/**
+	 * Generate the statements and append them to the document, called by
+	 * the executor.
+	 */
+	private void generateSQL(int aGeneration, Model aModel, Dialect aDialect, ModelItem[] aItems) {
+		synchronized (cache) {
+			if (aModel != cacheModel || aDialect != cacheDialect) {
+				cache.clear();
+				cacheModel = aModel;
+				cacheDialect = aDialect;
+			}
+		}
 
-					ModelItem theOwner = theAttribute.getOwner();
-					if (theOwner instanceof Table) {
-						theStatementList.addAll(theGenerator.createAddAttributeToTableStatement((Table) theOwner, theAttribute));
-					}
-				}
-				if (aItem instanceof Index) {
-					Index theIndex = (Index) aItem;
-					if (theIndex.getIndexType() == IndexType.PRIMARYKEY) {
-						theStatementList.addAll(theGenerator
-								.createAddPrimaryKeyToTable(
-										theIndex.getOwner(), theIndex));
-					} else {
-						theStatementList.addAll(theGenerator
-								.createAddIndexToTableStatement(theIndex
-										.getOwner(), theIndex));
-					}
+		SQLGenerator<?> theGenerator = null;
+		StringBuilder theChunk = new StringBuilder();
+		for (ModelItem theItem : aItems) {
+			if (aGeneration != displayGeneration || Thread.currentThread().isInterrupted()) {
+				return;
+			}
+
+			String theSQL;
+			int theVersion;
+			synchronized (cache) {
+				theSQL = cache.get(theItem);
+				theVersion = cacheVersion;
+			}
+			if (theSQL == null) {
+				if (theGenerator == null) {
+					theGenerator = aDialect.createSQLGenerator();
 				}
-				if (aItem instanceof CustomType) {
-					CustomType theCustomType = (CustomType) aItem;
-					theStatementList.addAll(theGenerator
-							.createAddCustomTypeStatement(theCustomType));
+				try {
+					theSQL = createSQLFor(aModel, theGenerator, theItem);
+				} catch (ConcurrentModificationException e) {
+					// The model was changed while the statements were
+					// generated, a new display will follow
+					return;
+				} catch (RuntimeException e) {
+					SwingUtilities.invokeLater(() -> ERDesignerComponent.getDefault().getWorldConnector()
+							.notifyAboutException(e));
+					return;
 				}
-				if (aItem instanceof Domain) {
-					Domain theDomain = (Domain) aItem;
-					theStatementList.addAll(theGenerator
-							.createAddDomainStatement(theDomain));
+				synchronized (cache) {
+					// Statements generated during a change are not cached
+					if (theVersion == cacheVersion) {
+						cache.put(theItem, theSQL);
+					}
 				}
 			}
 
-			if (theStatementList.size() > 0) {
-				StringWriter theWriter = new StringWriter();
-				PrintWriter thePW = new PrintWriter(theWriter);
-				for (Statement theStatement : theStatementList) {
-					thePW.print(theStatement.getSql());
-					thePW
-							.println(theGenerator
-									.createScriptStatementSeparator());
+			theChunk.append(theSQL);
+			if (theChunk.length() >= CHUNK_SIZE) {
+				append(aGeneration, theChunk.toString());
+				theChunk = new StringBuilder();
+			}
+		}
+
+		if (theChunk.length() > 0) {
+			append(aGeneration, theChunk.toString());
+		}
+	}
+
+	private void append(int aGeneration, String aSQL) {
+		SwingUtilities.invokeLater(() -> {
+			if (aGeneration == displayGeneration) {
+				Document theDocument = sql.getDocument();
+				try {
+					theDocument.insertString(theDocument.getLength(), aSQL, null);
+				} catch (BadLocationException e) {
+					// Cannot happen, the text is appended
 				}
-				thePW.flush();
-				thePW.close();
-				sql.setText(theWriter.toString());
 			}
-		} else {
-			if (theDialect == null) {
-				sql.setText(getResourceHelper().getText(
-						ERDesignerBundle.PLEASEDEFINEADATABASECONNECTIONFIRST));
+		});
+	}
+
+	private String createSQLFor(Model aModel, SQLGenerator<?> aGenerator, ModelItem aItem) {
+		StatementList theStatementList = new StatementList();
+		if (aItem instanceof Table) {
+			Table theTable = (Table) aItem;
+			theStatementList.addAll(aGenerator
+					.createAddTableStatement(theTable));
+			for (Relation theRelation : aModel.getRelations()
+					.getForeignKeysFor(theTable)) {
+				theStatementList.addAll(aGenerator
+						.createAddRelationStatement(theRelation));
+
+			}
+		}
+		if (aItem instanceof View) {
+			theStatementList.addAll(aGenerator
+					.createAddViewStatement((View) aItem));
+		}
+		if (aItem instanceof Relation) {
+			theStatementList.addAll(aGenerator
+					.createAddRelationStatement((Relation) aItem));
+		}
+		if (aItem instanceof Attribute) {
+			Attribute<?> theAttribute = (Attribute<?>) aItem;
+
+			ModelItem theOwner = theAttribute.getOwner();
+			if (theOwner instanceof Table) {
+				// Taken from the attributes of the table, which are typed
+				Table theTable = (Table) theOwner;
+				Attribute<Table> theTableAttribute = theTable.getAttributes().findBySystemId(
+						theAttribute.getSystemId());
+				theStatementList.addAll(aGenerator.createAddAttributeToTableStatement(theTable, theTableAttribute));
+			}
+		}
+		if (aItem instanceof Index) {
+			Index theIndex = (Index) aItem;
+			if (theIndex.getIndexType() == IndexType.PRIMARYKEY) {
+				theStatementList.addAll(aGenerator
+						.createAddPrimaryKeyToTable(
+								theIndex.getOwner(), theIndex));
+			} else {
+				theStatementList.addAll(aGenerator
+						.createAddIndexToTableStatement(theIndex
+								.getOwner(), theIndex));
 			}
 		}
+		if (aItem instanceof CustomType) {
+			CustomType theCustomType = (CustomType) aItem;
+			theStatementList.addAll(aGenerator
+					.createAddCustomTypeStatement(theCustomType));
+		}
+		if (aItem instanceof Domain) {
+			Domain theDomain = (Domain) aItem;
+			theStatementList.addAll(aGenerator
+					.createAddDomainStatement(theDomain));
+		}
+
+		StringWriter theWriter = new StringWriter();
+		PrintWriter thePW = new PrintWriter(theWriter);
+		for (Statement theStatement : theStatementList) {
+			thePW.print(theStatement.getSql());
+			thePW
+					.println(aGenerator
+							.createScriptStatementSeparator());
+		}
+		thePW.flush();
+		thePW.close();
+		return theWriter.toString();
 	}
 
 	@Override
 	public ResourceHelper getResourceHelper() {
 		return ResourceHelper.getResourceHelper(ERDesignerBundle.BUNDLE_NAME);
 	}
-}
\ No newline at end of file
+}
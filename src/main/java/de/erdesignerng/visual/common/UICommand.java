@@ -54,6 +54,6 @@ public abstract class UICommand implements ActionEventProcessor, ActionListener
     public void refreshDisplayAndOutline() {
         ERDesignerComponent component = ERDesignerComponent.getDefault();
         component.repaintGraph();
-        OutlineComponent.getDefault().refresh(component.getModel());
+        component.refreshOutline();
     }
 }
\ No newline at end of file
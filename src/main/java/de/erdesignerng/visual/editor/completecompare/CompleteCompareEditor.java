@@ -20,6 +20,7 @@ package de.erdesignerng.visual.editor.completecompare;
 import de.erdesignerng.model.Model;
 import de.erdesignerng.model.utils.ModelComparator;
 import de.erdesignerng.model.utils.ModelCompareResult;
+import de.erdesignerng.model.utils.ModelCompareTreeBuilder;
 import de.erdesignerng.util.ApplicationPreferences;
 import de.erdesignerng.visual.editor.BaseEditor;
 import de.mogwai.common.client.looks.UIInitializer;
@@ -63,9 +64,10 @@ public class CompleteCompareEditor extends BaseEditor {
 
 	private void refreshView() {
 
-		ModelComparator theComparator = new ModelComparator();
-		ModelCompareResult theResult = theComparator.compareModels(
-				currentModel, databaseModel);
+		ModelComparator theComparator = new ModelComparator(true);
+		ModelCompareTreeBuilder theBuilder = new ModelCompareTreeBuilder();
+		theComparator.compare(currentModel, databaseModel, theBuilder);
+		ModelCompareResult theResult = theBuilder.getResult();
 
 		editingView.getCurrentModelView().setModel(
 				new DefaultTreeModel(theResult.getModelRootNode()));
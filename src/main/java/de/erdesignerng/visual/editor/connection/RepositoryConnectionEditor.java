@@ -3,6 +3,7 @@ package de.erdesignerng.visual.editor.connection;
 import de.erdesignerng.ERDesignerBundle;
 import de.erdesignerng.dialect.Dialect;
 import de.erdesignerng.dialect.DialectFactory;
+import de.erdesignerng.model.serializer.repository.HibernateTemplate;
 import de.erdesignerng.util.ApplicationPreferences;
 import de.erdesignerng.util.ConnectionDescriptor;
 import de.erdesignerng.visual.MessagesHelper;
@@ -101,6 +102,10 @@ public class RepositoryConnectionEditor extends BaseEditor {
 				.getDefaultModel();
 		ApplicationPreferences.getInstance().setRepositoryConnection(
 				theDescriptor.createConnectionDescriptor());
+
+		// The repository connection was changed, so the cached session
+		// factories must not be used anymore
+		HibernateTemplate.invalidateSessionFactories();
 	}
 
 	@Override
@@ -212,6 +212,8 @@ public class CustomTypeEditor extends BaseEditor {
                 model.addCustomType(theType);
             } else {
                 theOriginalType.restoreFrom(theType);
+                model.markDirty(theOriginalType);
+                model.markTablesDirty(theOriginalType);
             }
         }
     }
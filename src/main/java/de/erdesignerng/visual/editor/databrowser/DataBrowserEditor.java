@@ -19,6 +19,7 @@ package de.erdesignerng.visual.editor.databrowser;
 
 import de.erdesignerng.ERDesignerBundle;
 import de.erdesignerng.dialect.Dialect;
+import de.erdesignerng.dialect.SQLGenerator;
 import de.erdesignerng.model.Attribute;
 import de.erdesignerng.model.IndexExpression;
 import de.erdesignerng.model.Model;
@@ -38,35 +39,87 @@ import de.mogwai.common.client.looks.components.renderer.DefaultCellRenderer;
 import javax.swing.JMenu;
 import javax.swing.JMenuItem;
 import javax.swing.JTable;
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
 import javax.swing.table.TableColumn;
 import java.awt.Component;
 import java.awt.FontMetrics;
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.io.IOException;
 import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Savepoint;
 import java.sql.Statement;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * DataBrowser.
+ * <p/>
+ * The connection is only used by a background executor. Queries are executed
+ * and their rows are fetched there, so the dialog stays responsive and a
+ * running query can be cancelled. Autocommit is only turned off while the
+ * rows of a query are fetched, so the connection is not left idle in a
+ * transaction.
+ * <p/>
+ * When browsing tables, the rows referenced by and referencing the rows on
+ * screen are fetched in advance, so following a relation is usually answered
+ * by the navigation cache.
  *
  * @author $Author: mirkosertic $
  * @version $Date: 2009-03-09 19:07:29 $
  */
 public class DataBrowserEditor extends BaseEditor {
 
+    private static final int PREFETCH_DELAY = 300;
+
     private final DataBrowserEditorView view = new DataBrowserEditorView();
 
     private Model currentModel;
     private Dialect currentDialect;
 
     private final BindingInfo<DataBrowserModel> sqlBindingInfo = new BindingInfo<>();
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(aRunnable -> {
+        Thread theThread = new Thread(aRunnable, "Data browser");
+        theThread.setDaemon(true);
+        return theThread;
+    });
+
+    // Only used by the executor
     private Connection connection;
-    private Statement statement;
+
+    private volatile Statement statement;
+
+    // Changed by the event dispatch thread for every query started or
+    // cancelled, results of older queries are dropped
+    private volatile int queryGeneration;
+
+    private boolean querying;
 
     private PaginationDataModel dataModel;
 
+    // The table and where clause of the query started last
+    private Table queryTable;
+    private Map<Attribute<Table>, Object> queryWhereValues;
+
+    // The table and where clause of the rows shown, the table is null for
+    // views and queries entered by the user
+    private Table browsedTable;
+    private Map<Attribute<Table>, Object> browsedWhereValues;
+
+    private final NavigationCache navigationCache = new NavigationCache();
+
+    private final Timer prefetchTimer = new Timer(PREFETCH_DELAY, e -> prefetchVisibleRows());
+
+    private final DefaultAction cancelAction;
+
     public DataBrowserEditor(Component aParent) {
         super(aParent, ERDesignerBundle.DATABROWSER);
 
@@ -78,8 +131,16 @@ public class DataBrowserEditor extends BaseEditor {
         DefaultAction queryAction = new DefaultAction(
                 e -> commandQuery(), this, ERDesignerBundle.QUERY);
         view.getQueryButton().setAction(queryAction);
+
+        cancelAction = new DefaultAction(
+                e -> cancelQuery(), this, ERDesignerBundle.CANCEL);
+        cancelAction.setEnabled(false);
+        view.getCancelButton().setAction(cancelAction);
         view.getData().setAutoResizeMode(JTable.AUTO_RESIZE_OFF);
 
+        prefetchTimer.setRepeats(false);
+        view.getData().getScrollPane().getViewport().addChangeListener(e -> prefetchTimer.restart());
+
         initialize();
 
         sqlBindingInfo.setDefaultModel(new DataBrowserModel());
@@ -94,25 +155,30 @@ public class DataBrowserEditor extends BaseEditor {
 
         Map<Attribute<Table>, Object> theWhereValues = new HashMap<>();
 
-        DataBrowserModel theModel = sqlBindingInfo.getDefaultModel();
-        theModel.setSql(currentDialect.createSQLGenerator()
-                .createSelectAllScriptFor(aTable, theWhereValues));
-        sqlBindingInfo.model2view();
-
-        initializeContextMenu(aTable);
+        browse(aTable, theWhereValues);
 
-        final String theSQL = theModel.getSql();
+        view.addBreadCrumb(aTable.getName(), e -> browse(aTable, theWhereValues));
+    }
 
-        view.addBreadCrumb(aTable.getName(), e -> {
+    /**
+     * Show the rows of a table matching the values of a where clause. The
+     * rows are taken from the navigation cache if possible.
+     */
+    private void browse(Table aTable, Map<Attribute<Table>, Object> aWhereValues) {
 
-            sqlBindingInfo.getDefaultModel().setSql(theSQL);
-            sqlBindingInfo.model2view();
-            commandQuery();
+        SQLGenerator<?> theGenerator = currentDialect.createSQLGenerator();
+        DataBrowserModel theModel = sqlBindingInfo.getDefaultModel();
+        theModel.setSql(theGenerator.createSelectAllScriptFor(aTable, aWhereValues));
+        sqlBindingInfo.model2view();
 
-            initializeContextMenu(aTable);
-        });
+        initializeContextMenu(aTable);
 
-        commandQuery();
+        NavigationCache.RowSet theRows = navigationCache.get(aTable, aWhereValues);
+        if (theRows != null) {
+            showRows(aTable, aWhereValues, theRows);
+        } else {
+            startQuery(aTable, aWhereValues);
+        }
     }
 
     private void initializeContextMenu(final Table aTable) {
@@ -202,145 +268,405 @@ public class DataBrowserEditor extends BaseEditor {
         commandQuery();
     }
 
+    /**
+     * Get the values of the where clause to navigate along a relation.
+     *
+     * @param aRelation         the relation
+     * @param aToExportingTable true to navigate to the referenced row, false
+     *                          to navigate to the referencing rows
+     * @param aRow              the row of the shown table
+     * @return the values
+     */
+    private Map<Attribute<Table>, Object> createWhereValues(Relation aRelation, boolean aToExportingTable, int aRow) {
+        Map<Attribute<Table>, Object> theWhereValues = new HashMap<>();
+        for (Map.Entry<IndexExpression, Attribute<Table>> theEntry : aRelation
+                .getMapping().entrySet()) {
+
+            Attribute<Table> theExportingAttribute = theEntry.getKey().getAttributeRef();
+            Attribute<Table> theImportingAttribute = theEntry.getValue();
+            if (theExportingAttribute != null) {
+                Attribute<Table> theSource = aToExportingTable ? theImportingAttribute : theExportingAttribute;
+                Attribute<Table> theTarget = aToExportingTable ? theExportingAttribute : theImportingAttribute;
+
+                int theIndex = theSource.getOwner().getAttributes().indexOf(theSource);
+                theWhereValues.put(theTarget, dataModel.getValueAt(aRow, theIndex));
+            }
+        }
+        return theWhereValues;
+    }
+
     private void navigateToWithForeignKey(final Relation aRelation) {
         int theCurrentRow = view.getData().getSelectedRow();
         if (theCurrentRow >= 0) {
+            navigateTo(aRelation.getExportingTable(), createWhereValues(aRelation, true, theCurrentRow));
+        }
+    }
 
-            Map<Attribute<Table>, Object> theWhereValues = new HashMap<>();
-            for (Map.Entry<IndexExpression, Attribute<Table>> theEntry : aRelation
-                    .getMapping().entrySet()) {
+    private void navigateToWithImportingKey(final Relation aRelation) {
+        int theCurrentRow = view.getData().getSelectedRow();
+        if (theCurrentRow >= 0) {
+            navigateTo(aRelation.getImportingTable(), createWhereValues(aRelation, false, theCurrentRow));
+        }
+    }
 
-                Attribute<Table> theAttribute = theEntry.getValue();
-                int theIndex = theAttribute.getOwner().getAttributes().indexOf(
-                        theAttribute);
+    private void navigateTo(Table aTable, Map<Attribute<Table>, Object> aWhereValues) {
 
-                Object theValue = dataModel.getValueAt(theCurrentRow, theIndex);
+        browse(aTable, aWhereValues);
 
-                Attribute<Table> theKey = theEntry.getKey().getAttributeRef();
-                if (theKey != null) {
-                    theWhereValues.put(theKey, theValue);
-                }
-            }
+        view.addBreadCrumb(aTable.getName(), e -> browse(aTable, aWhereValues));
+    }
+
+    private void initialize() {
+
+        setContentPane(view);
+        setResizable(true);
 
-            DataBrowserModel theModel = sqlBindingInfo.getDefaultModel();
-            theModel.setSql(currentDialect.createSQLGenerator()
-                    .createSelectAllScriptFor(aRelation.getExportingTable(),
-                            theWhereValues));
-            sqlBindingInfo.model2view();
+        pack();
 
-            initializeContextMenu(aRelation.getExportingTable());
+        ApplicationPreferences.getInstance().setWindowSize(
+                getClass().getSimpleName(), this);
 
-            commandQuery();
+        UIInitializer.getInstance().initialize(this);
+    }
 
-            final String theSQL = sqlBindingInfo.getDefaultModel().getSql();
+    @Override
+    public void applyValues() throws Exception {
+    }
 
-            view.addBreadCrumb(aRelation.getExportingTable().getName(),
-                    e -> {
+    private void commandQuery() {
 
-                        sqlBindingInfo.getDefaultModel().setSql(theSQL);
-                        sqlBindingInfo.model2view();
-                        commandQuery();
+        if (sqlBindingInfo.validate().isEmpty()) {
 
-                        initializeContextMenu(aRelation.getExportingTable());
-                    });
+            sqlBindingInfo.view2model();
 
+            startQuery(null, null);
         }
     }
 
-    private void navigateToWithImportingKey(final Relation aRelation) {
-        int theCurrentRow = view.getData().getSelectedRow();
-        if (theCurrentRow >= 0) {
+    private void startQuery(Table aTable, Map<Attribute<Table>, Object> aWhereValues) {
 
-            Map<Attribute<Table>, Object> theWhereValues = new HashMap<>();
-            for (Map.Entry<IndexExpression, Attribute<Table>> theEntry : aRelation.getMapping().entrySet()) {
-                Attribute<Table> theAttribute = theEntry.getKey().getAttributeRef();
-                if (theAttribute != null) {
-                    int theIndex = theAttribute.getOwner().getAttributes().indexOf(theAttribute);
-                    Object theValue = dataModel.getValueAt(theCurrentRow, theIndex);
+        cancelQuery();
 
-                    theWhereValues.put(theEntry.getValue(), theValue);
-                }
+        int theGeneration = ++queryGeneration;
+        String theSQL = sqlBindingInfo.getDefaultModel().getSql();
+        int theTimeout = ApplicationPreferences.getInstance().getDataBrowserQueryTimeout();
+
+        queryTable = aTable;
+        queryWhereValues = aWhereValues;
+        querying = true;
+        updateActions();
+
+        executor.execute(() -> executeQuery(theGeneration, theSQL, theTimeout));
+    }
+
+    /**
+     * Show cached rows. The data model is built by the executor, as it might
+     * need to write to a temporary file.
+     */
+    private void showRows(Table aTable, Map<Attribute<Table>, Object> aWhereValues, NavigationCache.RowSet aRows) {
+
+        cancelQuery();
+
+        int theGeneration = ++queryGeneration;
+
+        queryTable = aTable;
+        queryWhereValues = aWhereValues;
+        querying = true;
+        updateActions();
+
+        executor.execute(() -> {
+            endTransaction(false);
+            try {
+                PaginationDataModel theModel = new PaginationDataModel(currentDialect, aRows, executor);
+                SwingUtilities.invokeLater(() -> showResult(theGeneration, theModel));
+            } catch (IOException e) {
+                SwingUtilities.invokeLater(() -> queryFailed(theGeneration, e));
+            }
+        });
+    }
+
+    /**
+     * Execute a query, called by the executor.
+     */
+    private void executeQuery(int aGeneration, String aSQL, int aTimeout) {
+        try {
+            if (connection == null) {
+                connection = currentModel.createConnection();
             }
 
-            DataBrowserModel theModel = sqlBindingInfo.getDefaultModel();
-            theModel.setSql(currentDialect.createSQLGenerator()
-                    .createSelectAllScriptFor(aRelation.getImportingTable(),
-                            theWhereValues));
-            sqlBindingInfo.model2view();
+            // Closing the statement of the last query also closes its result
+            // set, the rows already fetched are kept by the data model
+            endTransaction(false);
 
-            initializeContextMenu(aRelation.getImportingTable());
+            // Scrollable result sets are materialized by many drivers, the
+            // rows are read forward only and kept by the data model
+            Statement theStatement = connection.createStatement(ResultSet.TYPE_FORWARD_ONLY,
+                    ResultSet.CONCUR_READ_ONLY);
+            theStatement.setFetchSize(PaginationDataModel.CHUNK_SIZE);
+            theStatement.setQueryTimeout(aTimeout);
+            statement = theStatement;
 
-            commandQuery();
+            if (aGeneration != queryGeneration) {
+                return;
+            }
 
-            final String theSQL = sqlBindingInfo.getDefaultModel().getSql();
+            // Some drivers, for instance PostgreSQL, only use the fetch size
+            // inside of a transaction. It is ended once all rows are fetched
+            // or the query is cancelled
+            connection.setAutoCommit(false);
 
-            view.addBreadCrumb(aRelation.getImportingTable().getName(),
-                    e -> {
+            ResultSet theResult = theStatement.executeQuery(aSQL);
+            PaginationDataModel theModel = new PaginationDataModel(currentDialect, theResult, executor);
 
-                        sqlBindingInfo.getDefaultModel().setSql(theSQL);
-                        sqlBindingInfo.model2view();
-                        commandQuery();
+            SwingUtilities.invokeLater(() -> showResult(aGeneration, theModel));
 
-                        initializeContextMenu(aRelation.getImportingTable());
-                    });
+        } catch (Exception e) {
+            endTransaction(false);
+            SwingUtilities.invokeLater(() -> queryFailed(aGeneration, e));
         }
     }
 
-    private void initialize() {
+    private void showResult(int aGeneration, PaginationDataModel aModel) {
+        if (aGeneration != queryGeneration) {
+            aModel.cleanup();
+            return;
+        }
 
-        setContentPane(view);
-        setResizable(true);
+        querying = false;
+        browsedTable = queryTable;
+        browsedWhereValues = queryWhereValues;
 
-        pack();
+        if (dataModel != null) {
+            dataModel.cleanup();
+        }
 
-        ApplicationPreferences.getInstance().setWindowSize(
-                getClass().getSimpleName(), this);
+        dataModel = aModel;
+        dataModel.addFetchListener(new PaginationDataModel.FetchListener() {
 
-        UIInitializer.getInstance().initialize(this);
+            @Override
+            public void fetchStarted() {
+                updateActions();
+            }
+
+            @Override
+            public void rowsFetched() {
+                updateTableColumnWIdth();
+                updateActions();
+                if (!aModel.isLoading()) {
+                    if (aModel.isComplete()) {
+                        endTransactionLater(aGeneration, true);
+                    }
+                    cacheBrowsedRows(aModel);
+                    prefetchTimer.restart();
+                }
+            }
+
+            @Override
+            public void fetchFailed(SQLException aException) {
+                endTransactionLater(aGeneration, false);
+                updateActions();
+                logFatalError(aException);
+            }
+        });
+
+        view.getData().setModel(dataModel);
+        view.getData().getTableHeader().setReorderingAllowed(false);
+
+        updateTableColumnWIdth();
+
+        dataModel.requestRow(0);
+        if (!dataModel.isLoading()) {
+            prefetchTimer.restart();
+        }
     }
 
-    @Override
-    public void applyValues() throws Exception {
+    /**
+     * Add the rows of a table to the navigation cache once all of them were
+     * fetched.
+     */
+    private void cacheBrowsedRows(PaginationDataModel aModel) {
+        int theRowCount = aModel.getFetchedRowCount();
+        if (browsedTable != null && aModel.isComplete() && theRowCount <= NavigationCache.MAX_ROWS_PER_ROW_SET
+                && navigationCache.get(browsedTable, browsedWhereValues) == null) {
+
+            Table theTable = browsedTable;
+            Map<Attribute<Table>, Object> theWhereValues = browsedWhereValues;
+            executor.execute(() -> {
+                try {
+                    navigationCache.put(theTable, theWhereValues, aModel.getRowSet(theRowCount));
+                } catch (IOException e) {
+                    // The rows are queried again next time
+                }
+            });
+        }
     }
 
-    private void commandQuery() {
+    /**
+     * Fetch the rows referenced by and referencing the visible rows into the
+     * navigation cache, one query per relation.
+     */
+    private void prefetchVisibleRows() {
+        if (browsedTable == null || dataModel == null || querying || dataModel.isLoading()) {
+            return;
+        }
 
-        if (sqlBindingInfo.validate().isEmpty()) {
+        JTable theTable = view.getData();
+        Rectangle theVisibleRect = theTable.getVisibleRect();
+        int theFirstRow = Math.max(0, theTable.rowAtPoint(theVisibleRect.getLocation()));
+        int theLastRow = theTable.rowAtPoint(new Point(theVisibleRect.x, theVisibleRect.y
+                + theVisibleRect.height - 1));
+        if (theLastRow < 0) {
+            theLastRow = dataModel.getFetchedRowCount() - 1;
+        }
+        theLastRow = Math.min(theLastRow, dataModel.getFetchedRowCount() - 1);
+        theLastRow = Math.min(theLastRow, theFirstRow + NavigationCache.MAX_PREFETCH_KEYS - 1);
+        if (theLastRow < theFirstRow) {
+            return;
+        }
 
-            sqlBindingInfo.view2model();
+        int theGeneration = queryGeneration;
+        SQLGenerator<?> theGenerator = currentDialect.createSQLGenerator();
+        int theTimeout = ApplicationPreferences.getInstance().getDataBrowserQueryTimeout();
 
+        for (Relation theRelation : currentModel.getRelations().getForeignKeysFor(browsedTable)) {
+            prefetch(theGeneration, theGenerator, theRelation, true, theFirstRow, theLastRow, theTimeout);
+        }
+        for (Relation theRelation : currentModel.getRelations().getExportedKeysFor(browsedTable)) {
+            prefetch(theGeneration, theGenerator, theRelation, false, theFirstRow, theLastRow, theTimeout);
+        }
+    }
+
+    private void prefetch(int aGeneration, SQLGenerator<?> aGenerator, Relation aRelation, boolean aToExportingTable,
+            int aFirstRow, int aLastRow, int aTimeout) {
+
+        List<Map<Attribute<Table>, Object>> theWhereValues = new ArrayList<>();
+        for (int i = aFirstRow; i <= aLastRow; i++) {
+            theWhereValues.add(createWhereValues(aRelation, aToExportingTable, i));
+        }
+        Table theTable = aToExportingTable ? aRelation.getExportingTable() : aRelation.getImportingTable();
+
+        executor.execute(() -> {
+            // Skip the prefetching if the user already went on
+            if (aGeneration != queryGeneration || connection == null) {
+                return;
+            }
+            // The cursor of a partially fetched query is still open, a failed
+            // statement must not abort its transaction
+            Savepoint theSavepoint = null;
             try {
-                if (connection == null) {
-                    connection = currentModel.createConnection();
+                if (!connection.getAutoCommit()) {
+                    theSavepoint = connection.setSavepoint();
                 }
-                if (statement == null) {
-                    statement = connection.createStatement(ResultSet.TYPE_SCROLL_INSENSITIVE, ResultSet.CONCUR_READ_ONLY);
+                navigationCache.prefetch(connection, aGenerator, theTable, theWhereValues, aTimeout);
+                if (theSavepoint != null) {
+                    connection.releaseSavepoint(theSavepoint);
                 }
+            } catch (SQLException e) {
+                // The rows are queried when navigating
+                rollbackQuietly(theSavepoint);
+            }
+        });
+    }
 
-                ResultSet theResult = statement.executeQuery(sqlBindingInfo
-                        .getDefaultModel().getSql());
+    private void queryFailed(int aGeneration, Exception aException) {
+        // Errors of cancelled queries are expected
+        if (aGeneration == queryGeneration) {
+            querying = false;
+            updateActions();
+            logFatalError(aException);
+        }
+    }
 
-                if (dataModel != null) {
-                    dataModel.cleanup();
-                }
+    /**
+     * Cancel the running query and stop fetching rows.
+     */
+    private void cancelQuery() {
+        boolean theCancelStatement = false;
+        if (querying) {
+            querying = false;
+            queryGeneration++;
+            theCancelStatement = true;
+        }
+        if (dataModel != null && dataModel.isLoading()) {
+            dataModel.cancel();
+            theCancelStatement = true;
+        }
+
+        Statement theStatement = statement;
+        if (theCancelStatement && theStatement != null) {
+            // Some drivers block until the server answers, and the executor
+            // is busy with the statement, so it is cancelled by its own thread
+            Thread theThread = new Thread(() -> cancelStatement(theStatement), "Data browser cancel");
+            theThread.setDaemon(true);
+            theThread.start();
+        }
+        if (theCancelStatement) {
+            // Queued before the next query, so only the cancelled one is
+            // ended
+            executor.execute(() -> endTransaction(false));
+        }
 
-                dataModel = new PaginationDataModel(currentDialect, view
-                        .getData(), theResult);
-                dataModel.seekToRow(5);
+        updateActions();
+    }
 
-                view.getData().setModel(dataModel);
-                view.getData().getTableHeader().setReorderingAllowed(false);
+    private static void cancelStatement(Statement aStatement) {
+        try {
+            aStatement.cancel();
+        } catch (SQLException e) {
+            // Not supported by every driver, the rows are not fetched anyway
+        }
+    }
 
-                dataModel
-                        .addSeekListener(() -> updateTableColumnWIdth());
+    private void updateActions() {
+        cancelAction.setEnabled(querying || (dataModel != null && dataModel.isLoading()));
+    }
 
-                updateTableColumnWIdth();
+    /**
+     * End the transaction of the last query once its rows are fetched.
+     * Nothing is done if another query was started in the meantime, as it
+     * ends the transaction by itself.
+     */
+    private void endTransactionLater(int aGeneration, boolean aCommit) {
+        executor.execute(() -> {
+            if (aGeneration == queryGeneration) {
+                endTransaction(aCommit);
+            }
+        });
+    }
 
-            } catch (Exception e) {
-                logFatalError(e);
+    /**
+     * Close the statement of the last query and end its transaction, called
+     * by the executor.
+     *
+     * @param aCommit true to commit, false to roll back
+     */
+    private void endTransaction(boolean aCommit) {
+        JDBCUtils.closeQuietly(statement);
+        statement = null;
+        if (connection != null) {
+            try {
+                if (!connection.getAutoCommit()) {
+                    if (aCommit) {
+                        connection.commit();
+                    } else {
+                        connection.rollback();
+                    }
+                    connection.setAutoCommit(true);
+                }
+            } catch (SQLException e) {
+                // Ignore this
             }
         }
+    }
 
+    private void rollbackQuietly(Savepoint aSavepoint) {
+        if (aSavepoint != null) {
+            try {
+                connection.rollback(aSavepoint);
+            } catch (SQLException e) {
+                // Ignore this
+            }
+        }
     }
 
     private void updateTableColumnWIdth() {
@@ -364,12 +690,18 @@ public class DataBrowserEditor extends BaseEditor {
 
     private void commandClose() {
 
+        prefetchTimer.stop();
+        cancelQuery();
+
         if (dataModel != null) {
             dataModel.cleanup();
         }
 
-        JDBCUtils.closeQuietly(statement);
-        JDBCUtils.closeQuietly(connection);
+        executor.execute(() -> {
+            endTransaction(false);
+            JDBCUtils.closeQuietly(connection);
+        });
+        executor.shutdown();
 
         ApplicationPreferences.getInstance().updateWindowSize(
                 getClass().getSimpleName(), this);
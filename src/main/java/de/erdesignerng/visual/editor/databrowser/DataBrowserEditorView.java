@@ -33,6 +33,8 @@ public class DataBrowserEditorView extends JPanel {
 
 	private DefaultButton queryButton;
 
+	private DefaultButton cancelButton;
+
 	private DefaultPanel breadCrumb;
 
 	public DataBrowserEditorView() {
@@ -64,15 +66,16 @@ public class DataBrowserEditorView extends JPanel {
 			buttonPanel = new JPanel();
 
 			String rowDef = "10dlu,p";
-			String colDef = "fill:80dlu,2dlu:grow,fill:80dlu";
+			String colDef = "fill:80dlu,2dlu,fill:80dlu,2dlu:grow,fill:80dlu";
 
 			FormLayout layout = new FormLayout(colDef, rowDef);
 			buttonPanel.setLayout(layout);
 
 			CellConstraints cons = new CellConstraints();
 
-			buttonPanel.add(getCloseButton(), cons.xywh(3, 2, 1, 1));
+			buttonPanel.add(getCloseButton(), cons.xywh(5, 2, 1, 1));
 			buttonPanel.add(getQueryButton(), cons.xywh(1, 2, 1, 1));
+			buttonPanel.add(getCancelButton(), cons.xywh(3, 2, 1, 1));
 			buttonPanel.setName("buttonpanel");
 		}
 
@@ -97,6 +100,15 @@ public class DataBrowserEditorView extends JPanel {
 		return queryButton;
 	}
 
+	public DefaultButton getCancelButton() {
+
+		if (cancelButton == null) {
+			cancelButton = new DefaultButton(ERDesignerBundle.CANCEL);
+		}
+
+		return cancelButton;
+	}
+
 	public DefaultTextPane getSql() {
 
 		if (sql == null) {
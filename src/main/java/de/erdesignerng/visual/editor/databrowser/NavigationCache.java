@@ -0,0 +1,302 @@
+/**
+ * Mogwai ERDesigner. Copyright (C) 2002 The Mogwai Project.
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program; if not, write to the Free Software Foundation, Inc., 59 Temple
+ * Place - Suite 330, Boston, MA 02111-1307, USA.
+ */
+package de.erdesignerng.visual.editor.databrowser;
+
+import de.erdesignerng.dialect.SQLGenerator;
+import de.erdesignerng.model.Attribute;
+import de.erdesignerng.model.Table;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Cache of the rows shown when navigating along relations in the data
+ * browser.
+ * <p/>
+ * The row sets are stored by table and the values of the where clause used
+ * to select them. The rows referenced by or referencing the rows on screen
+ * are fetched in advance with one query per relation. Recently used row sets
+ * are kept, the number of rows per table is bounded.
+ * <p/>
+ * The values are compared by their string representation, as the columns of
+ * both sides of a relation might be mapped to different Java types.
+ */
+public class NavigationCache {
+
+	public static final int MAX_ROWS_PER_TABLE = 5000;
+
+	public static final int MAX_ROWS_PER_ROW_SET = 1000;
+
+	public static final int MAX_PREFETCH_KEYS = 100;
+
+	public static final int MAX_PREFETCH_ROWS = 2000;
+
+	/**
+	 * The rows of a table matching the values of a where clause.
+	 */
+	public static class RowSet {
+
+		private final String[] columnNames;
+
+		private final List<Object[]> rows;
+
+		public RowSet(String[] aColumnNames, List<Object[]> aRows) {
+			columnNames = aColumnNames;
+			rows = aRows;
+		}
+
+		public String[] getColumnNames() {
+			return columnNames;
+		}
+
+		public List<Object[]> getRows() {
+			return rows;
+		}
+	}
+
+	private static class Key {
+
+		private final Table table;
+
+		private final Map<String, String> values;
+
+		private Key(Table aTable, Map<String, String> aValues) {
+			table = aTable;
+			values = aValues;
+		}
+
+		@Override
+		public boolean equals(Object aOther) {
+			if (!(aOther instanceof Key)) {
+				return false;
+			}
+			Key theOther = (Key) aOther;
+			return table == theOther.table && values.equals(theOther.values);
+		}
+
+		@Override
+		public int hashCode() {
+			return System.identityHashCode(table) * 31 + values.hashCode();
+		}
+	}
+
+	private static class TableCache {
+
+		private final LinkedHashMap<Key, RowSet> rowSets = new LinkedHashMap<>(16, 0.75f, true);
+
+		private int rowCount;
+	}
+
+	private final Map<Table, TableCache> tables = new HashMap<>();
+
+	private static Key keyFor(Table aTable, Map<Attribute<Table>, Object> aWhereValues) {
+		Map<String, String> theValues = new TreeMap<>();
+		for (Map.Entry<Attribute<Table>, Object> theEntry : aWhereValues.entrySet()) {
+			theValues.put(theEntry.getKey().getName(), String.valueOf(theEntry.getValue()));
+		}
+		return new Key(aTable, theValues);
+	}
+
+	/**
+	 * Get a row set.
+	 *
+	 * @param aTable       the table
+	 * @param aWhereValues the values of the where clause
+	 * @return the rows or null if they are not cached
+	 */
+	public synchronized RowSet get(Table aTable, Map<Attribute<Table>, Object> aWhereValues) {
+		TableCache theCache = tables.get(aTable);
+		if (theCache == null) {
+			return null;
+		}
+		return theCache.rowSets.get(keyFor(aTable, aWhereValues));
+	}
+
+	/**
+	 * Add a row set. Row sets with more than {@link #MAX_ROWS_PER_ROW_SET}
+	 * rows are not cached.
+	 *
+	 * @param aTable       the table
+	 * @param aWhereValues the values of the where clause
+	 * @param aRows        the rows
+	 */
+	public void put(Table aTable, Map<Attribute<Table>, Object> aWhereValues, RowSet aRows) {
+		put(keyFor(aTable, aWhereValues), aRows);
+	}
+
+	private synchronized void put(Key aKey, RowSet aRows) {
+		if (aRows.getRows().size() > MAX_ROWS_PER_ROW_SET) {
+			return;
+		}
+
+		TableCache theCache = tables.computeIfAbsent(aKey.table, k -> new TableCache());
+		RowSet theOldRows = theCache.rowSets.put(aKey, aRows);
+		if (theOldRows != null) {
+			theCache.rowCount -= theOldRows.getRows().size();
+		}
+		theCache.rowCount += aRows.getRows().size();
+
+		// Evict the least recently used row sets, but always keep the new one
+		Iterator<RowSet> theIterator = theCache.rowSets.values().iterator();
+		while (theCache.rowCount > MAX_ROWS_PER_TABLE && theCache.rowSets.size() > 1) {
+			RowSet theRows = theIterator.next();
+			theCache.rowCount -= theRows.getRows().size();
+			theIterator.remove();
+		}
+	}
+
+	private synchronized boolean contains(Key aKey) {
+		TableCache theCache = tables.get(aKey.table);
+		return theCache != null && theCache.rowSets.containsKey(aKey);
+	}
+
+	/**
+	 * Fetch the row sets for several where clauses with a single query. All
+	 * where clauses have to use the same attributes. Where clauses with null
+	 * values or an already cached row set are skipped. Nothing is cached if
+	 * the query returns more than {@link #MAX_PREFETCH_ROWS} rows.
+	 *
+	 * @param aConnection   the connection
+	 * @param aGenerator    the generator for the query
+	 * @param aTable        the table
+	 * @param aWhereValues  the values of the where clauses
+	 * @param aQueryTimeout the query timeout in seconds
+	 * @return the number of row sets added to the cache
+	 * @throws SQLException will be thrown in case of an error
+	 */
+	public int prefetch(Connection aConnection, SQLGenerator<?> aGenerator, Table aTable,
+			List<Map<Attribute<Table>, Object>> aWhereValues, int aQueryTimeout) throws SQLException {
+
+		List<Attribute<Table>> theAttributes = null;
+		Map<Key, List<Object>> theRequested = new LinkedHashMap<>();
+		for (Map<Attribute<Table>, Object> theWhereValues : aWhereValues) {
+			if (theWhereValues.isEmpty() || theWhereValues.containsValue(null)) {
+				continue;
+			}
+			Key theKey = keyFor(aTable, theWhereValues);
+			if (theRequested.containsKey(theKey) || contains(theKey)) {
+				continue;
+			}
+			if (theAttributes == null) {
+				theAttributes = new ArrayList<>(theWhereValues.keySet());
+			}
+			List<Object> theValues = new ArrayList<>(theAttributes.size());
+			for (Attribute<Table> theAttribute : theAttributes) {
+				theValues.add(theWhereValues.get(theAttribute));
+			}
+			theRequested.put(theKey, theValues);
+			if (theRequested.size() == MAX_PREFETCH_KEYS) {
+				break;
+			}
+		}
+
+		if (theRequested.isEmpty()) {
+			return 0;
+		}
+
+		String theSQL = aGenerator.createSelectAllScriptFor(aTable, theAttributes, theRequested.size());
+
+		try (PreparedStatement theStatement = aConnection.prepareStatement(theSQL)) {
+			theStatement.setMaxRows(MAX_PREFETCH_ROWS + 1);
+			theStatement.setQueryTimeout(aQueryTimeout);
+
+			int theIndex = 1;
+			for (List<Object> theValues : theRequested.values()) {
+				for (Object theValue : theValues) {
+					theStatement.setObject(theIndex++, theValue);
+				}
+			}
+
+			try (ResultSet theResult = theStatement.executeQuery()) {
+				ResultSetMetaData theMetaData = theResult.getMetaData();
+				String[] theColumnNames = new String[theMetaData.getColumnCount()];
+				for (int i = 0; i < theColumnNames.length; i++) {
+					theColumnNames[i] = theMetaData.getColumnName(i + 1);
+				}
+
+				int[] theKeyColumns = new int[theAttributes.size()];
+				for (int i = 0; i < theKeyColumns.length; i++) {
+					theKeyColumns[i] = -1;
+					for (int j = 0; j < theColumnNames.length; j++) {
+						if (theColumnNames[j].equalsIgnoreCase(theAttributes.get(i).getName())) {
+							theKeyColumns[i] = j;
+						}
+					}
+					if (theKeyColumns[i] < 0) {
+						return 0;
+					}
+				}
+
+				Map<Key, List<Object[]>> theRows = new HashMap<>();
+				boolean theAllRowsMatched = true;
+				int theRowCount = 0;
+				while (theResult.next()) {
+					if (++theRowCount > MAX_PREFETCH_ROWS) {
+						return 0;
+					}
+
+					Object[] theRow = new Object[theColumnNames.length];
+					for (int i = 0; i < theRow.length; i++) {
+						theRow[i] = theResult.getObject(i + 1);
+					}
+
+					Map<String, String> theValues = new TreeMap<>();
+					for (int i = 0; i < theKeyColumns.length; i++) {
+						theValues.put(theAttributes.get(i).getName(), String.valueOf(theRow[theKeyColumns[i]]));
+					}
+					Key theKey = new Key(aTable, theValues);
+					if (theRequested.containsKey(theKey)) {
+						theRows.computeIfAbsent(theKey, k -> new ArrayList<>()).add(theRow);
+					} else {
+						theAllRowsMatched = false;
+					}
+				}
+
+				// Empty row sets are only known for sure if the string
+				// representations of both sides matched
+				int theAdded = 0;
+				for (Key theKey : theRequested.keySet()) {
+					List<Object[]> theKeyRows = theRows.get(theKey);
+					if (theKeyRows != null) {
+						put(theKey, new RowSet(theColumnNames, theKeyRows));
+						theAdded++;
+					} else if (theAllRowsMatched) {
+						put(theKey, new RowSet(theColumnNames, Collections.emptyList()));
+						theAdded++;
+					}
+				}
+				return theAdded;
+			}
+		}
+	}
+
+	public synchronized void clear() {
+		tables.clear();
+	}
+}
@@ -19,9 +19,11 @@ package de.erdesignerng.visual.editor.databrowser;
 
 import de.erdesignerng.dialect.Dialect;
 import de.erdesignerng.util.JDBCUtils;
+import de.erdesignerng.util.RowStore;
 
 import javax.swing.*;
 import javax.swing.table.AbstractTableModel;
+import java.io.IOException;
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
@@ -29,70 +31,133 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 
+/**
+ * Table model reading the rows of a result set on demand.
+ * <p/>
+ * The result set is read forward only by a background executor, a page at
+ * a time, when a row after the fetched ones is requested. The rows are
+ * delivered to the table in chunks while the page is read. The fetched rows
+ * are kept in a {@link RowStore}, so the memory footprint does not grow with
+ * the number of rows browsed. As long as there are more rows, an additional
+ * empty row is shown at the end of the table; painting it requests the next
+ * page.
+ * <p/>
+ * A model can also show the rows of a {@link NavigationCache.RowSet}.
+ * <p/>
+ * The model is created by the executor, all other methods have to be called
+ * by the event dispatch thread.
+ */
 public class PaginationDataModel extends AbstractTableModel {
 
+	public static final int CHUNK_SIZE = 100;
+
+	public static final int PAGE_SIZE = 500;
+
+	public interface FetchListener {
+
+		void fetchStarted();
+
+		void rowsFetched();
+
+		void fetchFailed(SQLException aException);
+	}
+
 	private final ResultSet resultSet;
-	private ResultSetMetaData metadata;
-	private int currentRow = -1;
-	private int rowCount = 1;
-	private final List<List<Object>> cache = new ArrayList<>();
+	private final ResultSetMetaData metadata;
+	private final Executor fetchExecutor;
+	private final int columnCount;
+	private final String[] columnNames;
+	private final String[] castColumnNames;
+	private final RowStore rows;
+
+	// Confined to the fetching thread
+	private final int[] fetchedColumnWidths;
+
+	// Confined to the event dispatch thread
+	private final int[] columnWidths;
+	private int rowCount;
+	private int requestedRow = -1;
 	private boolean lastRecordReached;
+	private boolean failed;
+	private boolean loading;
+	private boolean closed;
 
-	public ResultSetMetaData getResultSetMetaData() {
-		return metadata;
+	private volatile boolean cancelled;
+
+	private final List<FetchListener> fetchListener = new ArrayList<>();
+
+	public PaginationDataModel(Dialect aDialect, ResultSet aResultSet,
+			Executor aFetchExecutor) throws SQLException {
+		this(aDialect, aResultSet, aResultSet.getMetaData(), getColumnNames(aResultSet.getMetaData()),
+				aFetchExecutor);
 	}
 
-	public Map<String, Object> getRowData(int aRow) throws SQLException {
-		Map<String, Object> theRow = new HashMap<>();
-		List<Object> theRowData = cache.get(aRow);
-		for (int i=0;i<theRowData.size();i++) {
-			String theName = metadata.getColumnName(i+1);
-			theRow.put(theName, theRowData.get(i));
+	public PaginationDataModel(Dialect aDialect, NavigationCache.RowSet aRows,
+			Executor aFetchExecutor) throws IOException {
+		this(aDialect, null, null, aRows.getColumnNames(), aFetchExecutor);
+		for (Object[] theRow : aRows.getRows()) {
+			rows.add(theRow);
+			for (int i = 0; i < columnCount; i++) {
+				if (theRow[i] != null) {
+					columnWidths[i] = Math.max(columnWidths[i], theRow[i].toString().length());
+				}
+			}
 		}
-		return theRow;
+		rowCount = rows.getRowCount();
+		lastRecordReached = true;
+	}
+
+	private PaginationDataModel(Dialect aDialect, ResultSet aResultSet, ResultSetMetaData aMetaData,
+			String[] aColumnNames, Executor aFetchExecutor) {
+		resultSet = aResultSet;
+		metadata = aMetaData;
+		fetchExecutor = aFetchExecutor;
+		columnCount = aColumnNames.length;
+		columnNames = aColumnNames;
+		castColumnNames = new String[columnCount];
+		for (int i = 0; i < columnCount; i++) {
+			castColumnNames[i] = aDialect.getCastType().cast(columnNames[i]);
+		}
+		rows = new RowStore(columnCount);
+		fetchedColumnWidths = new int[columnCount];
+		columnWidths = new int[columnCount];
 	}
 
-	public interface SeekListener {
-		void seeked();
+	private static String[] getColumnNames(ResultSetMetaData aMetaData) throws SQLException {
+		String[] theResult = new String[aMetaData.getColumnCount()];
+		for (int i = 0; i < theResult.length; i++) {
+			theResult[i] = aMetaData.getColumnName(i + 1);
+		}
+		return theResult;
 	}
 
-	private final List<SeekListener> seekListener = new ArrayList<>();
-	private final JTable owner;
-	private Dialect dialect;
+	public ResultSetMetaData getResultSetMetaData() {
+		return metadata;
+	}
 
-	public PaginationDataModel(Dialect aDialect, JTable aTable,
-			ResultSet aResultSet) throws SQLException {
-		owner = aTable;
-		resultSet = aResultSet;
-		metadata = aResultSet.getMetaData();
-		dialect = aDialect;
-		if (aResultSet.isLast()) {
-			rowCount = 0;
+	public Map<String, Object> getRowData(int aRow) {
+		Map<String, Object> theRow = new HashMap<>();
+		for (int i = 0; i < columnCount; i++) {
+			theRow.put(columnNames[i], getValueAt(aRow, i));
 		}
+		return theRow;
 	}
 
-	public void addSeekListener(SeekListener aListener) {
-		seekListener.add(aListener);
+	public void addFetchListener(FetchListener aListener) {
+		fetchListener.add(aListener);
 	}
 
 	@Override
 	public int getColumnCount() {
-		try {
-			return metadata.getColumnCount();
-		} catch (SQLException e) {
-			throw new RuntimeException(e);
-		}
+		return columnCount;
 	}
 
 	@Override
 	public String getColumnName(int column) {
-		try {
-			return dialect.getCastType().cast(
-					metadata.getColumnName(column + 1));
-		} catch (SQLException e) {
-			throw new RuntimeException(e);
-		}
+		return castColumnNames[column];
 	}
 
 	@Override
@@ -102,79 +167,211 @@ public class PaginationDataModel extends AbstractTableModel {
 
 	@Override
 	public int getRowCount() {
-		return rowCount;
+		if (lastRecordReached || cancelled) {
+			return rowCount;
+		}
+		return rowCount + 1;
 	}
 
-	public void seekToRow(int aRowIndex) throws SQLException {
+	/**
+	 * @return the number of rows fetched so far
+	 */
+	public int getFetchedRowCount() {
+		return rowCount;
+	}
 
-		boolean seeked = false;
-		while (currentRow < aRowIndex && resultSet.next()) {
+	/**
+	 * @return true if all rows of the result were fetched
+	 */
+	public boolean isComplete() {
+		return lastRecordReached && !cancelled && !failed;
+	}
 
-			List<Object> theRow = new ArrayList<>();
-			for (int i = 1; i <= metadata.getColumnCount(); i++) {
-				theRow.add(resultSet.getObject(i));
-			}
+	/**
+	 * Get the fetched rows, called by the executor.
+	 *
+	 * @param aRowCount the number of rows
+	 * @return the rows
+	 * @throws IOException will be thrown in case of an error
+	 */
+	public NavigationCache.RowSet getRowSet(int aRowCount) throws IOException {
+		List<Object[]> theRows = new ArrayList<>(aRowCount);
+		for (int i = 0; i < aRowCount; i++) {
+			theRows.add(rows.getRow(i));
+		}
+		return new NavigationCache.RowSet(columnNames, theRows);
+	}
 
-			cache.add(theRow);
+	/**
+	 * @return true if rows are being fetched
+	 */
+	public boolean isLoading() {
+		return loading;
+	}
 
-			currentRow++;
-			rowCount++;
-			seeked = true;
+	/**
+	 * Request a row to be fetched. The rows are fetched up to the end of the
+	 * page containing the row.
+	 *
+	 * @param aRowIndex the row
+	 */
+	public void requestRow(int aRowIndex) {
+		requestedRow = Math.max(requestedRow, aRowIndex);
+		if (loading || lastRecordReached || cancelled || requestedRow < rowCount) {
+			return;
 		}
 
-		if (resultSet.isLast() && !lastRecordReached) {
-			rowCount--;
-			lastRecordReached = true;
-		}
+		loading = true;
+		int theTarget = (requestedRow / PAGE_SIZE + 1) * PAGE_SIZE;
+		fetchExecutor.execute(() -> fetch(theTarget));
 
-		if (currentRow < aRowIndex) {
-			rowCount = currentRow + 1;
-			seeked = true;
+		for (FetchListener theListener : fetchListener) {
+			theListener.fetchStarted();
 		}
+	}
+
+	/**
+	 * Read rows from the result set, called by the executor.
+	 */
+	private void fetch(int aTarget) {
+		int theCount = rows.getRowCount();
+		boolean theEnd = false;
+		SQLException theError = null;
+		try {
+			while (theCount < aTarget && !cancelled) {
+				if (!resultSet.next()) {
+					theEnd = true;
+					break;
+				}
 
-		if (seeked) {
+				Object[] theRow = new Object[columnCount];
+				for (int i = 0; i < columnCount; i++) {
+					Object theValue = resultSet.getObject(i + 1);
+					theRow[i] = theValue;
+					if (theValue != null) {
+						fetchedColumnWidths[i] = Math.max(fetchedColumnWidths[i], theValue.toString().length());
+					}
+				}
+				rows.add(theRow);
+				theCount++;
 
-			for (SeekListener theListener : seekListener) {
-				theListener.seeked();
+				if (theCount % CHUNK_SIZE == 0 && theCount < aTarget) {
+					publish(theCount, false, null, false);
+				}
 			}
+		} catch (SQLException e) {
+			theError = e;
+			theEnd = true;
+		} catch (IOException e) {
+			theError = new SQLException(e);
+			theEnd = true;
+		}
+		publish(theCount, theEnd, theError, true);
+	}
 
-			int selectedRow = owner.getSelectedRow();
+	private void publish(int aRowCount, boolean aEnd, SQLException aError, boolean aLastChunk) {
+		int[] theWidths = fetchedColumnWidths.clone();
+		SwingUtilities.invokeLater(() -> rowsFetched(aRowCount, aEnd, aError, aLastChunk, theWidths));
+	}
+
+	private void rowsFetched(int aRowCount, boolean aEnd, SQLException aError, boolean aLastChunk,
+			int[] aColumnWidths) {
+		if (closed) {
+			return;
+		}
 
-			fireTableDataChanged();
+		int theOldRowCount = rowCount;
+		int theOldTableRows = getRowCount();
 
-			if (selectedRow >= 0) {
-				owner.setRowSelectionInterval(selectedRow, selectedRow);
+		rowCount = aRowCount;
+		lastRecordReached |= aEnd;
+		failed |= aError != null;
+		if (aLastChunk) {
+			loading = false;
+		}
+		System.arraycopy(aColumnWidths, 0, columnWidths, 0, columnCount);
+
+		int theTableRows = getRowCount();
+		if (theOldTableRows > theOldRowCount && theOldRowCount < rowCount) {
+			// The row shown while loading now has data
+			fireTableRowsUpdated(theOldRowCount, theOldRowCount);
+		}
+		if (theTableRows > theOldTableRows) {
+			fireTableRowsInserted(theOldTableRows, theTableRows - 1);
+		} else if (theTableRows < theOldTableRows) {
+			fireTableRowsDeleted(theTableRows, theOldTableRows - 1);
+		}
+
+		for (FetchListener theListener : fetchListener) {
+			if (aError != null && !cancelled) {
+				theListener.fetchFailed(aError);
+			} else {
+				theListener.rowsFetched();
 			}
 		}
 
+		if (aLastChunk && requestedRow >= rowCount) {
+			requestRow(requestedRow);
+		}
 	}
 
 	@Override
 	public Object getValueAt(int aRowIndex, int aColumnIndex) {
+		if (aRowIndex >= rowCount) {
+			requestRow(aRowIndex);
+			return null;
+		}
 		try {
-			seekToRow(aRowIndex);
-		} catch (SQLException e) {
+			return rows.getValue(aRowIndex, aColumnIndex);
+		} catch (IOException e) {
 			throw new RuntimeException(e);
 		}
-		List<Object> theRow = cache.get(aRowIndex);
-		return theRow.get(aColumnIndex);
 	}
 
+	/**
+	 * Stop fetching rows. The rows fetched so far are kept.
+	 */
+	public void cancel() {
+		if (!cancelled) {
+			int theOldTableRows = getRowCount();
+			cancelled = true;
+			loading = false;
+			if (getRowCount() < theOldTableRows) {
+				fireTableRowsDeleted(getRowCount(), theOldTableRows - 1);
+			}
+			release(() -> JDBCUtils.closeQuietly(resultSet));
+		}
+	}
+
+	/**
+	 * Stop fetching rows and release the fetched ones.
+	 */
 	public void cleanup() {
-		JDBCUtils.closeQuietly(resultSet);
+		cancel();
+		closed = true;
+		release(rows::close);
 	}
 
-	public int computeColumnWidth(int aColumnIndex) {
-		int width = 0;
-		for (int i = 0; i < rowCount - 1; i++) {
-			Object theValue = getValueAt(i, aColumnIndex);
-			if (theValue != null) {
-				String theString = theValue.toString();
-				if (theString.length() > width) {
-					width = theString.length();
-				}
-			}
+	/**
+	 * Release resources by the executor, or directly if it was already shut
+	 * down.
+	 */
+	private void release(Runnable aRunnable) {
+		try {
+			fetchExecutor.execute(aRunnable);
+		} catch (RejectedExecutionException e) {
+			aRunnable.run();
 		}
-		return width;
 	}
-}
\ No newline at end of file
+
+	/**
+	 * Get the width of a column in characters. The width is maintained while
+	 * the rows are fetched.
+	 *
+	 * @param aColumnIndex the column
+	 * @return the length of the longest value fetched so far
+	 */
+	public int computeColumnWidth(int aColumnIndex) {
+		return columnWidths[aColumnIndex];
+	}
+}
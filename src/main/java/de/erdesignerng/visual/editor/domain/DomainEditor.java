@@ -179,6 +179,7 @@ public class DomainEditor extends BaseEditor {
                 model.addDomain(theDomain);
             } else {
                 theOriginalDomain.restoreFrom(theDomain);
+                model.markDirty(theOriginalDomain);
             }
         }
     }
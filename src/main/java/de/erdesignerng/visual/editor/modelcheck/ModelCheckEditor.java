@@ -23,7 +23,7 @@ import de.erdesignerng.model.check.ModelChecker;
 import de.erdesignerng.model.check.ModelError;
 import de.erdesignerng.model.check.QuickFix;
 import de.erdesignerng.util.ApplicationPreferences;
-import de.erdesignerng.visual.common.OutlineComponent;
+import de.erdesignerng.visual.common.ERDesignerComponent;
 import de.erdesignerng.visual.editor.BaseEditor;
 import de.erdesignerng.visual.editor.DialogConstants;
 import de.mogwai.common.client.looks.UIInitializer;
@@ -120,7 +120,7 @@ public class ModelCheckEditor extends BaseEditor {
             if (theFix != null) {
                 try {
                     theFix.applyTo(model);
-                    OutlineComponent.getDefault().refresh(model);
+                    ERDesignerComponent.getDefault().refreshOutline();
                 } catch (Exception e) {
                     LOGGER.error(e.getMessage(), e);
                 } finally {
@@ -20,6 +20,7 @@ package de.erdesignerng.visual.editor.preferences;
 import com.jgoodies.forms.layout.CellConstraints;
 import com.jgoodies.forms.layout.FormLayout;
 import de.erdesignerng.ERDesignerBundle;
+import de.erdesignerng.dialect.TransactionMode;
 import de.erdesignerng.model.CascadeType;
 import de.erdesignerng.util.ApplicationPreferences;
 import de.mogwai.common.client.binding.BindingInfo;
@@ -45,6 +46,14 @@ public class PreferencesPanel extends DefaultPanel implements
 
     private final DefaultSpinner xmlIndentation = new DefaultSpinner();
 
+    private final DefaultSpinner reverseEngineeringWorkerCount = new DefaultSpinner();
+
+    private final DefaultSpinner scriptBatchSize = new DefaultSpinner();
+
+    private final DefaultComboBox scriptTransactionMode = new DefaultComboBox();
+
+    private final DefaultSpinner dataBrowserQueryTimeout = new DefaultSpinner();
+
     private BindingInfo<ApplicationPreferences> bindinginfo;
 
     public PreferencesPanel() {
@@ -54,7 +63,7 @@ public class PreferencesPanel extends DefaultPanel implements
     private void initialize() {
 
         String theColDef = "2dlu,p,2dlu,p:grow,2dlu,20dlu,2";
-        String theRowDef = "2dlu,p,2dlu,p,2dlu,p,2dlu,p,2dlu,p,2dlu,p,2dlu,p,50dlu";
+        String theRowDef = "2dlu,p,2dlu,p,2dlu,p,2dlu,p,2dlu,p,2dlu,p,2dlu,p,2dlu,p,2dlu,p,2dlu,p,2dlu,p,50dlu";
 
         FormLayout theLayout = new FormLayout(theColDef, theRowDef);
         setLayout(theLayout);
@@ -94,6 +103,22 @@ public class PreferencesPanel extends DefaultPanel implements
         add(new DefaultLabel(ERDesignerBundle.XMLINDENTATION), cons.xy(2, 12));
         add(xmlIndentation, cons.xywh(4, 12, 3, 1));
 
+        add(new DefaultLabel(ERDesignerBundle.REVERSEENGINEERINGWORKERCOUNT), cons.xy(2, 14));
+        add(reverseEngineeringWorkerCount, cons.xywh(4, 14, 3, 1));
+
+        add(new DefaultLabel(ERDesignerBundle.SCRIPTBATCHSIZE), cons.xy(2, 16));
+        add(scriptBatchSize, cons.xywh(4, 16, 3, 1));
+
+        DefaultComboBoxModel<TransactionMode> theTransactionModeModel = new DefaultComboBoxModel<>(
+                TransactionMode.values());
+
+        add(new DefaultLabel(ERDesignerBundle.SCRIPTTRANSACTIONMODE), cons.xy(2, 18));
+        add(scriptTransactionMode, cons.xywh(4, 18, 3, 1));
+        scriptTransactionMode.setModel(theTransactionModeModel);
+
+        add(new DefaultLabel(ERDesignerBundle.DATABROWSERQUERYTIMEOUT), cons.xy(2, 20));
+        add(dataBrowserQueryTimeout, cons.xywh(4, 20, 3, 1));
+
         UIInitializer.getInstance().initialize(this);
 
         bindinginfo = new BindingInfo<>();
@@ -105,6 +130,13 @@ public class PreferencesPanel extends DefaultPanel implements
         bindinginfo.addBinding("gridWidthAfterReverseEngineering", gridWidth,
                 true);
         bindinginfo.addBinding("xmlIndentation", xmlIndentation, true);
+        bindinginfo.addBinding("reverseEngineeringWorkerCount",
+                reverseEngineeringWorkerCount, true);
+        bindinginfo.addBinding("scriptBatchSize", scriptBatchSize, true);
+        bindinginfo.addBinding("scriptTransactionMode", scriptTransactionMode,
+                true);
+        bindinginfo.addBinding("dataBrowserQueryTimeout",
+                dataBrowserQueryTimeout, true);
 
         bindinginfo.configure();
     }
@@ -145,6 +145,9 @@ public class RelationEditor extends BaseEditor {
 
         } else {
 
+            // The properties were changed in place
+            model.markDirty(theRelation);
+
             Relation theTempRelation = theRelation.clone();
             bindingInfo.setDefaultModel(theTempRelation);
             bindingInfo.view2model();
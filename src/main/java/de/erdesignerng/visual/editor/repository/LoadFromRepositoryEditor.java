@@ -24,7 +24,7 @@ import de.erdesignerng.visual.editor.DialogConstants;
 import de.mogwai.common.client.binding.BindingInfo;
 import de.mogwai.common.client.looks.UIInitializer;
 
-import javax.swing.*;
+import javax.swing.JComboBox;
 import java.awt.*;
 import java.util.List;
 
@@ -43,11 +43,18 @@ public class LoadFromRepositoryEditor extends BaseEditor {
 
 	public LoadFromRepositoryEditor(Component aParent,
 									List<RepositoryEntryDescriptor> aEntries) {
+		this(aParent, RepositoryEntryListModel.forEntries(aEntries));
+	}
+
+	public LoadFromRepositoryEditor(Component aParent, RepositoryEntryListModel aEntries) {
 		super(aParent, ERDesignerBundle.LOADMODELFROMDB);
 
-		DefaultComboBoxModel theModel = new DefaultComboBoxModel();
-        aEntries.forEach(theModel::addElement);
-		view.getExistingNameBox().setModel(theModel);
+		// Using a prototype, the box does not need to read all entries to compute its size.
+		// DefaultComboBox extends the raw JComboBox, the box only ever holds this model.
+		@SuppressWarnings("unchecked")
+		JComboBox<RepositoryEntryDescriptor> theBox = (JComboBox<RepositoryEntryDescriptor>) view.getExistingNameBox();
+		theBox.setPrototypeDisplayValue(aEntries.getPrototypeDisplayValue());
+		theBox.setModel(aEntries);
 
 		initialize();
 
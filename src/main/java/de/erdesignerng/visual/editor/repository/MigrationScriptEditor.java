@@ -31,6 +31,7 @@ import de.mogwai.common.client.looks.UIInitializer;
 import javax.swing.*;
 import java.awt.*;
 import java.text.MessageFormat;
+import java.util.List;
 
 /**
  * Editor to save models to a repository.
@@ -45,7 +46,7 @@ public class MigrationScriptEditor extends BaseEditor {
 	private final BindingInfo<MigrationScriptDataModel> bindingInfo = new BindingInfo<>(
 			new MigrationScriptDataModel());
 
-	private final RepositoryEntity repositoryEntity;
+	private final List<ChangeEntity> changes;
 
 	private final ConnectionProvider connectionProvider;
 
@@ -55,6 +56,14 @@ public class MigrationScriptEditor extends BaseEditor {
 			RepositoryEntity aRepositoryEntity,
 			ConnectionProvider aConnectionProvider,
 			ERDesignerWorldConnector aWorldConnector) {
+		this(aParent, aRepositoryEntity.getChanges(), aConnectionProvider,
+				aWorldConnector);
+	}
+
+	public MigrationScriptEditor(Component aParent,
+			List<ChangeEntity> aChanges,
+			ConnectionProvider aConnectionProvider,
+			ERDesignerWorldConnector aWorldConnector) {
 		super(aParent, ERDesignerBundle.CREATEMIGRATIONSCRIPT);
 
 		worldConnector = aWorldConnector;
@@ -63,17 +72,16 @@ public class MigrationScriptEditor extends BaseEditor {
 
 		DefaultComboBoxModel theModel = new DefaultComboBoxModel();
 		DefaultComboBoxModel theModel2 = new DefaultComboBoxModel();
-		for (ChangeEntity theEntry : aRepositoryEntity.getChanges()) {
-			theModel.addElement(new ChangeDescriptor(theEntry,
-					aRepositoryEntity.getChanges().indexOf(theEntry)));
-			theModel2.addElement(new ChangeDescriptor(theEntry,
-					aRepositoryEntity.getChanges().indexOf(theEntry)));
+		for (int i = 0; i < aChanges.size(); i++) {
+			ChangeEntity theEntry = aChanges.get(i);
+			theModel.addElement(new ChangeDescriptor(theEntry, i));
+			theModel2.addElement(new ChangeDescriptor(theEntry, i));
 		}
 
 		view.getSourceVersion().setModel(theModel);
 		view.getDestinationVersion().setModel(theModel2);
 
-		repositoryEntity = aRepositoryEntity;
+		changes = aChanges;
 		connectionProvider = aConnectionProvider;
 
 		bindingInfo.addBinding("sourceChange", view.getSourceVersion(), true);
@@ -113,8 +121,8 @@ public class MigrationScriptEditor extends BaseEditor {
 					"" + theModel.getSourceChange().getIndex(),
 					"" + theModel.getDestinationChange().getIndex() });
 
-			StatementList theStatements = repositoryEntity.createChangeLog(
-					theModel.getSourceChange().getChange(), theModel
+			StatementList theStatements = RepositoryEntity.createChangeLog(
+					changes, theModel.getSourceChange().getChange(), theModel
 							.getDestinationChange().getChange());
 
 			SQLEditor theEditor = new SQLEditor(this, connectionProvider,
@@ -0,0 +1,148 @@
+/**
+ * Mogwai ERDesigner. Copyright (C) 2002 The Mogwai Project.
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program; if not, write to the Free Software Foundation, Inc., 59 Temple
+ * Place - Suite 330, Boston, MA 02111-1307, USA.
+ */
+package de.erdesignerng.visual.editor.repository;
+
+import de.erdesignerng.model.serializer.repository.RepositoryEntryDescriptor;
+
+import javax.swing.*;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Combobox model for repository entries. The entries are read page by page
+ * when they are displayed for the first time.
+ * <p/>
+ * The first entry is selected initially, like a DefaultComboBoxModel does.
+ */
+public class RepositoryEntryListModel extends AbstractListModel<RepositoryEntryDescriptor> implements ComboBoxModel<RepositoryEntryDescriptor> {
+
+	private static final long serialVersionUID = 1L;
+
+	public static final int DEFAULT_PAGE_SIZE = 50;
+
+	public interface PageLoader {
+		List<RepositoryEntryDescriptor> loadPage(int aFirstResult, int aMaxResults) throws Exception;
+	}
+
+	private final transient PageLoader loader;
+
+	private final int size;
+
+	private final int pageSize;
+
+	private final RepositoryEntryDescriptor prototypeDisplayValue;
+
+	private final Map<Integer, List<RepositoryEntryDescriptor>> pages = new HashMap<>();
+
+	private Object selectedItem;
+
+	/**
+	 * Create a model for a list of entries already read.
+	 *
+	 * @param aEntries the entries
+	 * @return the model
+	 */
+	public static RepositoryEntryListModel forEntries(final List<RepositoryEntryDescriptor> aEntries) {
+		String theLongestName = null;
+		for (RepositoryEntryDescriptor theEntry : aEntries) {
+			if (theEntry.getName() != null && (theLongestName == null || theEntry.getName().length() > theLongestName.length())) {
+				theLongestName = theEntry.getName();
+			}
+		}
+		return new RepositoryEntryListModel(
+				(aFirstResult, aMaxResults) -> aEntries.subList(aFirstResult, Math.min(aFirstResult + aMaxResults, aEntries.size())),
+				aEntries.size(), theLongestName);
+	}
+
+	/**
+	 * Create a model.
+	 *
+	 * @param aLoader the loader reading the pages
+	 * @param aSize the number of entries
+	 * @param aLongestName the longest name of all entries, used to size the combobox
+	 */
+	public RepositoryEntryListModel(PageLoader aLoader, int aSize, String aLongestName) {
+		this(aLoader, aSize, aLongestName, DEFAULT_PAGE_SIZE);
+	}
+
+	public RepositoryEntryListModel(PageLoader aLoader, int aSize, String aLongestName, int aPageSize) {
+		loader = aLoader;
+		size = aSize;
+		pageSize = aPageSize;
+
+		if (aLongestName != null) {
+			prototypeDisplayValue = new RepositoryEntryDescriptor();
+			prototypeDisplayValue.setName(aLongestName);
+		} else {
+			prototypeDisplayValue = null;
+		}
+
+		if (size > 0) {
+			selectedItem = getElementAt(0);
+		}
+	}
+
+	/**
+	 * Get an entry as wide as the widest entry, so a combobox can compute its
+	 * size without reading all entries.
+	 *
+	 * @return the prototype, or null if there are no entries
+	 */
+	public RepositoryEntryDescriptor getPrototypeDisplayValue() {
+		return prototypeDisplayValue;
+	}
+
+	@Override
+	public int getSize() {
+		return size;
+	}
+
+	@Override
+	public RepositoryEntryDescriptor getElementAt(int aIndex) {
+		int thePage = aIndex / pageSize;
+		List<RepositoryEntryDescriptor> theEntries = pages.get(thePage);
+		if (theEntries == null) {
+			try {
+				theEntries = loader.loadPage(thePage * pageSize, pageSize);
+			} catch (Exception e) {
+				throw new RuntimeException(e);
+			}
+			pages.put(thePage, theEntries);
+		}
+		int theOffset = aIndex - thePage * pageSize;
+		if (theOffset < theEntries.size()) {
+			return theEntries.get(theOffset);
+		}
+		// The entry was deleted by someone else in the meantime
+		return null;
+	}
+
+	@Override
+	public void setSelectedItem(Object aItem) {
+		if (selectedItem == null ? aItem != null : !selectedItem.equals(aItem)) {
+			selectedItem = aItem;
+			fireContentsChanged(this, -1, -1);
+		}
+	}
+
+	@Override
+	public Object getSelectedItem() {
+		return selectedItem;
+	}
+}
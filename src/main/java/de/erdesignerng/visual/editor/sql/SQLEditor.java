@@ -20,7 +20,9 @@ package de.erdesignerng.visual.editor.sql;
 import de.erdesignerng.ERDesignerBundle;
 import de.erdesignerng.dialect.ConnectionProvider;
 import de.erdesignerng.dialect.Statement;
+import de.erdesignerng.dialect.StatementExecutor;
 import de.erdesignerng.dialect.StatementList;
+import de.erdesignerng.dialect.TransactionMode;
 import de.erdesignerng.io.SQLFileFilter;
 import de.erdesignerng.util.ApplicationPreferences;
 import de.erdesignerng.util.JDBCUtils;
@@ -41,6 +43,7 @@ import java.io.File;
 import java.io.FileWriter;
 import java.io.PrintWriter;
 import java.sql.Connection;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -146,47 +149,61 @@ public class SQLEditor extends BaseEditor {
         saveToFileAction.setEnabled(false);
         deleteAction.setEnabled(false);
 
+        DefaultListModel theModel = view.getSqlList().getModel();
+        List<Statement> theStatements = new ArrayList<>();
+        for (int i = 0; i < theModel.getSize(); i++) {
+            theStatements.add((Statement) theModel.get(i));
+        }
+
+        ApplicationPreferences thePreferences = ApplicationPreferences.getInstance();
+        int theBatchSize = thePreferences.getScriptBatchSize();
+        TransactionMode theTransactionMode = TransactionMode.AUTOCOMMIT;
+        if (connectionAdapter.supportsTransactionalDDL()) {
+            theTransactionMode = thePreferences.getScriptTransactionMode();
+        }
+        TransactionMode theMode = theTransactionMode;
+
         LongRunningTask<String> theTask = new LongRunningTask<String>(
                 worldConnector) {
+
+            /**
+             * The last statement executed, selected by the progress updates.
+             */
+            private volatile Statement lastExecuted;
+
             @Override
             public String doWork(MessagePublisher aPublisher) throws Exception {
 
-                DefaultListModel theModel = view.getSqlList().getModel();
-
                 Connection theConnection = null;
                 try {
 
                     theConnection = connectionAdapter.createConnection();
 
-                    for (int i = 0; i < theModel.getSize(); i++) {
-                        Statement theStatement = (Statement) theModel.get(i);
-                        if (!theStatement.isExecuted()) {
+                    StatementExecutor theExecutor = new StatementExecutor(theConnection);
+                    theExecutor.setBatchSize(theBatchSize);
+                    theExecutor.setTransactionMode(theMode);
 
-                            view.getSqlList().setSelectedIndex(i);
-                            view.getSqlList().ensureIndexIsVisible(i);
-
-                            java.sql.Statement theJDBCStatement = null;
-                            try {
-                                theJDBCStatement = theConnection
-                                        .createStatement();
-                                theJDBCStatement.execute(theStatement.getSql());
-
-                                theStatement.setExecuted(true);
-                            } catch (Exception e) {
-                                logFatalError(e);
-                                return null;
-                            } finally {
-                                if (theJDBCStatement != null) {
-                                    try {
-                                        theJDBCStatement.close();
-                                    } catch (Exception e) {
-                                        // Do nothing here
-                                    }
-                                }
-                                aPublisher.publishMessage("OK");
-                            }
+                    int theCount = 0;
+                    for (Statement theStatement : theStatements) {
+                        if (!theStatement.isExecuted()) {
+                            theCount++;
                         }
                     }
+                    int theTotal = theCount;
+                    long theStartTime = System.nanoTime();
+                    int[] theExecuted = new int[1];
+
+                    try {
+                        theExecutor.execute(theStatements, (aBatch, aTime) -> {
+                            theExecuted[0] += aBatch.size();
+                            lastExecuted = aBatch.get(aBatch.size() - 1);
+                            aPublisher.publishMessage(getResourceHelper().getFormattedText(
+                                    ERDesignerBundle.STATEMENTSEXECUTED, theExecuted[0], theTotal,
+                                    (System.nanoTime() - theStartTime) / 1000000));
+                        });
+                    } catch (Exception e) {
+                        logFatalError(e);
+                    }
                 } catch (Exception e) {
                     worldConnector.notifyAboutException(e);
                 } finally {
@@ -200,12 +217,19 @@ public class SQLEditor extends BaseEditor {
 
             @Override
             public void handleProcess(List<String> aValue) {
-                view.getSqlList().invalidate();
+                // The updates are coalesced by the worker, only the latest
+                // one is shown
+                worldConnector.setStatusText(aValue.get(aValue.size() - 1));
+                Statement theStatement = lastExecuted;
+                if (theStatement != null) {
+                    view.getSqlList().setSelectedValue(theStatement, true);
+                }
                 view.getSqlList().repaint();
             }
 
             @Override
             public void handleResult(String aResult) {
+                view.getSqlList().repaint();
                 closeAction.setEnabled(true);
                 executeAction.setEnabled(true);
                 saveToFileAction.setEnabled(true);
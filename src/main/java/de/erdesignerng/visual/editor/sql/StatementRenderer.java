@@ -17,9 +17,11 @@
  */
 package de.erdesignerng.visual.editor.sql;
 
+import de.erdesignerng.ERDesignerBundle;
 import de.erdesignerng.dialect.Statement;
 import de.mogwai.common.client.looks.UIInitializer;
 import de.mogwai.common.client.looks.components.DefaultTextArea;
+import de.mogwai.common.i18n.ResourceHelper;
 
 import javax.swing.*;
 import java.awt.*;
@@ -30,6 +32,8 @@ public class StatementRenderer implements ListCellRenderer {
 
 	private final UIInitializer initializer = UIInitializer.getInstance();
 
+	private final ResourceHelper helper = ResourceHelper.getResourceHelper(ERDesignerBundle.BUNDLE_NAME);
+
 	@Override
 	public Component getListCellRendererComponent(JList aList, Object aValue, int aIndex, boolean isSelected,
 			boolean cellHasFocus) {
@@ -42,6 +46,12 @@ public class StatementRenderer implements ListCellRenderer {
 		}
 
 		component.setText(theStatement.getSql());
+		if (theStatement.getExecutionTime() >= 0) {
+			component.setToolTipText(helper.getFormattedText(ERDesignerBundle.STATEMENTEXECUTIONTIME,
+					String.format("%.1f", theStatement.getExecutionTime() / 1000000.0)));
+		} else {
+			component.setToolTipText(null);
+		}
 		if (isSelected) {
 			component.setBackground(initializer.getConfiguration().getDefaultListSelectionBackground());
 		} else {
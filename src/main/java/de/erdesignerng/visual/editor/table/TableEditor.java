@@ -602,7 +602,10 @@ public class TableEditor extends BaseEditor {
 
 			model.addTable(theTable);
 		} else {
-			// The table exists already in the model
+			// The table exists already in the model, its properties and the
+			// properties of its indexes were changed in place
+			model.markDirty(theTable);
+
 			Table theTempTable = new Table();
 
 			tableBindingInfo.setDefaultModel(theTempTable);
@@ -0,0 +1,272 @@
+/**
+ * Mogwai ERDesigner. Copyright (C) 2002 The Mogwai Project.
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program; if not, write to the Free Software Foundation, Inc., 59 Temple
+ * Place - Suite 330, Boston, MA 02111-1307, USA.
+ */
+package de.erdesignerng.visual.jgraph;
+
+import de.mogwai.layout.ElectricSpringLayout;
+import de.mogwai.layout.Force;
+
+import java.awt.Point;
+import java.awt.geom.Rectangle2D;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Quadtree over the elements of a layout to compute the electric repulsion
+ * with the Barnes-Hut approximation.
+ * <p/>
+ * The repulsion of a group of elements far enough away is computed from
+ * their total load at their center of load, so the repulsion of all
+ * elements is computed in O(n log n) instead of O(n^2). Elements close to
+ * each other and overlapping elements are computed one by one, the same way
+ * ElectricSpringLayout does.
+ */
+public class BarnesHutTree {
+
+    /**
+     * A group of elements is approximated if the size of its quadrant
+     * divided by its distance is below this value.
+     */
+    public static final double THETA = 0.5;
+
+    private static final int MAX_ELEMENTS_PER_LEAF = 8;
+
+    private static final int MAX_DEPTH = 20;
+
+    private static final class Node {
+
+        private final int[] elements;
+
+        private final Node[] children;
+
+        private final double size;
+
+        private double load;
+
+        private double centerX;
+
+        private double centerY;
+
+        /**
+         * The union of the boundaries of all elements of the node.
+         */
+        private double minX = Double.MAX_VALUE;
+
+        private double minY = Double.MAX_VALUE;
+
+        private double maxX = -Double.MAX_VALUE;
+
+        private double maxY = -Double.MAX_VALUE;
+
+        private Node(int[] aElements, Node[] aChildren, double aSize) {
+            elements = aElements;
+            children = aChildren;
+            size = aSize;
+        }
+    }
+
+    private final ElectricSpringLayout<VertexCellElement, ?> layout;
+
+    private final double[] x;
+
+    private final double[] y;
+
+    private final double[] load;
+
+    private final double[] radius;
+
+    private final Rectangle2D[] boundaries;
+
+    private final Node root;
+
+    /**
+     * Build the tree over the current positions of the elements.
+     *
+     * @param aLayout   the layout computing the load and the repulsion
+     * @param aElements the elements
+     */
+    public BarnesHutTree(ElectricSpringLayout<VertexCellElement, ?> aLayout, List<VertexCellElement> aElements) {
+        layout = aLayout;
+
+        int theCount = aElements.size();
+        x = new double[theCount];
+        y = new double[theCount];
+        load = new double[theCount];
+        radius = new double[theCount];
+        boundaries = new Rectangle2D[theCount];
+
+        double theMinX = Double.MAX_VALUE;
+        double theMinY = Double.MAX_VALUE;
+        double theMaxX = -Double.MAX_VALUE;
+        double theMaxY = -Double.MAX_VALUE;
+        int[] theAll = new int[theCount];
+        for (int i = 0; i < theCount; i++) {
+            VertexCellElement theElement = aElements.get(i);
+            Point thePoint = theElement.getForcePoint();
+            x[i] = thePoint.x;
+            y[i] = thePoint.y;
+            load[i] = aLayout.computeElectricLoad(theElement);
+            radius[i] = theElement.computeRadius();
+            boundaries[i] = theElement.getBoundaries();
+            theAll[i] = i;
+
+            theMinX = Math.min(theMinX, x[i]);
+            theMinY = Math.min(theMinY, y[i]);
+            theMaxX = Math.max(theMaxX, x[i]);
+            theMaxY = Math.max(theMaxY, y[i]);
+        }
+
+        if (theCount > 0) {
+            double theSize = Math.max(1, Math.max(theMaxX - theMinX, theMaxY - theMinY));
+            root = build(theAll, theCount, theMinX, theMinY, theSize, 0);
+        } else {
+            root = null;
+        }
+    }
+
+    private Node build(int[] aElements, int aCount, double aX, double aY, double aSize, int aDepth) {
+        Node theNode;
+        if (aCount <= MAX_ELEMENTS_PER_LEAF || aDepth >= MAX_DEPTH) {
+            int[] theElements = new int[aCount];
+            System.arraycopy(aElements, 0, theElements, 0, aCount);
+            theNode = new Node(theElements, null, aSize);
+            for (int theElement : theElements) {
+                add(theNode, theElement);
+            }
+        } else {
+            double theHalf = aSize / 2;
+            int[][] theQuadrants = new int[4][aCount];
+            int[] theCounts = new int[4];
+            for (int i = 0; i < aCount; i++) {
+                int theElement = aElements[i];
+                int theQuadrant = (x[theElement] < aX + theHalf ? 0 : 1) + (y[theElement] < aY + theHalf ? 0 : 2);
+                theQuadrants[theQuadrant][theCounts[theQuadrant]++] = theElement;
+            }
+            Node[] theChildren = new Node[4];
+            theNode = new Node(null, theChildren, aSize);
+            for (int i = 0; i < 4; i++) {
+                if (theCounts[i] > 0) {
+                    Node theChild = build(theQuadrants[i], theCounts[i], aX + (i % 2) * theHalf,
+                            aY + (i / 2) * theHalf, theHalf, aDepth + 1);
+                    theChildren[i] = theChild;
+                    theNode.load += theChild.load;
+                    theNode.centerX += theChild.centerX * theChild.load;
+                    theNode.centerY += theChild.centerY * theChild.load;
+                    theNode.minX = Math.min(theNode.minX, theChild.minX);
+                    theNode.minY = Math.min(theNode.minY, theChild.minY);
+                    theNode.maxX = Math.max(theNode.maxX, theChild.maxX);
+                    theNode.maxY = Math.max(theNode.maxY, theChild.maxY);
+                }
+            }
+        }
+        finish(theNode);
+        return theNode;
+    }
+
+    private void add(Node aNode, int aElement) {
+        aNode.load += load[aElement];
+        aNode.centerX += x[aElement] * load[aElement];
+        aNode.centerY += y[aElement] * load[aElement];
+        Rectangle2D theBoundaries = boundaries[aElement];
+        aNode.minX = Math.min(aNode.minX, theBoundaries.getMinX());
+        aNode.minY = Math.min(aNode.minY, theBoundaries.getMinY());
+        aNode.maxX = Math.max(aNode.maxX, theBoundaries.getMaxX());
+        aNode.maxY = Math.max(aNode.maxY, theBoundaries.getMaxY());
+    }
+
+    private static void finish(Node aNode) {
+        if (aNode.load > 0) {
+            aNode.centerX /= aNode.load;
+            aNode.centerY /= aNode.load;
+        } else {
+            aNode.centerX = (aNode.minX + aNode.maxX) / 2;
+            aNode.centerY = (aNode.minY + aNode.maxY) / 2;
+        }
+    }
+
+    /**
+     * Add the repulsion of all other elements to the force of an element.
+     *
+     * @param aElement the index of the element in the list the tree was built from
+     * @param aForce   the force to add to
+     */
+    public void addRepulsion(int aElement, Force aForce) {
+        if (root != null) {
+            addRepulsion(root, aElement, aForce);
+        }
+    }
+
+    private void addRepulsion(Node aNode, int aElement, Force aForce) {
+        if (aNode.elements != null) {
+            for (int theOther : aNode.elements) {
+                if (theOther != aElement) {
+                    addRepulsion(aElement, theOther, aForce);
+                }
+            }
+            return;
+        }
+
+        double theDx = aNode.centerX - x[aElement];
+        double theDy = aNode.centerY - y[aElement];
+        double theDistance = Math.sqrt(theDx * theDx + theDy * theDy);
+        if (theDistance > 0 && aNode.size < THETA * theDistance && !intersects(boundaries[aElement], aNode)) {
+            double theRepulsion = -layout.computeRepulsion(load[aElement], theDistance, aNode.load);
+            aForce.addForce(theDx / theDistance * theRepulsion, theDy / theDistance * theRepulsion);
+            return;
+        }
+
+        for (Node theChild : aNode.children) {
+            if (theChild != null) {
+                addRepulsion(theChild, aElement, aForce);
+            }
+        }
+    }
+
+    /**
+     * Add the repulsion of one element to the force of another, the same
+     * way ElectricSpringLayout does.
+     */
+    private void addRepulsion(int aElement, int aOther, Force aForce) {
+        double theDx = x[aOther] - x[aElement];
+        double theDy = y[aOther] - y[aElement];
+        double theDistance = Math.sqrt(theDx * theDx + theDy * theDy);
+        if (boundaries[aElement].intersects(boundaries[aOther])) {
+            // Overlapping elements are pushed apart by half of their radius
+            double theForce = -radius[aElement] / 2;
+            double theAngle;
+            if (theDistance >= 1) {
+                theAngle = Math.atan2(theDy, theDx);
+            } else {
+                theAngle = Math.toRadians(ThreadLocalRandom.current().nextDouble() * 360);
+            }
+            aForce.addForce(Math.cos(theAngle) * theForce, Math.sin(theAngle) * theForce);
+        } else if (theDistance > 0) {
+            double theRepulsion = -layout.computeRepulsion(load[aElement], theDistance, load[aOther]);
+            aForce.addForce(theDx / theDistance * theRepulsion, theDy / theDistance * theRepulsion);
+        }
+    }
+
+    /**
+     * Test if the boundaries of an element might intersect the boundaries of
+     * an element of a node, with the same semantics as
+     * Rectangle2D.intersects.
+     */
+    private static boolean intersects(Rectangle2D aBoundaries, Node aNode) {
+        return !aBoundaries.isEmpty() && aBoundaries.getMaxX() > aNode.minX && aBoundaries.getMaxY() > aNode.minY
+                && aBoundaries.getMinX() < aNode.maxX && aBoundaries.getMinY() < aNode.maxY;
+    }
+}
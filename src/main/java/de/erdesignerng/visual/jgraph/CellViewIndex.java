@@ -0,0 +1,400 @@
+/**
+ * Mogwai ERDesigner. Copyright (C) 2002 The Mogwai Project.
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program; if not, write to the Free Software Foundation, Inc., 59 Temple
+ * Place - Suite 330, Boston, MA 02111-1307, USA.
+ */
+package de.erdesignerng.visual.jgraph;
+
+import org.jgraph.event.GraphLayoutCacheEvent;
+import org.jgraph.graph.AbstractCellView;
+import org.jgraph.graph.CellView;
+import org.jgraph.graph.DefaultGraphModel;
+import org.jgraph.graph.GraphLayoutCache;
+import org.jgraph.graph.GraphModel;
+import org.jgraph.graph.PortView;
+
+import java.awt.geom.Rectangle2D;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.Stack;
+import java.util.function.ToIntFunction;
+
+/**
+ * Spatial index of the visible cell views of a graph layout cache.
+ * <p/>
+ * The graph is divided into a grid of square buckets, every view is put into
+ * the buckets its bounds intersect, so the views at a point or in a
+ * rectangle are found without looking at all views. The bounds of moved
+ * views are updated from the change events of the graph. The index is
+ * rebuilt on the first query after cells were added or removed.
+ * <p/>
+ * The views are returned in the order JGraph uses for the same query, so
+ * hit testing with the index gives the same results as without.
+ */
+public class CellViewIndex {
+
+    public static final double BUCKET_SIZE = 256;
+
+    private static class Entry {
+
+        private final CellView view;
+
+        /**
+         * Position in the roots of the layout cache, or -1.
+         */
+        private int rootOrder = -1;
+
+        /**
+         * Position in the descendant views of the roots.
+         */
+        private int viewOrder;
+
+        /**
+         * Position in the descendant cells of the model roots.
+         */
+        private int cellOrder;
+
+        /**
+         * Position in the traversal of the selection model.
+         */
+        private int selectionOrder;
+
+        private Rectangle2D bounds;
+
+        /**
+         * Port views are not child views of their vertex, they are
+         * indexed for the port queries only.
+         */
+        private boolean port;
+
+        private Entry(CellView aView) {
+            view = aView;
+        }
+    }
+
+    private final Map<Long, Set<Entry>> buckets = new HashMap<>();
+
+    private final Map<CellView, Entry> entries = new IdentityHashMap<>();
+
+    private GraphLayoutCache layoutCache;
+
+    private boolean valid;
+
+    private static long key(int aColumn, int aRow) {
+        return ((long) aColumn << 32) | (aRow & 0xffffffffL);
+    }
+
+    private static int bucket(double aCoordinate) {
+        return (int) Math.floor(aCoordinate / BUCKET_SIZE);
+    }
+
+    /**
+     * Mark the index as outdated. It is rebuilt on the next query.
+     */
+    public synchronized void invalidate() {
+        valid = false;
+    }
+
+    /**
+     * Update the index after a change of the graph model or the layout
+     * cache. Moved cells are updated, the index is invalidated if cells were
+     * added or removed.
+     *
+     * @param aChange the change
+     */
+    public synchronized void graphChanged(GraphLayoutCacheEvent.GraphLayoutCacheChange aChange) {
+        if (!valid) {
+            return;
+        }
+        if (!isEmpty(aChange.getInserted()) || !isEmpty(aChange.getRemoved())) {
+            valid = false;
+            return;
+        }
+        update(aChange.getChanged());
+        update(aChange.getContext());
+        if (valid && !isEmpty(aChange.getChanged())) {
+            // The edges connected to moved cells are moved as well
+            update(DefaultGraphModel.getEdges(layoutCache.getModel(), aChange.getChanged()).toArray());
+        }
+    }
+
+    private static boolean isEmpty(Object[] aCells) {
+        return aCells == null || aCells.length == 0;
+    }
+
+    private void update(Object[] aCells) {
+        if (aCells == null) {
+            return;
+        }
+        for (Object theCell : aCells) {
+            if (!valid) {
+                return;
+            }
+            CellView theView = layoutCache.getMapping(theCell, false);
+            if (theView != null) {
+                updateWithDescendants(theView);
+                for (CellView theParent = theView.getParentView(); theParent != null; theParent = theParent
+                        .getParentView()) {
+                    updateView(theParent);
+                }
+            }
+        }
+    }
+
+    private void updateWithDescendants(CellView aView) {
+        updateView(aView);
+        GraphModel theModel = layoutCache.getModel();
+        Object theCell = aView.getCell();
+        for (int i = 0; i < theModel.getChildCount(theCell); i++) {
+            CellView thePort = layoutCache.getMapping(theModel.getChild(theCell, i), false);
+            if (thePort instanceof PortView) {
+                updateView(thePort);
+            }
+        }
+        CellView[] theChildren = aView.getChildViews();
+        if (theChildren != null) {
+            for (CellView theChild : theChildren) {
+                updateWithDescendants(theChild);
+            }
+        }
+    }
+
+    private void updateView(CellView aView) {
+        Entry theEntry = entries.get(aView);
+        if (theEntry == null) {
+            // A view unknown to the index, so the structure has changed
+            valid = false;
+            return;
+        }
+        remove(theEntry);
+        add(theEntry);
+    }
+
+    private void add(Entry aEntry) {
+        Rectangle2D theBounds = aEntry.view.getBounds();
+        if (theBounds != null) {
+            theBounds = (Rectangle2D) theBounds.clone();
+            for (int theRow = bucket(theBounds.getMinY()); theRow <= bucket(theBounds.getMaxY()); theRow++) {
+                for (int theColumn = bucket(theBounds.getMinX()); theColumn <= bucket(theBounds.getMaxX()); theColumn++) {
+                    buckets.computeIfAbsent(key(theColumn, theRow), k -> new LinkedHashSet<>()).add(aEntry);
+                }
+            }
+        }
+        aEntry.bounds = theBounds;
+    }
+
+    private void remove(Entry aEntry) {
+        Rectangle2D theBounds = aEntry.bounds;
+        if (theBounds != null) {
+            for (int theRow = bucket(theBounds.getMinY()); theRow <= bucket(theBounds.getMaxY()); theRow++) {
+                for (int theColumn = bucket(theBounds.getMinX()); theColumn <= bucket(theBounds.getMaxX()); theColumn++) {
+                    long theKey = key(theColumn, theRow);
+                    Set<Entry> theBucket = buckets.get(theKey);
+                    if (theBucket != null) {
+                        theBucket.remove(aEntry);
+                        if (theBucket.isEmpty()) {
+                            buckets.remove(theKey);
+                        }
+                    }
+                }
+            }
+        }
+        aEntry.bounds = null;
+    }
+
+    private void rebuild(GraphLayoutCache aLayoutCache) {
+        buckets.clear();
+        entries.clear();
+
+        CellView[] theRoots = aLayoutCache.getRoots();
+        CellView[] theViews = AbstractCellView.getDescendantViews(theRoots);
+        for (int i = 0; i < theViews.length; i++) {
+            Entry theEntry = new Entry(theViews[i]);
+            theEntry.viewOrder = i;
+            entries.put(theViews[i], theEntry);
+        }
+        for (int i = 0; i < theRoots.length; i++) {
+            Entry theEntry = entries.get(theRoots[i]);
+            if (theEntry != null) {
+                theEntry.rootOrder = i;
+            }
+        }
+
+        PortView[] thePorts = aLayoutCache.getPorts();
+        for (int i = 0; thePorts != null && i < thePorts.length; i++) {
+            PortView thePort = thePorts[i];
+            if (!entries.containsKey(thePort)) {
+                Entry theEntry = new Entry(thePort);
+                theEntry.port = true;
+                theEntry.viewOrder = Integer.MAX_VALUE;
+                entries.put(thePort, theEntry);
+            }
+        }
+
+        GraphModel theModel = aLayoutCache.getModel();
+
+        // The order of DefaultGraphModel.getDescendants, used for the ports
+        Map<Object, Integer> theCellOrder = new IdentityHashMap<>();
+        for (Object theCell : DefaultGraphModel.getDescendants(theModel, DefaultGraphModel.getRoots(theModel))) {
+            theCellOrder.putIfAbsent(theCell, theCellOrder.size());
+        }
+
+        // The order of DefaultGraphSelectionModel.getSelectables
+        Map<Object, Integer> theSelectionOrder = new IdentityHashMap<>();
+        Stack<Object> theStack = new Stack<>();
+        for (int i = 0; i < theModel.getRootCount(); i++) {
+            theStack.add(theModel.getRootAt(i));
+        }
+        while (!theStack.isEmpty()) {
+            Object theCell = theStack.pop();
+            theSelectionOrder.putIfAbsent(theCell, theSelectionOrder.size());
+            for (int i = 0; i < theModel.getChildCount(theCell); i++) {
+                theStack.add(theModel.getChild(theCell, i));
+            }
+        }
+
+        for (Entry theEntry : entries.values()) {
+            Object theCell = theEntry.view.getCell();
+            theEntry.cellOrder = theCellOrder.getOrDefault(theCell, Integer.MAX_VALUE);
+            theEntry.selectionOrder = theSelectionOrder.getOrDefault(theCell, Integer.MAX_VALUE);
+            add(theEntry);
+        }
+
+        layoutCache = aLayoutCache;
+        valid = true;
+    }
+
+    private void ensureValid(GraphLayoutCache aLayoutCache) {
+        if (!valid || layoutCache != aLayoutCache) {
+            rebuild(aLayoutCache);
+        }
+    }
+
+    /**
+     * Find the entries whose buckets intersect a region.
+     */
+    private Collection<Entry> find(Rectangle2D aRegion) {
+        Set<Entry> theResult = new LinkedHashSet<>();
+        for (int theRow = bucket(aRegion.getMinY()); theRow <= bucket(aRegion.getMaxY()); theRow++) {
+            for (int theColumn = bucket(aRegion.getMinX()); theColumn <= bucket(aRegion.getMaxX()); theColumn++) {
+                Set<Entry> theBucket = buckets.get(key(theColumn, theRow));
+                if (theBucket != null) {
+                    theResult.addAll(theBucket);
+                }
+            }
+        }
+        return theResult;
+    }
+
+    private static List<CellView> sort(Collection<Entry> aEntries, ToIntFunction<Entry> aOrder) {
+        List<Entry> theEntries = new ArrayList<>(aEntries);
+        theEntries.sort(Comparator.comparingInt(aOrder));
+        List<CellView> theResult = new ArrayList<>(theEntries.size());
+        for (Entry theEntry : theEntries) {
+            theResult.add(theEntry.view);
+        }
+        return theResult;
+    }
+
+    /**
+     * Get the root views whose bounds intersect a region.
+     *
+     * @param aLayoutCache the layout cache
+     * @param aRegion      the region in graph coordinates
+     * @return the views in the order of the roots of the layout cache
+     */
+    public synchronized List<CellView> getRoots(GraphLayoutCache aLayoutCache, Rectangle2D aRegion) {
+        ensureValid(aLayoutCache);
+        List<Entry> theResult = new ArrayList<>();
+        for (Entry theEntry : find(aRegion)) {
+            if (theEntry.rootOrder >= 0 && theEntry.bounds.intersects(aRegion)) {
+                theResult.add(theEntry);
+            }
+        }
+        return sort(theResult, theEntry -> theEntry.rootOrder);
+    }
+
+    /**
+     * Get the views which might intersect a region, in the order of
+     * AbstractCellView.getDescendantViews for the roots.
+     *
+     * @param aLayoutCache the layout cache
+     * @param aRegion      the region in graph coordinates
+     * @param aInclude     a view to include in any case, or null
+     * @return the views
+     */
+    public synchronized List<CellView> getDescendantViews(GraphLayoutCache aLayoutCache, Rectangle2D aRegion,
+                                                          CellView aInclude) {
+        return getViews(aLayoutCache, aRegion, aInclude, theEntry -> theEntry.viewOrder);
+    }
+
+    /**
+     * Get the views which might intersect a region, in the order of the
+     * selectable cells of the selection model.
+     *
+     * @param aLayoutCache the layout cache
+     * @param aRegion      the region in graph coordinates
+     * @param aInclude     a view to include in any case, or null
+     * @return the views
+     */
+    public synchronized List<CellView> getSelectableViews(GraphLayoutCache aLayoutCache, Rectangle2D aRegion,
+                                                          CellView aInclude) {
+        return getViews(aLayoutCache, aRegion, aInclude, theEntry -> theEntry.selectionOrder);
+    }
+
+    /**
+     * Get the port views which might intersect a region, in the order of
+     * GraphLayoutCache.getPorts.
+     *
+     * @param aLayoutCache the layout cache
+     * @param aRegion      the region in graph coordinates
+     * @return the port views
+     */
+    public synchronized List<PortView> getPorts(GraphLayoutCache aLayoutCache, Rectangle2D aRegion) {
+        ensureValid(aLayoutCache);
+        List<Entry> thePorts = new ArrayList<>();
+        for (Entry theEntry : find(aRegion)) {
+            if (theEntry.port) {
+                thePorts.add(theEntry);
+            }
+        }
+        List<PortView> theResult = new ArrayList<>();
+        for (CellView theView : sort(thePorts, theEntry -> theEntry.cellOrder)) {
+            theResult.add((PortView) theView);
+        }
+        return theResult;
+    }
+
+    private List<CellView> getViews(GraphLayoutCache aLayoutCache, Rectangle2D aRegion, CellView aInclude,
+                                    ToIntFunction<Entry> aOrder) {
+        ensureValid(aLayoutCache);
+        Collection<Entry> theEntries = find(aRegion);
+        theEntries.removeIf(theEntry -> theEntry.port);
+        if (aInclude != null) {
+            Entry theEntry = entries.get(aInclude);
+            if (theEntry != null) {
+                theEntries.add(theEntry);
+            }
+        }
+        return sort(theEntries, aOrder);
+    }
+}
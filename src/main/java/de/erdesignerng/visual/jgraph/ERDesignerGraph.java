@@ -29,27 +29,36 @@ import de.erdesignerng.model.SubjectArea;
 import de.erdesignerng.model.Table;
 import de.erdesignerng.model.View;
 import de.erdesignerng.modificationtracker.VetoException;
+import de.erdesignerng.util.SQLUtils;
 import de.erdesignerng.visual.DisplayLevel;
 import de.erdesignerng.visual.DisplayOrder;
 import de.erdesignerng.visual.MessagesHelper;
 import de.erdesignerng.visual.jgraph.cells.CommentCell;
 import de.erdesignerng.visual.jgraph.cells.HideableCell;
+import de.erdesignerng.visual.jgraph.cells.ModelCell;
 import de.erdesignerng.visual.jgraph.cells.RelationEdge;
 import de.erdesignerng.visual.jgraph.cells.SubjectAreaCell;
 import de.erdesignerng.visual.jgraph.cells.TableCell;
 import de.erdesignerng.visual.jgraph.cells.ViewCell;
 import de.erdesignerng.visual.jgraph.cells.views.RelationEdgeView;
+import de.erdesignerng.visual.jgraph.plaf.basic.ERDesignerGraphUI;
 import de.erdesignerng.visual.jgraph.tools.BaseTool;
+import org.apache.log4j.Logger;
 import org.jgraph.JGraph;
+import org.jgraph.graph.AttributeMap;
 import org.jgraph.graph.CellView;
 import org.jgraph.graph.DefaultGraphCell;
 import org.jgraph.graph.DefaultPort;
+import org.jgraph.graph.GraphConstants;
 import org.jgraph.graph.GraphLayoutCache;
 import org.jgraph.graph.GraphModel;
+import org.jgraph.graph.PortView;
 
+import java.awt.Rectangle;
 import java.awt.geom.Point2D;
 import java.awt.geom.Rectangle2D;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -62,6 +71,13 @@ import java.util.stream.Collectors;
  */
 public abstract class ERDesignerGraph extends JGraph {
 
+    private static final Logger LOGGER = Logger.getLogger(ERDesignerGraph.class);
+
+    /**
+     * Below this scale only the names of the tables are displayed.
+     */
+    public static final double REDUCED_DETAIL_SCALE = 0.4;
+
     private final Model model;
 
     private boolean displayComments;
@@ -72,6 +88,10 @@ public abstract class ERDesignerGraph extends JGraph {
 
     private DisplayOrder displayOrder = DisplayOrder.NATURAL;
 
+    private boolean tiledRendering = true;
+
+    private final transient CellViewIndex cellViewIndex = new CellViewIndex();
+
     public ERDesignerGraph(Model aDBModel, GraphModel aModel,
                            GraphLayoutCache aLayoutCache) {
         super(aModel, aLayoutCache);
@@ -309,8 +329,152 @@ public abstract class ERDesignerGraph extends JGraph {
         this.dragging = dragging;
     }
 
+    /**
+     * @return true if the cells are painted into cached tiles
+     */
+    public boolean isTiledRendering() {
+        return tiledRendering;
+    }
+
+    /**
+     * @param aTiledRendering true if the cells shall be painted into cached tiles
+     */
+    public void setTiledRendering(boolean aTiledRendering) {
+        tiledRendering = aTiledRendering;
+        repaint();
+    }
+
+    /**
+     * Test if the graph is zoomed out so far that only the names of the
+     * tables are displayed. Printed and exported graphs are always complete.
+     *
+     * @return true if the details are omitted
+     */
+    public boolean isReducedDetail() {
+        return getScale() < REDUCED_DETAIL_SCALE && !isPaintingForPrint();
+    }
+
+    /**
+     * @return the spatial index of the cell views
+     */
+    public CellViewIndex getCellViewIndex() {
+        return cellViewIndex;
+    }
+
+    /**
+     * Get the region hit by a mouse event, the same way JGraph does.
+     */
+    private Rectangle2D getHitRegion(double aX, double aY) {
+        int theTolerance = getTolerance();
+        Rectangle2D theRegion = fromScreen(new Rectangle2D.Double(aX - theTolerance, aY - theTolerance,
+                2 * theTolerance, 2 * theTolerance));
+        if (theRegion.getWidth() < 1) {
+            theRegion.setFrame(theRegion.getX(), theRegion.getY(), 1, theRegion.getHeight());
+        }
+        if (theRegion.getHeight() < 1) {
+            theRegion.setFrame(theRegion.getX(), theRegion.getY(), theRegion.getWidth(), 1);
+        }
+        return theRegion;
+    }
+
+    @Override
+    public CellView getNextViewAt(CellView aCurrent, double aX, double aY, boolean aLeafsOnly) {
+        List<CellView> theViews = cellViewIndex.getDescendantViews(getGraphLayoutCache(), getHitRegion(aX, aY),
+                aCurrent);
+        return getNextViewAt(theViews.toArray(new CellView[theViews.size()]), aCurrent, aX, aY, aLeafsOnly);
+    }
+
+    @Override
+    public CellView getNextSelectableViewAt(CellView aCurrent, double aX, double aY) {
+        List<CellView> theViews = cellViewIndex.getSelectableViews(getGraphLayoutCache(), getHitRegion(aX, aY),
+                aCurrent);
+        theViews.removeIf(theView -> !isSelectable(theView.getCell()));
+        return getNextViewAt(theViews.toArray(new CellView[theViews.size()]), aCurrent, aX, aY);
+    }
+
+    /**
+     * Test if a cell is one of the selectables of the selection model.
+     */
+    private boolean isSelectable(Object aCell) {
+        GraphModel theModel = getModel();
+        if (!getSelectionModel().isChildrenSelectable()) {
+            // Only the roots are selectable then
+            return theModel.getParent(aCell) == null;
+        }
+        if (theModel.isPort(aCell)) {
+            return false;
+        }
+        AttributeMap theAttributes = getAttributes(aCell);
+        if (theAttributes != null && !GraphConstants.isSelectable(theAttributes)) {
+            return false;
+        }
+        for (Object theParent = theModel.getParent(aCell); theParent != null; theParent = theModel
+                .getParent(theParent)) {
+            AttributeMap theParentAttributes = theModel.getAttributes(theParent);
+            if (theParentAttributes != null && !GraphConstants.isChildrenSelectable(theParentAttributes)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public PortView getPortViewAt(double aX, double aY, int aTolerance) {
+        double theX = aX / getScale();
+        double theY = aY / getScale();
+        Rectangle2D theRegion = new Rectangle2D.Double(theX - aTolerance, theY - aTolerance, 2 * aTolerance,
+                2 * aTolerance);
+        List<PortView> thePorts = cellViewIndex.getPorts(getGraphLayoutCache(), theRegion);
+        for (int i = thePorts.size() - 1; i >= 0; i--) {
+            PortView thePort = thePorts.get(i);
+            if (thePort.intersects(this, theRegion)) {
+                return thePort;
+            }
+        }
+        if (isJumpToDefaultPort()) {
+            CellView theView = getNextViewAt(null, aX, aY, true);
+            // Do not jump to the default ports of edges
+            if (theView != null && getModel().isEdge(theView.getCell())) {
+                CellView theFirst = theView;
+                theView = getNextViewAt(theView, aX, aY, true);
+                while (theView != theFirst && getModel().isEdge(theView.getCell())) {
+                    theView = getNextViewAt(theView, aX, aY, true);
+                }
+            }
+            if (theView != null) {
+                return getDefaultPortForCell(theView.getCell());
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public Object[] getRoots(Rectangle aClip) {
+        List<CellView> theViews = cellViewIndex.getRoots(getGraphLayoutCache(), aClip);
+        Object[] theCells = new Object[theViews.size()];
+        for (int i = 0; i < theCells.length; i++) {
+            theCells[i] = theViews.get(i).getCell();
+        }
+        return theCells;
+    }
+
+    @Override
+    public void addOffscreenDirty(Rectangle2D aRegion) {
+        super.addOffscreenDirty(aRegion);
+        if (aRegion != null && getUI() instanceof ERDesignerGraphUI) {
+            ((ERDesignerGraphUI) getUI()).invalidateTiles(aRegion);
+        }
+    }
+
     @Override
     public void repaint() {
+        if (cellViewIndex != null) {
+            // The views might have been resized without an event
+            cellViewIndex.invalidate();
+        }
+        if (getUI() instanceof ERDesignerGraphUI) {
+            ((ERDesignerGraphUI) getUI()).invalidateTiles(null);
+        }
         addOffscreenDirty(new Rectangle2D.Double(0, 0, getWidth(), getHeight()));
         super.repaint();
     }
@@ -386,4 +550,97 @@ public abstract class ERDesignerGraph extends JGraph {
 
         getGraphLayoutCache().editCell(aCell, aCell.getAttributes());
     }
+
+    /**
+     * Insert the cells for all items of the model into the current graph
+     * model. Hidden and collapsed subject areas are hidden and collapsed in
+     * the graph too.
+     */
+    public void insertModelCells() {
+
+        Map<Table, TableCell> theTableCells = new HashMap<>();
+        Map<View, ViewCell> theViewCells = new HashMap<>();
+        Map<Comment, CommentCell> theCommentCells = new HashMap<>();
+
+        List<Object> theCellsToInsert = new ArrayList<>();
+
+        for (Table theTable : model.getTables()) {
+            TableCell theCell = new TableCell(theTable);
+            theCell.transferPropertiesToAttributes(theTable);
+
+            theCellsToInsert.add(theCell);
+
+            theTableCells.put(theTable, theCell);
+        }
+
+        for (View theView : model.getViews()) {
+
+            try {
+                SQLUtils.updateViewAttributesFromSQL(theView, theView.getSql());
+            } catch (Exception e) {
+                LOGGER.error("Error inspecting sql : " + theView.getSql(), e);
+            }
+
+            ViewCell theCell = new ViewCell(theView);
+            theCell.transferPropertiesToAttributes(theView);
+
+            theCellsToInsert.add(theCell);
+
+            theViewCells.put(theView, theCell);
+        }
+
+        for (Comment theComment : model.getComments()) {
+            CommentCell theCell = new CommentCell(theComment);
+            theCell.transferPropertiesToAttributes(theComment);
+
+            theCellsToInsert.add(theCell);
+
+            theCommentCells.put(theComment, theCell);
+        }
+
+        for (Relation theRelation : model.getRelations()) {
+
+            TableCell theImportingCell = theTableCells.get(theRelation.getImportingTable());
+            TableCell theExportingCell = theTableCells.get(theRelation.getExportingTable());
+
+            RelationEdge theCell = new RelationEdge(theRelation,
+                    theImportingCell, theExportingCell);
+            theCell.transferPropertiesToAttributes(theRelation);
+
+            theCellsToInsert.add(theCell);
+        }
+
+        getGraphLayoutCache().insert(theCellsToInsert.toArray());
+
+        List<SubjectAreaCell> theSACells = new ArrayList<>();
+
+        for (SubjectArea theSubjectArea : model.getSubjectAreas()) {
+
+            SubjectAreaCell theSubjectAreaCell = new SubjectAreaCell(
+                    theSubjectArea);
+            List<ModelCell<?>> theChildCells = theSubjectArea.getTables().stream().map(theTableCells::get).collect(Collectors.toList());
+
+            theChildCells.addAll(theSubjectArea.getViews().stream().map(theViewCells::get).collect(Collectors.toList()));
+
+            theChildCells.addAll(theSubjectArea.getComments().stream().map(theCommentCells::get).collect(Collectors.toList()));
+
+            getGraphLayoutCache().insertGroup(theSubjectAreaCell,
+                    theChildCells.toArray());
+
+            theSACells.add(theSubjectAreaCell);
+
+            if (!theSubjectArea.isVisible()) {
+                getGraphLayoutCache().hideCells(new Object[]{theSubjectAreaCell}, true);
+            }
+
+            if (!theSubjectArea.isExpanded()) {
+                setSubjectAreaCellCollapsed(theSubjectAreaCell);
+            }
+        }
+
+        if (theSACells.size() > 0) {
+            getGraphLayoutCache().toBack(
+                    theSACells.toArray(new Object[theSACells.size()]));
+        }
+    }
 }
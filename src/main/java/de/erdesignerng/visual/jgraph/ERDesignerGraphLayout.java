@@ -23,23 +23,70 @@ import de.erdesignerng.visual.jgraph.cells.ModelCellWithPosition;
 import de.erdesignerng.visual.jgraph.cells.RelationEdge;
 import de.erdesignerng.visual.jgraph.cells.SubjectAreaCell;
 import de.erdesignerng.visual.jgraph.cells.views.RelationEdgeView;
+import de.mogwai.layout.Distance;
 import de.mogwai.layout.ElectricSpringLayout;
+import de.mogwai.layout.Force;
 import de.mogwai.layout.graph.Spring;
+import org.jgraph.event.GraphLayoutCacheEvent;
+import org.jgraph.event.GraphLayoutCacheListener;
+import org.jgraph.event.GraphModelListener;
+import org.jgraph.graph.AttributeMap;
 import org.jgraph.graph.CellView;
 import org.jgraph.graph.DefaultGraphCell;
-import org.jgraph.graph.GraphCell;
 import org.jgraph.graph.GraphConstants;
+import org.jgraph.graph.GraphLayoutCache;
+import org.jgraph.graph.GraphModel;
 
+import javax.swing.SwingUtilities;
+import java.awt.Dimension;
+import java.awt.Point;
 import java.awt.geom.Rectangle2D;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.stream.IntStream;
 
+/**
+ * The intelligent layout of the graph.
+ * <p/>
+ * The elements and springs are kept between the iterations. They are
+ * rebuilt if cells are added, removed, shown or hidden, and the cached
+ * positions of changed cells are refreshed from the change events of the
+ * graph. The repulsion is computed with a BarnesHutTree, in parallel for
+ * large graphs. The layout stops when the elements did not move for some
+ * iterations, and starts again with the next change of the graph.
+ * <p/>
+ * The elements keep the positions computed by the layout. The positions
+ * are applied to the graph in the event dispatch thread after every
+ * iteration, without waiting for it.
+ */
 public class ERDesignerGraphLayout extends ElectricSpringLayout<VertexCellElement, CellView> {
 
+    private static final double SPRING_FORCE_FACTOR = 0.5;
+
+    private static final double FORCE_DIVISOR = 800;
+
+    /**
+     * The layout is stable if the elements moved less than one pixel per
+     * ten elements in total...
+     */
+    private static final double STABLE_MOVEMENT_PER_ELEMENT = 0.1;
+
+    /**
+     * ...for this number of iterations.
+     */
+    private static final int STABLE_ITERATIONS = 10;
+
+    /**
+     * The repulsion of at least this number of elements is computed in
+     * parallel.
+     */
+    private static final int PARALLEL_THRESHOLD = 256;
+
     private final JGraphEditor component;
 
     public ERDesignerGraphLayout(JGraphEditor aComponent) {
@@ -50,55 +97,223 @@ public class ERDesignerGraphLayout extends ElectricSpringLayout<VertexCellElemen
 
     private final List<Spring<CellView, VertexCellElement>> springs = new ArrayList<>();
 
-    private final Map<Object, Map> modelModifications = new HashMap<>();
+    /**
+     * The bounds of the cells moved in the current iteration.
+     */
+    private Map<Object, AttributeMap> frame = new HashMap<>();
+
+    /**
+     * The bounds of the cells moved in the iterations not yet applied to
+     * the graph, guarded by frameLock.
+     */
+    private Map<Object, AttributeMap> pendingFrame;
+
+    private GraphLayoutCache pendingLayoutCache;
+
+    private final Object frameLock = new Object();
 
     private final Set<ModelItem> elementsToIgnore = new HashSet<>();
 
+    private final Map<Object, VertexCellElement> allElements = new LinkedHashMap<>();
+
+    private final List<Spring<CellView, VertexCellElement>> allSprings = new ArrayList<>();
+
+    /**
+     * The cells changed since the last iteration, guarded by itself.
+     */
+    private final Set<Object> changedCells = new HashSet<>();
+
+    private volatile boolean structureChanged = true;
+
+    /**
+     * Counts the changes of the graph not made by the layout itself.
+     */
+    private volatile int wakeUps;
+
+    /**
+     * The value of wakeUps the layout became stable at, or -1.
+     */
+    private int stableWakeUps = -1;
+
+    private int iterationWakeUps;
+
+    private int stableIterations;
+
+    private boolean applyingLayout;
+
+    private GraphModel listenedModel;
+
+    private GraphLayoutCache listenedLayoutCache;
+
+    private final GraphModelListener modelListener = e -> graphChanged(e.getChange());
+
+    private final GraphLayoutCacheListener layoutCacheListener = e -> graphChanged(e.getChange());
+
+    private void graphChanged(GraphLayoutCacheEvent.GraphLayoutCacheChange aChange) {
+        if (!isEmpty(aChange.getInserted()) || !isEmpty(aChange.getRemoved())) {
+            structureChanged = true;
+        }
+        // The elements already know the positions applied by the layout
+        // itself, and these changes do not wake the layout up again
+        if (!applyingLayout) {
+            synchronized (changedCells) {
+                addAll(changedCells, aChange.getChanged());
+                addAll(changedCells, aChange.getContext());
+            }
+            wakeUps++;
+        }
+    }
+
+    private static boolean isEmpty(Object[] aCells) {
+        return aCells == null || aCells.length == 0;
+    }
+
+    private static void addAll(Set<Object> aSet, Object[] aCells) {
+        if (aCells != null) {
+            for (Object theCell : aCells) {
+                aSet.add(theCell);
+            }
+        }
+    }
+
+    /**
+     * @return true if the layout has stopped as the elements do not move anymore
+     */
+    public boolean isStable() {
+        return stableWakeUps == wakeUps;
+    }
+
+    private void listenTo(ERDesignerGraph aGraph) {
+        GraphModel theModel = aGraph.getModel();
+        if (theModel != listenedModel) {
+            if (listenedModel != null) {
+                listenedModel.removeGraphModelListener(modelListener);
+            }
+            listenedModel = theModel;
+            listenedModel.addGraphModelListener(modelListener);
+            structureChanged = true;
+        }
+        GraphLayoutCache theLayoutCache = aGraph.getGraphLayoutCache();
+        if (theLayoutCache != listenedLayoutCache) {
+            if (listenedLayoutCache != null) {
+                listenedLayoutCache.removeGraphLayoutCacheListener(layoutCacheListener);
+            }
+            listenedLayoutCache = theLayoutCache;
+            listenedLayoutCache.addGraphLayoutCacheListener(layoutCacheListener);
+            structureChanged = true;
+        }
+    }
+
     @Override
     public boolean preEvolveLayout() {
         super.preEvolveLayout();
 
-        elements.clear();
-        springs.clear();
-        modelModifications.clear();
+        frame = new HashMap<>();
 
-        if (component.getGraph() == null) {
+        ERDesignerGraph theGraph = component.getGraph();
+        if (theGraph == null) {
             return false;
         }
 
-        elementsToIgnore.clear();
-        if (component.getGraph().isDragging()) {
-            for (Object theCell : component.getGraph().getSelectionCells()) {
+        listenTo(theGraph);
+
+        iterationWakeUps = wakeUps;
+
+        Set<ModelItem> theElementsToIgnore = new HashSet<>();
+        if (theGraph.isDragging()) {
+            for (Object theCell : theGraph.getSelectionCells()) {
                 if (theCell instanceof ModelCellWithPosition) {
                     ModelCellWithPosition<ModelItem> theTableCell = (ModelCellWithPosition<ModelItem>) theCell;
-                    elementsToIgnore.add((ModelItem) theTableCell.getUserObject());
+                    theElementsToIgnore.add((ModelItem) theTableCell.getUserObject());
                 }
                 if (theCell instanceof SubjectAreaCell) {
                     ((SubjectAreaCell) theCell).getChildren().stream().filter(theChildCell -> theChildCell instanceof ModelCellWithPosition).forEach(theChildCell -> {
                         DefaultGraphCell theGraphCell = (DefaultGraphCell) theChildCell;
-                        elementsToIgnore.add((ModelItem) theGraphCell.getUserObject());
+                        theElementsToIgnore.add((ModelItem) theGraphCell.getUserObject());
                     });
                 }
             }
         }
 
+        boolean theActiveElementsChanged = false;
+        if (!theElementsToIgnore.equals(elementsToIgnore)) {
+            elementsToIgnore.clear();
+            elementsToIgnore.addAll(theElementsToIgnore);
+            theActiveElementsChanged = true;
+        }
+
+        if (structureChanged) {
+            structureChanged = false;
+            synchronized (changedCells) {
+                changedCells.clear();
+            }
+            rebuild(theGraph);
+            theActiveElementsChanged = true;
+        } else {
+            List<Object> theChangedCells;
+            synchronized (changedCells) {
+                theChangedCells = new ArrayList<>(changedCells);
+                changedCells.clear();
+            }
+            for (Object theCell : theChangedCells) {
+                reset(theCell);
+                if (theCell instanceof SubjectAreaCell) {
+                    for (Object theChild : ((SubjectAreaCell) theCell).getChildren()) {
+                        reset(theChild);
+                    }
+                }
+            }
+        }
+
+        if (theActiveElementsChanged) {
+            elements.clear();
+            springs.clear();
+            for (VertexCellElement theElement : allElements.values()) {
+                if (!elementsToIgnore.contains(((DefaultGraphCell) theElement.getCell()).getUserObject())) {
+                    elements.add(theElement);
+                }
+            }
+            for (Spring<CellView, VertexCellElement> theSpring : allSprings) {
+                Relation theRelation = (Relation) ((RelationEdge) theSpring.getUserObject().getCell()).getUserObject();
+                if (!elementsToIgnore.contains(theRelation.getExportingTable())
+                        && (!elementsToIgnore.contains(theRelation.getImportingTable()))) {
+                    springs.add(theSpring);
+                }
+            }
+            stableWakeUps = -1;
+            stableIterations = 0;
+        }
+
+        return stableWakeUps != iterationWakeUps;
+    }
+
+    private void reset(Object aCell) {
+        VertexCellElement theElement = allElements.get(aCell);
+        if (theElement != null) {
+            theElement.reset();
+        }
+    }
+
+    /**
+     * Create the elements and springs for all visible cells.
+     */
+    private void rebuild(ERDesignerGraph aGraph) {
+        allElements.clear();
+        allSprings.clear();
+
         Map<ModelItem, VertexCellElement> theTables = new HashMap<>();
         Set<RelationEdgeView> theRelations = new HashSet<>();
 
-        for (CellView theView : component.getGraph().getGraphLayoutCache().getAllViews()) {
+        for (CellView theView : aGraph.getGraphLayoutCache().getAllViews()) {
 
             if (theView.getCell() instanceof ModelCellWithPosition) {
 
                 DefaultGraphCell theCell = (DefaultGraphCell) theView.getCell();
 
-                ModelItem theModelItem = (ModelItem) theCell.getUserObject();
-                if (!elementsToIgnore.contains(theModelItem)) {
+                VertexCellElement theElement = new VertexCellElement(theView);
 
-                    VertexCellElement theElement = new VertexCellElement(theView);
-
-                    theTables.put(theModelItem, theElement);
-                    elements.add(theElement);
-                }
+                theTables.put((ModelItem) theCell.getUserObject(), theElement);
+                allElements.put(theCell, theElement);
             }
 
             if (theView instanceof RelationEdgeView) {
@@ -111,78 +326,135 @@ public class ERDesignerGraphLayout extends ElectricSpringLayout<VertexCellElemen
             RelationEdge theCell = (RelationEdge) theRelationView.getCell();
             Relation theRelation = (Relation) theCell.getUserObject();
 
-            if (!elementsToIgnore.contains(theRelation.getExportingTable())
-                    && (!elementsToIgnore.contains(theRelation.getImportingTable()))) {
-                Spring<CellView, VertexCellElement> theSpring = new Spring<>(theTables
-                        .get(theRelation.getExportingTable()), theTables.get(theRelation.getImportingTable()),
-                        theRelationView);
-                springs.add(theSpring);
-            }
+            Spring<CellView, VertexCellElement> theSpring = new Spring<>(theTables
+                    .get(theRelation.getExportingTable()), theTables.get(theRelation.getImportingTable()),
+                    theRelationView);
+            allSprings.add(theSpring);
         }
-
-        return true;
     }
 
     @Override
-    public void postEvolveLayout() {
-        super.postEvolveLayout();
-
-        // Move graph origin to 20,20
-        int minX = Integer.MAX_VALUE;
-        int minY = Integer.MAX_VALUE;
-
-        List<DefaultGraphCell> theCells = new ArrayList<>();
-
-        for (CellView theView : component.getGraph().getGraphLayoutCache().getAllViews()) {
-
-            Object theObjectCell = theView.getCell();
-
-            if (theObjectCell instanceof ModelCellWithPosition) {
-                DefaultGraphCell theCell = (DefaultGraphCell) theObjectCell;
+    public Map<VertexCellElement, Force> evolveLayout() {
+        Map<VertexCellElement, Force> theForces = new HashMap<>();
+
+        BarnesHutTree theTree = new BarnesHutTree(this, elements);
+        Force[] theRepulsion = new Force[elements.size()];
+        IntStream theElements = IntStream.range(0, theRepulsion.length);
+        if (theRepulsion.length >= PARALLEL_THRESHOLD) {
+            theElements = theElements.parallel();
+        }
+        theElements.forEach(i -> {
+            theRepulsion[i] = new Force();
+            theTree.addRepulsion(i, theRepulsion[i]);
+        });
+        for (int i = 0; i < theRepulsion.length; i++) {
+            theForces.put(elements.get(i), theRepulsion[i]);
+        }
 
-                Map theAttributes = modelModifications.get(theCell);
-                if (theAttributes == null) {
-                    theAttributes = theCell.getAttributes();
+        for (Spring<CellView, VertexCellElement> theSpring : springs) {
+            Force theFromForce = theForces.get(theSpring.getFrom());
+            Force theToForce = theForces.get(theSpring.getTo());
+            if (theFromForce != null && theToForce != null) {
+                Distance theDistance = theSpring.getFrom().computeDistanceTo(theSpring.getTo());
+                double theLength = theDistance.computeDistance();
+                if (theLength > 0) {
+                    // The springs pull both elements towards each other
+                    double theForce = theLength * SPRING_FORCE_FACTOR / FORCE_DIVISOR;
+                    double theFx = theDistance.getDx() / theLength * theForce;
+                    double theFy = theDistance.getDy() / theLength * theForce;
+                    theFromForce.addForce(theFx, theFy);
+                    theToForce.addForce(-theFx, -theFy);
                 }
-
-                Rectangle2D theBounds = GraphConstants.getBounds(theAttributes);
-                minX = (int) Math.min(minX, theBounds.getX());
-                minY = (int) Math.min(minY, theBounds.getY());
-
-                theCells.add(theCell);
             }
+        }
 
-            if (theObjectCell instanceof SubjectAreaCell) {
-                for (Object theChildCell : ((SubjectAreaCell) theObjectCell).getChildren()) {
-                    if (theChildCell instanceof ModelCellWithPosition) {
+        double theMovement = 0;
+        for (Map.Entry<VertexCellElement, Force> theEntry : theForces.entrySet()) {
+            int theMovementX = (int) theEntry.getValue().fx;
+            int theMovementY = (int) theEntry.getValue().fy;
+            if (Math.abs(theMovementX) >= 1 || Math.abs(theMovementY) >= 1) {
+                evolvePosition(theEntry.getKey(), theMovementX, theMovementY);
+                theMovement += Math.sqrt((double) theMovementX * theMovementX + (double) theMovementY * theMovementY);
+            }
+        }
 
-                        DefaultGraphCell theCell = (DefaultGraphCell) theChildCell;
+        if (theMovement < STABLE_MOVEMENT_PER_ELEMENT * elements.size() || elements.isEmpty()) {
+            stableIterations++;
+            if (stableIterations >= STABLE_ITERATIONS) {
+                stableWakeUps = iterationWakeUps;
+                stableIterations = 0;
+            }
+        } else {
+            stableIterations = 0;
+        }
 
-                        Map theAttributes = modelModifications.get(theCell);
-                        if (theAttributes == null) {
-                            theAttributes = theCell.getAttributes();
-                        }
+        return theForces;
+    }
 
-                        Rectangle2D theBounds = GraphConstants.getBounds(theAttributes);
-                        minX = (int) Math.min(minX, theBounds.getX());
-                        minY = (int) Math.min(minY, theBounds.getY());
+    /**
+     * Publish the positions computed in this iteration. They are applied to
+     * the graph later in the event dispatch thread, the next iteration can
+     * be computed in the meantime.
+     */
+    @Override
+    public void postEvolveLayout() {
+        super.postEvolveLayout();
 
-                        theCells.add(theCell);
-                    }
-                }
-            }
+        // Move graph origin to 20,20
+        int minX = Integer.MAX_VALUE;
+        int minY = Integer.MAX_VALUE;
+        for (VertexCellElement theElement : allElements.values()) {
+            Point theLocation = theElement.getLocation();
+            minX = Math.min(minX, theLocation.x);
+            minY = Math.min(minY, theLocation.y);
         }
 
         if (minX < 20 || minY < 20) {
             int mx = minX < 20 ? 20 - minX : 0;
             int my = minY < 20 ? 20 - minY : 0;
-            for (DefaultGraphCell theCell : theCells) {
-                evolvePosition(theCell, mx, my);
+            for (VertexCellElement theElement : allElements.values()) {
+                evolvePosition(theElement, mx, my);
             }
         }
 
-        if (modelModifications.size() > 0) {
-            component.getGraph().getGraphLayoutCache().edit(modelModifications);
+        if (frame.size() > 0) {
+            boolean theApplyScheduled;
+            synchronized (frameLock) {
+                theApplyScheduled = pendingFrame != null;
+                if (theApplyScheduled) {
+                    // The bounds are absolute, so the newer ones win
+                    pendingFrame.putAll(frame);
+                } else {
+                    pendingFrame = frame;
+                }
+                pendingLayoutCache = listenedLayoutCache;
+            }
+            if (!theApplyScheduled) {
+                SwingUtilities.invokeLater(this::applyFrame);
+            }
+        }
+    }
+
+    /**
+     * Apply the published positions to the graph.
+     */
+    private void applyFrame() {
+        Map<Object, AttributeMap> theFrame;
+        GraphLayoutCache theLayoutCache;
+        synchronized (frameLock) {
+            theFrame = pendingFrame;
+            theLayoutCache = pendingLayoutCache;
+            pendingFrame = null;
+            pendingLayoutCache = null;
+        }
+        ERDesignerGraph theGraph = component.getGraph();
+        if (theFrame != null && theGraph != null && theGraph.getGraphLayoutCache() == theLayoutCache) {
+            applyingLayout = true;
+            try {
+                theLayoutCache.edit(theFrame);
+            } finally {
+                applyingLayout = false;
+            }
         }
     }
 
@@ -196,28 +468,18 @@ public class ERDesignerGraphLayout extends ElectricSpringLayout<VertexCellElemen
         return springs;
     }
 
-    private void evolvePosition(GraphCell aCell, int movementX, int movementY) {
+    @Override
+    public void evolvePosition(VertexCellElement aElement, int movementX, int movementY) {
 
         if (movementX != 0 || movementY != 0) {
-            Rectangle2D theBounds;
-            Map theAttributes = modelModifications.get(aCell);
-            if (theAttributes != null) {
-                theBounds = GraphConstants.getBounds(theAttributes);
-            } else {
-                theAttributes = new HashMap();
-                theBounds = GraphConstants.getBounds(aCell.getAttributes());
-
-                modelModifications.put(aCell, theAttributes);
-            }
-
-            theBounds.setRect(theBounds.getX() + movementX, theBounds.getY() + movementY, theBounds.getWidth(),
-                    theBounds.getHeight());
-            GraphConstants.setBounds(theAttributes, theBounds);
+            Point theLocation = aElement.getLocation();
+            aElement.setLocation(theLocation.x + movementX, theLocation.y + movementY);
+
+            Dimension theSize = aElement.getSize();
+            AttributeMap theAttributes = new AttributeMap();
+            GraphConstants.setBounds(theAttributes, new Rectangle2D.Double(theLocation.x + movementX,
+                    theLocation.y + movementY, theSize.width, theSize.height));
+            frame.put(aElement.getCell(), theAttributes);
         }
     }
-
-    @Override
-    public void evolvePosition(VertexCellElement aElement, int movementX, int movementY) {
-        evolvePosition(aElement.getCell(), movementX, movementY);
-    }
 }
\ No newline at end of file
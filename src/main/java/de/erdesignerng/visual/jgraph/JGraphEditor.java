@@ -30,7 +30,6 @@ import de.erdesignerng.ERDesignerBundle;
 import de.erdesignerng.model.*;
 import de.erdesignerng.modificationtracker.VetoException;
 import de.erdesignerng.util.ApplicationPreferences;
-import de.erdesignerng.util.SQLUtils;
 import de.erdesignerng.visual.*;
 import de.erdesignerng.visual.common.*;
 import de.erdesignerng.visual.jgraph.cells.*;
@@ -48,7 +47,6 @@ import de.mogwai.common.client.looks.components.menu.DefaultMenu;
 import de.mogwai.common.client.looks.components.menu.DefaultMenuItem;
 import de.mogwai.common.i18n.ResourceHelperProvider;
 import org.apache.commons.lang.ArrayUtils;
-import org.apache.log4j.Logger;
 import org.jgraph.event.*;
 import org.jgraph.graph.*;
 
@@ -58,12 +56,9 @@ import java.awt.geom.Point2D;
 import java.awt.geom.Rectangle2D;
 import java.util.*;
 import java.util.List;
-import java.util.stream.Collectors;
 
 public class JGraphEditor extends DefaultScrollPane implements GenericModelEditor {
 
-    private static final Logger LOGGER = Logger.getLogger(JGraphEditor.class);
-
     private static final class ERDesignerGraphSelectionListener implements
             GraphSelectionListener {
         @Override
@@ -144,8 +139,7 @@ public class JGraphEditor extends DefaultScrollPane implements GenericModelEdito
 
                     if (layout.preEvolveLayout()) {
                         layout.evolveLayout();
-
-                        SwingUtilities.invokeAndWait(() -> layout.postEvolveLayout());
+                        layout.postEvolveLayout();
                     }
                     theDuration = System.currentTimeMillis() - theDuration;
 
@@ -165,15 +159,6 @@ public class JGraphEditor extends DefaultScrollPane implements GenericModelEdito
         }
     }
 
-    private static final class GraphModelMappingInfo {
-        final Map<Table, TableCell> modelTableCells = new HashMap<>();
-
-        final Map<View, ViewCell> modelViewCells = new HashMap<>();
-
-        final Map<Comment, CommentCell> modelCommentCells = new HashMap<>();
-    }
-
-
     private ERDesignerGraph graph;
     private final ERDesignerGraphLayout layout;
     private LayoutThread layoutThread;
@@ -433,7 +418,7 @@ public class JGraphEditor extends DefaultScrollPane implements GenericModelEdito
 
             @Override
             public void refreshOutline() {
-                OutlineComponent.getDefault().refresh(model);
+                ERDesignerComponent.getDefault().refreshOutline();
             }
         };
 
@@ -447,7 +432,7 @@ public class JGraphEditor extends DefaultScrollPane implements GenericModelEdito
         refreshPreferences();
 
         if (model != null) {
-            fillGraph(model);
+            fillGraph();
         }
 
         getViewport().removeAll();
@@ -457,7 +442,7 @@ public class JGraphEditor extends DefaultScrollPane implements GenericModelEdito
         repaintGraph();
     }
 
-    private GraphModelMappingInfo fillGraph(Model aModel) {
+    private void fillGraph() {
 
         filling = true;
         try {
@@ -467,95 +452,9 @@ public class JGraphEditor extends DefaultScrollPane implements GenericModelEdito
             graph.setModel(theGraphModel);
             graph.setGraphLayoutCache(createNewGraphlayoutCache(theGraphModel));
 
-            GraphModelMappingInfo theInfo = new GraphModelMappingInfo();
-
-            List<Object> theCellsToInsert = new ArrayList<>();
-
-            for (Table theTable : aModel.getTables()) {
-                TableCell theCell = new TableCell(theTable);
-                theCell.transferPropertiesToAttributes(theTable);
-
-                theCellsToInsert.add(theCell);
-
-                theInfo.modelTableCells.put(theTable, theCell);
-            }
-
-            for (View theView : aModel.getViews()) {
-
-                try {
-                    SQLUtils.updateViewAttributesFromSQL(theView, theView.getSql());
-                } catch (Exception e) {
-                    LOGGER.error("Error inspecting sql : " + theView.getSql(), e);
-                }
-
-                ViewCell theCell = new ViewCell(theView);
-                theCell.transferPropertiesToAttributes(theView);
-
-                theCellsToInsert.add(theCell);
-
-                theInfo.modelViewCells.put(theView, theCell);
-            }
-
-            for (Comment theComment : aModel.getComments()) {
-                CommentCell theCell = new CommentCell(theComment);
-                theCell.transferPropertiesToAttributes(theComment);
-
-                theCellsToInsert.add(theCell);
-
-                theInfo.modelCommentCells.put(theComment, theCell);
-            }
-
-            for (Relation theRelation : aModel.getRelations()) {
-
-                TableCell theImportingCell = theInfo.modelTableCells
-                        .get(theRelation.getImportingTable());
-                TableCell theExportingCell = theInfo.modelTableCells
-                        .get(theRelation.getExportingTable());
-
-                RelationEdge theCell = new RelationEdge(theRelation,
-                        theImportingCell, theExportingCell);
-                theCell.transferPropertiesToAttributes(theRelation);
-
-                theCellsToInsert.add(theCell);
-            }
-
-            graph.getGraphLayoutCache().insert(theCellsToInsert.toArray());
-
-            List<SubjectAreaCell> theSACells = new ArrayList<>();
-
-            for (SubjectArea theSubjectArea : aModel.getSubjectAreas()) {
-
-                SubjectAreaCell theSubjectAreaCell = new SubjectAreaCell(
-                        theSubjectArea);
-                List<ModelCell> theTableCells = theSubjectArea.getTables().stream().map(theInfo.modelTableCells::get).collect(Collectors.toList());
-
-                theTableCells.addAll(theSubjectArea.getViews().stream().map(theInfo.modelViewCells::get).collect(Collectors.toList()));
-
-                theTableCells.addAll(theSubjectArea.getComments().stream().map(theInfo.modelCommentCells::get).collect(Collectors.toList()));
-
-                graph.getGraphLayoutCache().insertGroup(theSubjectAreaCell,
-                        theTableCells.toArray());
-
-                theSACells.add(theSubjectAreaCell);
-
-                if (!theSubjectArea.isVisible()) {
-                    commandHideSubjectArea(theSubjectArea);
-                }
-
-                if (!theSubjectArea.isExpanded()) {
-                    graph.setSubjectAreaCellCollapsed(theSubjectAreaCell);
-                }
-            }
-
-            if (theSACells.size() > 0) {
-                graph.getGraphLayoutCache().toBack(
-                        theSACells.toArray(new Object[theSACells.size()]));
-            }
+            graph.insertModelCells();
 
             ERDesignerComponent.getDefault().updateSubjectAreasMenu();
-
-            return theInfo;
-
         } finally {
             filling = false;
         }
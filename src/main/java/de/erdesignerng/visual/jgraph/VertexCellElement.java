@@ -32,6 +32,8 @@ public class VertexCellElement extends Element {
 
     private final CellView view;
 
+    private Point location;
+
     private Point forcePoint;
 
     private Double radius;
@@ -42,6 +44,17 @@ public class VertexCellElement extends Element {
         view = aView;
     }
 
+    /**
+     * Forget the cached size and position after the cell was changed.
+     */
+    public void reset() {
+        size = null;
+        location = null;
+        forcePoint = null;
+        radius = null;
+        boundaries = null;
+    }
+
     public GraphCell getCell() {
         return (GraphCell) view.getCell();
     }
@@ -49,9 +62,24 @@ public class VertexCellElement extends Element {
     @Override
     public Point getLocation() {
 
-        GraphCell theCell = getCell();
-        Rectangle2D theBounds = GraphConstants.getBounds(theCell.getAttributes());
-        return new Point((int) theBounds.getX(), (int) theBounds.getY());
+        if (location == null) {
+            GraphCell theCell = getCell();
+            Rectangle2D theBounds = GraphConstants.getBounds(theCell.getAttributes());
+            location = new Point((int) theBounds.getX(), (int) theBounds.getY());
+        }
+        return new Point(location);
+    }
+
+    /**
+     * Move the element. The cell is not changed.
+     *
+     * @param aX the new x coordinate
+     * @param aY the new y coordinate
+     */
+    public void setLocation(int aX, int aY) {
+        location = new Point(aX, aY);
+        forcePoint = null;
+        boundaries = null;
     }
 
     @Override
@@ -87,6 +115,6 @@ public class VertexCellElement extends Element {
         if (forcePoint == null) {
             forcePoint = super.getForcePoint();
         }
-        return forcePoint;
+        return new Point(forcePoint);
     }
-}
\ No newline at end of file
+}
@@ -50,6 +50,10 @@ public class TableCellView extends VertexView {
 
 	private static final MyRenderer RENDERER = new MyRenderer();
 
+	private static final Color BACKGROUND_COLOR = new Color(255, 255, 212);
+
+	private transient Glyph glyph;
+
 	public TableCellView(TableCell aCell) {
 		super(aCell);
 	}
@@ -59,6 +63,140 @@ public class TableCellView extends VertexView {
 		return RENDERER;
 	}
 
+	/**
+	 * Get the glyph of the table for the display settings of a graph.
+	 *
+	 * @param aGraph the graph
+	 * @return the glyph
+	 */
+	public Glyph getGlyph(ERDesignerGraph aGraph) {
+		RENDERER.getRendererComponent(aGraph, this, false, false, false);
+		return RENDERER.getGlyph();
+	}
+
+	/**
+	 * Get the glyph of the table, and rebuild it if the model was changed
+	 * since it was built or the display settings are different.
+	 */
+	Glyph getGlyph(MyRenderer aRenderer) {
+		Glyph theGlyph = glyph;
+		if (theGlyph == null || !theGlyph.isValidFor(aRenderer)) {
+			theGlyph = aRenderer.createGlyph();
+			glyph = theGlyph;
+		}
+		return theGlyph;
+	}
+
+	/**
+	 * One line of a table glyph.
+	 */
+	public static class Row {
+
+		private final String text;
+
+		private final Color color;
+
+		private final int x;
+
+		private final boolean primaryKey;
+
+		private final boolean separator;
+
+		private Row(String aText, Color aColor, int aX, boolean aPrimaryKey, boolean aSeparator) {
+			text = aText;
+			color = aColor;
+			x = aX;
+			primaryKey = aPrimaryKey;
+			separator = aSeparator;
+		}
+
+		/**
+		 * @return the text, or null for a separator
+		 */
+		public String getText() {
+			return text;
+		}
+
+		public Color getColor() {
+			return color;
+		}
+
+		public int getX() {
+			return x;
+		}
+
+		public boolean isPrimaryKey() {
+			return primaryKey;
+		}
+
+		public boolean isSeparator() {
+			return separator;
+		}
+	}
+
+	/**
+	 * The pre laid out content of a table for given display settings.
+	 * <p/>
+	 * The glyph is independent of the zoom factor, as zooming is done by the
+	 * transformation of the graphics. It is valid as long as the revision of
+	 * the model of the table does not change.
+	 */
+	public static class Glyph {
+
+		private final Table table;
+
+		private final Model model;
+
+		private final long revision;
+
+		private final DisplayLevel displayLevel;
+
+		private final DisplayOrder displayOrder;
+
+		private final boolean includeComments;
+
+		private final Font font;
+
+		private final String title;
+
+		private final List<Row> rows;
+
+		private final Dimension preferredSize;
+
+		private Glyph(MyRenderer aRenderer, String aTitle, List<Row> aRows, Dimension aPreferredSize) {
+			table = aRenderer.table;
+			model = table.getOwner();
+			revision = model != null ? model.getRevision() : -1;
+			displayLevel = aRenderer.displayLevel;
+			displayOrder = aRenderer.displayOrder;
+			includeComments = aRenderer.includeComments;
+			font = aRenderer.getFont();
+			title = aTitle;
+			rows = aRows;
+			preferredSize = aPreferredSize;
+		}
+
+		private boolean isValidFor(MyRenderer aRenderer) {
+			// Tables without a model cannot be tracked, so they are never cached
+			return model != null && table == aRenderer.table && model == table.getOwner()
+					&& revision == model.getRevision() && displayLevel == aRenderer.displayLevel
+					&& displayOrder == aRenderer.displayOrder && includeComments == aRenderer.includeComments
+					&& font.equals(aRenderer.getFont());
+		}
+
+		public Font getFont() {
+			return font;
+		}
+
+		public String getTitle() {
+			return title;
+		}
+
+		public List<Row> getRows() {
+			return rows;
+		}
+	}
+
 	public static class MyRenderer extends VertexRenderer implements CellViewRenderer, Serializable {
 
 		private Table table;
@@ -71,6 +209,12 @@ public class TableCellView extends VertexView {
 
 		private DisplayOrder displayOrder;
 
+		private boolean reducedDetail;
+
+		private transient TableCellView view;
+
+		private transient Glyph glyph;
+
 		private static final ImageIcon key = IconFactory.getKeyIcon();
 
 		public MyRenderer() {
@@ -95,39 +239,44 @@ public class TableCellView extends VertexView {
 			return theText;
 		}
 
-		@Override
-		public void paint(Graphics aGraphics) {
-
-			Dimension theSize = getSize();
-			int theWidth = theSize.width;
-			int theHeight = theSize.height;
+		private String getAttributeText(Attribute<Table> aAttribute, boolean aForeignKey) {
+			String theText = getConvertedName(aAttribute);
+			theText += " : ";
+			theText += aAttribute.getLogicalDeclaration();
+			if (aForeignKey) {
+				theText += " (FK)";
+			}
+			return theText;
+		}
 
-			aGraphics.setFont(getFont());
-			aGraphics.setColor(getBackground());
-			// aGraphics.fillRect(0, 0, theWidth, theHeight);
+		private Glyph getGlyph() {
+			if (glyph == null) {
+				glyph = view != null ? view.getGlyph(this) : createGlyph();
+			}
+			return glyph;
+		}
 
-			FontMetrics theMetrics = aGraphics.getFontMetrics();
+		/**
+		 * Sort the attributes, compute the texts of all lines and measure
+		 * them.
+		 */
+		Glyph createGlyph() {
 
-			aGraphics.setColor(Color.black);
-			String theString = getConvertedName(table);
+			FontMetrics theMetrics = getFontMetrics(getFont());
 
-			aGraphics.drawString(theString, 0, theMetrics.getAscent());
+			int theMaxX = 150;
+			int theMaxY = 8;
 
 			int theYOffset = theMetrics.getHeight();
+			int theTextXOffset = 15;
+			int theXTextOffset = 30;
 
-			aGraphics.setColor(selected ? Color.blue : Color.black);
-
-			fillRect(aGraphics, 5, theYOffset + 5, theWidth - 5, theHeight - theYOffset - 5);
-
-			aGraphics.setColor(new Color(255, 255, 212));
-
-			fillRect(aGraphics, 0, theYOffset, theWidth - 5, theHeight - theYOffset - 6);
-
-			aGraphics.setColor(selected ? Color.blue : Color.black);
-
-			drawRect(aGraphics, theYOffset, theWidth - 5, theHeight - theYOffset - 6);
+			String theTitle = getConvertedName(table);
 
-			int theTextXOffset = 15;
+			int theLength = theMetrics.stringWidth(theTitle);
+			if (theLength > theMaxX) {
+				theMaxX = theLength + 5;
+			}
 
 			List<Attribute<Table>> theTempList = new ArrayList<>();
 			theTempList.addAll(table.getAttributes());
@@ -145,35 +294,29 @@ public class TableCellView extends VertexView {
 					throw new IllegalStateException("Unknown display order");
 			}
 
+			List<Row> theRows = new ArrayList<>();
 			List<Attribute<Table>> theAllAttributes = new ArrayList<>();
-			theAllAttributes.addAll(theTempList);
 
 			boolean hasPrimaryKey = false;
 
-			// Draw the attributes
 			for (Attribute<Table> theAttribute : theTempList) {
 
 				if (theAttribute.isPrimaryKey()) {
 
 					hasPrimaryKey = true;
 
-					theAllAttributes.remove(theAttribute);
-
-					aGraphics.setColor(Color.red);
+					theRows.add(new Row(getAttributeText(theAttribute, theAttribute.isForeignKey()), Color.red,
+							theTextXOffset, true, false));
 
-					theString = getConvertedName(theAttribute);
-
-					theString += " : ";
-
-					theString += theAttribute.getLogicalDeclaration();
-
-					if (theAttribute.isForeignKey()) {
-						theString += " (FK)";
+					// The size assumes the text is a foreign key...
+					theLength = theMetrics.stringWidth(getAttributeText(theAttribute, true));
+					if (theLength + theXTextOffset > theMaxX) {
+						theMaxX = theLength + theXTextOffset;
 					}
 
-					aGraphics.drawString(theString, theTextXOffset, theYOffset + theMetrics.getAscent());
-					key.paintIcon(this, aGraphics, 5, theYOffset + 4);
 					theYOffset += theMetrics.getHeight();
+				} else {
+					theAllAttributes.add(theAttribute);
 				}
 			}
 
@@ -186,31 +329,22 @@ public class TableCellView extends VertexView {
 					// This line is only necessary in case that there are PK
 					// attributes
 					if (hasPrimaryKey) {
-
-						// Draw the border line
-						aGraphics.setColor(Color.black);
-						aGraphics.drawLine(0, theYOffset, theWidth - 5, theYOffset);
+						theRows.add(new Row(null, Color.black, 0, false, true));
 					}
 
-					// Draw the attributes
 					for (Attribute<Table> theAttribute : theAllAttributes) {
 
-						if (DisplayLevel.ALL == displayLevel || (theAttribute.isForeignKey())) {
-							boolean isFK = theAttribute.isForeignKey();
+						boolean isFK = theAttribute.isForeignKey();
+						if (DisplayLevel.ALL == displayLevel || isFK) {
 
-							theString = getConvertedName(theAttribute);
+							theRows.add(new Row(getAttributeText(theAttribute, isFK), isFK ? Color.red : Color.black,
+									theTextXOffset, false, false));
 
-							theString += " : ";
-
-							theString += theAttribute.getLogicalDeclaration();
-
-							if (isFK) {
-								theString += " (FK)";
+							theLength = theMetrics.stringWidth(getAttributeText(theAttribute, true));
+							if (theLength + theXTextOffset > theMaxX) {
+								theMaxX = theLength + theXTextOffset;
 							}
 
-							aGraphics.setColor(isFK ? Color.red : Color.black);
-
-							aGraphics.drawString(theString, theTextXOffset, theYOffset + theMetrics.getAscent());
 							theYOffset += theMetrics.getHeight();
 						}
 					}
@@ -222,132 +356,103 @@ public class TableCellView extends VertexView {
 				for (Index theIndex : table.getIndexes()) {
 					if (theIndex.getIndexType() != IndexType.PRIMARYKEY) {
 						if (!lineDrawn) {
-							aGraphics.setColor(Color.black);
-							aGraphics.drawLine(0, theYOffset, theWidth - 5, theYOffset);
+							theRows.add(new Row(null, Color.black, 0, false, true));
 							lineDrawn = true;
 						}
+
 						String theName = getConvertedName(theIndex);
+						theRows.add(new Row(theName, Color.black, theTextXOffset, false, false));
+
+						theLength = theMetrics.stringWidth(theName);
+						if (theLength + theXTextOffset > theMaxX) {
+							theMaxX = theLength + theXTextOffset;
+						}
 
-						aGraphics.setColor(Color.black);
-						aGraphics.drawString(theName, theTextXOffset, theYOffset + theMetrics.getAscent());
-						aGraphics.setColor(Color.black);
 						theYOffset += theMetrics.getHeight();
 
 						for (IndexExpression theExpression : theIndex.getExpressions()) {
 							String theExpressionText = theExpression.toString();
-							aGraphics.drawString(theExpressionText, theTextXOffset + 5, theYOffset + theMetrics.getAscent());
+							theRows.add(new Row(theExpressionText, Color.black, theTextXOffset + 5, false, false));
+
+							theLength = theMetrics.stringWidth(theExpressionText);
+							if (theLength + theXTextOffset + 5 > theMaxX) {
+								theMaxX = theLength + theXTextOffset + 5;
+							}
 
 							theYOffset += theMetrics.getHeight();
 						}
 					}
 				}
 			}
-		}
-
-		@Override
-		public Dimension getPreferredSize() {
 
-			int theMaxX = 150;
-			int theMaxY = 8;
-
-			FontMetrics theMetrics = getFontMetrics(getFont());
-
-			int theYOffset = theMetrics.getHeight();
-			int theXTextOffset = 30;
+			theYOffset += 8;
+			theMaxX += 8;
 
-			String theString = getConvertedName(table);
+			Insets theInsets = getInsets();
+			theMaxX += theInsets.left + theInsets.right;
+			theMaxY += theInsets.top + theInsets.bottom;
 
-			int theLength = theMetrics.stringWidth(theString);
-			if (theLength > theMaxX) {
-				theMaxX = theLength + 5;
+			if (theYOffset > theMaxY) {
+				theMaxY = theYOffset;
 			}
 
-			List<Attribute<Table>> theAllAttributes = new ArrayList<>();
-			theAllAttributes.addAll(table.getAttributes());
-
-			for (Attribute<Table> theAttribute : table.getAttributes()) {
+			return new Glyph(this, theTitle, theRows, new Dimension(theMaxX, theMaxY));
+		}
 
-				if (theAttribute.isPrimaryKey()) {
+		@Override
+		public void paint(Graphics aGraphics) {
 
-					theAllAttributes.remove(theAttribute);
+			Glyph theGlyph = getGlyph();
 
-					String theText = getConvertedName(theAttribute);
-					theText += " : ";
+			Dimension theSize = getSize();
+			int theWidth = theSize.width;
+			int theHeight = theSize.height;
 
-					theText += theAttribute.getLogicalDeclaration();
+			aGraphics.setFont(getFont());
 
-					// Assume the text is a foreign key...
-					theText += " (FK)";
+			FontMetrics theMetrics = aGraphics.getFontMetrics();
+			int theAscent = theMetrics.getAscent();
+			int theLineHeight = theMetrics.getHeight();
 
-					theLength = theMetrics.stringWidth(theText);
-					if (theLength + theXTextOffset > theMaxX) {
-						theMaxX = theLength + theXTextOffset;
-					}
+			aGraphics.setColor(Color.black);
+			aGraphics.drawString(theGlyph.title, 0, theAscent);
 
-					theYOffset += theMetrics.getHeight();
-				}
-			}
+			int theYOffset = theLineHeight;
 
-			if (DisplayLevel.ALL == displayLevel || (DisplayLevel.PRIMARYKEYSANDFOREIGNKEYS == displayLevel)) {
-				for (Attribute<Table> theAttribute : theAllAttributes) {
+			aGraphics.setColor(selected ? Color.blue : Color.black);
 
-					if (DisplayLevel.ALL == displayLevel || (theAttribute.isForeignKey())) {
+			fillRect(aGraphics, 5, theYOffset + 5, theWidth - 5, theHeight - theYOffset - 5);
 
-						String theText = getConvertedName(theAttribute);
-						theText += " : ";
+			aGraphics.setColor(BACKGROUND_COLOR);
 
-						theText += theAttribute.getLogicalDeclaration();
+			fillRect(aGraphics, 0, theYOffset, theWidth - 5, theHeight - theYOffset - 6);
 
-						theText += " (FK)";
+			aGraphics.setColor(selected ? Color.blue : Color.black);
 
-						theLength = theMetrics.stringWidth(theText);
-						if (theLength + theXTextOffset > theMaxX) {
-							theMaxX = theLength + theXTextOffset;
-						}
+			drawRect(aGraphics, theYOffset, theWidth - 5, theHeight - theYOffset - 6);
 
-						theYOffset += theMetrics.getHeight();
-					}
-				}
+			if (reducedDetail) {
+				// Zoomed out too far to read the attributes
+				return;
 			}
 
-			if (table.getIndexes().size() > 0 && DisplayLevel.ALL == displayLevel) {
-				for (Index theIndex : table.getIndexes()) {
-					if (theIndex.getIndexType() != IndexType.PRIMARYKEY) {
-						String theName = getConvertedName(theIndex);
-
-						theLength = theMetrics.stringWidth(theName);
-						if (theLength + theXTextOffset > theMaxX) {
-							theMaxX = theLength + theXTextOffset;
-						}
-
-						theYOffset += theMetrics.getHeight();
-
-						for (IndexExpression theExpression : theIndex.getExpressions()) {
-							String theExpressionText = theExpression.toString();
-
-							theLength = theMetrics.stringWidth(theExpressionText);
-							if (theLength + theXTextOffset + 5 > theMaxX) {
-								theMaxX = theLength + theXTextOffset + 5;
-							}
-
-							theYOffset += theMetrics.getHeight();
-						}
+			for (Row theRow : theGlyph.rows) {
+				aGraphics.setColor(theRow.color);
+				if (theRow.separator) {
+					aGraphics.drawLine(0, theYOffset, theWidth - 5, theYOffset);
+				} else {
+					aGraphics.drawString(theRow.text, theRow.x, theYOffset + theAscent);
+					if (theRow.primaryKey) {
+						key.paintIcon(this, aGraphics, 5, theYOffset + 4);
 					}
+					theYOffset += theLineHeight;
 				}
 			}
+		}
 
-			theYOffset += 8;
-			theMaxX += 8;
-
-			Insets theInsets = getInsets();
-			theMaxX += theInsets.left + theInsets.right;
-			theMaxY += theInsets.top + theInsets.bottom;
-
-			if (theYOffset > theMaxY) {
-				theMaxY = theYOffset;
-			}
-
-			return new Dimension(theMaxX, theMaxY);
+		@Override
+		public Dimension getPreferredSize() {
+			return new Dimension(getGlyph().preferredSize);
 		}
 
 		@Override
@@ -362,6 +467,10 @@ public class TableCellView extends VertexView {
 			includeComments = theGraph.isDisplayComments();
 			displayLevel = theGraph.getDisplayLevel();
 			displayOrder = theGraph.getDisplayOrder();
+			reducedDetail = theGraph.isReducedDetail();
+
+			view = theView;
+			glyph = null;
 
 			return this;
 		}
@@ -374,6 +483,10 @@ public class TableCellView extends VertexView {
 			includeComments = false;
 			displayLevel = DisplayLevel.ALL;
 			displayOrder = DisplayOrder.NATURAL;
+			reducedDetail = false;
+
+			view = null;
+			glyph = null;
 
 			return this;
 		}
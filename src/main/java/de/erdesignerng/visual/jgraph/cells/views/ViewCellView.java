@@ -63,6 +63,35 @@ public class ViewCellView extends VertexView {
 		return RENDERER;
 	}
 
+	/**
+	 * Get the title of the view for the display settings of a graph.
+	 *
+	 * @param aGraph the graph
+	 * @return the title
+	 */
+	public String getTitle(ERDesignerGraph aGraph) {
+		RENDERER.getRendererComponent(aGraph, this, false, false, false);
+		return RENDERER.getConvertedName(RENDERER.view);
+	}
+
+	/**
+	 * Get the texts of the attributes for the display settings of a graph.
+	 *
+	 * @param aGraph the graph
+	 * @return the texts in display order
+	 */
+	public List<String> getAttributeTexts(ERDesignerGraph aGraph) {
+		RENDERER.getRendererComponent(aGraph, this, false, false, false);
+		return RENDERER.getAttributeTexts();
+	}
+
+	/**
+	 * @return the font of the view
+	 */
+	public Font getFont() {
+		return RENDERER.getFont();
+	}
+
 	public static class MyRenderer extends VertexRenderer implements CellViewRenderer, Serializable {
 
 		private View view;
@@ -130,6 +159,17 @@ public class ViewCellView extends VertexView {
 
 			int theTextXOffset = 15;
 
+			aGraphics.setColor(Color.black);
+			for (String theText : getAttributeTexts()) {
+				aGraphics.drawString(theText, theTextXOffset, theYOffset + theMetrics.getAscent());
+				theYOffset += theMetrics.getHeight();
+			}
+		}
+
+		/**
+		 * @return the texts of the attributes in display order
+		 */
+		List<String> getAttributeTexts() {
 			List<ViewAttribute> theTempList = new ArrayList<>();
 			theTempList.addAll(view.getAttributes());
 
@@ -146,24 +186,11 @@ public class ViewCellView extends VertexView {
 					throw new IllegalStateException("Unknown display order");
 			}
 
-			List<ViewAttribute> theAllAttributes = new ArrayList<>();
-			theAllAttributes.addAll(theTempList);
-
-			// Only do the following if there are any not primary key
-			// attributes
-			if (theAllAttributes.size() > 0) {
-
-				// Draw the attributes
-				for (ViewAttribute theAttribute : theAllAttributes) {
-
-					theString = getConvertedName(theAttribute);
-
-					aGraphics.setColor(Color.black);
-
-					aGraphics.drawString(theString, theTextXOffset, theYOffset + theMetrics.getAscent());
-					theYOffset += theMetrics.getHeight();
-				}
+			List<String> theResult = new ArrayList<>();
+			for (ViewAttribute theAttribute : theTempList) {
+				theResult.add(getConvertedName(theAttribute));
 			}
+			return theResult;
 		}
 
 		@Override
@@ -0,0 +1,164 @@
+/**
+ * Mogwai ERDesigner. Copyright (C) 2002 The Mogwai Project.
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program; if not, write to the Free Software Foundation, Inc., 59 Temple
+ * Place - Suite 330, Boston, MA 02111-1307, USA.
+ */
+package de.erdesignerng.visual.jgraph.export;
+
+import de.erdesignerng.dialect.DataTypeIO;
+import de.erdesignerng.model.Model;
+import de.erdesignerng.model.ModelIOUtilities;
+import de.erdesignerng.visual.jgraph.ERDesignerGraph;
+import de.erdesignerng.visual.jgraph.cells.HideableCell;
+import de.erdesignerng.visual.jgraph.cells.TableCell;
+import de.erdesignerng.visual.jgraph.cells.views.CellViewFactory;
+import de.erdesignerng.visual.jgraph.plaf.basic.ERDesignerGraphUI;
+import org.apache.log4j.Logger;
+import org.jgraph.graph.CellView;
+import org.jgraph.graph.DefaultGraphModel;
+import org.jgraph.graph.GraphLayoutCache;
+import org.jgraph.graph.GraphModel;
+
+import java.awt.geom.Point2D;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * Export of a model file to an image without the user interface.
+ * <p/>
+ * Usage : BatchExporter &lt;model.mxm&gt; &lt;image file&gt; [dpi]
+ * <p/>
+ * The format is taken from the extension of the image file, svg files are
+ * exported as vector graphics.
+ */
+public final class BatchExporter {
+
+    private static final Logger LOGGER = Logger.getLogger(BatchExporter.class);
+
+    private BatchExporter() {
+    }
+
+    /**
+     * Create a read only graph displaying a model.
+     *
+     * @param aModel the model
+     * @return the graph
+     */
+    public static ERDesignerGraph createGraph(Model aModel) {
+        GraphModel theGraphModel = new DefaultGraphModel();
+        GraphLayoutCache theCache = new GraphLayoutCache(theGraphModel, new CellViewFactory(), true);
+        theCache.setAutoSizeOnValueChange(true);
+
+        ERDesignerGraph theGraph = new ERDesignerGraph(aModel, theGraphModel, theCache) {
+
+            @Override
+            public void commandNewTable(Point2D aPoint) {
+            }
+
+            @Override
+            public void commandNewView(Point2D aPoint) {
+            }
+
+            @Override
+            public void commandNewComment(Point2D aLocation) {
+            }
+
+            @Override
+            public void commandNewRelation(TableCell aImportingCell, TableCell aExportingCell) {
+            }
+
+            @Override
+            public void commandHideCells(List<HideableCell> aCellsToHide) {
+            }
+
+            @Override
+            public void commandNewTableAndRelation(Point2D aLocation, TableCell aExportingTableCell,
+                                                   boolean aNewTableIsChild) {
+            }
+
+            @Override
+            public void refreshOutline() {
+            }
+        };
+        // There is no editor, so the graph does not react to user input
+        theGraph.setUI(new ERDesignerGraphUI(null));
+        theGraph.setEditable(false);
+        theGraph.insertModelCells();
+
+        for (CellView theView : theGraph.getGraphLayoutCache().getCellViews()) {
+            theGraph.updateAutoSize(theView);
+        }
+        theGraph.getGraphLayoutCache().reload();
+        theGraph.getGraphLayoutCache().update(theGraph.getGraphLayoutCache().getAllViews());
+
+        // Swing does not paint components without a size
+        theGraph.setSize(theGraph.getPreferredSize());
+        return theGraph;
+    }
+
+    /**
+     * Export a model file to an image.
+     *
+     * @param aModelFile the model file
+     * @param aImageFile the image file
+     * @param aDpi       the resolution of the image, or 0 for the resolution of the screen
+     * @throws Exception will be thrown in case of an error
+     */
+    public static void export(File aModelFile, File aImageFile, int aDpi) throws Exception {
+        Model theModel;
+        try (InputStream theStream = new BufferedInputStream(new FileInputStream(aModelFile))) {
+            theModel = ModelIOUtilities.getInstance().deserializeModelFromXML(theStream);
+        }
+
+        String theName = aImageFile.getName();
+        String theFormat = theName.substring(theName.lastIndexOf('.') + 1).toLowerCase();
+        Exporter theExporter;
+        if ("svg".equals(theFormat)) {
+            theExporter = new SVGExporter();
+        } else {
+            theExporter = new ImageExporter(theFormat, aDpi);
+        }
+
+        ERDesignerGraph theGraph = createGraph(theModel);
+        try (OutputStream theStream = new BufferedOutputStream(new FileOutputStream(aImageFile))) {
+            theExporter.fullExportToStream(theGraph, theStream);
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2 || args.length > 3) {
+            System.err.println("Usage : BatchExporter <model.mxm> <image file> [dpi]");
+            System.exit(1);
+        }
+
+        if (System.getProperty("java.awt.headless") == null) {
+            System.setProperty("java.awt.headless", "true");
+        }
+
+        DataTypeIO.getInstance().loadUserTypes();
+
+        int theDpi = args.length == 3 ? Integer.parseInt(args[2]) : 0;
+        long theStart = System.currentTimeMillis();
+        export(new File(args[0]), new File(args[1]), theDpi);
+        LOGGER.info("Exported " + args[0] + " to " + args[1] + " in " + (System.currentTimeMillis() - theStart)
+                + "ms");
+    }
+}
@@ -21,6 +21,7 @@ import de.erdesignerng.visual.jgraph.ERDesignerGraph;
 
 import javax.imageio.ImageIO;
 import java.awt.*;
+import java.awt.geom.Rectangle2D;
 import java.awt.image.BufferedImage;
 import java.io.IOException;
 import java.io.OutputStream;
@@ -28,13 +29,31 @@ import java.util.ArrayList;
 import java.util.List;
 
 /**
+ * Exporter for bitmap images.
+ * <p/>
+ * The graph is rendered in horizontal bands of a fixed height. PNG images are
+ * encoded band by band while rendering, so the memory needed does not depend
+ * on the height of the diagram. Other formats are written by ImageIO, which
+ * needs the complete image.
+ *
  * @author $Author: mirkosertic $
  * @version $Date: 2008-11-15 14:21:15 $
  */
 public class ImageExporter implements Exporter {
 
+    /**
+     * The resolution of the user space of Java2D.
+     */
+    public static final int SCREEN_DPI = 72;
+
+    private static final int INSET = 10;
+
+    private static final int BAND_HEIGHT = 256;
+
     private final String ext;
 
+    private final int dpi;
+
     public static List<String> getSupportedFormats() {
 
         List<String> theKnown = new ArrayList<>();
@@ -46,18 +65,80 @@ public class ImageExporter implements Exporter {
     }
 
     public ImageExporter(String aExt) {
+        this(aExt, 0);
+    }
+
+    /**
+     * @param aExt the image format
+     * @param aDpi the resolution of the image, or 0 to export in the current zoom of the graph
+     */
+    public ImageExporter(String aExt, int aDpi) {
         ext = aExt;
+        dpi = aDpi;
     }
 
     @Override
     public void fullExportToStream(ERDesignerGraph aGraph, OutputStream aStream) throws IOException {
-        Color theBackgroundColor = aGraph.getBackground();
-        BufferedImage theImage = aGraph.getImage(theBackgroundColor, 10);
-        ImageIO.write(theImage, ext, aStream);
+        Rectangle2D theBounds = aGraph.getCellBounds(aGraph.getRoots());
+        if (theBounds != null) {
+            double theScale = dpi > 0 ? (double) dpi / SCREEN_DPI : aGraph.getScale();
+            int theWidth = (int) Math.ceil(theBounds.getWidth() * theScale) + 2 * INSET;
+            int theHeight = (int) Math.ceil(theBounds.getHeight() * theScale) + 2 * INSET;
+
+            if ("png".equalsIgnoreCase(ext)) {
+                PNGStreamEncoder theEncoder = new PNGStreamEncoder(aStream, theWidth, theHeight, dpi);
+                BufferedImage theBand = new BufferedImage(theWidth, Math.min(BAND_HEIGHT, theHeight),
+                        BufferedImage.TYPE_INT_RGB);
+                int[] theRow = new int[theWidth];
+                for (int theY = 0; theY < theHeight; theY += theBand.getHeight()) {
+                    renderBand(aGraph, theBounds, theScale, theBand, theY);
+                    int theRows = Math.min(theBand.getHeight(), theHeight - theY);
+                    for (int i = 0; i < theRows; i++) {
+                        theBand.getRGB(0, i, theWidth, 1, theRow, 0, theWidth);
+                        theEncoder.writeRow(theRow, 0);
+                    }
+                }
+                theEncoder.finish();
+            } else {
+                BufferedImage theImage = new BufferedImage(theWidth, theHeight, BufferedImage.TYPE_INT_RGB);
+                renderBand(aGraph, theBounds, theScale, theImage, 0);
+                ImageIO.write(theImage, ext, aStream);
+            }
+        }
         aStream.flush();
         aStream.close();
     }
 
+    /**
+     * Render a horizontal band of the graph into an image.
+     *
+     * @param aGraph  the graph
+     * @param aBounds the bounds of all cells in graph coordinates
+     * @param aScale  the scale of the exported image
+     * @param aImage  the image to render into
+     * @param aY      the offset of the band in the exported image
+     */
+    private void renderBand(ERDesignerGraph aGraph, Rectangle2D aBounds, double aScale, BufferedImage aImage,
+                            int aY) {
+        Graphics2D theGraphics = aImage.createGraphics();
+        try {
+            Color theBackground = aGraph.getBackground();
+            theGraphics.setColor(theBackground != null ? theBackground : Color.white);
+            theGraphics.fillRect(0, 0, aImage.getWidth(), aImage.getHeight());
+
+            // The clip limits the painted cells to the ones in this band
+            theGraphics.clipRect(0, 0, aImage.getWidth(), aImage.getHeight());
+            theGraphics.translate(INSET - aBounds.getX() * aScale, INSET - aBounds.getY() * aScale - aY);
+            // The UI applies the scale of the graph by itself
+            double theFactor = aScale / aGraph.getScale();
+            theGraphics.scale(theFactor, theFactor);
+
+            aGraph.print(theGraphics);
+        } finally {
+            theGraphics.dispose();
+        }
+    }
+
     @Override
     public String getFileExtension() {
         return "." + ext.toLowerCase();
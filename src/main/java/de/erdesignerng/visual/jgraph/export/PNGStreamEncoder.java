@@ -0,0 +1,232 @@
+/**
+ * Mogwai ERDesigner. Copyright (C) 2002 The Mogwai Project.
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program; if not, write to the Free Software Foundation, Inc., 59 Temple
+ * Place - Suite 330, Boston, MA 02111-1307, USA.
+ */
+package de.erdesignerng.visual.jgraph.export;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * Encoder writing an RGB PNG image row by row to a stream.
+ * <p/>
+ * Only the current and the previous row are kept in memory, so images of
+ * any height can be written. Every row is filtered with the cheapest of the
+ * None, Sub and Up filters.
+ */
+public class PNGStreamEncoder {
+
+    private static final byte[] SIGNATURE = {(byte) 137, 80, 78, 71, 13, 10, 26, 10};
+
+    private static final int MAX_CHUNK_SIZE = 65536;
+
+    private static final double INCH_PER_METER = 39.3700787;
+
+    /**
+     * Stream collecting the compressed data and writing it as IDAT chunks.
+     */
+    private final class DataChunkStream extends OutputStream {
+
+        private final ByteArrayOutputStream buffer = new ByteArrayOutputStream(MAX_CHUNK_SIZE);
+
+        @Override
+        public void write(int aByte) throws IOException {
+            buffer.write(aByte);
+            if (buffer.size() >= MAX_CHUNK_SIZE) {
+                flush();
+            }
+        }
+
+        @Override
+        public void write(byte[] aData, int aOffset, int aLength) throws IOException {
+            buffer.write(aData, aOffset, aLength);
+            if (buffer.size() >= MAX_CHUNK_SIZE) {
+                flush();
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (buffer.size() > 0) {
+                writeChunk("IDAT", buffer.toByteArray());
+                buffer.reset();
+            }
+        }
+    }
+
+    private final DataOutputStream output;
+
+    private final int width;
+
+    private final int height;
+
+    private final Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+
+    private final DataChunkStream dataStream = new DataChunkStream();
+
+    private final DeflaterOutputStream compressedStream;
+
+    private byte[] previousRow;
+
+    private byte[] currentRow;
+
+    private final byte[][] filteredRows;
+
+    private int rowCount;
+
+    /**
+     * Create the encoder and write the header of the image.
+     *
+     * @param aStream the stream to write to
+     * @param aWidth  the width of the image
+     * @param aHeight the height of the image
+     * @param aDpi    the resolution of the image, or 0 if unknown
+     * @throws IOException will be thrown in case of an error
+     */
+    public PNGStreamEncoder(OutputStream aStream, int aWidth, int aHeight, int aDpi) throws IOException {
+        output = new DataOutputStream(aStream);
+        width = aWidth;
+        height = aHeight;
+
+        int theRowLength = aWidth * 3;
+        previousRow = new byte[theRowLength];
+        currentRow = new byte[theRowLength];
+        filteredRows = new byte[3][theRowLength + 1];
+        compressedStream = new DeflaterOutputStream(dataStream, deflater, MAX_CHUNK_SIZE);
+
+        output.write(SIGNATURE);
+
+        ByteArrayOutputStream theHeader = new ByteArrayOutputStream();
+        DataOutputStream theHeaderData = new DataOutputStream(theHeader);
+        theHeaderData.writeInt(aWidth);
+        theHeaderData.writeInt(aHeight);
+        // 8 bit per sample, truecolor, deflate, adaptive filtering, no
+        // interlace
+        theHeaderData.writeByte(8);
+        theHeaderData.writeByte(2);
+        theHeaderData.writeByte(0);
+        theHeaderData.writeByte(0);
+        theHeaderData.writeByte(0);
+        writeChunk("IHDR", theHeader.toByteArray());
+
+        if (aDpi > 0) {
+            int thePixelsPerMeter = (int) Math.round(aDpi * INCH_PER_METER);
+            ByteArrayOutputStream thePhysical = new ByteArrayOutputStream();
+            DataOutputStream thePhysicalData = new DataOutputStream(thePhysical);
+            thePhysicalData.writeInt(thePixelsPerMeter);
+            thePhysicalData.writeInt(thePixelsPerMeter);
+            thePhysicalData.writeByte(1);
+            writeChunk("pHYs", thePhysical.toByteArray());
+        }
+    }
+
+    private void writeChunk(String aType, byte[] aData) throws IOException {
+        byte[] theType = aType.getBytes(StandardCharsets.US_ASCII);
+        CRC32 theCRC = new CRC32();
+        theCRC.update(theType);
+        theCRC.update(aData);
+
+        output.writeInt(aData.length);
+        output.write(theType);
+        output.write(aData);
+        output.writeInt((int) theCRC.getValue());
+    }
+
+    /**
+     * Write the next row of the image.
+     *
+     * @param aPixels the pixels of the row in the default RGB color model
+     * @param aOffset the index of the first pixel of the row
+     * @throws IOException will be thrown in case of an error
+     */
+    public void writeRow(int[] aPixels, int aOffset) throws IOException {
+        if (rowCount >= height) {
+            throw new IllegalStateException("All rows are already written");
+        }
+
+        for (int i = 0; i < width; i++) {
+            int thePixel = aPixels[aOffset + i];
+            currentRow[i * 3] = (byte) (thePixel >> 16);
+            currentRow[i * 3 + 1] = (byte) (thePixel >> 8);
+            currentRow[i * 3 + 2] = (byte) thePixel;
+        }
+
+        // Filter type 0 : None, 1 : Sub, 2 : Up
+        byte[] theNone = filteredRows[0];
+        byte[] theSub = filteredRows[1];
+        byte[] theUp = filteredRows[2];
+        theNone[0] = 0;
+        theSub[0] = 1;
+        theUp[0] = 2;
+        long theNoneSum = 0;
+        long theSubSum = 0;
+        long theUpSum = 0;
+        for (int i = 0; i < currentRow.length; i++) {
+            int theValue = currentRow[i] & 0xff;
+            int theLeft = i >= 3 ? currentRow[i - 3] & 0xff : 0;
+            int theAbove = previousRow[i] & 0xff;
+
+            byte theNoneValue = (byte) theValue;
+            byte theSubValue = (byte) (theValue - theLeft);
+            byte theUpValue = (byte) (theValue - theAbove);
+            theNone[i + 1] = theNoneValue;
+            theSub[i + 1] = theSubValue;
+            theUp[i + 1] = theUpValue;
+
+            // Heuristic of the PNG specification : minimum sum of absolute
+            // differences, taking the filtered bytes as signed values
+            theNoneSum += Math.abs(theNoneValue);
+            theSubSum += Math.abs(theSubValue);
+            theUpSum += Math.abs(theUpValue);
+        }
+
+        byte[] theFiltered = theNone;
+        if (theSubSum < theNoneSum && theSubSum <= theUpSum) {
+            theFiltered = theSub;
+        } else if (theUpSum < theNoneSum) {
+            theFiltered = theUp;
+        }
+        compressedStream.write(theFiltered);
+
+        byte[] theSwap = previousRow;
+        previousRow = currentRow;
+        currentRow = theSwap;
+        rowCount++;
+    }
+
+    /**
+     * Write the remaining data and the end of the image. The underlying
+     * stream is not closed.
+     *
+     * @throws IOException will be thrown in case of an error
+     */
+    public void finish() throws IOException {
+        if (rowCount != height) {
+            throw new IllegalStateException("Only " + rowCount + " of " + height + " rows were written");
+        }
+        compressedStream.finish();
+        dataStream.flush();
+        deflater.end();
+        writeChunk("IEND", new byte[0]);
+        output.flush();
+    }
+}
@@ -0,0 +1,450 @@
+/**
+ * Mogwai ERDesigner. Copyright (C) 2002 The Mogwai Project.
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program; if not, write to the Free Software Foundation, Inc., 59 Temple
+ * Place - Suite 330, Boston, MA 02111-1307, USA.
+ */
+package de.erdesignerng.visual.jgraph.export;
+
+import de.erdesignerng.model.Comment;
+import de.erdesignerng.model.Relation;
+import de.erdesignerng.model.SubjectArea;
+import de.erdesignerng.visual.IconFactory;
+import de.erdesignerng.visual.jgraph.ERDesignerGraph;
+import de.erdesignerng.visual.jgraph.cells.CommentCell;
+import de.erdesignerng.visual.jgraph.cells.RelationEdge;
+import de.erdesignerng.visual.jgraph.cells.SubjectAreaCell;
+import de.erdesignerng.visual.jgraph.cells.views.CommentCellView;
+import de.erdesignerng.visual.jgraph.cells.views.RelationEdgeView;
+import de.erdesignerng.visual.jgraph.cells.views.SubjectAreaCellView;
+import de.erdesignerng.visual.jgraph.cells.views.TableCellView;
+import de.erdesignerng.visual.jgraph.cells.views.ViewCellView;
+import org.apache.commons.lang.StringEscapeUtils;
+import org.apache.commons.lang.StringUtils;
+import org.jgraph.graph.CellView;
+import org.jgraph.graph.EdgeRenderer;
+import org.jgraph.graph.GraphConstants;
+import org.jgraph.graph.GraphLayoutCache;
+
+import javax.imageio.ImageIO;
+import javax.swing.*;
+import java.awt.*;
+import java.awt.geom.Point2D;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Writer for the SVG document of a graph.
+ * <p/>
+ * The elements are written directly from the geometry of the cell views, no
+ * Swing painting is involved. The presentation is done by shared CSS
+ * classes, icons and line ends are defined once as symbols and reused.
+ */
+class SVGDiagramWriter {
+
+    private static final int INSET = 10;
+
+    private static final String TABLE_BACKGROUND = "#ffffd4";
+
+    private static final String VIEW_BACKGROUND = "#d4ffff";
+
+    private final ERDesignerGraph graph;
+
+    private final Writer writer;
+
+    /**
+     * The CSS classes of the fonts.
+     */
+    private final Map<Font, String> fontClasses = new LinkedHashMap<>();
+
+    /**
+     * The ids of the gradients of the subject areas by color.
+     */
+    private final Map<Color, String> gradients = new HashMap<>();
+
+    private final Font labelFont;
+
+    private final Font commentFont;
+
+    SVGDiagramWriter(ERDesignerGraph aGraph, Writer aWriter) {
+        graph = aGraph;
+        writer = aWriter;
+        labelFont = UIManager.getFont("Label.font").deriveFont(Font.BOLD);
+        commentFont = UIManager.getFont("TextArea.font").deriveFont(Font.BOLD);
+    }
+
+    /**
+     * Write the document.
+     *
+     * @param aEncoding the encoding of the writer
+     * @throws IOException will be thrown in case of an error
+     */
+    public void write(String aEncoding) throws IOException {
+        GraphLayoutCache theCache = graph.getGraphLayoutCache();
+        Rectangle2D theBounds = graph.getCellBounds(graph.getRoots());
+        if (theBounds == null) {
+            theBounds = new Rectangle2D.Double();
+        }
+        double theScale = graph.getScale();
+        int theWidth = (int) Math.ceil(theBounds.getWidth() * theScale) + 2 * INSET;
+        int theHeight = (int) Math.ceil(theBounds.getHeight() * theScale) + 2 * INSET;
+
+        // The style comes first, so the fonts are collected before the
+        // content is written
+        for (CellView theView : theCache.getRoots()) {
+            collectFonts(theView);
+        }
+
+        writer.write("<?xml version=\"1.0\" encoding=\"" + aEncoding + "\"?>\n");
+        writer.write("<svg xmlns=\"http://www.w3.org/2000/svg\" xmlns:xlink=\"http://www.w3.org/1999/xlink\""
+                + " version=\"1.1\" xml:space=\"preserve\" width=\"" + theWidth + "\" height=\"" + theHeight
+                + "\">\n");
+        writeStyle();
+        writeSymbols();
+        writer.write("<g transform=\"translate(" + INSET + "," + INSET + ") scale(" + format(theScale)
+                + ") translate(" + format(-theBounds.getX()) + "," + format(-theBounds.getY()) + ")\">\n");
+        for (CellView theView : theCache.getRoots()) {
+            writeView(theView);
+        }
+        writer.write("</g>\n</svg>\n");
+        writer.flush();
+    }
+
+    private void writeStyle() throws IOException {
+        writer.write("<style type=\"text/css\"><![CDATA[\n");
+        writer.write("text{fill:black}\n");
+        writer.write("text.red{fill:red}\n");
+        writer.write("text.label{text-anchor:middle}\n");
+        writer.write("text.centered{text-anchor:middle}\n");
+        writer.write(".shadow{fill:black;stroke:none}\n");
+        writer.write(".table{fill:" + TABLE_BACKGROUND + ";stroke:black}\n");
+        writer.write(".view{fill:" + VIEW_BACKGROUND + ";stroke:black}\n");
+        writer.write(".comment{fill:none;stroke:gray}\n");
+        writer.write(".subjectarea{stroke:black}\n");
+        writer.write(".expanded{stroke-dasharray:10}\n");
+        writer.write(".line{fill:none;stroke:black}\n");
+        for (Map.Entry<Font, String> theEntry : fontClasses.entrySet()) {
+            Font theFont = theEntry.getKey();
+            writer.write("text." + theEntry.getValue() + "{font-family:" + getFontFamily(theFont) + ";"
+                    + "font-size:" + theFont.getSize() + "px;font-weight:" + (theFont.isBold() ? "bold" : "normal")
+                    + ";font-style:" + (theFont.isItalic() ? "italic" : "normal") + "}\n");
+        }
+        writer.write("]]></style>\n");
+    }
+
+    private void writeSymbols() throws IOException {
+        writer.write("<defs>\n");
+        writeIconSymbol("key", IconFactory.getKeyIcon());
+        writeIconSymbol("expand", IconFactory.getExpandIcon());
+        writeIconSymbol("collapse", IconFactory.getCollapseIcon());
+
+        // The line ends are defined for an edge leaving the origin to the
+        // right, see RelationEdgeView
+        writer.write("<symbol id=\"end\" overflow=\"visible\" class=\"line\">"
+                + "<path d=\"M10,-10L10,10\"/><circle cx=\"20\" cy=\"0\" r=\"6\"/></symbol>\n");
+        writer.write("<symbol id=\"end-identifying\" overflow=\"visible\" class=\"line\">"
+                + "<path d=\"M10,-10L10,10M15,-10L15,10\"/></symbol>\n");
+        writer.write("<symbol id=\"begin-one-to-one\" overflow=\"visible\" class=\"line\">"
+                + "<path d=\"M10,-10L10,10\"/><circle cx=\"20\" cy=\"0\" r=\"6\"/></symbol>\n");
+        writer.write("<symbol id=\"begin-many\" overflow=\"visible\" class=\"line\">"
+                + "<path d=\"M15,0L0,10M15,0L0,-10\"/><circle cx=\"25\" cy=\"0\" r=\"6\"/></symbol>\n");
+        writer.write("</defs>\n");
+    }
+
+    private void writeIconSymbol(String aId, ImageIcon aIcon) throws IOException {
+        int theWidth = aIcon.getIconWidth();
+        int theHeight = aIcon.getIconHeight();
+        BufferedImage theImage = new BufferedImage(theWidth, theHeight, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D theGraphics = theImage.createGraphics();
+        theGraphics.drawImage(aIcon.getImage(), 0, 0, null);
+        theGraphics.dispose();
+
+        ByteArrayOutputStream theData = new ByteArrayOutputStream();
+        ImageIO.write(theImage, "png", theData);
+
+        writer.write("<symbol id=\"" + aId + "\" overflow=\"visible\"><image width=\"" + theWidth + "\" height=\""
+                + theHeight + "\" xlink:href=\"data:image/png;base64,"
+                + Base64.getEncoder().encodeToString(theData.toByteArray()) + "\"/></symbol>\n");
+    }
+
+    private void writeView(CellView aView) throws IOException {
+        if (!graph.getGraphLayoutCache().isVisible(aView.getCell())) {
+            return;
+        }
+        if (aView instanceof TableCellView) {
+            writeTable((TableCellView) aView);
+        } else if (aView instanceof ViewCellView) {
+            writeViewCell((ViewCellView) aView);
+        } else if (aView instanceof CommentCellView) {
+            writeComment((CommentCellView) aView);
+        } else if (aView instanceof RelationEdgeView) {
+            writeRelation((RelationEdgeView) aView);
+        } else if (aView instanceof SubjectAreaCellView) {
+            writeSubjectArea((SubjectAreaCellView) aView);
+            for (CellView theChild : aView.getChildViews()) {
+                writeView(theChild);
+            }
+        }
+    }
+
+    /**
+     * Collect the fonts of a view and its children the same way writeView
+     * uses them.
+     */
+    private void collectFonts(CellView aView) {
+        if (!graph.getGraphLayoutCache().isVisible(aView.getCell())) {
+            return;
+        }
+        if (aView instanceof TableCellView) {
+            getFontClass(((TableCellView) aView).getGlyph(graph).getFont());
+        } else if (aView instanceof ViewCellView) {
+            getFontClass(((ViewCellView) aView).getFont());
+        } else if (aView instanceof CommentCellView) {
+            getFontClass(commentFont);
+        } else if (aView instanceof RelationEdgeView) {
+            if (StringUtils.isNotEmpty(graph.convertValueToString(aView))) {
+                getFontClass(GraphConstants.getFont(aView.getAllAttributes()));
+            }
+        } else if (aView instanceof SubjectAreaCellView) {
+            getFontClass(labelFont);
+            for (CellView theChild : aView.getChildViews()) {
+                collectFonts(theChild);
+            }
+        }
+    }
+
+    private String getFontClass(Font aFont) {
+        return fontClasses.computeIfAbsent(aFont, k -> "f" + fontClasses.size());
+    }
+
+    private FontMetrics getFontMetrics(Font aFont) {
+        return graph.getFontMetrics(aFont);
+    }
+
+    private void beginGroup(Rectangle2D aBounds) throws IOException {
+        writer.append("<g transform=\"translate(").append(format(aBounds.getX())).append(',')
+                .append(format(aBounds.getY())).append(")\">\n");
+    }
+
+    private void rect(String aClass, double aX, double aY, double aWidth, double aHeight) throws IOException {
+        writer.append("<rect class=\"").append(aClass).append("\" x=\"").append(format(aX)).append("\" y=\"")
+                .append(format(aY)).append("\" width=\"").append(format(aWidth)).append("\" height=\"")
+                .append(format(aHeight)).append("\"/>\n");
+    }
+
+    private void text(String aClass, double aX, double aY, String aText) throws IOException {
+        writer.append("<text class=\"").append(aClass).append("\" x=\"").append(format(aX)).append("\" y=\"")
+                .append(format(aY)).append("\">").append(StringEscapeUtils.escapeXml(aText)).append("</text>\n");
+    }
+
+    private void use(String aSymbol, double aX, double aY) throws IOException {
+        writer.append("<use xlink:href=\"#").append(aSymbol).append("\" x=\"").append(format(aX)).append("\" y=\"")
+                .append(format(aY)).append("\"/>\n");
+    }
+
+    /**
+     * Write the box of a table or view, the same way the renderers paint it.
+     */
+    private void writeBox(String aClass, Rectangle2D aBounds, String aTitle, String aFontClass,
+                          FontMetrics aMetrics) throws IOException {
+        double theWidth = aBounds.getWidth();
+        double theHeight = aBounds.getHeight();
+        int theLineHeight = aMetrics.getHeight();
+
+        text(aFontClass, 0, aMetrics.getAscent(), aTitle);
+        rect("shadow", 5, theLineHeight + 5, theWidth - 5, theHeight - theLineHeight - 5);
+        rect(aClass, 0, theLineHeight, theWidth - 5, theHeight - theLineHeight - 6);
+    }
+
+    private void writeTable(TableCellView aView) throws IOException {
+        Rectangle2D theBounds = aView.getBounds();
+        TableCellView.Glyph theGlyph = aView.getGlyph(graph);
+        String theFontClass = getFontClass(theGlyph.getFont());
+        FontMetrics theMetrics = getFontMetrics(theGlyph.getFont());
+        int theAscent = theMetrics.getAscent();
+        int theLineHeight = theMetrics.getHeight();
+
+        beginGroup(theBounds);
+        writeBox("table", theBounds, theGlyph.getTitle(), theFontClass, theMetrics);
+
+        int theYOffset = theLineHeight;
+        for (TableCellView.Row theRow : theGlyph.getRows()) {
+            if (theRow.isSeparator()) {
+                writer.append("<path class=\"line\" d=\"M0,").append(String.valueOf(theYOffset)).append('H')
+                        .append(format(theBounds.getWidth() - 5)).append("\"/>\n");
+            } else {
+                String theClass = Color.red.equals(theRow.getColor()) ? theFontClass + " red" : theFontClass;
+                text(theClass, theRow.getX(), theYOffset + theAscent, theRow.getText());
+                if (theRow.isPrimaryKey()) {
+                    use("key", 5, theYOffset + 4);
+                }
+                theYOffset += theLineHeight;
+            }
+        }
+        writer.append("</g>\n");
+    }
+
+    private void writeViewCell(ViewCellView aView) throws IOException {
+        Rectangle2D theBounds = aView.getBounds();
+        Font theFont = aView.getFont();
+        String theFontClass = getFontClass(theFont);
+        FontMetrics theMetrics = getFontMetrics(theFont);
+        int theLineHeight = theMetrics.getHeight();
+
+        beginGroup(theBounds);
+        writeBox("view", theBounds, aView.getTitle(graph), theFontClass, theMetrics);
+
+        int theYOffset = theLineHeight;
+        for (String theText : aView.getAttributeTexts(graph)) {
+            text(theFontClass, 15, theYOffset + theMetrics.getAscent(), theText);
+            theYOffset += theLineHeight;
+        }
+        writer.append("</g>\n");
+    }
+
+    private void writeComment(CommentCellView aView) throws IOException {
+        Rectangle2D theBounds = aView.getBounds();
+        Comment theComment = (Comment) ((CommentCell) aView.getCell()).getUserObject();
+        String theFontClass = getFontClass(commentFont);
+        FontMetrics theMetrics = getFontMetrics(commentFont);
+
+        beginGroup(theBounds);
+        writer.append("<rect class=\"comment\" x=\"0\" y=\"0\" width=\"").append(format(theBounds.getWidth() - 1))
+                .append("\" height=\"").append(format(theBounds.getHeight() - 1)).append("\" rx=\"5\" ry=\"5\"/>\n");
+        if (theComment.getComment() != null) {
+            int theYOffset = 10 + theMetrics.getAscent();
+            for (String theLine : theComment.getComment().split("\n", -1)) {
+                if (theLine.length() > 0) {
+                    text(theFontClass, 10, theYOffset, theLine);
+                }
+                theYOffset += theMetrics.getHeight();
+            }
+        }
+        writer.append("</g>\n");
+    }
+
+    private void writeSubjectArea(SubjectAreaCellView aView) throws IOException {
+        Rectangle2D theBounds = aView.getBounds();
+        SubjectAreaCell theCell = (SubjectAreaCell) aView.getCell();
+        SubjectArea theArea = (SubjectArea) theCell.getUserObject();
+        String theFontClass = getFontClass(labelFont);
+        FontMetrics theMetrics = getFontMetrics(labelFont);
+
+        Color theColor = theArea.getColor();
+        String theGradient = gradients.get(theColor);
+        if (theGradient == null) {
+            theGradient = "sa" + gradients.size();
+            gradients.put(theColor, theGradient);
+            writer.append("<defs><linearGradient id=\"").append(theGradient).append("\" x1=\"0\" y1=\"0\" x2=\"1\" y2=\"1\">")
+                    .append("<stop offset=\"0\" stop-color=\"").append(toHex(theColor)).append("\"/>")
+                    .append("<stop offset=\"1\" stop-color=\"#ffffff\"/></linearGradient></defs>\n");
+        }
+
+        double theWidth = theBounds.getWidth();
+        double theHeight = theBounds.getHeight();
+
+        beginGroup(theBounds);
+        writer.append("<rect class=\"subjectarea").append(theCell.isExpanded() ? " expanded" : "")
+                .append("\" fill=\"url(#").append(theGradient).append(")\" x=\"0\" y=\"0\" width=\"")
+                .append(format(theWidth - 1)).append("\" height=\"").append(format(theHeight - 1)).append("\"/>\n");
+        if (theCell.isExpanded()) {
+            use("collapse", -5, -5);
+            text(theFontClass, 24, theMetrics.getHeight(), theArea.getName());
+        } else {
+            use("expand", -5, -5);
+            text(theFontClass + " centered", theWidth / 2, theHeight / 2, theArea.getName());
+        }
+        writer.append("</g>\n");
+    }
+
+    private void writeRelation(RelationEdgeView aView) throws IOException {
+        int theCount = aView.getPointCount();
+        if (theCount < 2) {
+            return;
+        }
+        Relation theRelation = (Relation) ((RelationEdge) aView.getCell()).getUserObject();
+
+        writer.append("<path class=\"line\" d=\"");
+        for (int i = 0; i < theCount; i++) {
+            Point2D thePoint = aView.getPoint(i);
+            writer.append(i == 0 ? 'M' : 'L').append(format(thePoint.getX())).append(',')
+                    .append(format(thePoint.getY()));
+        }
+        writer.append("\"/>\n");
+
+        writeLineEnd(theRelation.isOneToOne() ? "begin-one-to-one" : "begin-many", aView.getPoint(0),
+                aView.getPoint(1));
+        writeLineEnd(theRelation.isIdentifying() ? "end-identifying" : "end", aView.getPoint(theCount - 1),
+                aView.getPoint(theCount - 2));
+
+        String theLabel = graph.convertValueToString(aView);
+        if (StringUtils.isNotEmpty(theLabel)) {
+            Point2D thePosition = ((EdgeRenderer) aView.getRenderer()).getLabelPosition(aView);
+            if (thePosition != null) {
+                Font theFont = GraphConstants.getFont(aView.getAllAttributes());
+                FontMetrics theMetrics = getFontMetrics(theFont);
+                text(getFontClass(theFont) + " label", thePosition.getX(),
+                        thePosition.getY() + theMetrics.getHeight() / 4, theLabel);
+            }
+        }
+    }
+
+    private void writeLineEnd(String aSymbol, Point2D aOrigin, Point2D aDirection) throws IOException {
+        double theAngle = Math.toDegrees(Math.atan2(aDirection.getY() - aOrigin.getY(),
+                aDirection.getX() - aOrigin.getX()));
+        writer.append("<use xlink:href=\"#").append(aSymbol).append("\" transform=\"translate(")
+                .append(format(aOrigin.getX())).append(',').append(format(aOrigin.getY())).append(") rotate(")
+                .append(format(theAngle)).append(")\"/>\n");
+    }
+
+    /**
+     * Get the CSS font family. The logical fonts of Java are mapped to the
+     * generic families of CSS.
+     */
+    private static String getFontFamily(Font aFont) {
+        String theFamily = aFont.getFamily();
+        if (Font.SERIF.equals(theFamily)) {
+            return "serif";
+        }
+        if (Font.MONOSPACED.equals(theFamily) || Font.DIALOG_INPUT.equals(theFamily)) {
+            return "monospace";
+        }
+        if (Font.SANS_SERIF.equals(theFamily) || Font.DIALOG.equals(theFamily)) {
+            return "sans-serif";
+        }
+        return "'" + theFamily + "',sans-serif";
+    }
+
+    private static String toHex(Color aColor) {
+        return String.format("#%02x%02x%02x", aColor.getRed(), aColor.getGreen(), aColor.getBlue());
+    }
+
+    /**
+     * Format a coordinate with at most two decimals.
+     */
+    static String format(double aValue) {
+        long theValue = Math.round(aValue * 100);
+        if (theValue % 100 == 0) {
+            return Long.toString(theValue / 100);
+        }
+        return Double.toString(theValue / 100d);
+    }
+}
@@ -20,20 +20,22 @@ package de.erdesignerng.visual.jgraph.export;
 import de.erdesignerng.PlatformConfig;
 import de.erdesignerng.visual.jgraph.ERDesignerGraph;
 import org.apache.batik.dom.GenericDOMImplementation;
-import org.apache.batik.dom.svg.SVGDOMImplementation;
 import org.apache.batik.svggen.SVGGraphics2D;
 import org.w3c.dom.DOMImplementation;
 import org.w3c.dom.Document;
 
 import javax.swing.*;
 import java.awt.*;
-import java.awt.geom.Rectangle2D;
+import java.io.BufferedWriter;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.Writer;
 
 /**
+ * Exporter for SVG documents. Graphs are written directly from their cell
+ * views, other components are painted into a Batik document.
+ *
  * @author $Author: mirkosertic $
  * @version $Date: 2008-01-15 19:22:45 $
  */
@@ -41,29 +43,10 @@ public class SVGExporter implements Exporter {
 
     @Override
     public void fullExportToStream(ERDesignerGraph aGraph, OutputStream aStream) throws IOException {
-        Object[] cells = aGraph.getRoots();
-        Rectangle2D bounds = aGraph.toScreen(aGraph.getCellBounds(cells));
-        if (bounds != null) {
-            DOMImplementation theDomImpl = SVGDOMImplementation.getDOMImplementation();
-            String svgNS = SVGDOMImplementation.SVG_NAMESPACE_URI;
-            Document theDocument = theDomImpl.createDocument(svgNS, "svg", null);
-            SVGGraphics2D theSvgGenerator = new SVGGraphics2D(theDocument);
-            theSvgGenerator.translate(-bounds.getX() + 10, -bounds.getY() + 0);
-            RepaintManager theRepaintManager = RepaintManager.currentManager(aGraph);
-            theRepaintManager.setDoubleBufferingEnabled(false);
-            boolean theDoubleBuffered = aGraph.isDoubleBuffered();
-            // Disable double buffering to allow Batik to render svg elements
-            // instead of images
-            aGraph.setDoubleBuffered(false);
-            aGraph.paint(theSvgGenerator);
-            aGraph.setDoubleBuffered(theDoubleBuffered);
-            Writer theWriter = new OutputStreamWriter(aStream, PlatformConfig.getXMLEncoding());
-            theSvgGenerator.stream(theWriter, false);
-            theRepaintManager.setDoubleBufferingEnabled(true);
-
-            theWriter.flush();
-            theWriter.close();
-        }
+        String theEncoding = PlatformConfig.getXMLEncoding();
+        Writer theWriter = new BufferedWriter(new OutputStreamWriter(aStream, theEncoding));
+        new SVGDiagramWriter(aGraph, theWriter).write(theEncoding);
+        theWriter.close();
     }
 
     @Override
@@ -34,6 +34,8 @@ import de.mogwai.common.client.looks.components.DefaultPopupMenu;
 import de.mogwai.common.i18n.ResourceHelper;
 import org.apache.log4j.Logger;
 import org.jgraph.JGraph;
+import org.jgraph.event.GraphLayoutCacheListener;
+import org.jgraph.event.GraphModelListener;
 import org.jgraph.graph.CellView;
 import org.jgraph.graph.DefaultGraphCell;
 import org.jgraph.graph.EdgeView;
@@ -47,7 +49,9 @@ import java.awt.event.MouseWheelEvent;
 import java.awt.event.MouseWheelListener;
 import java.awt.geom.Point2D;
 import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -61,10 +65,43 @@ public class ERDesignerGraphUI extends BasicGraphUI {
 
     private final JGraphEditor erdesigner;
 
+    private final TileCache tiles = new TileCache();
+
     public ERDesignerGraphUI(JGraphEditor aComponent) {
         erdesigner = aComponent;
     }
 
+    @Override
+    protected GraphModelListener createGraphModelListener() {
+        GraphModelListener theListener = super.createGraphModelListener();
+        return e -> {
+            theListener.graphChanged(e);
+            ((ERDesignerGraph) graph).getCellViewIndex().graphChanged(e.getChange());
+        };
+    }
+
+    @Override
+    protected GraphLayoutCacheListener createGraphLayoutCacheListener() {
+        GraphLayoutCacheListener theListener = super.createGraphLayoutCacheListener();
+        return e -> {
+            theListener.graphLayoutCacheChanged(e);
+            ((ERDesignerGraph) graph).getCellViewIndex().graphChanged(e.getChange());
+        };
+    }
+
+    /**
+     * Drop the rendered tiles of a region of the graph.
+     *
+     * @param aRegion the region in graph coordinates, or null for the whole graph
+     */
+    public void invalidateTiles(Rectangle2D aRegion) {
+        if (aRegion == null) {
+            tiles.invalidateAll();
+        } else {
+            tiles.invalidate(aRegion);
+        }
+    }
+
     @Override
     protected void installListeners() {
         super.installListeners();
@@ -346,43 +383,122 @@ public class ERDesignerGraphUI extends BasicGraphUI {
         return false;
     }
 
+    private List<CellView> getViews(Rectangle2D aRegion) {
+        if (aRegion == null) {
+            return Arrays.asList(graphLayoutCache.getRoots());
+        }
+        return ((ERDesignerGraph) graph).getCellViewIndex().getRoots(graphLayoutCache, aRegion);
+    }
+
     /**
-     * We draw the edges on top of the other elements.
+     * Only the cells intersecting the clip are painted, they are found by
+     * the spatial index. If tiled rendering is enabled, the cells are
+     * painted into cached tiles, and only the tiles invalidated since the
+     * last paint are painted again.
      *
      * @param g
      * @param realClipBounds
      */
     @Override
     protected void paintCells(Graphics g, Rectangle2D realClipBounds) {
-        CellView[] views = graphLayoutCache.getRoots();
+        if (realClipBounds != null && g instanceof Graphics2D && ((ERDesignerGraph) graph).isTiledRendering()
+                && graph.isDoubleBuffered() && !graph.isPaintingForPrint()) {
+            paintTiles((Graphics2D) g, realClipBounds);
+        } else {
+            paintViews(g, getViews(realClipBounds));
+        }
+    }
+
+    /**
+     * We draw the edges on top of the other elements.
+     *
+     * @param aGraphics the graphics
+     * @param aViews    the views to paint
+     */
+    private void paintViews(Graphics aGraphics, List<CellView> aViews) {
         List<CellView> edges = new ArrayList<>();
 
         // Draw everything except of edges
-        for (CellView theView : views) {
+        for (CellView theView : aViews) {
             if (theView instanceof EdgeView) {
                 edges.add(theView);
             } else {
-                Rectangle2D bounds = theView.getBounds();
-                if (bounds != null) {
-                    if (realClipBounds == null) {
-                        paintCell(g, theView, bounds, false);
-                    } else if (bounds.intersects(realClipBounds)) {
-                        paintCell(g, theView, bounds, false);
-                    }
-                }
+                paintView(aGraphics, theView);
             }
         }
 
         // Finally draw the edges
         for (CellView theView : edges) {
-            Rectangle2D bounds = theView.getBounds();
-            if (bounds != null) {
-                if (realClipBounds == null) {
-                    paintCell(g, theView, bounds, false);
-                } else if (bounds.intersects(realClipBounds)) {
-                    paintCell(g, theView, bounds, false);
+            paintView(aGraphics, theView);
+        }
+    }
+
+    private void paintView(Graphics aGraphics, CellView aView) {
+        Rectangle2D bounds = aView.getBounds();
+        if (bounds != null) {
+            paintCell(aGraphics, aView, bounds, false);
+        }
+    }
+
+    /**
+     * Paint the tiles intersecting the clip.
+     *
+     * @param aGraphics      the graphics, scaled by the graph scale
+     * @param realClipBounds the clip in graph coordinates
+     */
+    private void paintTiles(Graphics2D aGraphics, Rectangle2D realClipBounds) {
+        double theScale = graph.getScale();
+        int theTileSize = TileCache.TILE_SIZE;
+
+        int theFirstColumn = (int) Math.floor(realClipBounds.getMinX() * theScale / theTileSize);
+        int theLastColumn = (int) Math.floor(realClipBounds.getMaxX() * theScale / theTileSize);
+        int theFirstRow = (int) Math.floor(realClipBounds.getMinY() * theScale / theTileSize);
+        int theLastRow = (int) Math.floor(realClipBounds.getMaxY() * theScale / theTileSize);
+
+        // The tiles are drawn unscaled, so they are aligned to the pixels
+        Graphics2D theScreen = (Graphics2D) aGraphics.create();
+        theScreen.scale(1 / theScale, 1 / theScale);
+        try {
+            for (int theRow = theFirstRow; theRow <= theLastRow; theRow++) {
+                for (int theColumn = theFirstColumn; theColumn <= theLastColumn; theColumn++) {
+                    TileCache.Key theKey = new TileCache.Key(theScale, theColumn, theRow);
+                    Image theTile = tiles.get(theKey);
+                    if (theTile == null) {
+                        theTile = renderTile(aGraphics, theKey, theColumn, theRow);
+                        tiles.put(theKey, theTile);
+                    }
+                    theScreen.drawImage(theTile, theColumn * theTileSize, theRow * theTileSize, null);
                 }
             }
+        } finally {
+            theScreen.dispose();
+        }
+    }
+
+    private Image renderTile(Graphics2D aTemplate, TileCache.Key aKey, int aColumn, int aRow) {
+        int theTileSize = TileCache.TILE_SIZE;
+
+        GraphicsConfiguration theConfiguration = graph.getGraphicsConfiguration();
+        BufferedImage theTile;
+        if (theConfiguration != null) {
+            theTile = theConfiguration.createCompatibleImage(theTileSize, theTileSize, Transparency.TRANSLUCENT);
+        } else {
+            theTile = new BufferedImage(theTileSize, theTileSize, BufferedImage.TYPE_INT_ARGB_PRE);
+        }
+
+        Rectangle2D theRegion = aKey.getRegion();
+
+        Graphics2D theGraphics = theTile.createGraphics();
+        try {
+            theGraphics.setRenderingHints(aTemplate.getRenderingHints());
+            theGraphics.setFont(aTemplate.getFont());
+            theGraphics.translate(-aColumn * theTileSize, -aRow * theTileSize);
+            theGraphics.scale(graph.getScale(), graph.getScale());
+            theGraphics.clip(theRegion);
+            paintViews(theGraphics, getViews(theRegion));
+        } finally {
+            theGraphics.dispose();
         }
+        return theTile;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,128 @@
+/**
+ * Mogwai ERDesigner. Copyright (C) 2002 The Mogwai Project.
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program; if not, write to the Free Software Foundation, Inc., 59 Temple
+ * Place - Suite 330, Boston, MA 02111-1307, USA.
+ */
+package de.erdesignerng.visual.jgraph.plaf.basic;
+
+import java.awt.Image;
+import java.awt.geom.Rectangle2D;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Cache of rendered tiles of the graph.
+ * <p/>
+ * The tiles have a fixed size in screen pixels, so a tile covers a different
+ * region of the graph for every zoom level. The tiles of all zoom levels are
+ * kept, up to a maximum number of tiles, the least recently used tiles are
+ * dropped first.
+ */
+class TileCache {
+
+    public static final int TILE_SIZE = 256;
+
+    /**
+     * 256 tiles of 256x256 ARGB pixels use 64MB.
+     */
+    private static final int MAX_TILES = 256;
+
+    /**
+     * Rendering might exceed the bounds of a cell a little, for instance by
+     * anti aliasing.
+     */
+    private static final double DIRTY_MARGIN = 3;
+
+    static final class Key {
+
+        private final double scale;
+
+        private final int column;
+
+        private final int row;
+
+        Key(double aScale, int aColumn, int aRow) {
+            scale = aScale;
+            column = aColumn;
+            row = aRow;
+        }
+
+        /**
+         * @return the region of the graph covered by the tile
+         */
+        Rectangle2D getRegion() {
+            return new Rectangle2D.Double(column * TILE_SIZE / scale, row * TILE_SIZE / scale, TILE_SIZE / scale,
+                    TILE_SIZE / scale);
+        }
+
+        @Override
+        public boolean equals(Object aOther) {
+            if (!(aOther instanceof Key)) {
+                return false;
+            }
+            Key theOther = (Key) aOther;
+            return scale == theOther.scale && column == theOther.column && row == theOther.row;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(scale, column, row);
+        }
+    }
+
+    private final Map<Key, Image> tiles = new LinkedHashMap<Key, Image>(MAX_TILES, 0.75f, true) {
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, Image> aEldest) {
+            if (size() > MAX_TILES) {
+                aEldest.getValue().flush();
+                return true;
+            }
+            return false;
+        }
+    };
+
+    public Image get(Key aKey) {
+        return tiles.get(aKey);
+    }
+
+    public void put(Key aKey, Image aTile) {
+        tiles.put(aKey, aTile);
+    }
+
+    /**
+     * Drop all tiles intersecting a region.
+     *
+     * @param aRegion the region in graph coordinates
+     */
+    public void invalidate(Rectangle2D aRegion) {
+        Rectangle2D theRegion = new Rectangle2D.Double(aRegion.getX() - DIRTY_MARGIN, aRegion.getY() - DIRTY_MARGIN,
+                aRegion.getWidth() + 2 * DIRTY_MARGIN, aRegion.getHeight() + 2 * DIRTY_MARGIN);
+        for (Iterator<Map.Entry<Key, Image>> theIterator = tiles.entrySet().iterator(); theIterator.hasNext(); ) {
+            Map.Entry<Key, Image> theEntry = theIterator.next();
+            if (theEntry.getKey().getRegion().intersects(theRegion)) {
+                theEntry.getValue().flush();
+                theIterator.remove();
+            }
+        }
+    }
+
+    public void invalidateAll() {
+        tiles.values().forEach(Image::flush);
+        tiles.clear();
+    }
+}
@@ -26,8 +26,12 @@ import org.xml.sax.SAXException;
 
 import de.erdesignerng.model.Model;
 import de.erdesignerng.model.ModelIOUtilities;
+import de.erdesignerng.model.Table;
 import de.erdesignerng.model.utils.ModelComparator;
+import de.erdesignerng.model.utils.MissingEntityInfo;
+import de.erdesignerng.model.utils.ModelChange;
 import de.erdesignerng.model.utils.ModelCompareResult;
+import de.erdesignerng.model.utils.ModelDiff;
 import de.erdesignerng.test.BaseERDesignerTestCaseImpl;
 
 public class ModelComparatorTest extends BaseERDesignerTestCaseImpl {
@@ -56,4 +60,62 @@ public class ModelComparatorTest extends BaseERDesignerTestCaseImpl {
 		compare(theDbRootNode, theModelRootNode, false);
 	}
 
+	public void testParallelModelComparator() throws SAXException, IOException, ParserConfigurationException {
+		Model theModel = ModelIOUtilities.getInstance().deserializeModelFromXML(
+				getClass().getResourceAsStream("examplemodel.mxm"));
+		Model theOtherModel = ModelIOUtilities.getInstance().deserializeModelFromXML(
+				getClass().getResourceAsStream("examplemodel.mxm"));
+
+		ModelCompareResult theSequentialResult = new ModelComparator(false).compareModels(theModel, theOtherModel);
+		ModelCompareResult theParallelResult = new ModelComparator(true).compareModels(theModel, theOtherModel);
+
+		compare(theSequentialResult.getModelRootNode(), theParallelResult.getModelRootNode(), true);
+		compare(theSequentialResult.getDbRootNode(), theParallelResult.getDbRootNode(), true);
+	}
+
+	public void testMissingTable() throws Exception {
+		Model theModel = ModelIOUtilities.getInstance().deserializeModelFromXML(
+				getClass().getResourceAsStream("examplemodel.mxm"));
+		Model theOtherModel = ModelIOUtilities.getInstance().deserializeModelFromXML(
+				getClass().getResourceAsStream("examplemodel.mxm"));
+
+		Table theRemovedTable = theOtherModel.getTables().get(0);
+		theOtherModel.removeTable(theRemovedTable);
+
+		ModelCompareResult theResult = new ModelComparator().compareModels(theModel, theOtherModel);
+
+		DefaultMutableTreeNode theModelNode = (DefaultMutableTreeNode) theResult.getModelRootNode().getChildAt(0);
+		DefaultMutableTreeNode theDbNode = (DefaultMutableTreeNode) theResult.getDbRootNode().getChildAt(0);
+		assertEquals(theRemovedTable.getName(), theModelNode.getUserObject());
+		assertTrue(theDbNode.getUserObject() instanceof MissingEntityInfo);
+		assertEquals(theModel.getTables().size(), theResult.getDbRootNode().getChildCount()
+				- theModel.getViews().size());
+	}
+
+	public void testDiff() throws Exception {
+		Model theModel = ModelIOUtilities.getInstance().deserializeModelFromXML(
+				getClass().getResourceAsStream("examplemodel.mxm"));
+		Model theOtherModel = ModelIOUtilities.getInstance().deserializeModelFromXML(
+				getClass().getResourceAsStream("examplemodel.mxm"));
+
+		assertTrue(new ModelComparator().diff(theModel, theOtherModel).isEmpty());
+
+		Table theRemovedTable = theOtherModel.getTables().get(0);
+		theOtherModel.removeTable(theRemovedTable);
+
+		ModelDiff theDiff = new ModelComparator(true).diff(theModel, theOtherModel);
+		assertFalse(theDiff.isEmpty());
+		assertEquals(1, theDiff.getChanges(ModelChange.ItemType.TABLE).size());
+
+		ModelChange theChange = theDiff.getChanges().get(0);
+		assertEquals(ModelChange.ItemType.TABLE, theChange.getItemType());
+		assertEquals(ModelChange.ChangeType.REMOVED, theChange.getChangeType());
+		assertEquals(theRemovedTable.getName(), theChange.getName());
+		assertNull(theChange.getFromDatabase());
+
+		for (ModelChange theAttributeChange : theDiff.getChanges(ModelChange.ItemType.ATTRIBUTE)) {
+			assertEquals(theRemovedTable.getName(), theAttributeChange.getTableName());
+			assertEquals(ModelChange.ChangeType.REMOVED, theAttributeChange.getChangeType());
+		}
+	}
 }
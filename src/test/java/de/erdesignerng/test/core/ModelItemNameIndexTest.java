@@ -0,0 +1,147 @@
+/**
+ * Mogwai ERDesigner. Copyright (C) 2002 The Mogwai Project.
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program; if not, write to the Free Software Foundation, Inc., 59 Temple
+ * Place - Suite 330, Boston, MA 02111-1307, USA.
+ */
+package de.erdesignerng.test.core;
+
+import de.erdesignerng.model.Attribute;
+import de.erdesignerng.model.Index;
+import de.erdesignerng.model.Model;
+import de.erdesignerng.model.Relation;
+import de.erdesignerng.model.SubjectArea;
+import de.erdesignerng.model.Table;
+import de.erdesignerng.model.View;
+import de.erdesignerng.model.utils.ModelItemNameIndex;
+import junit.framework.TestCase;
+
+public class ModelItemNameIndexTest extends TestCase {
+
+	private Table addTable(Model aModel, String aName) {
+		Table theTable = new Table();
+		theTable.setName(aName);
+		aModel.getTables().add(theTable);
+		return theTable;
+	}
+
+	private Attribute<Table> addAttribute(Table aTable, String aName) {
+		Attribute<Table> theAttribute = new Attribute<>();
+		theAttribute.setName(aName);
+		aTable.getAttributes().add(theAttribute);
+		return theAttribute;
+	}
+
+	public void testSubstring() throws InterruptedException {
+		Model theModel = new Model();
+		Table theCustomer = addTable(theModel, "CUSTOMER");
+		Table theOrder = addTable(theModel, "ORDER_ITEM");
+		View theView = new View();
+		theView.setName("CUSTOMER_VIEW");
+		theModel.getViews().add(theView);
+
+		ModelItemNameIndex theIndex = new ModelItemNameIndex(theModel);
+		assertEquals(3, theIndex.size());
+
+		ModelItemNameIndex.Result theResult = theIndex.query("tome");
+		assertTrue(theResult.isVisible(theCustomer));
+		assertTrue(theResult.isVisible(theView));
+		assertFalse(theResult.isVisible(theOrder));
+		assertEquals("tome", theResult.getText());
+
+		theResult = theIndex.query("R_I");
+		assertTrue(theResult.isVisible(theOrder));
+		assertFalse(theResult.isVisible(theCustomer));
+
+		theResult = theIndex.query("_");
+		assertTrue(theResult.isVisible(theOrder));
+		assertTrue(theResult.isVisible(theView));
+		assertFalse(theResult.isVisible(theCustomer));
+
+		assertEquals(0, theIndex.query("xyz").size());
+		assertEquals(0, theIndex.query("customerx").size());
+	}
+
+	public void testOwnersAreVisible() throws InterruptedException {
+		Model theModel = new Model();
+		Table theCustomer = addTable(theModel, "CUSTOMER");
+		Table theOrder = addTable(theModel, "ORDERS");
+		addAttribute(theCustomer, "ID");
+		Attribute<Table> theForeignKey = addAttribute(theOrder, "CUST_REF");
+
+		Index theIndex = new Index();
+		theIndex.setName("IDX_ORDERS");
+		theIndex.getExpressions().addExpressionFor("LOWER(NOTE)");
+		theOrder.getIndexes().add(theIndex);
+
+		Relation theRelation = new Relation();
+		theRelation.setName("FK_ORDERS");
+		theRelation.setImportingTable(theOrder);
+		theRelation.setExportingTable(theCustomer);
+		theRelation.getMapping().put(new Index().getExpressions().addExpressionFor("ID"), theForeignKey);
+		theModel.getRelations().add(theRelation);
+
+		SubjectArea theArea = new SubjectArea();
+		theArea.setName("SALES");
+		theArea.getTables().add(theOrder);
+		theModel.getSubjectAreas().add(theArea);
+
+		ModelItemNameIndex theNameIndex = new ModelItemNameIndex(theModel);
+
+		// The attribute makes its foreign key, table and subject area visible
+		ModelItemNameIndex.Result theResult = theNameIndex.query("cust_");
+		assertTrue(theResult.isVisible(theForeignKey));
+		assertTrue(theResult.isVisible(theRelation));
+		assertTrue(theResult.isVisible(theOrder));
+		assertTrue(theResult.isVisible(theArea));
+		assertFalse(theResult.isVisible(theCustomer));
+
+		// An index expression makes its table visible
+		theResult = theNameIndex.query("note");
+		assertTrue(theResult.isVisible(theOrder));
+		assertFalse(theResult.isVisible(theIndex));
+		assertFalse(theResult.isVisible(theCustomer));
+
+		// The exporting table is not visible for a matching foreign key
+		theResult = theNameIndex.query("fk_");
+		assertTrue(theResult.isVisible(theOrder));
+		assertFalse(theResult.isVisible(theCustomer));
+	}
+
+	public void testNewItemsAreNotIndexed() throws InterruptedException {
+		Model theModel = new Model();
+		Table theTable = addTable(theModel, "CUSTOMER");
+		ModelItemNameIndex theIndex = new ModelItemNameIndex(theModel);
+
+		Table theNewTable = addTable(theModel, "CUSTOMER2");
+		assertTrue(theIndex.isIndexed(theTable));
+		assertFalse(theIndex.isIndexed(theNewTable));
+		assertFalse(theIndex.query("cust").isVisible(theNewTable));
+	}
+
+	public void testInterrupted() {
+		Model theModel = new Model();
+		addTable(theModel, "CUSTOMER");
+		ModelItemNameIndex theIndex = new ModelItemNameIndex(theModel);
+
+		Thread.currentThread().interrupt();
+		try {
+			theIndex.query("cust");
+			fail("Query was not interrupted");
+		} catch (InterruptedException e) {
+			// Expected
+		}
+		assertFalse(Thread.currentThread().isInterrupted());
+	}
+}
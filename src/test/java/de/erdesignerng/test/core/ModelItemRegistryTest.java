@@ -0,0 +1,118 @@
+/**
+ * Mogwai ERDesigner. Copyright (C) 2002 The Mogwai Project.
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program; if not, write to the Free Software Foundation, Inc., 59 Temple
+ * Place - Suite 330, Boston, MA 02111-1307, USA.
+ */
+package de.erdesignerng.test.core;
+
+import de.erdesignerng.model.Attribute;
+import de.erdesignerng.model.Comment;
+import de.erdesignerng.model.Index;
+import de.erdesignerng.model.IndexExpression;
+import de.erdesignerng.model.Model;
+import de.erdesignerng.model.Table;
+import junit.framework.TestCase;
+
+public class ModelItemRegistryTest extends TestCase {
+
+    private Table createTable(String aName) {
+        Table theTable = new Table();
+        theTable.setName(aName);
+        return theTable;
+    }
+
+    public void testFindAddedItems() throws Exception {
+        Model theModel = new Model();
+        Table theTable = createTable("TABLE1");
+        theModel.addTable(theTable);
+
+        Attribute<Table> theAttribute = new Attribute<>();
+        theAttribute.setName("ATTRIBUTE1");
+        theModel.addAttributeToTable(theTable, theAttribute);
+
+        Index theIndex = new Index();
+        theIndex.setName("INDEX1");
+        IndexExpression theExpression = theIndex.getExpressions().addExpressionFor(theAttribute);
+        theModel.addIndexToTable(theTable, theIndex);
+
+        assertSame(theTable, theModel.findBySystemId(theTable.getSystemId()));
+        assertSame(theAttribute, theModel.findAttributeBySystemId(theAttribute.getSystemId()));
+        assertSame(theIndex, theModel.findBySystemId(theIndex.getSystemId(), Index.class));
+        assertSame(theExpression, theModel.findBySystemId(theExpression.getSystemId()));
+        assertNull(theModel.findBySystemId(theTable.getSystemId(), Comment.class));
+        assertNull(theModel.findAttributeBySystemId(theTable.getSystemId()));
+        assertNull(theModel.findBySystemId("UNKNOWN"));
+    }
+
+    public void testFindItemsAddedToLists() {
+        Model theModel = new Model();
+        Table theTable = createTable("TABLE1");
+        Attribute<Table> theAttribute = new Attribute<>();
+        theAttribute.setName("ATTRIBUTE1");
+        theAttribute.setOwner(theTable);
+        theTable.getAttributes().add(theAttribute);
+
+        // This is what the deserializers do
+        theModel.getTables().add(theTable);
+        Comment theComment = new Comment();
+        theModel.getComments().add(theComment);
+
+        assertSame(theAttribute, theModel.findAttributeBySystemId(theAttribute.getSystemId()));
+        assertSame(theComment, theModel.findBySystemId(theComment.getSystemId(), Comment.class));
+    }
+
+    public void testFindItemsAddedAfterMiss() throws Exception {
+        Model theModel = new Model();
+        Table theTable = createTable("TABLE1");
+        theModel.addTable(theTable);
+
+        Attribute<Table> theAttribute = new Attribute<>();
+        theAttribute.setName("ATTRIBUTE1");
+        theAttribute.setOwner(theTable);
+        Comment theComment = new Comment();
+
+        // Remembered misses must not hide items added to the lists later
+        assertNull(theModel.findBySystemId(theAttribute.getSystemId()));
+        assertNull(theModel.findBySystemId(theComment.getSystemId()));
+        assertNull(theModel.findBySystemId(theComment.getSystemId()));
+
+        theTable.getAttributes().add(theAttribute);
+        theModel.getComments().add(theComment);
+
+        assertSame(theAttribute, theModel.findAttributeBySystemId(theAttribute.getSystemId()));
+        assertSame(theComment, theModel.findBySystemId(theComment.getSystemId()));
+    }
+
+    public void testRemovedItems() throws Exception {
+        Model theModel = new Model();
+        Table theTable = createTable("TABLE1");
+        Attribute<Table> theAttribute = new Attribute<>();
+        theAttribute.setName("ATTRIBUTE1");
+        theModel.addTable(theTable);
+        theModel.addAttributeToTable(theTable, theAttribute);
+
+        assertSame(theAttribute, theModel.findAttributeBySystemId(theAttribute.getSystemId()));
+
+        theModel.removeTable(theTable);
+        assertNull(theModel.findBySystemId(theTable.getSystemId()));
+        assertNull(theModel.findAttributeBySystemId(theAttribute.getSystemId()));
+
+        // Removed from the list directly, the registry still has the entry
+        Table theOtherTable = createTable("TABLE2");
+        theModel.addTable(theOtherTable);
+        theModel.getTables().remove(theOtherTable);
+        assertNull(theModel.findBySystemId(theOtherTable.getSystemId()));
+    }
+}
@@ -0,0 +1,165 @@
+/**
+ * Mogwai ERDesigner. Copyright (C) 2002 The Mogwai Project.
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program; if not, write to the Free Software Foundation, Inc., 59 Temple
+ * Place - Suite 330, Boston, MA 02111-1307, USA.
+ */
+package de.erdesignerng.test.core;
+
+import de.erdesignerng.model.Table;
+import de.erdesignerng.model.TableList;
+import junit.framework.TestCase;
+
+import java.util.Iterator;
+
+public class ModelItemVectorTest extends TestCase {
+
+    private Table createTable(String aName) {
+        Table theTable = new Table();
+        theTable.setName(aName);
+        return theTable;
+    }
+
+    public void testFindAfterAdd() {
+        TableList theList = new TableList();
+        Table theTable1 = createTable("TABLE1");
+        theList.add(theTable1);
+
+        assertSame(theTable1, theList.findByName("TABLE1"));
+
+        Table theTable2 = createTable("TABLE2");
+        theList.add(theTable2);
+
+        assertSame(theTable2, theList.findByName("TABLE2"));
+        assertSame(theTable2, theList.findBySystemId(theTable2.getSystemId()));
+        assertNull(theList.findByName("TABLE3"));
+    }
+
+    public void testFirstElementWins() {
+        TableList theList = new TableList();
+        Table theTable1 = createTable("TABLE");
+        Table theTable2 = createTable("TABLE");
+        theList.add(theTable1);
+        theList.add(theTable2);
+
+        assertSame(theTable1, theList.findByName("TABLE"));
+
+        theList.add(0, theTable2);
+        assertSame(theTable2, theList.findByName("TABLE"));
+
+        theList.remove(0);
+        assertSame(theTable1, theList.findByName("TABLE"));
+    }
+
+    public void testRename() {
+        TableList theList = new TableList();
+        Table theTable = createTable("TABLE1");
+        theList.add(theTable);
+
+        assertTrue(theList.elementExists("TABLE1", true));
+
+        theTable.setName("TABLE2");
+        assertNull(theList.findByName("TABLE1"));
+        assertSame(theTable, theList.findByName("TABLE2"));
+
+        theTable.setSchema("SCHEMA");
+        assertFalse(theList.elementExists("TABLE2", true));
+        assertTrue(theList.elementExists("SCHEMA.TABLE2", true));
+
+        String theOldId = theTable.getSystemId();
+        theTable.setSystemId("NEWID");
+        assertNull(theList.findBySystemId(theOldId));
+        assertSame(theTable, theList.findBySystemId("NEWID"));
+    }
+
+    public void testCaseInsensitive() {
+        TableList theList = new TableList();
+        theList.add(createTable("MyTable"));
+
+        assertFalse(theList.elementExists("MYTABLE", true));
+        assertTrue(theList.elementExists("MYTABLE", false));
+        assertTrue(theList.elementExists("mytable", false));
+    }
+
+    public void testModifications() {
+        TableList theList = new TableList();
+        Table theTable1 = createTable("TABLE1");
+        Table theTable2 = createTable("TABLE2");
+        theList.add(theTable1);
+
+        assertSame(theTable1, theList.findByName("TABLE1"));
+
+        theList.set(0, theTable2);
+        assertNull(theList.findByName("TABLE1"));
+        assertSame(theTable2, theList.findByName("TABLE2"));
+
+        theList.removeById(theTable2.getSystemId());
+        assertNull(theList.findByName("TABLE2"));
+
+        theList.add(theTable1);
+        theList.clear();
+        assertNull(theList.findByName("TABLE1"));
+    }
+
+    public void testRenameInSeveralLists() {
+        TableList theList1 = new TableList();
+        TableList theList2 = new TableList();
+        Table theTable1 = createTable("TABLE1");
+        Table theTable2 = createTable("TABLE2");
+        theList1.add(theTable1);
+        theList1.add(theTable2);
+        theList2.add(theTable2);
+
+        assertSame(theTable1, theList1.findByName("TABLE1"));
+        assertSame(theTable2, theList2.findByName("TABLE2"));
+
+        // The renamed table precedes the table already using the new name
+        theTable1.setName("TABLE2");
+        assertSame(theTable1, theList1.findByName("TABLE2"));
+        assertNull(theList1.findByName("TABLE1"));
+        assertSame(theTable2, theList2.findByName("TABLE2"));
+
+        theTable1.setName("TABLE3");
+        assertSame(theTable2, theList1.findByName("TABLE2"));
+
+        // A removed table does not update the index any more
+        theList2.remove(theTable2);
+        theTable2.setName("TABLE4");
+        assertNull(theList2.findByName("TABLE4"));
+        assertSame(theTable2, theList1.findByName("TABLE4"));
+    }
+
+    public void testIteratorAndClone() {
+        TableList theList = new TableList();
+        Table theTable1 = createTable("TABLE1");
+        Table theTable2 = createTable("TABLE2");
+        theList.add(theTable1);
+        theList.add(theTable2);
+
+        assertSame(theTable1, theList.findByName("TABLE1"));
+
+        TableList theClone = (TableList) theList.clone();
+        for (Iterator<Table> theIt = theList.iterator(); theIt.hasNext();) {
+            if (theIt.next() == theTable1) {
+                theIt.remove();
+            }
+        }
+        assertNull(theList.findByName("TABLE1"));
+        assertSame(theTable1, theClone.findByName("TABLE1"));
+
+        theTable1.setName("TABLE3");
+        assertSame(theTable1, theClone.findByName("TABLE3"));
+        assertNull(theList.findByName("TABLE3"));
+    }
+}
@@ -0,0 +1,110 @@
+/**
+ * Mogwai ERDesigner. Copyright (C) 2002 The Mogwai Project.
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program; if not, write to the Free Software Foundation, Inc., 59 Temple
+ * Place - Suite 330, Boston, MA 02111-1307, USA.
+ */
+package de.erdesignerng.test.core;
+
+import de.erdesignerng.util.RowStore;
+import junit.framework.TestCase;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.Date;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.Random;
+
+public class RowStoreTest extends TestCase {
+
+	private Object[] createRow(int aIndex) {
+		Timestamp theTimestamp = new Timestamp(1000000L * aIndex);
+		theTimestamp.setNanos(123456789);
+		return new Object[] { aIndex, "Row ä" + aIndex, (long) aIndex * 3, aIndex % 2 == 0 ? null : 0.5 * aIndex,
+				new BigDecimal(BigInteger.valueOf(aIndex), 2), aIndex % 3 == 0, new Date(86400000L * aIndex),
+				new Time(1000L * aIndex), theTimestamp, new byte[] { (byte) aIndex, 1, 2 }, (short) aIndex,
+				new StringBuilder("Other").append(aIndex) };
+	}
+
+	private void assertRow(int aIndex, Object[] aRow) {
+		Object[] theExpected = createRow(aIndex);
+		assertEquals(theExpected.length, aRow.length);
+		for (int i = 0; i < theExpected.length; i++) {
+			if (theExpected[i] instanceof byte[]) {
+				assertTrue(Arrays.equals((byte[]) theExpected[i], (byte[]) aRow[i]));
+			} else if (theExpected[i] instanceof StringBuilder) {
+				// Unknown types are stored as string
+				assertEquals(theExpected[i].toString(), aRow[i]);
+			} else {
+				assertEquals("Row " + aIndex + " column " + i, theExpected[i], aRow[i]);
+			}
+		}
+	}
+
+	public void testRandomAccess() throws IOException {
+		RowStore theStore = new RowStore(12, 16);
+		try {
+			for (int i = 0; i < 1000; i++) {
+				theStore.add(createRow(i));
+			}
+			assertEquals(1000, theStore.getRowCount());
+			assertTrue(theStore.getSpilledSize() > 0);
+
+			Random theRandom = new Random(1);
+			for (int i = 0; i < 2000; i++) {
+				int theRow = theRandom.nextInt(1000);
+				assertRow(theRow, theStore.getRow(theRow));
+			}
+			for (int i = 0; i < 1000; i++) {
+				assertRow(i, theStore.getRow(i));
+			}
+			assertEquals(999L * 3, theStore.getValue(999, 2));
+		} finally {
+			theStore.close();
+		}
+		assertEquals(0, theStore.getRowCount());
+		assertEquals(0, theStore.getSpilledSize());
+	}
+
+	public void testSmallResultIsNotSpilled() throws IOException {
+		RowStore theStore = new RowStore(12);
+		for (int i = 0; i < 10; i++) {
+			theStore.add(createRow(i));
+		}
+		assertEquals(0, theStore.getSpilledSize());
+		assertRow(5, theStore.getRow(5));
+		theStore.close();
+	}
+
+	public void testInvalidRow() throws IOException {
+		RowStore theStore = new RowStore(1);
+		theStore.add(new Object[] { "A" });
+		try {
+			theStore.getRow(1);
+			fail("Row outside of the store");
+		} catch (IndexOutOfBoundsException e) {
+			// Expected
+		}
+		try {
+			theStore.add(new Object[] { "A", "B" });
+			fail("Wrong number of columns");
+		} catch (IllegalArgumentException e) {
+			// Expected
+		}
+		theStore.close();
+	}
+}
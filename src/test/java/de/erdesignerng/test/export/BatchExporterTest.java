@@ -0,0 +1,83 @@
+/**
+ * Mogwai ERDesigner. Copyright (C) 2002 The Mogwai Project.
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program; if not, write to the Free Software Foundation, Inc., 59 Temple
+ * Place - Suite 330, Boston, MA 02111-1307, USA.
+ */
+package de.erdesignerng.test.export;
+
+import de.erdesignerng.visual.jgraph.export.BatchExporter;
+import junit.framework.TestCase;
+import org.apache.commons.io.FileUtils;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.File;
+
+public class BatchExporterTest extends TestCase {
+
+    private File modelFile;
+
+    @Override
+    protected void setUp() throws Exception {
+        if (System.getProperty("java.awt.headless") == null) {
+            System.setProperty("java.awt.headless", "true");
+        }
+        modelFile = File.createTempFile("examplemodel", ".mxm");
+        modelFile.deleteOnExit();
+        FileUtils.copyURLToFile(getClass().getResource("/de/erdesignerng/test/comparator/examplemodel.mxm"),
+                modelFile);
+    }
+
+    private File createImageFile(String aExtension) throws Exception {
+        File theFile = File.createTempFile("examplemodel", aExtension);
+        theFile.deleteOnExit();
+        return theFile;
+    }
+
+    public void testExportPNG() throws Exception {
+        File theImageFile = createImageFile(".png");
+
+        BatchExporter.export(modelFile, theImageFile, 0);
+        BufferedImage theScreenImage = ImageIO.read(theImageFile);
+        assertNotNull(theScreenImage);
+
+        // A higher resolution is rendered in several bands
+        BatchExporter.export(modelFile, theImageFile, 300);
+        BufferedImage theImage = ImageIO.read(theImageFile);
+        assertNotNull(theImage);
+        assertTrue(theImage.getWidth() > theScreenImage.getWidth());
+        assertTrue(theImage.getHeight() > 256);
+
+        // Something was painted on the background
+        int theBackground = theImage.getRGB(0, 0);
+        boolean thePainted = false;
+        for (int y = 0; y < theImage.getHeight() && !thePainted; y++) {
+            for (int x = 0; x < theImage.getWidth() && !thePainted; x++) {
+                thePainted = theImage.getRGB(x, y) != theBackground;
+            }
+        }
+        assertTrue(thePainted);
+    }
+
+    public void testExportSVG() throws Exception {
+        File theImageFile = createImageFile(".svg");
+
+        BatchExporter.export(modelFile, theImageFile, 0);
+
+        String theSVG = FileUtils.readFileToString(theImageFile, "UTF-8");
+        assertTrue(theSVG.contains("<svg"));
+        assertTrue(theSVG.contains("</svg>"));
+    }
+}
@@ -0,0 +1,96 @@
+/**
+ * Mogwai ERDesigner. Copyright (C) 2002 The Mogwai Project.
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program; if not, write to the Free Software Foundation, Inc., 59 Temple
+ * Place - Suite 330, Boston, MA 02111-1307, USA.
+ */
+package de.erdesignerng.test.export;
+
+import de.erdesignerng.visual.jgraph.export.PNGStreamEncoder;
+import junit.framework.TestCase;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.Random;
+
+public class PNGStreamEncoderTest extends TestCase {
+
+    private static final int WIDTH = 317;
+
+    private static final int HEIGHT = 601;
+
+    private static final int BAND_HEIGHT = 64;
+
+    private int[] createPixels() {
+        // Flat areas, gradients and noise, so all filters are used and the
+        // compressed data spans several chunks
+        Random theRandom = new Random(42);
+        int[] thePixels = new int[WIDTH * HEIGHT];
+        for (int y = 0; y < HEIGHT; y++) {
+            for (int x = 0; x < WIDTH; x++) {
+                int thePixel;
+                if (y < HEIGHT / 3) {
+                    thePixel = x < WIDTH / 2 ? 0xffffff : 0x336699;
+                } else if (y < 2 * HEIGHT / 3) {
+                    thePixel = (x & 0xff) << 16 | (y & 0xff) << 8 | (x + y) & 0xff;
+                } else {
+                    thePixel = theRandom.nextInt() & 0xffffff;
+                }
+                thePixels[y * WIDTH + x] = thePixel;
+            }
+        }
+        return thePixels;
+    }
+
+    public void testRoundTrip() throws Exception {
+        int[] thePixels = createPixels();
+
+        ByteArrayOutputStream theStream = new ByteArrayOutputStream();
+        PNGStreamEncoder theEncoder = new PNGStreamEncoder(theStream, WIDTH, HEIGHT, 150);
+
+        // Write the rows band by band like the image exporter does
+        int[] theBand = new int[WIDTH * BAND_HEIGHT];
+        for (int theY = 0; theY < HEIGHT; theY += BAND_HEIGHT) {
+            int theRows = Math.min(BAND_HEIGHT, HEIGHT - theY);
+            System.arraycopy(thePixels, theY * WIDTH, theBand, 0, theRows * WIDTH);
+            for (int i = 0; i < theRows; i++) {
+                theEncoder.writeRow(theBand, i * WIDTH);
+            }
+        }
+        theEncoder.finish();
+
+        BufferedImage theImage = ImageIO.read(new ByteArrayInputStream(theStream.toByteArray()));
+        assertNotNull(theImage);
+        assertEquals(WIDTH, theImage.getWidth());
+        assertEquals(HEIGHT, theImage.getHeight());
+        for (int y = 0; y < HEIGHT; y++) {
+            for (int x = 0; x < WIDTH; x++) {
+                assertEquals("Pixel " + x + "," + y, thePixels[y * WIDTH + x], theImage.getRGB(x, y) & 0xffffff);
+            }
+        }
+    }
+
+    public void testIncompleteImage() throws Exception {
+        PNGStreamEncoder theEncoder = new PNGStreamEncoder(new ByteArrayOutputStream(), 2, 2, 0);
+        theEncoder.writeRow(new int[2], 0);
+        try {
+            theEncoder.finish();
+            fail("Missing rows must be detected");
+        } catch (IllegalStateException e) {
+            // Expected
+        }
+    }
+}
@@ -0,0 +1,95 @@
+/**
+ * Mogwai ERDesigner. Copyright (C) 2002 The Mogwai Project.
+ * 
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program; if not, write to the Free Software Foundation, Inc., 59 Temple
+ * Place - Suite 330, Boston, MA 02111-1307, USA.
+ */
+package de.erdesignerng.test.io.xml50;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+
+import org.apache.commons.io.FileUtils;
+import org.w3c.dom.Document;
+
+import de.erdesignerng.PlatformConfig;
+import de.erdesignerng.model.Model;
+import de.erdesignerng.model.ModelIOUtilities;
+import de.erdesignerng.model.serializer.xml40.XMLModel40Serializer;
+import de.erdesignerng.model.serializer.xml50.XMLModel50Serializer;
+import de.erdesignerng.test.BaseERDesignerTestCaseImpl;
+import de.erdesignerng.util.XMLUtils;
+
+/**
+ * Test for the one pass reader of the current XML model version.
+ */
+public class XML50IOTest extends BaseERDesignerTestCaseImpl {
+
+	private String serialize(Model aModel) throws Exception {
+		StringWriter theStringWriter = new StringWriter();
+		new XMLModel50Serializer(XMLUtils.getInstance()).serializeModelToXML(aModel, theStringWriter);
+		return theStringWriter.toString();
+	}
+
+	private ByteArrayInputStream toStream(String aXML) throws Exception {
+		return new ByteArrayInputStream(aXML.getBytes(PlatformConfig.getXMLEncoding()));
+	}
+
+	public void testStreamingRead() throws Exception {
+
+		DocumentBuilderFactory theFactory = DocumentBuilderFactory.newInstance();
+		DocumentBuilder theBuilder = theFactory.newDocumentBuilder();
+		Document theDoc = theBuilder.parse(getClass().getResourceAsStream("/de/erdesignerng/test/io/xml40/examplemodel.mxm"));
+		Model theModel = new XMLModel40Serializer(XMLUtils.getInstance()).deserializeModelFromXML(theDoc);
+
+		String theOriginalFile = serialize(theModel);
+
+		ModelIOUtilities theUtilities = ModelIOUtilities.getInstance();
+		theUtilities.validateModelXML(toStream(theOriginalFile));
+
+		Model theStreamedModel = theUtilities.deserializeModelFromXML(toStream(theOriginalFile));
+		assertTrue(compareStrings(theOriginalFile, serialize(theStreamedModel)));
+
+		theUtilities.setValidating(true);
+		try {
+			Model theValidatedModel = theUtilities.deserializeModelFromXML(toStream(theOriginalFile));
+			assertTrue(compareStrings(theOriginalFile, serialize(theValidatedModel)));
+		} finally {
+			theUtilities.setValidating(false);
+		}
+	}
+
+	public void testExternalEntitiesAreNotResolved() throws Exception {
+
+		File theSecretFile = File.createTempFile("secret", ".txt");
+		theSecretFile.deleteOnExit();
+		FileUtils.writeStringToFile(theSecretFile, "SECRET", "UTF-8");
+
+		String theXML = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>"
+				+ "<!DOCTYPE Model [<!ENTITY secret SYSTEM \"" + theSecretFile.toURI() + "\">]>"
+				+ "<Model version=\"5.0\"><Views><View id=\"1\" name=\"VIEW1\"><Sql>&secret;</Sql></View></Views></Model>";
+
+		try {
+			ModelIOUtilities.getInstance().deserializeModelFromXML(toStream(theXML));
+			fail("The document type declaration must be ignored");
+		} catch (IOException e) {
+			// Expected, the entity is not declared for the reader
+		}
+	}
+}
@@ -0,0 +1,186 @@
+/**
+ * Mogwai ERDesigner. Copyright (C) 2002 The Mogwai Project.
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program; if not, write to the Free Software Foundation, Inc., 59 Temple
+ * Place - Suite 330, Boston, MA 02111-1307, USA.
+ */
+package de.erdesignerng.test.jgraph;
+
+import de.erdesignerng.visual.jgraph.CellViewIndex;
+import junit.framework.TestCase;
+import org.jgraph.graph.AbstractCellView;
+import org.jgraph.graph.AttributeMap;
+import org.jgraph.graph.CellView;
+import org.jgraph.graph.DefaultCellViewFactory;
+import org.jgraph.graph.DefaultGraphCell;
+import org.jgraph.graph.DefaultGraphModel;
+import org.jgraph.graph.GraphConstants;
+import org.jgraph.graph.GraphLayoutCache;
+
+import java.awt.geom.Rectangle2D;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class CellViewIndexTest extends TestCase {
+
+	private final CellViewIndex index = new CellViewIndex();
+
+	private GraphLayoutCache layoutCache;
+
+	private final List<DefaultGraphCell> cells = new ArrayList<>();
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		DefaultGraphModel theModel = new DefaultGraphModel();
+		layoutCache = new GraphLayoutCache(theModel, new DefaultCellViewFactory());
+
+		// The same order as in ERDesignerGraphUI, the views are updated first
+		theModel.addGraphModelListener(e -> {
+			layoutCache.graphChanged(e.getChange());
+			index.graphChanged(e.getChange());
+		});
+
+		// Overlapping cells across several buckets
+		for (int i = 0; i < 40; i++) {
+			cells.add(createCell("Cell" + i, (i % 8) * 90, (i / 8) * 70, 120, 90));
+		}
+		layoutCache.insert(cells.toArray());
+
+		// A group with two children, the children are not roots
+		DefaultGraphCell theFirstChild = createCell("Child1", 300, 300, 100, 50);
+		DefaultGraphCell theSecondChild = createCell("Child2", 350, 320, 100, 50);
+		DefaultGraphCell theGroup = new DefaultGraphCell("Group");
+		theGroup.add(theFirstChild);
+		theGroup.add(theSecondChild);
+		layoutCache.insert(theGroup);
+		cells.add(theGroup);
+	}
+
+	private static DefaultGraphCell createCell(String aName, double aX, double aY, double aWidth, double aHeight) {
+		DefaultGraphCell theCell = new DefaultGraphCell(aName);
+		GraphConstants.setBounds(theCell.getAttributes(), new Rectangle2D.Double(aX, aY, aWidth, aHeight));
+		return theCell;
+	}
+
+	private void move(DefaultGraphCell aCell, double aX, double aY) {
+		AttributeMap theAttributes = new AttributeMap();
+		Rectangle2D theBounds = layoutCache.getMapping(aCell, false).getBounds();
+		GraphConstants.setBounds(theAttributes, new Rectangle2D.Double(aX, aY, theBounds.getWidth(), theBounds
+				.getHeight()));
+		Map<Object, AttributeMap> theNested = new HashMap<>();
+		theNested.put(aCell, theAttributes);
+		layoutCache.edit(theNested);
+	}
+
+	private static List<CellView> intersecting(List<CellView> aViews, Rectangle2D aRegion) {
+		List<CellView> theResult = new ArrayList<>();
+		for (CellView theView : aViews) {
+			if (theView.getBounds() != null && theView.getBounds().intersects(aRegion)) {
+				theResult.add(theView);
+			}
+		}
+		return theResult;
+	}
+
+	/**
+	 * Compare the index with the linear scans of JGraph it replaces.
+	 */
+	private void assertSameAsScan(Rectangle2D aRegion) {
+		assertEquals(Arrays.asList(layoutCache.getRoots(aRegion)), index.getRoots(layoutCache, aRegion));
+
+		List<CellView> theAllViews = Arrays.asList(AbstractCellView.getDescendantViews(layoutCache.getRoots()));
+		assertEquals(intersecting(theAllViews, aRegion), intersecting(index.getDescendantViews(layoutCache,
+				aRegion, null), aRegion));
+	}
+
+	private void assertSameAsScanEverywhere() {
+		for (int theX = -50; theX < 900; theX += 45) {
+			for (int theY = -50; theY < 700; theY += 35) {
+				assertSameAsScan(new Rectangle2D.Double(theX, theY, 4, 4));
+			}
+		}
+		assertSameAsScan(new Rectangle2D.Double(100, 100, 500, 300));
+	}
+
+	public void testInsert() {
+		Rectangle2D theRegion = new Rectangle2D.Double(95, 75, 2, 2);
+		List<CellView> theRoots = index.getRoots(layoutCache, theRegion);
+		assertEquals(4, theRoots.size());
+		assertEquals("Cell0", theRoots.get(0).getCell().toString());
+		assertEquals("Cell9", theRoots.get(3).getCell().toString());
+
+		DefaultGraphCell theCell = createCell("New", 95, 75, 10, 10);
+		layoutCache.insert(theCell);
+		theRoots = index.getRoots(layoutCache, theRegion);
+		assertEquals(5, theRoots.size());
+		assertSame(theCell, theRoots.get(4).getCell());
+
+		assertSameAsScanEverywhere();
+	}
+
+	public void testRemove() {
+		Rectangle2D theRegion = new Rectangle2D.Double(95, 75, 2, 2);
+		layoutCache.remove(new Object[] {cells.get(1)});
+		List<CellView> theRoots = index.getRoots(layoutCache, theRegion);
+		assertEquals(3, theRoots.size());
+		for (CellView theView : theRoots) {
+			assertNotSame(cells.get(1), theView.getCell());
+		}
+
+		assertSameAsScanEverywhere();
+	}
+
+	public void testMove() {
+		DefaultGraphCell theCell = cells.get(0);
+		Rectangle2D theOldRegion = new Rectangle2D.Double(10, 10, 2, 2);
+		Rectangle2D theNewRegion = new Rectangle2D.Double(2010, 1010, 2, 2);
+		assertSame(theCell, index.getRoots(layoutCache, theOldRegion).get(0).getCell());
+
+		move(theCell, 2000, 1000);
+		assertTrue(index.getRoots(layoutCache, theOldRegion).isEmpty());
+		List<CellView> theRoots = index.getRoots(layoutCache, theNewRegion);
+		assertEquals(1, theRoots.size());
+		assertSame(theCell, theRoots.get(0).getCell());
+
+		// Moved on top of other cells, the order stays the order of the roots
+		move(theCell, 200, 150);
+		assertSameAsScanEverywhere();
+		assertSameAsScan(theNewRegion);
+	}
+
+	public void testMoveChild() {
+		DefaultGraphCell theGroup = cells.get(cells.size() - 1);
+		DefaultGraphCell theChild = (DefaultGraphCell) theGroup.getChildAt(0);
+		assertSameAsScan(new Rectangle2D.Double(310, 310, 2, 2));
+
+		move(theChild, 1500, 1500);
+
+		Rectangle2D theRegion = new Rectangle2D.Double(1510, 1510, 2, 2);
+		List<CellView> theRoots = index.getRoots(layoutCache, theRegion);
+		assertEquals(1, theRoots.size());
+		assertSame(theGroup, theRoots.get(0).getCell());
+
+		List<CellView> theViews = intersecting(index.getDescendantViews(layoutCache, theRegion, null), theRegion);
+		assertEquals(2, theViews.size());
+		assertSame(theGroup, theViews.get(0).getCell());
+		assertSame(theChild, theViews.get(1).getCell());
+
+		assertSameAsScanEverywhere();
+		assertSameAsScan(theRegion);
+	}
+}
@@ -0,0 +1,152 @@
+/**
+ * Mogwai ERDesigner. Copyright (C) 2002 The Mogwai Project.
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program; if not, write to the Free Software Foundation, Inc., 59 Temple
+ * Place - Suite 330, Boston, MA 02111-1307, USA.
+ */
+package de.erdesignerng.test.layout;
+
+import de.erdesignerng.visual.jgraph.BarnesHutTree;
+import de.erdesignerng.visual.jgraph.VertexCellElement;
+import de.mogwai.layout.Distance;
+import de.mogwai.layout.ElectricSpringLayout;
+import de.mogwai.layout.Force;
+import de.mogwai.layout.graph.Spring;
+import junit.framework.TestCase;
+import org.jgraph.graph.DefaultGraphCell;
+import org.jgraph.graph.GraphConstants;
+import org.jgraph.graph.VertexView;
+
+import java.awt.geom.Rectangle2D;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+public class BarnesHutTreeTest extends TestCase {
+
+	private final List<VertexCellElement> elements = new ArrayList<>();
+
+	private final ElectricSpringLayout<VertexCellElement, Object> layout = new ElectricSpringLayout<VertexCellElement, Object>() {
+
+		@Override
+		public List<VertexCellElement> getElements() {
+			return elements;
+		}
+
+		@Override
+		public List<Spring<Object, VertexCellElement>> getSprings() {
+			return Collections.emptyList();
+		}
+
+		@Override
+		public void evolvePosition(VertexCellElement aElement, int aX, int aY) {
+		}
+	};
+
+	private static VertexCellElement createElement(double aX, double aY, double aWidth, double aHeight) {
+		DefaultGraphCell theCell = new DefaultGraphCell();
+		GraphConstants.setBounds(theCell.getAttributes(), new Rectangle2D.Double(aX, aY, aWidth, aHeight));
+		return new VertexCellElement(new VertexView(theCell));
+	}
+
+	/**
+	 * Compute the repulsion of all other elements pairwise, the same way
+	 * ElectricSpringLayout.evolveLayout does for elements not overlapping.
+	 */
+	private Force computePairwise(VertexCellElement aElement, double[] aMagnitudeSum) {
+		Force theForce = new Force();
+		double theLoad = layout.computeElectricLoad(aElement);
+		for (VertexCellElement theOther : elements) {
+			if (theOther != aElement) {
+				assertFalse(aElement.overlaps(theOther));
+				Distance theDistance = aElement.computeDistanceTo(theOther);
+				double theRepulsion = -layout.computeRepulsion(theLoad, theDistance.computeDistance(), layout
+						.computeElectricLoad(theOther));
+				double theAngle = theDistance.computeAngle();
+				theForce.addForce(Math.cos(theAngle) * theRepulsion, Math.sin(theAngle) * theRepulsion);
+				aMagnitudeSum[0] += Math.abs(theRepulsion);
+			}
+		}
+		return theForce;
+	}
+
+	public void testEmptyTree() {
+		BarnesHutTree theTree = new BarnesHutTree(layout, elements);
+		Force theForce = new Force();
+		theTree.addRepulsion(0, theForce);
+		assertEquals(0d, theForce.fx);
+		assertEquals(0d, theForce.fy);
+	}
+
+	public void testSingleElement() {
+		elements.add(createElement(100, 100, 80, 40));
+		BarnesHutTree theTree = new BarnesHutTree(layout, elements);
+		Force theForce = new Force();
+		theTree.addRepulsion(0, theForce);
+		assertEquals(0d, theForce.fx);
+		assertEquals(0d, theForce.fy);
+	}
+
+	public void testTwoElements() {
+		elements.add(createElement(0, 0, 80, 40));
+		elements.add(createElement(300, 0, 80, 40));
+		BarnesHutTree theTree = new BarnesHutTree(layout, elements);
+		for (int i = 0; i < elements.size(); i++) {
+			Force theForce = new Force();
+			theTree.addRepulsion(i, theForce);
+			Force theExpected = computePairwise(elements.get(i), new double[1]);
+			assertEquals(theExpected.fx, theForce.fx, 1e-9);
+			assertEquals(theExpected.fy, theForce.fy, 1e-9);
+		}
+		// The elements push each other apart
+		Force theForce = new Force();
+		theTree.addRepulsion(0, theForce);
+		assertTrue(theForce.fx < 0);
+	}
+
+	public void testApproximation() {
+		// A jittered grid of elements of different sizes, no two overlap
+		Random theRandom = new Random(4711);
+		for (int theRow = 0; theRow < 15; theRow++) {
+			for (int theColumn = 0; theColumn < 20; theColumn++) {
+				elements.add(createElement(theColumn * 150 + theRandom.nextInt(40), theRow * 150 + theRandom
+						.nextInt(40), 40 + theRandom.nextInt(60), 30 + theRandom.nextInt(50)));
+			}
+		}
+
+		BarnesHutTree theTree = new BarnesHutTree(layout, elements);
+
+		// The error of the center of load approximation grows with the
+		// square of the size of a group divided by its distance, so it is
+		// bounded by a fraction of the square of THETA
+		double theTolerance = BarnesHutTree.THETA * BarnesHutTree.THETA / 8;
+		double theTotalError = 0;
+		double theTotalForce = 0;
+		for (int i = 0; i < elements.size(); i++) {
+			Force theForce = new Force();
+			theTree.addRepulsion(i, theForce);
+
+			double[] theMagnitudeSum = new double[1];
+			Force theExpected = computePairwise(elements.get(i), theMagnitudeSum);
+
+			double theError = Math.hypot(theForce.fx - theExpected.fx, theForce.fy - theExpected.fy);
+			assertTrue("Element " + i + " error " + theError + " of " + theMagnitudeSum[0],
+					theError <= theTolerance * theMagnitudeSum[0]);
+			theTotalError += theError;
+			theTotalForce += Math.hypot(theExpected.fx, theExpected.fy);
+		}
+		assertTrue(theTotalError <= theTolerance * theTotalForce);
+	}
+}
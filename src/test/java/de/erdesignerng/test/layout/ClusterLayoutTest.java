@@ -0,0 +1,172 @@
+/**
+ * Mogwai ERDesigner. Copyright (C) 2002 The Mogwai Project.
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program; if not, write to the Free Software Foundation, Inc., 59 Temple
+ * Place - Suite 330, Boston, MA 02111-1307, USA.
+ */
+package de.erdesignerng.test.layout;
+
+import de.erdesignerng.model.Model;
+import de.erdesignerng.model.ModelItem;
+import de.erdesignerng.model.Relation;
+import de.erdesignerng.model.SubjectArea;
+import de.erdesignerng.model.Table;
+import de.erdesignerng.model.utils.ClusterLayout;
+import junit.framework.TestCase;
+
+import java.awt.Dimension;
+import java.awt.geom.Point2D;
+
+public class ClusterLayoutTest extends TestCase {
+
+	private final ClusterLayout layout = new ClusterLayout(aItem -> new Dimension(100, 50));
+
+	private Table addTable(Model aModel, String aName) {
+		Table theTable = new Table();
+		theTable.setName(aName);
+		aModel.getTables().add(theTable);
+		return theTable;
+	}
+
+	private void addRelation(Model aModel, Table aImporting, Table aExporting) {
+		Relation theRelation = new Relation();
+		theRelation.setName(aImporting.getName() + "_" + aExporting.getName());
+		theRelation.setImportingTable(aImporting);
+		theRelation.setExportingTable(aExporting);
+		aModel.getRelations().add(theRelation);
+	}
+
+	private Point2D getLocation(ModelItem aItem) {
+		Point2D theLocation = aItem.getProperties().getPoint2DProperty(ModelItem.PROPERTY_LOCATION);
+		assertNotNull("Location of " + aItem.getName(), theLocation);
+		return theLocation;
+	}
+
+	private SubjectArea findArea(Model aModel, Table aTable) {
+		for (SubjectArea theArea : aModel.getSubjectAreas()) {
+			if (theArea.getTables().contains(aTable)) {
+				return theArea;
+			}
+		}
+		return null;
+	}
+
+	public void testClusters() {
+		Model theModel = new Model();
+		Table theOrder = addTable(theModel, "ORDER");
+		Table theCustomer = addTable(theModel, "CUSTOMER");
+		Table theAddress = addTable(theModel, "ADDRESS");
+		Table theInvoice = addTable(theModel, "INVOICE");
+		Table thePayment = addTable(theModel, "PAYMENT");
+		Table theCountry = addTable(theModel, "COUNTRY");
+		Table theLog = addTable(theModel, "LOG");
+
+		addRelation(theModel, theOrder, theCustomer);
+		addRelation(theModel, theCustomer, theAddress);
+		addRelation(theModel, theAddress, theCountry);
+		addRelation(theModel, theInvoice, thePayment);
+		addRelation(theModel, thePayment, theCountry);
+		addRelation(theModel, theLog, theLog);
+
+		layout.performClusterLayout(theModel);
+
+		assertEquals(2, theModel.getSubjectAreas().size());
+		SubjectArea theOrderArea = findArea(theModel, theOrder);
+		assertEquals("ORDER", theOrderArea.getName());
+		assertSame(theOrderArea, findArea(theModel, theCustomer));
+		assertSame(theOrderArea, findArea(theModel, theAddress));
+		SubjectArea theInvoiceArea = findArea(theModel, theInvoice);
+		assertEquals("INVOICE", theInvoiceArea.getName());
+		assertSame(theInvoiceArea, findArea(theModel, thePayment));
+
+		// Shared and unrelated tables are not clustered
+		assertNull(findArea(theModel, theCountry));
+		assertNull(findArea(theModel, theLog));
+
+		// The referenced tables are below the referencing ones
+		assertTrue(getLocation(theOrder).getY() < getLocation(theCustomer).getY());
+		assertTrue(getLocation(theCustomer).getY() < getLocation(theAddress).getY());
+		assertTrue(getLocation(theAddress).getY() < getLocation(theCountry).getY());
+		assertEquals(getLocation(theCountry).getY(), getLocation(theLog).getY());
+	}
+
+	public void testRootWithSharedTablesOnly() {
+		Model theModel = new Model();
+		Table theOrder = addTable(theModel, "ORDER");
+		Table theCustomer = addTable(theModel, "CUSTOMER");
+		Table theCountry = addTable(theModel, "COUNTRY");
+		Table theRegion = addTable(theModel, "REGION");
+		Table theSupplier = addTable(theModel, "SUPPLIER");
+
+		addRelation(theModel, theOrder, theCustomer);
+		addRelation(theModel, theCustomer, theCountry);
+		addRelation(theModel, theCountry, theRegion);
+		addRelation(theModel, theSupplier, theCountry);
+
+		layout.performClusterLayout(theModel);
+
+		assertEquals(1, theModel.getSubjectAreas().size());
+		SubjectArea theOrderArea = findArea(theModel, theOrder);
+		assertEquals(2, theOrderArea.getTables().size());
+		assertSame(theOrderArea, findArea(theModel, theCustomer));
+
+		// The shared tables are not given to the root left without tables
+		assertNull(findArea(theModel, theCountry));
+		assertNull(findArea(theModel, theRegion));
+		assertNull(findArea(theModel, theSupplier));
+	}
+
+	public void testCycle() {
+		Model theModel = new Model();
+		Table theRoot = addTable(theModel, "ROOT");
+		Table theA = addTable(theModel, "A");
+		Table theB = addTable(theModel, "B");
+		Table theC = addTable(theModel, "C");
+
+		addRelation(theModel, theRoot, theA);
+		addRelation(theModel, theA, theB);
+		addRelation(theModel, theB, theC);
+		addRelation(theModel, theC, theA);
+
+		layout.performClusterLayout(theModel);
+
+		assertEquals(1, theModel.getSubjectAreas().size());
+		assertEquals(4, theModel.getSubjectAreas().get(0).getTables().size());
+
+		// The tables of the cycle share one layer
+		double theY = getLocation(theA).getY();
+		assertTrue(getLocation(theRoot).getY() < theY);
+		assertEquals(theY, getLocation(theB).getY());
+		assertEquals(theY, getLocation(theC).getY());
+	}
+
+	public void testLongChain() {
+		Model theModel = new Model();
+		Table thePrevious = addTable(theModel, "T0");
+		for (int i = 1; i < 10000; i++) {
+			Table theTable = addTable(theModel, "T" + i);
+			addRelation(theModel, thePrevious, theTable);
+			thePrevious = theTable;
+		}
+
+		layout.performClusterLayout(theModel);
+
+		assertEquals(1, theModel.getSubjectAreas().size());
+		double theY = -1;
+		for (Table theTable : theModel.getTables()) {
+			assertTrue(getLocation(theTable).getY() > theY);
+			theY = getLocation(theTable).getY();
+		}
+	}
+}
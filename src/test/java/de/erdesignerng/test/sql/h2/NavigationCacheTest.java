@@ -0,0 +1,206 @@
+/**
+ * Mogwai ERDesigner. Copyright (C) 2002 The Mogwai Project.
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program; if not, write to the Free Software Foundation, Inc., 59 Temple
+ * Place - Suite 330, Boston, MA 02111-1307, USA.
+ */
+package de.erdesignerng.test.sql.h2;
+
+import de.erdesignerng.dialect.Dialect;
+import de.erdesignerng.dialect.SQLGenerator;
+import de.erdesignerng.dialect.h2.H2Dialect;
+import de.erdesignerng.model.Attribute;
+import de.erdesignerng.model.Table;
+import de.erdesignerng.visual.editor.databrowser.NavigationCache;
+import junit.framework.TestCase;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Test for the navigation cache of the data browser.
+ */
+public class NavigationCacheTest extends TestCase {
+
+	private Connection connection;
+
+	private SQLGenerator<?> generator;
+
+	private Table child;
+
+	private Attribute<Table> parentId;
+
+	private Attribute<Table> position;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		Class.forName("org.h2.Driver");
+		connection = DriverManager.getConnection("jdbc:h2:mem:navigation", "sa", "");
+		connection.createStatement().execute("CREATE TABLE CHILD (PARENT_ID INTEGER, POS VARCHAR(10), NAME VARCHAR(20))");
+		PreparedStatement theInsert = connection.prepareStatement("INSERT INTO CHILD VALUES (?, ?, ?)");
+		for (int i = 1; i <= 2; i++) {
+			for (int j = 0; j < 3; j++) {
+				theInsert.setInt(1, i);
+				theInsert.setString(2, "P" + j);
+				theInsert.setString(3, "CHILD" + i + j);
+				theInsert.executeUpdate();
+			}
+		}
+
+		Dialect theDialect = new H2Dialect();
+		generator = theDialect.createSQLGenerator();
+
+		child = new Table();
+		child.setName("CHILD");
+		parentId = new Attribute<>();
+		parentId.setName("PARENT_ID");
+		parentId.setDatatype(theDialect.getDataTypes().findByName("integer"));
+		position = new Attribute<>();
+		position.setName("POS");
+		position.setDatatype(theDialect.getDataTypes().findByName("varchar"));
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		connection.createStatement().execute("DROP ALL OBJECTS");
+		connection.close();
+		super.tearDown();
+	}
+
+	private Map<Attribute<Table>, Object> whereValues(Object aParentId) {
+		Map<Attribute<Table>, Object> theResult = new HashMap<>();
+		theResult.put(parentId, aParentId);
+		return theResult;
+	}
+
+	private Map<Attribute<Table>, Object> whereValues(Object aParentId, String aPosition) {
+		Map<Attribute<Table>, Object> theResult = whereValues(aParentId);
+		theResult.put(position, aPosition);
+		return theResult;
+	}
+
+	private NavigationCache.RowSet createRows(int aCount) {
+		List<Object[]> theRows = new ArrayList<>();
+		for (int i = 0; i < aCount; i++) {
+			theRows.add(new Object[] {i});
+		}
+		return new NavigationCache.RowSet(new String[] {"ID"}, theRows);
+	}
+
+	public void testSelectScript() {
+		assertEquals("SELECT * FROM CHILD WHERE PARENT_ID IN (?, ?)", generator.createSelectAllScriptFor(child,
+				Collections.singletonList(parentId), 2));
+		assertEquals("SELECT * FROM CHILD WHERE (PARENT_ID = ? AND POS = ?) OR (PARENT_ID = ? AND POS = ?)",
+				generator.createSelectAllScriptFor(child, Arrays.asList(parentId, position), 2));
+	}
+
+	public void testPrefetchQuotedValues() throws Exception {
+		connection.createStatement().execute("INSERT INTO CHILD VALUES (5, 'O''Neil', 'CHILD5')");
+
+		NavigationCache theCache = new NavigationCache();
+		List<Map<Attribute<Table>, Object>> theWhereValues = new ArrayList<>();
+		theWhereValues.add(whereValues(5, "O'Neil"));
+		theWhereValues.add(whereValues(5, "' OR '1' = '1"));
+
+		assertEquals(2, theCache.prefetch(connection, generator, child, theWhereValues, 0));
+		assertEquals("CHILD5", theCache.get(child, whereValues(5, "O'Neil")).getRows().get(0)[2]);
+		assertEquals(0, theCache.get(child, whereValues(5, "' OR '1' = '1")).getRows().size());
+	}
+
+	public void testPrefetch() throws Exception {
+		NavigationCache theCache = new NavigationCache();
+
+		List<Map<Attribute<Table>, Object>> theWhereValues = new ArrayList<>();
+		theWhereValues.add(whereValues(1));
+		theWhereValues.add(whereValues(2));
+		theWhereValues.add(whereValues(2));
+		theWhereValues.add(whereValues(3));
+		theWhereValues.add(whereValues(null));
+
+		assertEquals(3, theCache.prefetch(connection, generator, child, theWhereValues, 0));
+
+		NavigationCache.RowSet theRows = theCache.get(child, whereValues(2));
+		assertEquals(3, theRows.getRows().size());
+		assertEquals("PARENT_ID", theRows.getColumnNames()[0]);
+		assertEquals("CHILD20", theRows.getRows().get(0)[2]);
+
+		// The values are compared by their string representation
+		assertEquals(3, theCache.get(child, whereValues(1L)).getRows().size());
+
+		// There are no rows for parent 3
+		assertEquals(0, theCache.get(child, whereValues(3)).getRows().size());
+		assertNull(theCache.get(child, whereValues(null)));
+
+		// Cached row sets are not fetched again
+		assertEquals(0, theCache.prefetch(connection, generator, child, theWhereValues, 0));
+	}
+
+	public void testPrefetchCompositeKey() throws Exception {
+		NavigationCache theCache = new NavigationCache();
+
+		List<Map<Attribute<Table>, Object>> theWhereValues = new ArrayList<>();
+		theWhereValues.add(whereValues(1, "P1"));
+		theWhereValues.add(whereValues(2, "P2"));
+
+		assertEquals(2, theCache.prefetch(connection, generator, child, theWhereValues, 0));
+		assertEquals("CHILD11", theCache.get(child, whereValues(1, "P1")).getRows().get(0)[2]);
+		assertEquals("CHILD22", theCache.get(child, whereValues(2, "P2")).getRows().get(0)[2]);
+		assertNull(theCache.get(child, whereValues(1, "P2")));
+	}
+
+	public void testPrefetchTooManyRows() throws Exception {
+		PreparedStatement theInsert = connection.prepareStatement("INSERT INTO CHILD VALUES (4, 'P', 'CHILD')");
+		for (int i = 0; i < NavigationCache.MAX_PREFETCH_ROWS; i++) {
+			theInsert.executeUpdate();
+		}
+
+		NavigationCache theCache = new NavigationCache();
+		List<Map<Attribute<Table>, Object>> theWhereValues = new ArrayList<>();
+		theWhereValues.add(whereValues(1));
+		theWhereValues.add(whereValues(4));
+
+		assertEquals(0, theCache.prefetch(connection, generator, child, theWhereValues, 0));
+		assertNull(theCache.get(child, whereValues(1)));
+	}
+
+	public void testEviction() {
+		NavigationCache theCache = new NavigationCache();
+
+		int theRowSetSize = NavigationCache.MAX_ROWS_PER_ROW_SET;
+		int theRowSets = NavigationCache.MAX_ROWS_PER_TABLE / theRowSetSize;
+		for (int i = 0; i < theRowSets; i++) {
+			theCache.put(child, whereValues(i), createRows(theRowSetSize));
+		}
+
+		// Use the first row set, the second one is the least recently used now
+		assertNotNull(theCache.get(child, whereValues(0)));
+
+		theCache.put(child, whereValues(theRowSets), createRows(theRowSetSize));
+		assertNotNull(theCache.get(child, whereValues(0)));
+		assertNull(theCache.get(child, whereValues(1)));
+		assertNotNull(theCache.get(child, whereValues(theRowSets)));
+
+		// Too large row sets are not cached
+		theCache.put(child, whereValues(-1), createRows(theRowSetSize + 1));
+		assertNull(theCache.get(child, whereValues(-1)));
+	}
+}
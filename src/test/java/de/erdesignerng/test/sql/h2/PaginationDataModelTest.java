@@ -0,0 +1,168 @@
+/**
+ * Mogwai ERDesigner. Copyright (C) 2002 The Mogwai Project.
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program; if not, write to the Free Software Foundation, Inc., 59 Temple
+ * Place - Suite 330, Boston, MA 02111-1307, USA.
+ */
+package de.erdesignerng.test.sql.h2;
+
+import de.erdesignerng.dialect.h2.H2Dialect;
+import de.erdesignerng.visual.editor.databrowser.PaginationDataModel;
+import junit.framework.TestCase;
+
+import javax.swing.SwingUtilities;
+import javax.swing.event.TableModelEvent;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Test for the paging of the data browser.
+ */
+public class PaginationDataModelTest extends TestCase {
+
+	private static final int ROW_COUNT = 2 * PaginationDataModel.PAGE_SIZE;
+
+	private Connection connection;
+
+	private ExecutorService executor;
+
+	private PaginationDataModel model;
+
+	private final List<String> events = new ArrayList<>();
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		Class.forName("org.h2.Driver");
+		connection = DriverManager.getConnection("jdbc:h2:mem:pagination", "sa", "");
+		connection.createStatement().execute("CREATE TABLE T1 (ID INTEGER PRIMARY KEY, NAME VARCHAR(20))");
+		PreparedStatement theInsert = connection.prepareStatement("INSERT INTO T1 VALUES (?, ?)");
+		for (int i = 0; i < ROW_COUNT; i++) {
+			theInsert.setInt(1, i);
+			theInsert.setString(2, "NAME" + i);
+			theInsert.executeUpdate();
+		}
+
+		executor = Executors.newSingleThreadExecutor();
+		model = new PaginationDataModel(new H2Dialect(), connection.createStatement().executeQuery(
+				"SELECT ID, NAME FROM T1 ORDER BY ID"), executor);
+		model.addTableModelListener(e -> events.add(toString(e)));
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		SwingUtilities.invokeAndWait(() -> model.cleanup());
+		executor.shutdown();
+		connection.createStatement().execute("DROP ALL OBJECTS");
+		connection.close();
+		super.tearDown();
+	}
+
+	private static String toString(TableModelEvent aEvent) {
+		String theType;
+		switch (aEvent.getType()) {
+			case TableModelEvent.INSERT:
+				theType = "insert";
+				break;
+			case TableModelEvent.DELETE:
+				theType = "delete";
+				break;
+			default:
+				theType = "update";
+		}
+		return theType + " " + aEvent.getFirstRow() + "-" + aEvent.getLastRow();
+	}
+
+	/**
+	 * Request a row by the event dispatch thread and wait until the rows read
+	 * by the executor are delivered.
+	 */
+	private void requestRow(int aRow) throws Exception {
+		SwingUtilities.invokeAndWait(() -> model.requestRow(aRow));
+		executor.submit(() -> {
+		}).get();
+		SwingUtilities.invokeAndWait(() -> {
+		});
+	}
+
+	/**
+	 * The events of a page read in chunks, the row shown while loading gets
+	 * its data and the following rows are inserted.
+	 */
+	private static List<String> pageEvents(int aFrom, int aTo) {
+		List<String> theResult = new ArrayList<>();
+		for (int theRow = aFrom; theRow < aTo; theRow += PaginationDataModel.CHUNK_SIZE) {
+			theResult.add("update " + theRow + "-" + theRow);
+			theResult.add("insert " + (theRow + 1) + "-" + (theRow + PaginationDataModel.CHUNK_SIZE));
+		}
+		return theResult;
+	}
+
+	public void testPaging() throws Exception {
+		assertEquals(1, model.getRowCount());
+		assertFalse(model.isComplete());
+
+		requestRow(0);
+		assertEquals(pageEvents(0, PaginationDataModel.PAGE_SIZE), events);
+		assertEquals(PaginationDataModel.PAGE_SIZE, model.getFetchedRowCount());
+		assertEquals(PaginationDataModel.PAGE_SIZE + 1, model.getRowCount());
+		assertFalse(model.isLoading());
+		assertFalse(model.isComplete());
+
+		// Rows already fetched do not start a fetch
+		events.clear();
+		requestRow(PaginationDataModel.PAGE_SIZE - 1);
+		assertTrue(events.isEmpty());
+
+		requestRow(PaginationDataModel.PAGE_SIZE + 10);
+		assertEquals(pageEvents(PaginationDataModel.PAGE_SIZE, ROW_COUNT), events);
+		assertEquals(ROW_COUNT + 1, model.getRowCount());
+		assertFalse(model.isComplete());
+
+		// The result ends at the page boundary, so the row shown while
+		// loading is removed
+		events.clear();
+		requestRow(ROW_COUNT);
+		assertEquals("[delete " + ROW_COUNT + "-" + ROW_COUNT + "]", events.toString());
+		assertEquals(ROW_COUNT, model.getRowCount());
+		assertTrue(model.isComplete());
+
+		for (int theRow : new int[] {0, PaginationDataModel.PAGE_SIZE, ROW_COUNT - 1}) {
+			assertEquals(theRow, model.getValueAt(theRow, 0));
+			assertEquals("NAME" + theRow, model.getValueAt(theRow, 1));
+		}
+	}
+
+	public void testCancel() throws Exception {
+		requestRow(0);
+		events.clear();
+
+		SwingUtilities.invokeAndWait(() -> model.cancel());
+		assertEquals("[delete " + PaginationDataModel.PAGE_SIZE + "-" + PaginationDataModel.PAGE_SIZE + "]",
+				events.toString());
+		assertEquals(PaginationDataModel.PAGE_SIZE, model.getRowCount());
+		assertFalse(model.isComplete());
+
+		// No more rows are fetched
+		events.clear();
+		requestRow(PaginationDataModel.PAGE_SIZE + 10);
+		assertTrue(events.isEmpty());
+		assertEquals(PaginationDataModel.PAGE_SIZE, model.getFetchedRowCount());
+	}
+}
@@ -17,6 +17,19 @@
  */
 package de.erdesignerng.test.sql.h2;
 
+import de.erdesignerng.dialect.ConversionInfos;
+import de.erdesignerng.dialect.DataType;
+import de.erdesignerng.model.Attribute;
+import de.erdesignerng.model.Model;
+import de.erdesignerng.model.ModelIOUtilities;
+import de.erdesignerng.model.ModelItem;
+import de.erdesignerng.model.Table;
+import de.erdesignerng.model.serializer.repository.DictionaryModelSerializer;
+import de.erdesignerng.model.serializer.repository.HibernateTemplate;
+import de.erdesignerng.model.serializer.repository.RepositoryEntryDescriptor;
+import de.erdesignerng.model.serializer.repository.entities.ChangeEntity;
+import de.erdesignerng.model.serializer.repository.entities.RepositoryEntity;
+import de.erdesignerng.modificationtracker.HistoryModificationTracker;
 import de.erdesignerng.test.io.repository.RepositioryHelper;
 import de.erdesignerng.test.sql.AbstractReverseEngineeringTestImpl;
 import org.apache.commons.io.IOUtils;
@@ -24,6 +37,7 @@ import org.hibernate.dialect.H2Dialect;
 
 import java.sql.Connection;
 import java.sql.DriverManager;
+import java.util.List;
 
 public class RepositoryIOTest extends AbstractReverseEngineeringTestImpl {
 
@@ -52,6 +66,214 @@ public class RepositoryIOTest extends AbstractReverseEngineeringTestImpl {
 				theConnection.createStatement().execute("SHUTDOWN");
 				theConnection.close();
 			}
+			HibernateTemplate.invalidateSessionFactories();
+		}
+	}
+
+	public void testLoadSaveRepositoryWithCachedSessionFactory() throws
+			Exception {
+
+		Class.forName("org.h2.Driver");
+		Connection theConnection = null;
+		Connection theSecondConnection = null;
+		try {
+			theConnection = DriverManager.getConnection("jdbc:h2:mem:cached", "sa", "");
+
+			Class<H2Dialect> theHibernateDialect = H2Dialect.class;
+
+			String theModelResource = "/de/erdesignerng/test/io/repository/examplemodel.mxm";
+
+			String theOriginalFile = IOUtils.toString(getClass().getResourceAsStream(theModelResource), "UTF-8");
+
+			String theNewFile = RepositioryHelper.performRepositorySaveAndLoad(theModelResource, theHibernateDialect,
+					theConnection);
+			assertTrue(compareStrings(theOriginalFile, theNewFile));
+
+			// A new connection to the same repository reuses the session factory
+			theSecondConnection = DriverManager.getConnection("jdbc:h2:mem:cached", "sa", "");
+			theNewFile = RepositioryHelper.performRepositorySaveAndLoad(theModelResource, theHibernateDialect,
+					theSecondConnection);
+			assertTrue(compareStrings(theOriginalFile, theNewFile));
+
+		} finally {
+			if (theSecondConnection != null) {
+				theSecondConnection.close();
+			}
+			if (theConnection != null) {
+
+				theConnection.createStatement().execute("SHUTDOWN");
+				theConnection.close();
+			}
+			HibernateTemplate.invalidateSessionFactories();
+		}
+	}
+
+	public void testDeltaSaveRepository() throws
+			Exception {
+
+		Class.forName("org.h2.Driver");
+		Connection theConnection = null;
+		try {
+			theConnection = DriverManager.getConnection("jdbc:h2:mem:delta", "sa", "");
+
+			Class<H2Dialect> theHibernateDialect = H2Dialect.class;
+
+			Model theModel = ModelIOUtilities.getInstance().deserializeModelFromXML(
+					getClass().getResourceAsStream("/de/erdesignerng/test/io/repository/examplemodel.mxm"));
+
+			RepositoryEntryDescriptor theDesc = new RepositoryEntryDescriptor();
+			theDesc.setName("Delta");
+			theDesc = DictionaryModelSerializer.SERIALIZER.serialize(theDesc, theModel, theConnection, theHibernateDialect);
+
+			Table theRenamedTable = theModel.getTables().get(0);
+			Table theMovedTable = theModel.getTables().get(1);
+			Attribute<Table> theUntrackedAttribute = theMovedTable.getAttributes().get(0);
+			String theOriginalComment = theUntrackedAttribute.getComment();
+
+			// Tracked by the model
+			theModel.renameTable(theRenamedTable, "RENAMEDTABLE");
+			assertTrue(theModel.isDirty(theRenamedTable));
+
+			// Not tracked, but detected by comparing the base attributes
+			theMovedTable.getProperties().setPointProperty(ModelItem.PROPERTY_LOCATION, 4711, 815);
+			assertFalse(theModel.isDirty(theMovedTable));
+
+			// Not tracked, the attributes of a clean table are not written in delta mode
+			theUntrackedAttribute.setComment("Untracked change");
+
+			DictionaryModelSerializer.SERIALIZER.serialize(theDesc, theModel, theConnection, theHibernateDialect);
+			assertFalse(theModel.isDirty(theRenamedTable));
+
+			Model theNewModel = DictionaryModelSerializer.SERIALIZER.deserialize(theDesc, theConnection,
+					theHibernateDialect);
+
+			assertNotNull(theNewModel.getTables().findByName("RENAMEDTABLE"));
+
+			Table theNewMovedTable = theNewModel.getTables().findBySystemId(theMovedTable.getSystemId());
+			assertEquals(4711, (int) theNewMovedTable.getProperties().getPoint2DProperty(ModelItem.PROPERTY_LOCATION).getX());
+			assertEquals(theOriginalComment, theNewMovedTable.getAttributes().findBySystemId(
+					theUntrackedAttribute.getSystemId()).getComment());
+
+		} finally {
+			if (theConnection != null) {
+
+				theConnection.createStatement().execute("SHUTDOWN");
+				theConnection.close();
+			}
+			HibernateTemplate.invalidateSessionFactories();
+		}
+	}
+
+	public void testPagedEntriesAndChangeHistory() throws
+			Exception {
+
+		Class.forName("org.h2.Driver");
+		Connection theConnection = null;
+		try {
+			theConnection = DriverManager.getConnection("jdbc:h2:mem:paged", "sa", "");
+
+			Class<H2Dialect> theHibernateDialect = H2Dialect.class;
+
+			Model theModel = ModelIOUtilities.getInstance().deserializeModelFromXML(
+					getClass().getResourceAsStream("/de/erdesignerng/test/io/repository/examplemodel.mxm"));
+			theModel.setModificationTracker(new HistoryModificationTracker(theModel));
+
+			RepositoryEntryDescriptor theDesc = null;
+			for (String theName : new String[]{"C", "AAA", "B"}) {
+				theDesc = new RepositoryEntryDescriptor();
+				theDesc.setName(theName);
+				theDesc = DictionaryModelSerializer.SERIALIZER.serialize(theDesc, theModel, theConnection,
+						theHibernateDialect);
+			}
+
+			assertEquals(3, DictionaryModelSerializer.SERIALIZER.getRepositoryEntryCount(theHibernateDialect,
+					theConnection));
+			List<RepositoryEntryDescriptor> thePage = DictionaryModelSerializer.SERIALIZER.getRepositoryEntries(
+					theHibernateDialect, theConnection, 1, 1);
+			assertEquals(1, thePage.size());
+			assertEquals("B", thePage.get(0).getName());
+			assertEquals("AAA", DictionaryModelSerializer.SERIALIZER.getLongestRepositoryEntryName(theHibernateDialect,
+					theConnection));
+
+			// Entry B gets two change sets
+			theModel.renameTable(theModel.getTables().get(0), "RENAMEDTABLE1");
+			DictionaryModelSerializer.SERIALIZER.serialize(theDesc, theModel, theConnection, theHibernateDialect);
+			theModel.renameTable(theModel.getTables().get(1), "RENAMEDTABLE2");
+			DictionaryModelSerializer.SERIALIZER.serialize(theDesc, theModel, theConnection, theHibernateDialect);
+
+			List<ChangeEntity> theChanges = DictionaryModelSerializer.SERIALIZER.getChangeHistory(
+					theHibernateDialect, theConnection, theDesc);
+			assertEquals(2, theChanges.size());
+			assertTrue(theChanges.get(0).getStatements().get(0).contains("RENAMEDTABLE1"));
+			assertTrue(theChanges.get(1).getStatements().get(0).contains("RENAMEDTABLE2"));
+
+			RepositoryEntity theEntity = DictionaryModelSerializer.SERIALIZER.getRepositoryEntity(
+					theHibernateDialect, theConnection, theDesc);
+			assertEquals(2, theEntity.getChanges().size());
+			assertTrue(theEntity.getChanges().get(1).getStatements().get(0).contains("RENAMEDTABLE2"));
+
+		} finally {
+			if (theConnection != null) {
+
+				theConnection.createStatement().execute("SHUTDOWN");
+				theConnection.close();
+			}
+			HibernateTemplate.invalidateSessionFactories();
+		}
+	}
+
+	public void testDeltaSaveConvertedModel() throws
+			Exception {
+
+		Class.forName("org.h2.Driver");
+		Connection theConnection = null;
+		try {
+			theConnection = DriverManager.getConnection("jdbc:h2:mem:convert", "sa", "");
+
+			Class<H2Dialect> theHibernateDialect = H2Dialect.class;
+
+			Model theModel = ModelIOUtilities.getInstance().deserializeModelFromXML(
+					getClass().getResourceAsStream("/de/erdesignerng/test/io/repository/examplemodel.mxm"));
+
+			RepositoryEntryDescriptor theDesc = new RepositoryEntryDescriptor();
+			theDesc.setName("Convert");
+			theDesc = DictionaryModelSerializer.SERIALIZER.serialize(theDesc, theModel, theConnection, theHibernateDialect);
+
+			de.erdesignerng.dialect.h2.H2Dialect theTargetDialect = new de.erdesignerng.dialect.h2.H2Dialect();
+			DataType theTargetType = theTargetDialect.getDataTypes().findByName("varchar");
+
+			ConversionInfos theInfos = new ConversionInfos();
+			theInfos.setTargetDialect(theTargetDialect);
+			for (DataType theType : theModel.getUsedDataTypes()) {
+				theInfos.getTypeMapping().put(theType, theTargetType);
+			}
+
+			// The model was just saved, so the next save is a delta save
+			theModel.convert(theInfos);
+
+			DictionaryModelSerializer.SERIALIZER.serialize(theDesc, theModel, theConnection, theHibernateDialect);
+
+			Model theNewModel = DictionaryModelSerializer.SERIALIZER.deserialize(theDesc, theConnection,
+					theHibernateDialect);
+
+			int theConvertedAttributes = 0;
+			for (Table theTable : theNewModel.getTables()) {
+				for (Attribute<Table> theAttribute : theTable.getAttributes()) {
+					if (!theAttribute.getDatatype().isDomain()) {
+						assertEquals("varchar", theAttribute.getDatatype().getName());
+						theConvertedAttributes++;
+					}
+				}
+			}
+			assertTrue(theConvertedAttributes > 0);
+
+		} finally {
+			if (theConnection != null) {
+
+				theConnection.createStatement().execute("SHUTDOWN");
+				theConnection.close();
+			}
+			HibernateTemplate.invalidateSessionFactories();
 		}
 	}
 }
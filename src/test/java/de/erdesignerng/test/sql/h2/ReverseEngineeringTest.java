@@ -19,6 +19,8 @@ package de.erdesignerng.test.sql.h2;
 
 import de.erdesignerng.dialect.*;
 import de.erdesignerng.dialect.h2.H2Dialect;
+import de.erdesignerng.dialect.h2.H2ReverseEngineeringStrategy;
+import de.erdesignerng.dialect.h2.H2SQLGenerator;
 import de.erdesignerng.model.*;
 import de.erdesignerng.modificationtracker.HistoryModificationTracker;
 import de.erdesignerng.test.sql.AbstractReverseEngineeringTestImpl;
@@ -119,6 +121,111 @@ public class ReverseEngineeringTest extends AbstractReverseEngineeringTestImpl {
 		}
 	}
 
+	public void testReverseEngineerH2Parallel() throws Exception {
+
+		Class.forName("org.h2.Driver");
+		Connection theConnection = null;
+		try {
+			theConnection = DriverManager.getConnection("jdbc:h2:mem:dname", "sa", "");
+
+			loadSQL(theConnection, "db.sql");
+
+			H2Dialect theDialect = new H2Dialect();
+			H2ReverseEngineeringStrategy theST = theDialect.getReverseEngineeringStrategy();
+
+			Model theModel = new Model();
+			theModel.setDialect(theDialect);
+			theModel.setModificationTracker(new HistoryModificationTracker(theModel));
+
+			ReverseEngineeringOptions theOptions = new ReverseEngineeringOptions();
+			theOptions.setTableNaming(TableNamingEnum.INCLUDE_SCHEMA);
+			theOptions.setWorkerCount(3);
+			theOptions.getTableEntries().addAll(
+					theST.getTablesForSchemas(theConnection, theST.getSchemaEntries(theConnection)));
+
+			ConnectionProvider theWorkerConnections = new ConnectionProvider() {
+
+				public Connection createConnection() throws Exception {
+					return DriverManager.getConnection("jdbc:h2:mem:dname", "sa", "");
+				}
+
+				public boolean generatesManagedConnection() {
+					return false;
+				}
+
+				public String createScriptStatementSeparator() {
+					return ";";
+				}
+			};
+
+			theST.updateModelFromConnection(theModel, new EmptyWorldConnector(), theConnection, theWorkerConnections, theOptions,
+					new EmptyReverseEngineeringNotifier());
+
+			assertTrue(theModel.getTables().findByNameAndSchema("TABLE1", "SCHEMAA") != null);
+			assertTrue(theModel.getViews().findByNameAndSchema("VIEW1", "SCHEMAB") != null);
+
+			H2SQLGenerator theGenerator = theDialect.createSQLGenerator();
+			String theResult = statementListToString(theGenerator.createCreateAllObjects(theModel), theGenerator);
+
+			String theReference = readResourceFile("result.sql");
+
+			assertTrue(compareStrings(theResult, theReference));
+
+		} finally {
+			if (theConnection != null) {
+
+				theConnection.createStatement().execute("SHUTDOWN");
+				theConnection.close();
+			}
+		}
+	}
+
+	public void testReverseEngineerH2PerTable() throws Exception {
+
+		Class.forName("org.h2.Driver");
+		Connection theConnection = null;
+		try {
+			theConnection = DriverManager.getConnection("jdbc:h2:mem:ename", "sa", "");
+
+			loadSQL(theConnection, "db.sql");
+
+			H2Dialect theDialect = new H2Dialect();
+			H2ReverseEngineeringStrategy theST = new H2ReverseEngineeringStrategy(theDialect) {
+
+				@Override
+				protected boolean isSupportsSchemaMetaData() {
+					return false;
+				}
+			};
+
+			Model theModel = new Model();
+			theModel.setDialect(theDialect);
+			theModel.setModificationTracker(new HistoryModificationTracker(theModel));
+
+			ReverseEngineeringOptions theOptions = new ReverseEngineeringOptions();
+			theOptions.setTableNaming(TableNamingEnum.INCLUDE_SCHEMA);
+			theOptions.getTableEntries().addAll(
+					theST.getTablesForSchemas(theConnection, theST.getSchemaEntries(theConnection)));
+
+			theST.updateModelFromConnection(theModel, new EmptyWorldConnector(), theConnection, theOptions,
+					new EmptyReverseEngineeringNotifier());
+
+			H2SQLGenerator theGenerator = theDialect.createSQLGenerator();
+			String theResult = statementListToString(theGenerator.createCreateAllObjects(theModel), theGenerator);
+
+			String theReference = readResourceFile("result.sql");
+
+			assertTrue(compareStrings(theResult, theReference));
+
+		} finally {
+			if (theConnection != null) {
+
+				theConnection.createStatement().execute("SHUTDOWN");
+				theConnection.close();
+			}
+		}
+	}
+
 	public void testReverseEngineeredSQL() throws InstantiationException, IllegalAccessException,
 			ClassNotFoundException, SQLException, IOException {
 		Class.forName("org.h2.Driver").newInstance();
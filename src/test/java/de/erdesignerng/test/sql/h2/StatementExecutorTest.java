@@ -0,0 +1,183 @@
+/**
+ * Mogwai ERDesigner. Copyright (C) 2002 The Mogwai Project.
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program; if not, write to the Free Software Foundation, Inc., 59 Temple
+ * Place - Suite 330, Boston, MA 02111-1307, USA.
+ */
+package de.erdesignerng.test.sql.h2;
+
+import de.erdesignerng.dialect.Statement;
+import de.erdesignerng.dialect.StatementExecutor;
+import de.erdesignerng.dialect.StatementList;
+import de.erdesignerng.dialect.TransactionMode;
+import junit.framework.TestCase;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Test for the batched execution of scripts.
+ */
+public class StatementExecutorTest extends TestCase {
+
+	private Connection connection;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		Class.forName("org.h2.Driver");
+		connection = DriverManager.getConnection("jdbc:h2:mem:executor", "sa", "");
+		connection.createStatement().execute("CREATE TABLE T1 (ID INTEGER PRIMARY KEY)");
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		connection.createStatement().execute("DROP ALL OBJECTS");
+		connection.close();
+		super.tearDown();
+	}
+
+	private StatementList createInserts(int aCount) {
+		StatementList theResult = new StatementList();
+		for (int i = 0; i < aCount; i++) {
+			theResult.add(new Statement("INSERT INTO T1 (ID) VALUES (" + i + ")"));
+		}
+		return theResult;
+	}
+
+	private int countRows() throws SQLException {
+		ResultSet theResult = connection.createStatement().executeQuery("SELECT COUNT(*) FROM T1");
+		theResult.next();
+		return theResult.getInt(1);
+	}
+
+	private int countExecuted(List<Statement> aStatements) {
+		int theResult = 0;
+		for (Statement theStatement : aStatements) {
+			if (theStatement.isExecuted()) {
+				theResult++;
+			}
+		}
+		return theResult;
+	}
+
+	private StatementExecutor createExecutor(int aBatchSize, TransactionMode aMode) {
+		StatementExecutor theExecutor = new StatementExecutor(connection);
+		theExecutor.setBatchSize(aBatchSize);
+		theExecutor.setTransactionMode(aMode);
+		return theExecutor;
+	}
+
+	public void testBatches() throws SQLException {
+		StatementList theStatements = createInserts(25);
+		List<Integer> theBatchSizes = new ArrayList<>();
+
+		createExecutor(10, TransactionMode.AUTOCOMMIT).execute(theStatements,
+				(aBatch, aTime) -> theBatchSizes.add(aBatch.size()));
+
+		assertEquals(25, countRows());
+		assertEquals(25, countExecuted(theStatements));
+		assertEquals("[10, 10, 5]", theBatchSizes.toString());
+		for (Statement theStatement : theStatements) {
+			assertTrue(theStatement.getExecutionTime() >= 0);
+		}
+
+		// Executed statements are skipped
+		theBatchSizes.clear();
+		createExecutor(10, TransactionMode.AUTOCOMMIT).execute(theStatements,
+				(aBatch, aTime) -> theBatchSizes.add(aBatch.size()));
+		assertTrue(theBatchSizes.isEmpty());
+	}
+
+	public void testAutoCommitFailure() {
+		StatementList theStatements = createInserts(5);
+		theStatements.add(2, new Statement("INSERT INTO T1 (ID) VALUES (0)"));
+
+		try {
+			createExecutor(1, TransactionMode.AUTOCOMMIT).execute(theStatements, (aBatch, aTime) -> {
+			});
+			fail("Duplicate key not detected");
+		} catch (SQLException e) {
+			// Expected
+		}
+		assertEquals(2, countExecuted(theStatements));
+		assertFalse(theStatements.get(2).isExecuted());
+	}
+
+	public void testSingleTransactionFailure() throws SQLException {
+		StatementList theStatements = createInserts(20);
+		theStatements.add(new Statement("INSERT INTO T1 (ID) VALUES (0)"));
+
+		try {
+			createExecutor(5, TransactionMode.SINGLE_TRANSACTION).execute(theStatements, (aBatch, aTime) -> {
+			});
+			fail("Duplicate key not detected");
+		} catch (SQLException e) {
+			// Expected
+		}
+		assertEquals(0, countRows());
+		assertEquals(0, countExecuted(theStatements));
+		assertTrue(connection.getAutoCommit());
+	}
+
+	public void testSavepointPerBatchFailure() throws SQLException {
+		StatementList theStatements = createInserts(12);
+		theStatements.add(new Statement("INSERT INTO T1 (ID) VALUES (0)"));
+
+		try {
+			createExecutor(5, TransactionMode.SAVEPOINT_PER_BATCH).execute(theStatements, (aBatch, aTime) -> {
+			});
+			fail("Duplicate key not detected");
+		} catch (SQLException e) {
+			// Expected
+		}
+
+		// The first two batches are committed, the third one is rolled back
+		assertEquals(10, countRows());
+		assertEquals(10, countExecuted(theStatements));
+		assertTrue(connection.getAutoCommit());
+
+		// Continue after fixing the script
+		theStatements.remove(theStatements.size() - 1);
+		createExecutor(5, TransactionMode.SAVEPOINT_PER_BATCH).execute(theStatements, (aBatch, aTime) -> {
+		});
+		assertEquals(12, countRows());
+		assertEquals(12, countExecuted(theStatements));
+	}
+
+	public void testListenerFailure() throws SQLException {
+		for (TransactionMode theMode : new TransactionMode[] {TransactionMode.SINGLE_TRANSACTION,
+				TransactionMode.SAVEPOINT_PER_BATCH}) {
+			StatementList theStatements = createInserts(12);
+
+			try {
+				createExecutor(5, theMode).execute(theStatements, (aBatch, aTime) -> {
+					throw new IllegalStateException("Listener failed");
+				});
+				fail("Listener failure not propagated");
+			} catch (IllegalStateException e) {
+				// Expected
+			}
+
+			// Restoring auto commit must not commit the executed batch
+			assertEquals(0, countRows());
+			assertEquals(0, countExecuted(theStatements));
+			assertTrue(connection.getAutoCommit());
+		}
+	}
+}
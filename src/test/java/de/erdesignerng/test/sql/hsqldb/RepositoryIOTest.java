@@ -17,6 +17,7 @@
  */
 package de.erdesignerng.test.sql.hsqldb;
 
+import de.erdesignerng.model.serializer.repository.HibernateTemplate;
 import de.erdesignerng.test.io.repository.RepositioryHelper;
 import de.erdesignerng.test.sql.AbstractReverseEngineeringTestImpl;
 import org.apache.commons.io.IOUtils;
@@ -52,6 +53,7 @@ public class RepositoryIOTest extends AbstractReverseEngineeringTestImpl {
 				theConnection.createStatement().execute("SHUTDOWN");
 				theConnection.close();
 			}
+			HibernateTemplate.invalidateSessionFactories();
 		}
 	}
 }